@@ -35,7 +35,8 @@ CREATE TABLE IF NOT EXISTS flights (
     INDEX idx_arrival_city (arrival_city),
     INDEX idx_departure_time (departure_time),
     INDEX idx_status (status),
-    INDEX idx_route (departure_city, arrival_city),
+    INDEX idx_route_time (departure_city, arrival_city, departure_time),
+    INDEX idx_route_price (departure_city, arrival_city, base_price),
     INDEX idx_airline (airline)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='航班表';
 
@@ -47,6 +48,9 @@ CREATE TABLE IF NOT EXISTS seats (
     `seat_class` VARCHAR(20) NOT NULL COMMENT '舱位等级',
     `is_available` BOOLEAN NOT NULL DEFAULT TRUE COMMENT '是否可用',
     `price` DECIMAL(10,2) NOT NULL COMMENT '座位价格',
+    `hold_token` VARCHAR(64) NULL COMMENT '预留凭证，非空表示座位处于预留状态',
+    `hold_expire_time` DATETIME NULL COMMENT '预留过期时间',
+    `allocation_key` VARCHAR(64) NULL COMMENT '分配请求键，同一请求键重复分配时返回同一座位',
     `created_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `updated_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     UNIQUE KEY uk_flight_seat (flight_number, seat_number),
@@ -54,10 +58,24 @@ CREATE TABLE IF NOT EXISTS seats (
     INDEX idx_seat_class (seat_class),
     INDEX idx_is_available (is_available),
     INDEX idx_flight_available (flight_number, is_available),
-    INDEX idx_flight_class (flight_number, seat_class),
+    INDEX idx_flight_class_seat (flight_number, seat_class, seat_number),
+    INDEX idx_flight_class_available_seat (flight_number, seat_class, is_available, seat_number),
+    INDEX idx_hold_token (hold_token),
+    UNIQUE KEY uk_allocation_key (allocation_key),
     FOREIGN KEY (flight_number) REFERENCES flights(flight_number) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='座位表';
 
+-- 创建航班库存汇总表
+CREATE TABLE IF NOT EXISTS flight_inventory (
+    `flight_number` VARCHAR(20) NOT NULL COMMENT '航班号',
+    `seat_class` VARCHAR(20) NOT NULL COMMENT '舱位等级',
+    `total_seats` INT NOT NULL DEFAULT 0 COMMENT '座位总数',
+    `available_seats` INT NOT NULL DEFAULT 0 COMMENT '可用座位数',
+    `updated_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (flight_number, seat_class),
+    FOREIGN KEY (flight_number) REFERENCES flights(flight_number) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='航班库存汇总表';
+
 -- 创建订单表
 CREATE TABLE IF NOT EXISTS orders (
     `id` BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
@@ -70,9 +88,41 @@ CREATE TABLE IF NOT EXISTS orders (
     `gmt_modified` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     INDEX idx_order_number (order_number),
     INDEX idx_user_id (user_id),
+    INDEX idx_user_create (user_id, gmt_create, id),
     INDEX idx_flight_number (flight_number)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='订单表';
 
+-- 创建号段表，订单服务按业务标识租用ID号段
+CREATE TABLE IF NOT EXISTS id_segments (
+    `biz_tag` VARCHAR(64) NOT NULL PRIMARY KEY COMMENT '业务标识',
+    `max_id` BIGINT NOT NULL DEFAULT 0 COMMENT '已分配的最大ID',
+    `step` INT NOT NULL COMMENT '每次租用的号段长度',
+    `description` VARCHAR(255) DEFAULT NULL COMMENT '描述',
+    `gmt_modified` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='ID号段表';
+
+INSERT INTO id_segments (biz_tag, max_id, step, description) VALUES
+('order', 0, 100000, '订单号');
+
+-- 创建下单工单表，异步下单的持久化队列
+CREATE TABLE IF NOT EXISTS order_tickets (
+    `id` BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    `ticket_id` VARCHAR(32) NOT NULL UNIQUE COMMENT '工单号',
+    `user_id` BIGINT NOT NULL COMMENT '用户ID',
+    `flight_number` VARCHAR(20) NOT NULL COMMENT '航班号',
+    `status` VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT '工单状态',
+    `attempts` INT NOT NULL DEFAULT 0 COMMENT '领取次数',
+    `claim_token` VARCHAR(32) DEFAULT NULL COMMENT '领取令牌，每次领取重新生成',
+    `order_number` VARCHAR(32) DEFAULT NULL COMMENT '订单编号',
+    `error_message` VARCHAR(255) DEFAULT NULL COMMENT '失败原因',
+    `seat_release_pending` BOOLEAN NOT NULL DEFAULT FALSE COMMENT '工单失败后待归还按工单号分配的座位',
+    `gmt_create` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `gmt_modified` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_status_id (status, id),
+    INDEX idx_status_modified (status, gmt_modified),
+    INDEX idx_seat_release_pending (seat_release_pending, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='下单工单表';
+
 INSERT INTO flights (flight_number, airline, departure_city, arrival_city, departure_time, arrival_time, base_price, status) VALUES
 ('CA1234', '中国国际航空', '北京', '上海', '2025-08-21 08:00:00', '2025-08-21 10:30:00', 800.00, 'SCHEDULED'),
 ('MU5678', '中国东方航空', '上海', '广州', '2025-08-21 14:30:00', '2025-08-21 17:00:00', 900.00, 'SCHEDULED'),
@@ -141,3 +191,8 @@ UPDATE seats SET is_available = FALSE WHERE flight_number = 'CA1234' AND seat_nu
 UPDATE seats SET is_available = FALSE WHERE flight_number = 'MU5678' AND seat_number IN ('2A', '2C', '8A', '8B', '15D', '15E');
 UPDATE seats SET is_available = FALSE WHERE flight_number = 'CZ9012' AND seat_number IN ('5A', '5B', '10A', '15C');
 
+-- 根据座位数据初始化航班库存汇总
+INSERT INTO flight_inventory (flight_number, seat_class, total_seats, available_seats)
+SELECT flight_number, seat_class, COUNT(*), SUM(CASE WHEN is_available = TRUE THEN 1 ELSE 0 END)
+FROM seats
+GROUP BY flight_number, seat_class;
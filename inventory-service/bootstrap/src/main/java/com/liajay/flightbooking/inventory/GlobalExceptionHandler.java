@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import java.util.List;
@@ -37,9 +38,15 @@ public class GlobalExceptionHandler {
         return HttpResponse.error("参数校验失败: " + errorMessage);
     }
 
+    /**
+     * 响应已开始写出（如流式导出）时不能再写错误体，继续抛出让容器中断连接
+     */
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public HttpResponse<String> handleException(Exception ex) {
+    public HttpResponse<String> handleException(Exception ex, HttpServletResponse response) throws Exception {
+        if (response.isCommitted()) {
+            throw ex;
+        }
         return HttpResponse.error("系统内部错误: " + ex.getMessage());
     }
 }
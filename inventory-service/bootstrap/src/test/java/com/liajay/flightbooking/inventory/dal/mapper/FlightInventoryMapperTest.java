@@ -0,0 +1,79 @@
+package com.liajay.flightbooking.inventory.dal.mapper;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatCount;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = "classpath:schema.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "classpath:data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "classpath:clean.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class FlightInventoryMapperTest {
+
+    @Autowired
+    private FlightInventoryMapper flightInventoryMapper;
+
+    @Autowired
+    private SeatMapper seatMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAdjustAndRebuild() {
+        // 初始数据：CZ9012 经济舱60座，4座已占用
+        assertCounts(60, 56);
+
+        assertTrue(flightInventoryMapper.findDrifted(null).isEmpty());
+        assertEquals(1, flightInventoryMapper.adjustAvailableSeats("CZ9012", SeatClass.ECONOMY, -6));
+        assertCounts(60, 50);
+
+        // 汇总与座位数据不一致时能被找出，重建后恢复
+        List<SeatCount> drifted = flightInventoryMapper.findDrifted(null);
+        assertEquals(1, drifted.size());
+        assertEquals("CZ9012", drifted.get(0).getFlightNumber());
+        assertEquals(56, drifted.get(0).getAvailableSeats());
+        flightInventoryMapper.rebuild(List.of("CZ9012"));
+        assertCounts(60, 56);
+        assertTrue(flightInventoryMapper.findDrifted(null).isEmpty());
+    }
+
+    @Test
+    void testStaleRowIsFoundAndDeleted() {
+        // 座位被删除后汇总行仍然存在
+        jdbcTemplate.update("DELETE FROM seats WHERE flight_number = ?", "CZ9012");
+
+        List<SeatCount> drifted = flightInventoryMapper.findDrifted(List.of("CZ9012"));
+        assertEquals(1, drifted.size());
+        assertEquals(0, drifted.get(0).getTotalSeats());
+
+        assertEquals(1, flightInventoryMapper.deleteStale(List.of("CZ9012")));
+        assertTrue(flightInventoryMapper.findByFlightNumbers(List.of("CZ9012")).isEmpty());
+        assertTrue(flightInventoryMapper.findDrifted(null).isEmpty());
+    }
+
+    @Test
+    void testRebuildAfterSeatChange() {
+        seatMapper.claimSeats(List.of(seatMapper.findByFlightNumberAndSeatNumber("CZ9012", "1A").getId()));
+        flightInventoryMapper.rebuild(List.of("CZ9012"));
+        assertCounts(60, 55);
+    }
+
+    private void assertCounts(long total, long available) {
+        List<SeatCount> counts = flightInventoryMapper.findByFlightNumbers(List.of("CZ9012"));
+        assertEquals(1, counts.size());
+        assertEquals(total, counts.get(0).getTotalSeats());
+        assertEquals(available, counts.get(0).getAvailableSeats());
+    }
+}
@@ -1,6 +1,7 @@
 package com.liajay.flightbooking.inventory.dal.mapper;
 
 import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightFare;
 import com.liajay.flightbooking.inventory.dal.dataobject.FlightStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +9,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,4 +51,79 @@ class FlightMapperTest {
         assertNull(flight);
     }
 
+    @Test
+    void testFindByConditionsAfterWalksAllFlightsInOrder() {
+        // 每页2条，逐页从上一页最后一行继续，应按起飞时间不重不漏地遍历全部5个航班
+        List<Flight> all = new ArrayList<>();
+        LocalDateTime afterDepartureTime = null;
+        Long afterId = null;
+        for (int page = 0; page < 5; page++) {
+            List<Flight> flights = flightMapper.findByConditionsAfter(null, null, null, null, null, null,
+                    FlightStatus.SCHEDULED, null, null, "departure_time", false, afterDepartureTime, afterId, 2);
+            if (flights.isEmpty()) {
+                break;
+            }
+            all.addAll(flights);
+            Flight last = flights.get(flights.size() - 1);
+            afterDepartureTime = last.getDepartureTime();
+            afterId = last.getId();
+        }
+
+        assertThat(all).extracting(Flight::getFlightNumber)
+                .containsExactly("CA1234", "MU5678", "CZ9012", "3U3456", "HU7890");
+    }
+
+    @Test
+    void testFindByConditionsFiltersByPriceAndSortsByWhitelistedColumn() {
+        List<Flight> flights = flightMapper.findByConditions(null, null, null, null, null, null,
+                FlightStatus.SCHEDULED, new BigDecimal("500"), new BigDecimal("1200"), "base_price", false, 0, 10);
+        assertThat(flights).extracting(Flight::getFlightNumber)
+                .containsExactly("CA1234", "MU5678", "3U3456");
+        assertEquals(3L, flightMapper.countByConditions(null, null, null, null, null, null,
+                FlightStatus.SCHEDULED, new BigDecimal("500"), new BigDecimal("1200")));
+
+        // 按票价降序的游标分页，从 (900.00, MU5678) 之后继续
+        Flight mu5678 = flightMapper.findByFlightNumber("MU5678");
+        List<Flight> after = flightMapper.findByConditionsAfter(null, null, null, null, null, null,
+                FlightStatus.SCHEDULED, null, null, "base_price", true, mu5678.getBasePrice(), mu5678.getId(), 10);
+        assertThat(after).extracting(Flight::getFlightNumber)
+                .containsExactly("CA1234", "CZ9012");
+    }
+
+    @Test
+    void testFindFaresCountsAvailableSeatsPerFlight() {
+        List<FlightFare> fares = flightMapper.findFares(Arrays.asList("CA1234", "3U3456"), null, null, null, null);
+        assertEquals(2, fares.size());
+        FlightFare ca1234 = fares.stream().filter(f -> "CA1234".equals(f.getFlightNumber())).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("800").compareTo(ca1234.getMinPrice()));
+        assertEquals(135, ca1234.getAvailableSeats());
+
+        // 没有座位数据的航班也返回，最低价为空
+        FlightFare u3456 = fares.stream().filter(f -> "3U3456".equals(f.getFlightNumber())).findFirst().orElseThrow();
+        assertNull(u3456.getMinPrice());
+        assertEquals(0, u3456.getAvailableSeats());
+
+        List<FlightFare> route = flightMapper.findFares(null, "北京", "上海",
+                LocalDateTime.of(2025, 8, 21, 0, 0), LocalDateTime.of(2025, 8, 21, 23, 59, 59));
+        assertThat(route).extracting(FlightFare::getFlightNumber).containsExactly("CA1234");
+    }
+
+    @Test
+    void testInsertBatchAndFindExistingFlightNumbers() {
+        LocalDateTime departure = LocalDateTime.of(2025, 9, 1, 7, 30);
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            flights.add(new Flight("NB10" + i, "中国国际航空", "北京", "成都", departure.plusHours(i),
+                    departure.plusHours(i + 3), new BigDecimal("1000.00")));
+        }
+
+        assertEquals(3, flightMapper.insertBatch(flights));
+        Flight flight = flightMapper.findByFlightNumber("NB101");
+        assertNotNull(flight);
+        assertEquals(FlightStatus.SCHEDULED, flight.getStatus());
+        assertEquals(departure.plusHours(1), flight.getDepartureTime());
+
+        assertThat(flightMapper.findExistingFlightNumbers(Arrays.asList("NB100", "NB102", "CA1234", "NB999")))
+                .containsExactlyInAnyOrder("NB100", "NB102", "CA1234");
+    }
 }
@@ -0,0 +1,112 @@
+package com.liajay.flightbooking.inventory.dal.mapper;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 航线 + 起飞时间窗口查询的索引基准测试
+ *
+ * 为同一航线生成一年的时刻表，对比单日查询和整条航线查询的执行计划与耗时，
+ * 确认单日查询走 idx_route_time 的范围扫描，只读取当天的航班。
+ * 耗时较长，默认不运行，使用 mvn test -Dbenchmark=true 执行。
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@ActiveProfiles("test")
+@Sql(scripts = "classpath:schema.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "classpath:clean.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class FlightRouteTimeIndexBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRouteTimeIndexBenchmarkTest.class);
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final int DAYS = 365;
+    private static final int FLIGHTS_PER_DAY = 8;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private FlightMapper flightMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedTimetable() {
+        // 北京-上海 与 北京-广州 各一年的时刻表
+        List<Object[]> rows = new ArrayList<>();
+        String[] arrivals = {"上海", "广州"};
+        for (int route = 0; route < arrivals.length; route++) {
+            for (int day = 0; day < DAYS; day++) {
+                for (int slot = 0; slot < FLIGHTS_PER_DAY; slot++) {
+                    LocalDateTime departure = FIRST_DAY.plusDays(day).atTime(6 + slot * 2, 0);
+                    rows.add(new Object[]{
+                            String.format("BM%d%03d%d", route, day, slot), "基准航空", "北京", arrivals[route],
+                            Timestamp.valueOf(departure), Timestamp.valueOf(departure.plusHours(2)), 800});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO flights (flight_number, airline, departure_city, arrival_city, "
+                + "departure_time, arrival_time, base_price, status) VALUES (?, ?, ?, ?, ?, ?, ?, 'SCHEDULED')", rows);
+        jdbcTemplate.execute("ANALYZE TABLE flights");
+    }
+
+    @Test
+    void testOneDayRouteSearchUsesRouteTimeIndex() {
+        LocalDateTime start = FIRST_DAY.plusDays(180).atStartOfDay();
+        LocalDateTime end = start.plusHours(23).plusMinutes(59).plusSeconds(59);
+
+        List<Map<String, Object>> plan = flightMapper.explainByConditions(
+                null, null, "北京", "上海", start, end, FlightStatus.SCHEDULED, null, null);
+        logger.info("单日航线查询执行计划: {}", plan);
+        assertEquals(1, plan.size());
+        assertEquals("idx_route_time", plan.get(0).get("key"));
+        assertEquals("range", plan.get(0).get("type"));
+        // 预估扫描行数只与当天的航班数相关，与时刻表长度无关
+        assertTrue(((Number) plan.get(0).get("rows")).longValue() < FLIGHTS_PER_DAY * 4L);
+
+        List<Flight> oneDay = flightMapper.findByConditions(
+                null, null, "北京", "上海", start, end, FlightStatus.SCHEDULED, null, null, null, false, 0, 50);
+        assertEquals(FLIGHTS_PER_DAY, oneDay.size());
+        assertTrue(oneDay.stream().allMatch(f -> !f.getDepartureTime().isBefore(start) && !f.getDepartureTime().isAfter(end)));
+
+        // 对比：不带时间窗口时整条航线的时刻表都会被读取
+        long windowNanos = time(() -> flightMapper.findByConditions(
+                null, null, "北京", "上海", start, end, FlightStatus.SCHEDULED, null, null, null, false, 0, 50));
+        long routeNanos = time(() -> flightMapper.findByConditions(
+                null, null, "北京", "上海", null, null, FlightStatus.SCHEDULED, null, null, null, false, 0, DAYS * FLIGHTS_PER_DAY));
+        logger.info("单日查询平均耗时={}us, 整条航线查询平均耗时={}us",
+                windowNanos / ITERATIONS / 1000, routeNanos / ITERATIONS / 1000);
+        assertTrue(windowNanos < routeNanos);
+    }
+
+    private long time(Runnable query) {
+        // 预热
+        for (int i = 0; i < 20; i++) {
+            query.run();
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.run();
+        }
+        return System.nanoTime() - startNanos;
+    }
+}
@@ -3,13 +3,19 @@ package com.liajay.flightbooking.inventory.dal.mapper;
 
 import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
 import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClassStatistics;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatCount;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatExportRow;
+import org.apache.ibatis.cursor.Cursor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -308,5 +314,128 @@ class SeatMapperTest {
         assertEquals(0, count);
     }
 
+    @Test
+    void testClaimSeatsOnlyUpdatesAvailableSeats() {
+        // 1A 已被占用，1D 和 2A 可用
+        Seat occupied = seatMapper.findByFlightNumberAndSeatNumber("CA1234", "1A");
+        Seat free1 = seatMapper.findByFlightNumberAndSeatNumber("CA1234", "1D");
+        Seat free2 = seatMapper.findByFlightNumberAndSeatNumber("CA1234", "2A");
+
+        int updated = seatMapper.claimSeats(List.of(occupied.getId(), free1.getId(), free2.getId()));
+
+        assertEquals(2, updated);
+        assertFalse(seatMapper.findByFlightNumberAndSeatNumber("CA1234", "1D").getIsAvailable());
+        assertFalse(seatMapper.findByFlightNumberAndSeatNumber("CA1234", "2A").getIsAvailable());
+    }
+
+    @Test
+    void testFindAllByFlightNumber() {
+        List<Seat> seats = seatMapper.findAllByFlightNumber("CZ9012");
+        assertEquals(60, seats.size());
+        assertTrue(seats.stream().allMatch(seat -> "CZ9012".equals(seat.getFlightNumber())));
+    }
+
+    @Test
+    @Transactional
+    void testLockFirstAvailableSeatAndClaim() {
+        // 经济舱中座位号最小的可用座位
+        Seat seat = seatMapper.lockFirstAvailableSeat("CZ9012", SeatClass.ECONOMY);
+        assertNotNull(seat);
+        assertEquals(SeatClass.ECONOMY, seat.getSeatClass());
+        assertTrue(seat.getIsAvailable());
+
+        // 第一次占用成功，重复占用返回0
+        assertEquals(1, seatMapper.claimSeat(seat.getId()));
+        assertEquals(0, seatMapper.claimSeat(seat.getId()));
+
+        // 下一次锁定跳过已占用的座位
+        Seat next = seatMapper.lockFirstAvailableSeat("CZ9012", SeatClass.ECONOMY);
+        assertNotNull(next);
+        assertNotEquals(seat.getId(), next.getId());
+    }
+
+    @Test
+    void testCountByFlightNumbers() {
+        List<SeatCount> counts = seatMapper.countByFlightNumbers(List.of("CZ9012", "NOTEXIST"));
+
+        // CZ9012 只有经济舱，不存在的航班不返回记录
+        assertEquals(1, counts.size());
+        SeatCount count = counts.get(0);
+        assertEquals("CZ9012", count.getFlightNumber());
+        assertEquals(SeatClass.ECONOMY, count.getSeatClass());
+        assertEquals(60, count.getTotalSeats());
+        assertEquals(56, count.getAvailableSeats());
+    }
+
+    @Test
+    void testFindByConditionsAfter() {
+        List<Seat> firstPage = seatMapper.findByConditionsAfter("CZ9012", null, true, null, null, null, null,
+                null, null, null, 30);
+        assertEquals(30, firstPage.size());
 
+        // 从第一页最后一个座位之后继续，剩余26个可用座位，且不与第一页重复
+        Seat last = firstPage.get(firstPage.size() - 1);
+        List<Seat> secondPage = seatMapper.findByConditionsAfter("CZ9012", null, true, null, null, null, null,
+                last.getSeatClass().name(), last.getSeatNumber(), last.getId(), 30);
+        assertEquals(26, secondPage.size());
+        assertTrue(secondPage.get(0).getSeatNumber().compareTo(last.getSeatNumber()) > 0);
+    }
+
+    @Test
+    @Transactional
+    void testStreamByConditionsReadsAllRowsWithAirline() throws Exception {
+        long expected = seatMapper.countByConditions("CZ9012", null, true, null, null, null, null);
+        long count = 0;
+        long lastId = 0;
+        try (Cursor<SeatExportRow> cursor = seatMapper.streamByConditions("CZ9012", null, true, null, null, null, null)) {
+            for (SeatExportRow row : cursor) {
+                assertEquals("中国南方航空", row.getAirline());
+                assertTrue(row.getIsAvailable());
+                assertTrue(row.getId() > lastId);
+                lastId = row.getId();
+                count++;
+            }
+        }
+        assertEquals(expected, count);
+    }
+
+    @Test
+    void testInsertBatchWritesAllRowsInOneStatement() {
+        List<Seat> seats = new ArrayList<>();
+        for (int row = 30; row < 40; row++) {
+            for (char letter = 'A'; letter <= 'F'; letter++) {
+                seats.add(new Seat("CA1234", String.valueOf(row) + letter, SeatClass.ECONOMY, new BigDecimal("750.00")));
+            }
+        }
+        long before = seatMapper.countByConditions("CA1234", null, null, null, null, null, null);
+
+        assertEquals(60, seatMapper.insertBatch(seats));
+        assertEquals(before + 60, seatMapper.countByConditions("CA1234", null, null, null, null, null, null));
+        Seat seat = seatMapper.findByFlightNumberAndSeatNumber("CA1234", "35C");
+        assertNotNull(seat);
+        assertTrue(seat.getIsAvailable());
+        assertEquals(SeatClass.ECONOMY, seat.getSeatClass());
+        assertEquals(new BigDecimal("750.00"), seat.getPrice());
+    }
+
+    @Test
+    void testStatisticsByFlightNumberGroupsBySeatClass() {
+        List<SeatClassStatistics> stats = seatMapper.statisticsByFlightNumber("CA1234");
+        assertEquals(2, stats.size());
+
+        SeatClassStatistics business = stats.stream()
+                .filter(s -> s.getSeatClass() == SeatClass.BUSINESS).findFirst().orElseThrow();
+        assertEquals(16L, business.getTotalSeats());
+        assertEquals(14L, business.getAvailableSeats());
+        assertEquals(0, new BigDecimal("1200").compareTo(business.getMinPrice()));
+        assertEquals(0, new BigDecimal("1200").compareTo(business.getMaxPrice()));
+        assertEquals(0, new BigDecimal("1200").compareTo(business.getAvgPrice()));
+
+        SeatClassStatistics economy = stats.stream()
+                .filter(s -> s.getSeatClass() == SeatClass.ECONOMY).findFirst().orElseThrow();
+        assertEquals(120L, economy.getTotalSeats());
+        assertEquals(117L, economy.getAvailableSeats());
+
+        assertTrue(seatMapper.statisticsByFlightNumber("INVALID").isEmpty());
+    }
 }
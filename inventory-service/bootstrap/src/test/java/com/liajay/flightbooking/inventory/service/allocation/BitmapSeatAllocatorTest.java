@@ -0,0 +1,129 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * BitmapSeatAllocator单元测试
+ */
+class BitmapSeatAllocatorTest {
+
+    /**
+     * 模拟数据库中仍可用的座位ID
+     */
+    private final Set<Long> availableInDb = ConcurrentHashMap.newKeySet();
+    private final Set<Long> poisonedIds = ConcurrentHashMap.newKeySet();
+    private SeatMapper seatMapper;
+    private BitmapSeatAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 5; id++) {
+            availableInDb.add(id);
+        }
+        seatMapper = mock(SeatMapper.class);
+        when(seatMapper.findAllByFlightNumber("CA1234")).thenAnswer(invocation -> seats());
+        when(seatMapper.lockAvailableSeatIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(availableInDb::contains).collect(Collectors.toList());
+        });
+        when(seatMapper.claimSeats(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            if (ids.stream().anyMatch(poisonedIds::contains)) {
+                throw new DataIntegrityViolationException("航班已删除");
+            }
+            int claimed = 0;
+            for (Long id : ids) {
+                if (availableInDb.remove(id)) {
+                    claimed++;
+                }
+            }
+            return claimed;
+        });
+        allocator = new BitmapSeatAllocator(seatMapper, mock(FlightInventoryCounter.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 100, 10L, 2, 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        allocator.shutdown();
+    }
+
+    @Test
+    void testBatchAllocateIsAllOrNothing() {
+        List<Seat> first = allocator.allocate("CA1234", 3);
+        assertEquals(3, first.size());
+        assertTrue(first.stream().noneMatch(Seat::getIsAvailable));
+        // 返回时座位已写入数据库
+        assertEquals(2, availableInDb.size());
+
+        // 只剩2个座位，请求3个时不分配任何座位
+        assertTrue(allocator.allocate("CA1234", 3).isEmpty());
+        assertEquals(2, allocator.allocate("CA1234", 2).size());
+        assertNull(allocator.allocate("CA1234"));
+    }
+
+    @Test
+    void testUnknownFlightReturnsEmpty() {
+        when(seatMapper.findAllByFlightNumber("XX0000")).thenReturn(new ArrayList<>());
+        assertNull(allocator.allocate("XX0000"));
+        assertTrue(allocator.allocate("XX0000", 2).isEmpty());
+    }
+
+    @Test
+    void testSeatTakenElsewhereIsNeverHandedOut() {
+        assertEquals(1L, allocator.allocate("CA1234").getId());
+        // 位图加载后2号座位被其他途径占用，分配器不能再把它交给调用方
+        availableInDb.remove(2L);
+
+        Seat seat = allocator.allocate("CA1234");
+        assertEquals(3L, seat.getId());
+        assertEquals(1L, allocator.getMetrics().get("writeConflicts"));
+        assertEquals(2, allocator.allocate("CA1234", 2).size());
+        assertNull(allocator.allocate("CA1234"));
+    }
+
+    @Test
+    void testPoisonedWriteFailsOnlyItsCaller() {
+        poisonedIds.add(1L);
+        assertThrows(RuntimeException.class, () -> allocator.allocate("CA1234"));
+        assertEquals(1L, allocator.getMetrics().get("poisonedWrites"));
+
+        // 后续回写不受影响，1号座位仍在数据库中可用
+        poisonedIds.clear();
+        assertEquals(1L, allocator.allocate("CA1234").getId());
+        assertEquals(4, allocator.allocate("CA1234", 4).size());
+        assertEquals(0, allocator.pendingWriteCount());
+    }
+
+    private List<Seat> seats() {
+        List<Seat> seats = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            Seat seat = new Seat("CA1234", id + "A", SeatClass.ECONOMY, new BigDecimal("800.00"));
+            seat.setId(id);
+            seat.setIsAvailable(availableInDb.contains(id));
+            seats.add(seat);
+        }
+        return seats;
+    }
+}
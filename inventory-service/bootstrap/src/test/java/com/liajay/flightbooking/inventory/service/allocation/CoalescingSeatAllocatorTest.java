@@ -0,0 +1,133 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * CoalescingSeatAllocator单元测试
+ */
+class CoalescingSeatAllocatorTest {
+
+    private final List<Seat> freeSeats = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger claimCalls = new AtomicInteger();
+    private SeatMapper seatMapper;
+    private CoalescingSeatAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 100; i++) {
+            Seat seat = new Seat("CA1234", String.format("%03dA", i), SeatClass.ECONOMY, new BigDecimal("800.00"));
+            seat.setId((long) i);
+            freeSeats.add(seat);
+        }
+        seatMapper = mock(SeatMapper.class);
+        // 模拟数据库：只有经济舱，锁定前 limit 个空闲座位，占用时移除
+        when(seatMapper.lockAvailableSeats(eq("CA1234"), eq(SeatClass.ECONOMY), anyInt())).thenAnswer(invocation -> {
+            int limit = invocation.getArgument(2);
+            synchronized (freeSeats) {
+                return new ArrayList<>(freeSeats.subList(0, Math.min(limit, freeSeats.size())));
+            }
+        });
+        when(seatMapper.lockAvailableSeats(eq("CA1234"), eq(SeatClass.BUSINESS), anyInt())).thenReturn(new ArrayList<>());
+        when(seatMapper.lockAvailableSeats(eq("CA1234"), eq(SeatClass.FIRST), anyInt())).thenReturn(new ArrayList<>());
+        when(seatMapper.claimSeats(anyList())).thenAnswer(invocation -> {
+            claimCalls.incrementAndGet();
+            List<Long> ids = invocation.getArgument(0);
+            freeSeats.removeIf(seat -> ids.contains(seat.getId()));
+            return ids.size();
+        });
+        allocator = new CoalescingSeatAllocator(seatMapper, mock(FlightInventoryCounter.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 32, 20L, 1, 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        allocator.shutdown();
+    }
+
+    @Test
+    void testConcurrentRequestsShareBatches() throws Exception {
+        int threads = 64;
+        Set<Long> allocated = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                Seat seat = allocator.allocate("CA1234");
+                assertNotNull(seat);
+                allocated.add(seat.getId());
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(threads, allocated.size());
+        assertTrue(claimCalls.get() < threads / 4, "请求应被合并, 实际写库次数=" + claimCalls.get());
+
+        Map<String, Object> metrics = allocator.getMetrics();
+        assertEquals((long) threads, metrics.get("requestCount"));
+        assertEquals((long) claimCalls.get(), metrics.get("batchCount"));
+    }
+
+    @Test
+    void testRequestLargerThanRemainingGetsNothing() {
+        assertEquals(98, allocator.allocate("CA1234", 98).size());
+        assertTrue(allocator.allocate("CA1234", 3).isEmpty());
+        assertEquals(2, allocator.allocate("CA1234", 2).size());
+        assertNull(allocator.allocate("CA1234"));
+    }
+
+    @Test
+    void testTimedOutRequestReturnsSeats() {
+        FlightInventoryCounter counter = mock(FlightInventoryCounter.class);
+        CountDownLatch slowCommit = new CountDownLatch(1);
+        when(seatMapper.claimSeats(anyList())).thenAnswer(invocation -> {
+            slowCommit.await(5, TimeUnit.SECONDS);
+            List<Long> ids = invocation.getArgument(0);
+            freeSeats.removeIf(seat -> ids.contains(seat.getId()));
+            return ids.size();
+        });
+        when(seatMapper.releaseSeats(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        allocator.shutdown();
+        allocator = new CoalescingSeatAllocator(seatMapper, counter,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 32, 20L, 1, 100L);
+
+        // 调用方超时放弃后事务才提交，座位必须归还
+        assertThrows(RuntimeException.class, () -> allocator.allocate("CA1234"));
+        slowCommit.countDown();
+        verify(seatMapper, timeout(2000)).releaseSeats(Collections.singletonList(1L));
+        verify(counter, timeout(2000)).onSeatsAbandoned(anyList());
+    }
+}
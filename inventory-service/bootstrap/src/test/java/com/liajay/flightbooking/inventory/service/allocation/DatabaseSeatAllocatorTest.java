@@ -0,0 +1,134 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * DatabaseSeatAllocator按请求键分配和归还单元测试
+ */
+class DatabaseSeatAllocatorTest {
+
+    /**
+     * 模拟 seats 表：座位ID -> 分配请求键，可用座位的请求键为空串
+     */
+    private final Map<Long, String> seatsInDb = new TreeMap<>();
+    private FlightInventoryCounter flightInventoryCounter;
+    private DatabaseSeatAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 3; id++) {
+            seatsInDb.put(id, "");
+        }
+        SeatMapper seatMapper = mock(SeatMapper.class);
+        when(seatMapper.lockAvailableSeats(eq("CA1234"), any(SeatClass.class), anyInt())).thenAnswer(invocation -> {
+            if (invocation.getArgument(1) != SeatClass.ECONOMY) {
+                return new ArrayList<>();
+            }
+            int limit = invocation.getArgument(2);
+            return seatsInDb.entrySet().stream()
+                    .filter(entry -> entry.getValue().isEmpty())
+                    .limit(limit)
+                    .map(entry -> seat(entry.getKey(), null))
+                    .collect(Collectors.toList());
+        });
+        when(seatMapper.claimSeatsWithKeys(anyList())).thenAnswer(invocation -> {
+            List<Seat> seats = invocation.getArgument(0);
+            for (Seat seat : seats) {
+                seatsInDb.put(seat.getId(), seat.getAllocationKey());
+            }
+            return seats.size();
+        });
+        when(seatMapper.findByAllocationKeys(eq("CA1234"), anyList())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            return seatsInDb.entrySet().stream()
+                    .filter(entry -> keys.contains(entry.getValue()))
+                    .map(entry -> seat(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toList());
+        });
+        when(seatMapper.lockByAllocationKeys(anyList())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(0);
+            return seatsInDb.entrySet().stream()
+                    .filter(entry -> keys.contains(entry.getValue()))
+                    .map(entry -> seat(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toList());
+        });
+        when(seatMapper.releaseSeats(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            ids.forEach(id -> seatsInDb.put(id, ""));
+            return ids.size();
+        });
+        flightInventoryCounter = mock(FlightInventoryCounter.class);
+        allocator = new DatabaseSeatAllocator(seatMapper, flightInventoryCounter);
+    }
+
+    @Test
+    void testRetryWithSameKeysReturnsSameSeats() {
+        List<Seat> first = allocator.allocate("CA1234", Arrays.asList("t1", "t2"));
+        assertEquals(Arrays.asList(1L, 2L), ids(first));
+        assertEquals(Arrays.asList("t1", "t2"), first.stream().map(Seat::getAllocationKey).collect(Collectors.toList()));
+
+        // 调用方超时后重试，拿回同样的座位且不再占用新座位
+        List<Seat> retried = allocator.allocate("CA1234", Arrays.asList("t2", "t1"));
+        assertEquals(Arrays.asList(2L, 1L), ids(retried));
+        assertEquals("", seatsInDb.get(3L));
+        verify(flightInventoryCounter, times(1)).onSeatsClaimed(anyList());
+    }
+
+    @Test
+    void testInsufficientSeatsAllocatesLeadingKeys() {
+        allocator.allocate("CA1234", Arrays.asList("t1", "t1"));
+        assertEquals("", seatsInDb.get(2L));
+
+        List<Seat> seats = allocator.allocate("CA1234", Arrays.asList("t1", "t2", "t3", "t4"));
+        assertEquals(Arrays.asList("t1", "t2", "t3"), seats.stream().map(Seat::getAllocationKey).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(seats));
+
+        // 没有可用座位时已分配的请求键仍能拿回座位
+        assertEquals(Arrays.asList(3L), ids(allocator.allocate("CA1234", Arrays.asList("t3", "t5"))));
+    }
+
+    @Test
+    void testReleaseByKeysFreesSeatsOnce() {
+        allocator.allocate("CA1234", Arrays.asList("t1", "t2"));
+
+        List<Seat> released = allocator.release(Arrays.asList("t1", "t9"));
+        assertEquals(Arrays.asList(1L), ids(released));
+        assertTrue(released.get(0).getIsAvailable());
+        assertEquals("", seatsInDb.get(1L));
+        assertEquals("t2", seatsInDb.get(2L));
+        verify(flightInventoryCounter, times(1)).onSeatsAbandoned(anyList());
+
+        // 重复归还不会再次释放
+        assertTrue(allocator.release(Arrays.asList("t1")).isEmpty());
+        verify(flightInventoryCounter, times(1)).onSeatsAbandoned(anyList());
+    }
+
+    private static List<Long> ids(List<Seat> seats) {
+        return seats.stream().map(Seat::getId).collect(Collectors.toList());
+    }
+
+    private static Seat seat(long id, String allocationKey) {
+        Seat seat = new Seat("CA1234", id + "A", SeatClass.ECONOMY, new BigDecimal("800.00"));
+        seat.setId(id);
+        seat.setIsAvailable(allocationKey == null);
+        seat.setAllocationKey(allocationKey);
+        return seat;
+    }
+}
@@ -0,0 +1,118 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SeatBitmap单元测试
+ */
+class SeatBitmapTest {
+
+    @Test
+    void testAllocateFollowsClassPriorityAndSeatNumber() {
+        List<Seat> seats = new ArrayList<>();
+        seats.add(seat(1L, "1A", SeatClass.FIRST, true));
+        seats.add(seat(2L, "3A", SeatClass.BUSINESS, true));
+        seats.add(seat(3L, "8B", SeatClass.ECONOMY, true));
+        seats.add(seat(4L, "8A", SeatClass.ECONOMY, false));
+        seats.add(seat(5L, "10A", SeatClass.ECONOMY, true));
+
+        SeatBitmap bitmap = new SeatBitmap("CA1234", seats);
+        assertEquals(5, bitmap.size());
+        assertEquals(4, bitmap.availableCount());
+
+        // 与SQL的 seat_number 字符串排序一致："10A" < "8B"
+        assertEquals("10A", bitmap.seatAt(bitmap.allocate()).getSeatNumber());
+        assertEquals("8B", bitmap.seatAt(bitmap.allocate()).getSeatNumber());
+        assertEquals("3A", bitmap.seatAt(bitmap.allocate()).getSeatNumber());
+        Seat last = bitmap.seatAt(bitmap.allocate());
+        assertEquals("1A", last.getSeatNumber());
+        assertFalse(last.getIsAvailable());
+
+        assertEquals(-1, bitmap.allocate());
+        assertEquals(0, bitmap.availableCount());
+    }
+
+    @Test
+    void testReleaseMakesSeatAllocatableAgain() {
+        List<Seat> seats = new ArrayList<>();
+        for (long i = 1; i <= 130; i++) {
+            seats.add(seat(i, String.format("%03dA", i), SeatClass.ECONOMY, true));
+        }
+        SeatBitmap bitmap = new SeatBitmap("CA1234", seats);
+        while (bitmap.allocate() >= 0) {
+            // 占满
+        }
+
+        int index = bitmap.indexOf(5L);
+        assertTrue(bitmap.release(index));
+        assertFalse(bitmap.release(index));
+        assertEquals(1, bitmap.availableCount());
+        assertEquals(index, bitmap.allocate());
+        assertEquals(-1, bitmap.indexOf(999L));
+    }
+
+    @Test
+    void testClaimSpecificSeat() {
+        List<Seat> seats = List.of(seat(1L, "7A", SeatClass.ECONOMY, true), seat(2L, "7B", SeatClass.ECONOMY, true));
+        SeatBitmap bitmap = new SeatBitmap("CA1234", seats);
+
+        int index = bitmap.indexOf(2L);
+        assertTrue(bitmap.claim(index));
+        assertFalse(bitmap.claim(index));
+        assertEquals(bitmap.indexOf(1L), bitmap.allocate());
+        assertEquals(-1, bitmap.allocate());
+    }
+
+    @Test
+    void testConcurrentAllocateNeverReturnsSameSeat() throws InterruptedException {
+        int seatCount = 1000;
+        List<Seat> seats = new ArrayList<>();
+        for (long i = 1; i <= seatCount; i++) {
+            seats.add(seat(i, String.format("%04dA", i), SeatClass.ECONOMY, true));
+        }
+        SeatBitmap bitmap = new SeatBitmap("CA1234", seats);
+
+        int threadCount = 8;
+        Set<Integer> allocated = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            executor.submit(() -> {
+                try {
+                    int index;
+                    while ((index = bitmap.allocate()) >= 0) {
+                        assertTrue(allocated.add(index));
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(seatCount, allocated.size());
+        assertEquals(0, bitmap.availableCount());
+    }
+
+    private Seat seat(Long id, String seatNumber, SeatClass seatClass, boolean available) {
+        Seat seat = new Seat("CA1234", seatNumber, seatClass, new BigDecimal("800.00"));
+        seat.setId(id);
+        seat.setIsAvailable(available);
+        return seat;
+    }
+}
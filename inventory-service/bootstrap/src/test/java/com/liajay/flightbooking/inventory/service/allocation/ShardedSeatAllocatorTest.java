@@ -0,0 +1,131 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ShardedSeatAllocator单元测试
+ */
+class ShardedSeatAllocatorTest {
+
+    private ShardedSeatAllocator allocator;
+
+    @AfterEach
+    void tearDown() {
+        if (allocator != null) {
+            allocator.shutdown();
+        }
+    }
+
+    @Test
+    void testConcurrentAllocationsNeverShareSeats() throws Exception {
+        SeatMapper seatMapper = mock(SeatMapper.class);
+        when(seatMapper.findAllByFlightNumber(anyString()))
+                .thenAnswer(invocation -> seats(invocation.getArgument(0), 100, 0));
+        when(seatMapper.claimSeats(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        allocator = new ShardedSeatAllocator(seatMapper, mock(FlightInventoryCounter.class), transactionTemplate(), 2, 64, 5000L);
+
+        Set<String> allocated = ConcurrentHashMap.newKeySet();
+        AtomicInteger soldOut = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 240; i++) {
+            String flightNumber = i % 2 == 0 ? "CA1234" : "MU5678";
+            executor.submit(() -> {
+                Seat seat = allocator.allocate(flightNumber);
+                if (seat == null) {
+                    soldOut.incrementAndGet();
+                } else {
+                    assertTrue(allocated.add(seat.getFlightNumber() + "-" + seat.getId()));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(200, allocated.size());
+        assertEquals(40, soldOut.get());
+    }
+
+    @Test
+    void testConflictReloadsFlightAndRetries() {
+        SeatMapper seatMapper = mock(SeatMapper.class);
+        // 第一次加载时1号座位显示可用，但数据库中已被其他途径占用
+        when(seatMapper.findAllByFlightNumber("CA1234"))
+                .thenReturn(seats("CA1234", 3, 0))
+                .thenReturn(seats("CA1234", 3, 1));
+        when(seatMapper.claimSeats(anyList()))
+                .thenReturn(0)
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        allocator = new ShardedSeatAllocator(seatMapper, mock(FlightInventoryCounter.class), transactionTemplate(), 1, 64, 5000L);
+
+        Seat seat = allocator.allocate("CA1234");
+        assertNotNull(seat);
+        assertEquals(2L, seat.getId());
+    }
+
+    @Test
+    void testTimedOutAllocationReturnsSeats() {
+        SeatMapper seatMapper = mock(SeatMapper.class);
+        FlightInventoryCounter counter = mock(FlightInventoryCounter.class);
+        CountDownLatch slowCommit = new CountDownLatch(1);
+        when(seatMapper.findAllByFlightNumber("CA1234")).thenReturn(seats("CA1234", 3, 0));
+        when(seatMapper.claimSeats(anyList())).thenAnswer(invocation -> {
+            slowCommit.await(5, TimeUnit.SECONDS);
+            return ((List<?>) invocation.getArgument(0)).size();
+        });
+        when(seatMapper.releaseSeats(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        allocator = new ShardedSeatAllocator(seatMapper, counter, transactionTemplate(), 1, 64, 100L);
+
+        // 调用方超时放弃后事务才提交，座位必须归还
+        assertThrows(RuntimeException.class, () -> allocator.allocate("CA1234"));
+        slowCommit.countDown();
+        verify(seatMapper, timeout(2000)).releaseSeats(Collections.singletonList(1L));
+        verify(counter, timeout(2000)).onSeatsAbandoned(anyList());
+
+        assertEquals(1L, allocator.allocate("CA1234").getId());
+    }
+
+    private static TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(mock(PlatformTransactionManager.class));
+    }
+
+    /**
+     * 生成航班座位，前 occupied 个已被占用
+     */
+    private static List<Seat> seats(String flightNumber, int count, int occupied) {
+        List<Seat> seats = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Seat seat = new Seat(flightNumber, String.format("%03dA", i), SeatClass.ECONOMY, new BigDecimal("800.00"));
+            seat.setId((long) i);
+            seat.setIsAvailable(i > occupied);
+            seats.add(seat);
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,111 @@
+package com.liajay.flightbooking.inventory.service.cache;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * FlightCache单元测试
+ */
+class FlightCacheTest {
+
+    private FlightMapper flightMapper;
+
+    @BeforeEach
+    void setUp() {
+        flightMapper = mock(FlightMapper.class);
+        when(flightMapper.findByFlightNumber(anyString())).thenAnswer(invocation -> {
+            Flight flight = new Flight();
+            flight.setFlightNumber(invocation.getArgument(0));
+            return flight;
+        });
+        when(flightMapper.findByFlightNumber("NOTEXIST")).thenReturn(null);
+    }
+
+    @Test
+    void testHitsAreServedFromCacheUntilInvalidated() {
+        FlightCache cache = new FlightCache(flightMapper, 10, 300L);
+
+        Flight first = cache.get("CA1234");
+        assertSame(first, cache.get("CA1234"));
+        verify(flightMapper, times(1)).findByFlightNumber("CA1234");
+
+        cache.onFlightChanged(new FlightChangedEvent("CA1234"));
+        assertNotSame(first, cache.get("CA1234"));
+        verify(flightMapper, times(2)).findByFlightNumber("CA1234");
+
+        // 不存在的航班不缓存
+        assertNull(cache.get("NOTEXIST"));
+        assertNull(cache.get("NOTEXIST"));
+        verify(flightMapper, times(2)).findByFlightNumber("NOTEXIST");
+
+        Map<String, Object> metrics = cache.getMetrics();
+        assertEquals(1L, metrics.get("hitCount"));
+        assertEquals(4L, metrics.get("missCount"));
+        assertEquals(1L, metrics.get("invalidationCount"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        FlightCache cache = new FlightCache(flightMapper, 2, 300L);
+        cache.get("CA1234");
+        cache.get("MU5678");
+        cache.get("CA1234"); // CA1234 变为最近访问
+        cache.get("CZ9012"); // 淘汰 MU5678
+
+        cache.get("CA1234");
+        cache.get("MU5678");
+        verify(flightMapper, times(1)).findByFlightNumber("CA1234");
+        verify(flightMapper, times(2)).findByFlightNumber("MU5678");
+        assertEquals(2, cache.getMetrics().get("size"));
+        assertEquals(2L, cache.getMetrics().get("evictionCount"));
+    }
+
+    @Test
+    void testExpiredEntryIsReloaded() {
+        FlightCache cache = new FlightCache(flightMapper, 10, 0L);
+        cache.get("CA1234");
+        cache.get("CA1234");
+        verify(flightMapper, times(2)).findByFlightNumber("CA1234");
+        assertEquals(1L, cache.getMetrics().get("expirationCount"));
+    }
+
+    @Test
+    void testGetAllLoadsMissesInOneQuery() {
+        when(flightMapper.findByFlightNumbers(anyList())).thenAnswer(invocation -> {
+            List<Flight> flights = new ArrayList<>();
+            for (Object flightNumber : (List<?>) invocation.getArgument(0)) {
+                if (!"NOTEXIST".equals(flightNumber)) {
+                    Flight flight = new Flight();
+                    flight.setFlightNumber((String) flightNumber);
+                    flights.add(flight);
+                }
+            }
+            return flights;
+        });
+        FlightCache cache = new FlightCache(flightMapper, 10, 300L);
+        Flight cached = cache.get("CA1234");
+
+        Map<String, Flight> flights = cache.getAll(Arrays.asList("MU5678", "CA1234", "NOTEXIST", "MU5678", "CZ9012"));
+        assertEquals(Arrays.asList("MU5678", "CA1234", "CZ9012"), new ArrayList<>(flights.keySet()));
+        assertSame(cached, flights.get("CA1234"));
+        // 已缓存的航班不再查询，未命中的航班去重后一次加载
+        verify(flightMapper).findByFlightNumbers(Arrays.asList("MU5678", "NOTEXIST", "CZ9012"));
+
+        assertSame(flights.get("CZ9012"), cache.get("CZ9012"));
+        cache.getAll(Arrays.asList("CA1234", "MU5678"));
+        verify(flightMapper, times(1)).findByFlightNumbers(anyList());
+        verify(flightMapper, never()).findByFlightNumber("MU5678");
+    }
+}
@@ -0,0 +1,135 @@
+package com.liajay.flightbooking.inventory.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.model.vo.FlightVO;
+import com.liajay.flightbooking.inventory.service.dto.FlightQueryDTO;
+import com.liajay.flightbooking.inventory.service.dto.result.FlightQueryResultDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * FlightSearchCache单元测试
+ */
+class FlightSearchCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SearchCacheStore sharedStore = new InMemorySearchCacheStore();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void testSharedTierServesOtherInstances() {
+        FlightSearchCache first = newCache();
+        FlightSearchCache second = newCache();
+
+        FlightQueryResultDTO loaded = first.get(routeQuery(" 北京", "上海 "), this::load);
+        assertSame(loaded, first.get(routeQuery("北京", "上海"), this::load)); // 近端命中
+
+        // 另一个实例从共享层读取并反序列化
+        FlightQueryResultDTO remote = second.get(routeQuery("北京", "上海"), this::load);
+        assertEquals(1, loads.get());
+        assertEquals(1, remote.getFlightList().size());
+        FlightVO flight = remote.getFlightList().get(0);
+        assertEquals("CA1234", flight.getFlightNumber());
+        assertEquals(LocalDateTime.of(2025, 8, 21, 8, 0), flight.getDepartureTime());
+        assertEquals(1L, second.getMetrics().get("remoteHitCount"));
+    }
+
+    @Test
+    void testLockOnlyReleasedByOwner() throws Exception {
+        assertTrue(sharedStore.setIfAbsent("lock", "owner-a", 20L));
+        Thread.sleep(30L);
+        // 锁已过期并被其他实例拿到，原持有者不能删除
+        assertTrue(sharedStore.setIfAbsent("lock", "owner-b", 5000L));
+        assertFalse(sharedStore.deleteIfEquals("lock", "owner-a"));
+        assertEquals("owner-b", sharedStore.get("lock"));
+        assertTrue(sharedStore.deleteIfEquals("lock", "owner-b"));
+        assertNull(sharedStore.get("lock"));
+    }
+
+    @Test
+    void testInvalidateRouteDropsRelatedBuckets() {
+        FlightSearchCache cache = newCache();
+        cache.get(routeQuery("北京", "上海"), this::load);
+        cache.get(routeQuery("北京", null), this::load);
+        cache.get(routeQuery("广州", "深圳"), this::load);
+        assertEquals(3, loads.get());
+
+        cache.invalidateRoute("北京", "上海");
+        cache.get(routeQuery("北京", "上海"), this::load);
+        cache.get(routeQuery("北京", null), this::load);
+        cache.get(routeQuery("广州", "深圳"), this::load);
+        assertEquals(5, loads.get());
+
+        // 共享层的版本号同样递增，其他实例不会读到失效前的结果
+        newCache().get(routeQuery("北京", "上海"), this::load);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        FlightSearchCache cache = newCache();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<FlightQueryResultDTO>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(routeQuery("北京", "上海"), () -> {
+                        sleep(100);
+                        return load();
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<FlightQueryResultDTO> future : futures) {
+                assertNotNull(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    private FlightSearchCache newCache() {
+        return new FlightSearchCache(sharedStore, objectMapper, mock(FlightMapper.class), 100, 60000L, 60000L, 2000L);
+    }
+
+    private FlightQueryResultDTO load() {
+        loads.incrementAndGet();
+        FlightVO flight = new FlightVO(1L, "CA1234", "中国国际航空", "北京", "上海",
+                LocalDateTime.of(2025, 8, 21, 8, 0), LocalDateTime.of(2025, 8, 21, 10, 30),
+                new BigDecimal("800.00"), "SCHEDULED", "计划中");
+        flight.setTotalSeats(140L);
+        flight.setAvailableSeats(135L);
+        return FlightQueryResultDTO.fromList(List.of(flight));
+    }
+
+    private static FlightQueryDTO routeQuery(String departureCity, String arrivalCity) {
+        FlightQueryDTO query = new FlightQueryDTO();
+        query.setDepartureCity(departureCity);
+        query.setArrivalCity(arrivalCity);
+        return query;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
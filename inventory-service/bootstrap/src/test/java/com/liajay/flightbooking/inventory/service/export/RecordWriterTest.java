@@ -0,0 +1,97 @@
+package com.liajay.flightbooking.inventory.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.liajay.flightbooking.inventory.model.vo.SeatVO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RecordWriter单元测试
+ */
+class RecordWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void testNdjsonWritesOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RecordWriter<SeatVO> writer = RecordWriter.open(ExportFormat.NDJSON, objectMapper, out, columns());
+        writer.write(seat(1L, "1A", "中国国际航空"));
+        writer.write(seat(2L, "1C", null));
+        writer.flush();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].endsWith("}"));
+        assertTrue(lines[0].contains("\"seatNumber\":\"1A\""));
+        assertTrue(lines[0].contains("\"airline\":\"中国国际航空\""));
+        assertTrue(lines[1].contains("\"seatNumber\":\"1C\""));
+        assertEquals(2L, writer.count());
+    }
+
+    @Test
+    void testCsvWritesHeaderAndEscapesValues() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RecordWriter<SeatVO> writer = RecordWriter.open(ExportFormat.CSV, objectMapper, out, columns());
+        writer.write(seat(1L, "1A", "航空,\"测试\""));
+        writer.write(seat(2L, "1C", null));
+        writer.flush();
+
+        assertEquals("id,seatNumber,airline,price\r\n"
+                + "1,1A,\"航空,\"\"测试\"\"\",800.00\r\n"
+                + "2,1C,,800.00\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWriterDoesNotRetainRecords() throws IOException {
+        long[] written = new long[1];
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) {
+                written[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written[0] += len;
+            }
+        };
+        RecordWriter<SeatVO> writer = RecordWriter.open(ExportFormat.CSV, objectMapper, sink, columns());
+        SeatVO seat = seat(1L, "1A", "中国国际航空");
+        for (int i = 0; i < 200_000; i++) {
+            writer.write(seat);
+        }
+        // 缓冲区写满后直接写到底层输出流，不会等到结束才一次性输出
+        assertTrue(written[0] > 0);
+        writer.flush();
+        assertEquals(200_000L, writer.count());
+    }
+
+    private static Map<String, Function<SeatVO, Object>> columns() {
+        Map<String, Function<SeatVO, Object>> columns = RecordWriter.columns();
+        columns.put("id", SeatVO::getId);
+        columns.put("seatNumber", SeatVO::getSeatNumber);
+        columns.put("airline", SeatVO::getAirline);
+        columns.put("price", SeatVO::getPrice);
+        return columns;
+    }
+
+    private static SeatVO seat(Long id, String seatNumber, String airline) {
+        SeatVO vo = new SeatVO(id, "CA1234", seatNumber, "ECONOMY", "经济舱", true, new BigDecimal("800.00"));
+        vo.setAirline(airline);
+        return vo;
+    }
+}
@@ -0,0 +1,153 @@
+package com.liajay.flightbooking.inventory.service.fare;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightFare;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.cache.FlightChangedEvent;
+import com.liajay.flightbooking.inventory.service.inventory.SeatInventoryChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FareCalendar单元测试
+ */
+class FareCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(10);
+
+    private FlightMapper flightMapper;
+
+    @BeforeEach
+    void setUp() {
+        flightMapper = mock(FlightMapper.class);
+        when(flightMapper.findFares(isNull(), isNull(), isNull(), any(), isNull())).thenReturn(Arrays.asList(
+                fare("CA1001", "北京", "上海", DAY, 8, "800", 10),
+                fare("MU2001", "北京", "上海", DAY, 14, "650", 2),
+                fare("CA1003", "北京", "上海", DAY.plusDays(1), 9, "900", 0),
+                fare("CZ3001", "北京", "广州", DAY, 10, "1200", 30)));
+    }
+
+    @Test
+    void testCalendarReturnsOneEntryPerDay() {
+        FareCalendar calendar = new FareCalendar(flightMapper, true, 0L, 0L, 62);
+        assertNull(calendar.calendar("北京", "上海", DAY, DAY));
+        calendar.rebuild();
+
+        List<DayFare> days = calendar.calendar("北京", "上海", DAY.minusDays(1), DAY.plusDays(1));
+        assertEquals(3, days.size());
+        assertEquals(DAY.minusDays(1), days.get(0).getDate());
+        assertNull(days.get(0).getMinPrice());
+        assertEquals(0, days.get(0).getFlightCount());
+
+        assertEquals(0, new BigDecimal("650").compareTo(days.get(1).getMinPrice()));
+        assertEquals("MU2001", days.get(1).getCheapestFlightNumber());
+        assertEquals(12, days.get(1).getSeatsLeft());
+        assertEquals(2, days.get(1).getFlightCount());
+
+        // 当天唯一的航班已售罄
+        assertNull(days.get(2).getMinPrice());
+        assertEquals(0, days.get(2).getSeatsLeft());
+        assertEquals(1, days.get(2).getFlightCount());
+
+        assertThrows(IllegalArgumentException.class, () -> calendar.calendar("北京", "上海", DAY, DAY.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> calendar.calendar("北京", "上海", DAY, DAY.plusDays(62)));
+        assertEquals(62, calendar.calendar("北京", "上海", DAY, DAY.plusDays(61)).size());
+    }
+
+    @Test
+    void testSeatChangesRefreshOnlyAffectedFlights() {
+        FareCalendar calendar = new FareCalendar(flightMapper, true, 0L, 0L, 62);
+        calendar.rebuild();
+
+        // MU2001 的特价座位售完，CA1001 成为最低价
+        when(flightMapper.findFares(eq(Collections.singletonList("MU2001")), isNull(), isNull(), isNull(), isNull()))
+                .thenReturn(Collections.singletonList(fare("MU2001", "北京", "上海", DAY, 14, "1100", 1)));
+        calendar.onSeatInventoryChanged(new SeatInventoryChangedEvent(Collections.singletonList("MU2001")));
+        calendar.flush();
+
+        DayFare day = calendar.calendar("北京", "上海", DAY, DAY).get(0);
+        assertEquals(0, new BigDecimal("800").compareTo(day.getMinPrice()));
+        assertEquals("CA1001", day.getCheapestFlightNumber());
+        assertEquals(11, day.getSeatsLeft());
+
+        // 航班取消后查不到，从日历中移除
+        when(flightMapper.findFares(eq(Collections.singletonList("CA1001")), isNull(), isNull(), isNull(), isNull()))
+                .thenReturn(Collections.emptyList());
+        calendar.onFlightChanged(new FlightChangedEvent("CA1001"));
+        calendar.flush();
+
+        day = calendar.calendar("北京", "上海", DAY, DAY).get(0);
+        assertEquals("MU2001", day.getCheapestFlightNumber());
+        assertEquals(1, day.getFlightCount());
+        // 其他航线不受影响，全量查询只在重建时执行一次
+        assertEquals("CZ3001", calendar.calendar("北京", "广州", DAY, DAY).get(0).getCheapestFlightNumber());
+        verify(flightMapper, times(1)).findFares(isNull(), isNull(), isNull(), any(), isNull());
+    }
+
+    @Test
+    void testPendingChangesAreCoalesced() throws InterruptedException {
+        FareCalendar calendar = new FareCalendar(flightMapper, true, 0L, 50L, 62);
+        try {
+            calendar.rebuild();
+            when(flightMapper.findFares(anyList(), isNull(), isNull(), isNull(), isNull()))
+                    .thenReturn(Collections.singletonList(fare("CA1003", "北京", "上海", DAY.plusDays(1), 9, "700", 5)));
+            for (int i = 0; i < 20; i++) {
+                calendar.onSeatInventoryChanged(new SeatInventoryChangedEvent(Collections.singletonList("CA1003")));
+            }
+
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (calendar.calendar("北京", "上海", DAY.plusDays(1), DAY.plusDays(1)).get(0).getMinPrice() == null
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            assertEquals(5, calendar.calendar("北京", "上海", DAY.plusDays(1), DAY.plusDays(1)).get(0).getSeatsLeft());
+            verify(flightMapper, times(1)).findFares(anyList(), isNull(), isNull(), isNull(), isNull());
+        } finally {
+            calendar.shutdown();
+        }
+    }
+
+    @Test
+    void testLookupCostDoesNotDependOnFlightCount() {
+        List<FlightFare> fares = new ArrayList<>();
+        for (int day = 0; day < 60; day++) {
+            for (int slot = 0; slot < 200; slot++) {
+                fares.add(fare("BM" + day + "-" + slot, "北京", "上海", DAY.plusDays(day), slot % 24,
+                        String.valueOf(500 + slot), 100));
+            }
+        }
+        when(flightMapper.findFares(isNull(), isNull(), isNull(), any(), isNull())).thenReturn(fares);
+        FareCalendar calendar = new FareCalendar(flightMapper, true, 0L, 0L, 62);
+        calendar.rebuild();
+
+        for (int i = 0; i < 1000; i++) {
+            calendar.calendar("北京", "上海", DAY, DAY.plusDays(29));
+        }
+        long begin = System.nanoTime();
+        List<DayFare> month = null;
+        for (int i = 0; i < 1000; i++) {
+            month = calendar.calendar("北京", "上海", DAY, DAY.plusDays(29));
+        }
+        long averageNanos = (System.nanoTime() - begin) / 1000;
+        assertEquals(30, month.size());
+        assertEquals(0, new BigDecimal("500").compareTo(month.get(0).getMinPrice()));
+        assertEquals(20000, month.get(0).getSeatsLeft());
+        assertTrue(averageNanos < 1_000_000L, "average=" + averageNanos / 1000 + "us");
+    }
+
+    private static FlightFare fare(String flightNumber, String departureCity, String arrivalCity, LocalDate date,
+                                   int hour, String minPrice, int availableSeats) {
+        return new FlightFare(flightNumber, departureCity, arrivalCity, date.atTime(hour, 0),
+                availableSeats > 0 ? new BigDecimal(minPrice) : null, availableSeats);
+    }
+}
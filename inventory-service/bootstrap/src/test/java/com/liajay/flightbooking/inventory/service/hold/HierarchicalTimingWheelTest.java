@@ -0,0 +1,75 @@
+package com.liajay.flightbooking.inventory.service.hold;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HierarchicalTimingWheel单元测试
+ */
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void testEntryExpiresOnlyAfterItsDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100, 8, 3, 0);
+        wheel.schedule("a", 250);
+
+        assertTrue(wheel.advanceTo(249).isEmpty());
+        assertEquals(1, wheel.size());
+        // 最多延迟一个 tick
+        assertEquals(List.of("a"), wheel.advanceTo(300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testPastDeadlineExpiresImmediately() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100, 8, 3, 1000);
+        wheel.schedule("late", 500);
+        assertEquals(List.of("late"), wheel.advanceTo(1000));
+    }
+
+    @Test
+    void testCascadeAcrossLevelsAndOverflow() {
+        // 3层覆盖 100 * 8^3 = 51200ms，最后一个条目超出范围
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(100, 8, 3, 0);
+        long[] deadlines = {50, 799, 800, 6399, 6400, 51199, 51200, 200000};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 200200; now += 37) {
+            for (Long deadline : wheel.advanceTo(now)) {
+                assertTrue(now >= deadline, "条目提前到期: " + deadline);
+                assertTrue(now < deadline + 100 + 37, "条目到期过晚: " + deadline);
+                fired.add(deadline);
+            }
+        }
+        assertEquals(deadlines.length, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testRandomDeadlinesAllFireInOrderOfTicks() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 16, 2, 0);
+        Random random = new Random(42);
+        int count = 10000;
+        for (int i = 0; i < count; i++) {
+            long deadline = random.nextInt(100000);
+            wheel.schedule(deadline, deadline);
+        }
+
+        int fired = 0;
+        for (long now = 0; now <= 100010; now += 10) {
+            for (Long deadline : wheel.advanceTo(now)) {
+                assertTrue(deadline <= now && deadline > now - 20);
+                fired++;
+            }
+        }
+        assertEquals(count, fired);
+    }
+}
@@ -4,6 +4,7 @@ import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
 import com.liajay.flightbooking.inventory.service.SeatService;
 import com.liajay.flightbooking.inventory.service.dto.SeatQueryDTO;
 import com.liajay.flightbooking.inventory.service.dto.result.SeatQueryResultDTO;
+import com.liajay.flightbooking.inventory.service.dto.result.SeatStatisticsDTO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -75,6 +76,11 @@ class SeatServiceImplMybatisTest {
         assertEquals(136, result.getSeatList().size());
         assertEquals(136L, result.getTotalElements());
         assertEquals(1, result.getTotalPages());
+
+        // 航班信息在结果中只出现一次，座位行上的航空公司取自同一次查询
+        assertEquals(1, result.getFlights().size());
+        assertEquals("中国国际航空", result.getFlights().get("CA1234").getAirline());
+        assertTrue(result.getSeatList().stream().allMatch(seat -> "中国国际航空".equals(seat.getAirline())));
     }
 
     @Test
@@ -290,4 +296,28 @@ class SeatServiceImplMybatisTest {
         // 测试服务注入正常
         assertNotNull(seatService);
     }
+
+    @Test
+    void testGetFlightSeatStatistics() {
+        SeatStatisticsDTO stats = seatService.getFlightSeatStatistics("CA1234");
+
+        assertEquals("CA1234", stats.getFlightNumber());
+        assertEquals(136L, stats.getTotalSeats());
+        assertEquals(131L, stats.getAvailableSeats());
+        assertEquals(5L, stats.getOccupiedSeats());
+        assertEquals(0.0368, stats.getLoadFactor(), 1e-9);
+
+        // 按舱位等级排列：经济舱在前
+        assertEquals(2, stats.getClasses().size());
+        SeatStatisticsDTO.ClassStatistics economy = stats.getClasses().get(0);
+        assertEquals("ECONOMY", economy.getSeatClass());
+        assertEquals(120L, economy.getTotalSeats());
+        assertEquals(3L, economy.getOccupiedSeats());
+        assertEquals(new BigDecimal("800.00"), economy.getAvgPrice());
+        SeatStatisticsDTO.ClassStatistics business = stats.getClasses().get(1);
+        assertEquals("BUSINESS", business.getSeatClass());
+        assertEquals(0.125, business.getLoadFactor(), 1e-9);
+
+        assertThrows(IllegalArgumentException.class, () -> seatService.getFlightSeatStatistics("INVALID"));
+    }
 }
@@ -0,0 +1,103 @@
+package com.liajay.flightbooking.inventory.service.inventory;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatCount;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightInventoryMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * FlightInventoryCounter单元测试
+ */
+class FlightInventoryCounterTest {
+
+    private FlightInventoryMapper flightInventoryMapper;
+    private ApplicationEventPublisher eventPublisher;
+    private FlightInventoryCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        flightInventoryMapper = mock(FlightInventoryMapper.class);
+        when(flightInventoryMapper.adjustAvailableSeats(anyString(), any(), anyInt())).thenReturn(1);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        counter = new FlightInventoryCounter(flightInventoryMapper, eventPublisher);
+    }
+
+    @Test
+    void testClaimedSeatsAreGroupedAndOrdered() {
+        counter.onSeatsClaimed(List.of(
+                seat("MU5678", "10A", SeatClass.ECONOMY),
+                seat("CA1234", "2A", SeatClass.BUSINESS),
+                seat("CA1234", "10A", SeatClass.ECONOMY),
+                seat("CA1234", "10B", SeatClass.ECONOMY)));
+
+        // 每个航班舱位只更新一次，按航班号、舱位顺序执行
+        InOrder inOrder = inOrder(flightInventoryMapper);
+        inOrder.verify(flightInventoryMapper).adjustAvailableSeats("CA1234", SeatClass.ECONOMY, -2);
+        inOrder.verify(flightInventoryMapper).adjustAvailableSeats("CA1234", SeatClass.BUSINESS, -1);
+        inOrder.verify(flightInventoryMapper).adjustAvailableSeats("MU5678", SeatClass.ECONOMY, -1);
+        verify(flightInventoryMapper, never()).rebuild(anyList());
+    }
+
+    @Test
+    void testMissingRowIsRebuiltFromSeats() {
+        when(flightInventoryMapper.adjustAvailableSeats("CZ9012", SeatClass.ECONOMY, 3)).thenReturn(0);
+
+        SeatCount released = new SeatCount();
+        released.setFlightNumber("CZ9012");
+        released.setSeatClass(SeatClass.ECONOMY);
+        released.setTotalSeats(3);
+        counter.onSeatsReleased(List.of(released));
+
+        verify(flightInventoryMapper).rebuild(List.of("CZ9012"));
+        verify(flightInventoryMapper).deleteStale(List.of("CZ9012"));
+    }
+
+    @Test
+    void testReconcileWithoutDriftChangesNothing() {
+        when(flightInventoryMapper.findDrifted(null)).thenReturn(List.of());
+
+        assertEquals(0, counter.reconcile());
+        verify(flightInventoryMapper, never()).rebuild(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testReconcileRebuildsOnlyDriftedFlights() {
+        when(flightInventoryMapper.findDrifted(null)).thenReturn(List.of(
+                count("CA1234", SeatClass.ECONOMY), count("CA1234", SeatClass.BUSINESS), count("MU5678", SeatClass.FIRST)));
+
+        assertEquals(3, counter.reconcile());
+        verify(flightInventoryMapper).rebuild(List.of("CA1234", "MU5678"));
+        verify(flightInventoryMapper).deleteStale(List.of("CA1234", "MU5678"));
+        ArgumentCaptor<SeatInventoryChangedEvent> event = ArgumentCaptor.forClass(SeatInventoryChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of("CA1234", "MU5678"), event.getValue().getFlightNumbers());
+    }
+
+    private static SeatCount count(String flightNumber, SeatClass seatClass) {
+        SeatCount count = new SeatCount();
+        count.setFlightNumber(flightNumber);
+        count.setSeatClass(seatClass);
+        return count;
+    }
+
+    private static Seat seat(String flightNumber, String seatNumber, SeatClass seatClass) {
+        return new Seat(flightNumber, seatNumber, seatClass, new BigDecimal("800.00"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.liajay.flightbooking.inventory.service.pagination;
+
+import com.liajay.flightbooking.inventory.service.cache.FlightChangedEvent;
+import com.liajay.flightbooking.inventory.service.inventory.SeatInventoryChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PageCountCache单元测试
+ */
+class PageCountCacheTest {
+
+    @Test
+    void testCountIsReusedUntilScopeChanges() {
+        PageCountCache cache = new PageCountCache(100, 60_000L);
+        AtomicLong loads = new AtomicLong();
+
+        assertEquals(5, cache.get(PageCountCache.FLIGHT_SCOPE, "北京|上海", () -> loads.incrementAndGet() + 4));
+        assertEquals(5, cache.get(PageCountCache.FLIGHT_SCOPE, "北京|上海", () -> loads.incrementAndGet() + 4));
+        assertEquals(1, loads.get());
+
+        // 航班变更后重新统计
+        cache.onFlightChanged(new FlightChangedEvent("CA1234"));
+        assertEquals(6, cache.get(PageCountCache.FLIGHT_SCOPE, "北京|上海", () -> loads.incrementAndGet() + 4));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testSeatChangeOnlyInvalidatesAffectedFlight() {
+        PageCountCache cache = new PageCountCache(100, 60_000L);
+        String ca = PageCountCache.seatScope("CA1234");
+        String mu = PageCountCache.seatScope("MU5678");
+        cache.get(ca, "ECONOMY", () -> 120L);
+        cache.get(mu, "ECONOMY", () -> 150L);
+
+        cache.onSeatInventoryChanged(new SeatInventoryChangedEvent(List.of("CA1234")));
+
+        assertEquals(119L, cache.get(ca, "ECONOMY", () -> 119L));
+        assertEquals(150L, cache.get(mu, "ECONOMY", () -> 0L));
+
+        // 全量重建使所有座位范围失效
+        cache.onSeatInventoryChanged(new SeatInventoryChangedEvent(null));
+        assertEquals(0L, cache.get(mu, "ECONOMY", () -> 0L));
+    }
+
+    @Test
+    void testExpiredCountIsReloaded() throws InterruptedException {
+        PageCountCache cache = new PageCountCache(100, 1L);
+        cache.get(PageCountCache.FLIGHT_SCOPE, "all", () -> 1L);
+        Thread.sleep(5);
+        assertEquals(2L, cache.get(PageCountCache.FLIGHT_SCOPE, "all", () -> 2L));
+    }
+}
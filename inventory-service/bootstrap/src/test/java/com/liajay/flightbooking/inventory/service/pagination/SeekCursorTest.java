@@ -0,0 +1,33 @@
+package com.liajay.flightbooking.inventory.service.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SeekCursor单元测试
+ */
+class SeekCursorTest {
+
+    @Test
+    void testEncodeAndDecode() {
+        LocalDateTime departureTime = LocalDateTime.of(2025, 8, 21, 8, 0);
+        String cursor = SeekCursor.encode(departureTime, 42L);
+
+        // 令牌可直接放进URL参数
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+
+        String[] keys = SeekCursor.decode(cursor, 2);
+        assertEquals(departureTime, LocalDateTime.parse(keys[0]));
+        assertEquals(42L, Long.parseLong(keys[1]));
+    }
+
+    @Test
+    void testDecodeRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> SeekCursor.decode("not base64!", 2));
+        // 排序键个数不符
+        assertThrows(IllegalArgumentException.class, () -> SeekCursor.decode(SeekCursor.encode("ECONOMY", "5A", 1L), 2));
+    }
+}
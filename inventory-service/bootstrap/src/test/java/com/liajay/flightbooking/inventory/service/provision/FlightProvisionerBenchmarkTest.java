@@ -0,0 +1,78 @@
+package com.liajay.flightbooking.inventory.service.provision;
+
+import com.liajay.flightbooking.inventory.service.dto.FlightCreateDTO;
+import com.liajay.flightbooking.inventory.service.dto.result.FlightCreateResultDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量创建航班基准测试
+ *
+ * 按 B737 布局导入一季的时刻表（1万个航班、136万个座位），确认座位和库存汇总全部写入，耗时在秒级。
+ * 耗时较长，默认不运行，使用 mvn test -Dbenchmark=true 执行。
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@ActiveProfiles("test")
+@Sql(scripts = "classpath:schema.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "classpath:clean.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class FlightProvisionerBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightProvisionerBenchmarkTest.class);
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 10, 1);
+    private static final int DAYS = 100;
+    private static final int FLIGHTS_PER_DAY = 100;
+
+    @Autowired
+    private FlightProvisioner flightProvisioner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testSeedSeasonSchedule() {
+        List<FlightCreateDTO> flights = new ArrayList<>(DAYS * FLIGHTS_PER_DAY);
+        for (int day = 0; day < DAYS; day++) {
+            for (int slot = 0; slot < FLIGHTS_PER_DAY; slot++) {
+                LocalDateTime departure = FIRST_DAY.plusDays(day).atTime(6, 0).plusMinutes(slot * 9L);
+                FlightCreateDTO flight = new FlightCreateDTO();
+                flight.setFlightNumber(String.format("BM%03d%02d", day, slot));
+                flight.setAirline("基准航空");
+                flight.setDepartureCity("北京");
+                flight.setArrivalCity(slot % 2 == 0 ? "上海" : "广州");
+                flight.setDepartureTime(departure);
+                flight.setArrivalTime(departure.plusHours(2));
+                flight.setBasePrice(new BigDecimal(600 + slot));
+                flight.setAircraftType("B737");
+                flights.add(flight);
+            }
+        }
+
+        FlightCreateResultDTO result = flightProvisioner.createFlights(flights);
+        logger.info("导入时刻表完成: 航班数={}, 座位数={}, 耗时={}ms",
+                result.getFlightCount(), result.getSeatCount(), result.getElapsedMillis());
+
+        assertEquals(DAYS * FLIGHTS_PER_DAY, result.getFlightCount());
+        assertEquals(DAYS * FLIGHTS_PER_DAY * 136L, result.getSeatCount());
+        assertEquals(result.getSeatCount(), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seats", Long.class));
+        assertEquals(result.getSeatCount(), jdbcTemplate.queryForObject(
+                "SELECT SUM(available_seats) FROM flight_inventory", Long.class));
+        assertTrue(result.getElapsedMillis() < 60_000L, "elapsed=" + result.getElapsedMillis() + "ms");
+    }
+}
@@ -0,0 +1,171 @@
+package com.liajay.flightbooking.inventory.service.provision;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.cache.FlightChangedEvent;
+import com.liajay.flightbooking.inventory.service.dto.FlightCreateDTO;
+import com.liajay.flightbooking.inventory.service.dto.result.FlightCreateResultDTO;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FlightProvisioner单元测试
+ */
+class FlightProvisionerTest {
+
+    private static final AircraftLayouts LAYOUTS = AircraftLayouts.load("aircraft/layouts.txt");
+
+    private FlightMapper flightMapper;
+    private SeatMapper seatMapper;
+    private FlightInventoryCounter flightInventoryCounter;
+    private ApplicationEventPublisher eventPublisher;
+    private List<Integer> statementSizes;
+
+    @BeforeEach
+    void setUp() {
+        flightMapper = mock(FlightMapper.class);
+        seatMapper = mock(SeatMapper.class);
+        flightInventoryCounter = mock(FlightInventoryCounter.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        statementSizes = new ArrayList<>();
+        when(flightMapper.findExistingFlightNumbers(anyList())).thenReturn(Collections.emptyList());
+        when(flightMapper.insertBatch(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        when(seatMapper.insertBatch(anyList())).thenAnswer(invocation -> {
+            int size = ((List<?>) invocation.getArgument(0)).size();
+            statementSizes.add(size);
+            return size;
+        });
+    }
+
+    @Test
+    void testLayoutsMatchInitialSeatMaps() {
+        AircraftLayout b737 = LAYOUTS.get("b737");
+        assertEquals(16 + 120, b737.getSeatCount());
+        List<Seat> seats = b737.generateSeats("CA1234", new BigDecimal("800.00"), null);
+        assertEquals(b737.getSeatCount(), seats.size());
+        assertEquals("1A", seats.get(0).getSeatNumber());
+        assertEquals(SeatClass.BUSINESS, seats.get(0).getSeatClass());
+        assertEquals(new BigDecimal("1200.00"), seats.get(0).getPrice());
+        assertEquals("26F", seats.get(seats.size() - 1).getSeatNumber());
+        assertEquals(new BigDecimal("800.00"), seats.get(seats.size() - 1).getPrice());
+        assertTrue(seats.stream().allMatch(Seat::getIsAvailable));
+
+        // A320 商务舱第6排只有 A、F 两座
+        AircraftLayout a320 = LAYOUTS.get("A320");
+        assertEquals(20 + 2 + 150, a320.getSeatCount());
+        Map<SeatClass, BigDecimal> classPrices = new EnumMap<>(SeatClass.class);
+        classPrices.put(SeatClass.BUSINESS, new BigDecimal("1350.00"));
+        List<Seat> a320Seats = a320.generateSeats("MU5678", new BigDecimal("900.00"), classPrices);
+        assertTrue(a320Seats.stream().anyMatch(seat -> "6F".equals(seat.getSeatNumber())));
+        assertTrue(a320Seats.stream().noneMatch(seat -> "6C".equals(seat.getSeatNumber())));
+        assertTrue(a320Seats.stream().filter(seat -> seat.getSeatClass() == SeatClass.BUSINESS)
+                .allMatch(seat -> new BigDecimal("1350.00").equals(seat.getPrice())));
+
+        assertNull(LAYOUTS.get("X999"));
+        assertThrows(IllegalArgumentException.class,
+                () -> AircraftLayouts.parse("BAD|重复座位|BUSINESS:1-2:AC:1.5;ECONOMY:2-3:ABC:1.0"));
+    }
+
+    @Test
+    void testCreateFlightsInChunkedTransactions() {
+        FlightProvisioner provisioner = provisioner(2, 50);
+        List<FlightCreateDTO> flights = Arrays.asList(flight("NB100", "B737"), flight("NB101", "B737"),
+                flight("NB102", "CRJ9"));
+
+        FlightCreateResultDTO result = provisioner.createFlights(flights);
+        assertEquals(3, result.getFlightCount());
+        assertEquals(136 * 2 + 60, result.getSeatCount());
+
+        // 每2个航班一个事务，每条 INSERT 不超过50个座位
+        verify(flightMapper, times(2)).insertBatch(anyList());
+        verify(flightInventoryCounter).rebuild(Arrays.asList("NB100", "NB101"));
+        verify(flightInventoryCounter).rebuild(Collections.singletonList("NB102"));
+        assertTrue(statementSizes.stream().allMatch(size -> size <= 50));
+        assertEquals(result.getSeatCount(), statementSizes.stream().mapToLong(Integer::longValue).sum());
+        // 每个事务提交后发布一次批量事件
+        verify(eventPublisher, times(2)).publishEvent(any(FlightChangedEvent.class));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof FlightChangedEvent
+                && ((FlightChangedEvent) event).getFlightNumbers().equals(Set.of("NB100", "NB101"))));
+    }
+
+    @Test
+    void testInvalidFlightsAreRejectedBeforeWriting() {
+        FlightProvisioner provisioner = provisioner(100, 1000);
+        assertThrows(IllegalArgumentException.class, () -> provisioner.createFlights(Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class,
+                () -> provisioner.createFlights(Arrays.asList(flight("NB100", "B737"), flight("NB100", "A320"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> provisioner.createFlights(Collections.singletonList(flight("NB100", "X999"))));
+
+        FlightCreateDTO reversed = flight("NB101", "B737");
+        reversed.setArrivalTime(reversed.getDepartureTime().minusHours(1));
+        assertThrows(IllegalArgumentException.class, () -> provisioner.createFlights(Collections.singletonList(reversed)));
+
+        FlightCreateDTO noFirstClass = flight("NB102", "B737");
+        noFirstClass.setClassPrices(Collections.singletonMap(SeatClass.FIRST, new BigDecimal("5000")));
+        assertThrows(IllegalArgumentException.class, () -> provisioner.createFlights(Collections.singletonList(noFirstClass)));
+
+        when(flightMapper.findExistingFlightNumbers(anyList())).thenReturn(Collections.singletonList("NB104"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> provisioner.createFlights(Arrays.asList(flight("NB103", "B737"), flight("NB104", "B737"))));
+        assertTrue(e.getMessage().contains("NB104"));
+
+        verify(flightMapper, never()).insertBatch(anyList());
+        verify(seatMapper, never()).insertBatch(anyList());
+    }
+
+    @Test
+    void testFailedChunkReportsCommittedFlights() {
+        FlightProvisioner provisioner = provisioner(2, 1000);
+        when(flightMapper.insertBatch(anyList()))
+                .thenReturn(2)
+                .thenThrow(new DuplicateKeyException("Duplicate entry 'NB102'"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> provisioner.createFlights(
+                Arrays.asList(flight("NB100", "B737"), flight("NB101", "B737"), flight("NB102", "B737"))));
+        assertTrue(e.getMessage().contains("已提交2个航班"));
+        // 只通知已提交的航班
+        verify(eventPublisher, times(1)).publishEvent(any(FlightChangedEvent.class));
+        verify(flightInventoryCounter, times(1)).rebuild(anyCollection());
+    }
+
+    private FlightProvisioner provisioner(int flightsPerTransaction, int seatsPerStatement) {
+        return new FlightProvisioner(flightMapper, seatMapper, flightInventoryCounter,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), eventPublisher, LAYOUTS,
+                flightsPerTransaction, seatsPerStatement, 20000);
+    }
+
+    private static FlightCreateDTO flight(String flightNumber, String aircraftType) {
+        FlightCreateDTO dto = new FlightCreateDTO();
+        dto.setFlightNumber(flightNumber);
+        dto.setAirline("中国国际航空");
+        dto.setDepartureCity("北京");
+        dto.setArrivalCity("上海");
+        dto.setDepartureTime(LocalDateTime.of(2025, 9, 1, 8, 0));
+        dto.setArrivalTime(LocalDateTime.of(2025, 9, 1, 10, 30));
+        dto.setBasePrice(new BigDecimal("800.00"));
+        dto.setAircraftType(aircraftType);
+        return dto;
+    }
+}
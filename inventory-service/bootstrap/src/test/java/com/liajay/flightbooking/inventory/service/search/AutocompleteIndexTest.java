@@ -0,0 +1,117 @@
+package com.liajay.flightbooking.inventory.service.search;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.NameCount;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.cache.FlightChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AutocompleteIndex单元测试
+ */
+class AutocompleteIndexTest {
+
+    private FlightMapper flightMapper;
+
+    @BeforeEach
+    void setUp() {
+        flightMapper = mock(FlightMapper.class);
+        when(flightMapper.countByCity()).thenReturn(Arrays.asList(
+                new NameCount("北京", 40), new NameCount("上海", 35), new NameCount("北海", 3),
+                new NameCount("包头", 2), new NameCount("成都", 20), new NameCount("新城市", 1)));
+        when(flightMapper.countByAirline()).thenReturn(Arrays.asList(
+                new NameCount("中国国际航空", 30), new NameCount("四川航空", 12), new NameCount("测试航空", 1)));
+    }
+
+    @Test
+    void testMatchesNamePinyinInitialsAndIataCode() {
+        AutocompleteIndex index = new AutocompleteIndex(flightMapper, true, 0L, 0L, 20);
+        assertTrue(index.suggest("bj", null, 10).isEmpty());
+        index.rebuild();
+
+        assertEquals(Arrays.asList("北京"), names(index.suggest("bj", Suggestion.CITY, 10)));
+        assertEquals(Arrays.asList("北京", "北海"), names(index.suggest("Bei", Suggestion.CITY, 10)));
+        assertEquals(Arrays.asList("北京", "北海", "包头"), names(index.suggest("b", Suggestion.CITY, 10)));
+        assertEquals(Arrays.asList("北京"), names(index.suggest("pek", Suggestion.CITY, 10)));
+        assertEquals(Arrays.asList("北京", "北海"), names(index.suggest("北", Suggestion.CITY, 10)));
+        assertEquals(Arrays.asList("上海"), names(index.suggest("shang hai", Suggestion.CITY, 10)));
+        assertEquals(Arrays.asList("新城市"), names(index.suggest("新", Suggestion.CITY, 10)));
+
+        Suggestion beijing = index.suggest("bjs", Suggestion.CITY, 1).get(0);
+        assertEquals("beijing", beijing.getPinyin());
+        assertEquals(Arrays.asList("BJS", "PEK", "PKX"), beijing.getCodes());
+        assertEquals(40L, beijing.getFlightCount());
+
+        // 航空公司：IATA代码、别名
+        assertEquals(Arrays.asList("四川航空"), names(index.suggest("3u", Suggestion.AIRLINE, 10)));
+        assertEquals(Arrays.asList("中国国际航空"), names(index.suggest("国航", Suggestion.AIRLINE, 10)));
+        assertEquals(Arrays.asList("中国国际航空"), names(index.suggest("zggjhk", Suggestion.AIRLINE, 10)));
+
+        // 不指定类型时两类按航班数合并，四川航空通过别名 chuan hang 匹配
+        assertEquals(Arrays.asList("中国国际航空", "成都", "四川航空"), names(index.suggest("c", null, 10)));
+        assertEquals(1, index.suggest("b", Suggestion.CITY, 1).size());
+        assertEquals(1, index.suggest("c", null, -5).size());
+        assertEquals(1, index.suggest("b", Suggestion.CITY, 0).size());
+        assertTrue(index.suggest("xyz", null, 10).isEmpty());
+    }
+
+    @Test
+    void testFlightChangeTriggersDebouncedRebuild() throws InterruptedException {
+        AutocompleteIndex index = new AutocompleteIndex(flightMapper, true, 0L, 50L, 20);
+        try {
+            index.rebuild();
+            assertTrue(index.suggest("cq", Suggestion.CITY, 10).isEmpty());
+
+            when(flightMapper.countByCity()).thenReturn(Arrays.asList(new NameCount("重庆", 5)));
+            index.onFlightChanged(new FlightChangedEvent("CQ1001"));
+            index.onFlightChanged(new FlightChangedEvent("CQ1002"));
+
+            long deadline = System.currentTimeMillis() + 5000L;
+            while (index.suggest("cq", Suggestion.CITY, 10).isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            assertEquals(Arrays.asList("重庆"), names(index.suggest("cq", Suggestion.CITY, 10)));
+            // 两次变更合并成一次重建
+            verify(flightMapper, times(2)).countByCity();
+        } finally {
+            index.shutdown();
+        }
+    }
+
+    @Test
+    void testLookupIsMicrosecondScale() {
+        List<NameCount> cities = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            cities.add(new NameCount("城市" + i, i));
+        }
+        cities.add(new NameCount("北京", 100000));
+        when(flightMapper.countByCity()).thenReturn(cities);
+        AutocompleteIndex index = new AutocompleteIndex(flightMapper, true, 0L, 0L, 20);
+        index.rebuild();
+
+        String[] keywords = {"b", "bj", "bei", "beij", "pek", "城", "城市1", "城市12", "北"};
+        int iterations = 200000;
+        for (int i = 0; i < iterations; i++) {
+            index.suggest(keywords[i % keywords.length], Suggestion.CITY, 10);
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            index.suggest(keywords[i % keywords.length], Suggestion.CITY, 10);
+        }
+        long averageNanos = (System.nanoTime() - startNanos) / iterations;
+        assertTrue(averageNanos < 20_000L, "average=" + averageNanos + "ns");
+    }
+
+    private static List<String> names(List<Suggestion> suggestions) {
+        List<String> names = new ArrayList<>();
+        suggestions.forEach(suggestion -> names.add(suggestion.getName()));
+        return names;
+    }
+}
@@ -0,0 +1,156 @@
+package com.liajay.flightbooking.inventory.service.search;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightStatus;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.dto.ConnectionQueryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ConnectionSearchEngine单元测试
+ */
+class ConnectionSearchEngineTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void testFindsOneAndTwoStopItinerariesWithinLayoverWindow() {
+        List<Flight> flights = Arrays.asList(
+                flight(1L, "CA4101", "成都", "北京", DAY.atTime(8, 0), DAY.atTime(10, 30), "1200"),
+                flight(2L, "CA1371", "北京", "海口", DAY.atTime(12, 0), DAY.atTime(16, 0), "1500"),
+                // 停留不足60分钟，不能衔接
+                flight(3L, "HU7181", "北京", "海口", DAY.atTime(11, 0), DAY.atTime(15, 0), "900"),
+                flight(4L, "MU5401", "成都", "上海", DAY.atTime(7, 0), DAY.atTime(9, 30), "800"),
+                flight(5L, "MU6311", "上海", "海口", DAY.atTime(11, 0), DAY.atTime(14, 0), "700"),
+                flight(6L, "3U8811", "成都", "西安", DAY.atTime(6, 0), DAY.atTime(7, 30), "400"),
+                flight(7L, "MU2101", "西安", "上海", DAY.atTime(9, 0), DAY.atTime(11, 0), "300"),
+                flight(8L, "MU6313", "上海", "海口", DAY.atTime(13, 0), DAY.atTime(16, 0), "500"),
+                // 经过出发城市的行程不返回
+                flight(9L, "3U8812", "西安", "成都", DAY.atTime(9, 0), DAY.atTime(10, 30), "200"),
+                flight(10L, "3U8701", "成都", "海口", DAY.plusDays(1).atTime(8, 0), DAY.plusDays(1).atTime(10, 30), "1800"));
+        ConnectionSearchEngine engine = engine(flights);
+
+        ConnectionQueryDTO query = query("成都", "海口");
+        List<Itinerary> byDuration = engine.search(query);
+        assertEquals(Arrays.asList("MU5401/MU6311", "CA4101/CA1371", "MU5401/MU6313", "3U8811/MU2101/MU6313"),
+                flightNumbers(byDuration));
+        assertEquals(420L, byDuration.get(0).getDurationMinutes());
+        assertEquals(1, byDuration.get(0).getStops());
+        assertEquals(new BigDecimal("1500"), byDuration.get(0).getTotalPrice());
+
+        query.setSortBy("price");
+        assertEquals(Arrays.asList("3U8811/MU2101/MU6313", "MU5401/MU6313", "MU5401/MU6311", "CA4101/CA1371"),
+                flightNumbers(engine.search(query)));
+
+        query.setMaxStops(1);
+        query.setLimit(1);
+        assertEquals(Arrays.asList("MU5401/MU6313"), flightNumbers(engine.search(query)));
+
+        // 第二天只有直飞
+        query.setMaxStops(0);
+        query.setStartTime(DAY.plusDays(1).atStartOfDay());
+        query.setEndTime(DAY.plusDays(1).atTime(23, 59, 59));
+        assertEquals(Arrays.asList("3U8701"), flightNumbers(engine.search(query)));
+
+        ConnectionQueryDTO sameCity = query("成都", "成都");
+        assertThrows(IllegalArgumentException.class, () -> engine.search(sameCity));
+    }
+
+    @Test
+    void testSearchOnBusyScheduleAnswersInTensOfMilliseconds() {
+        // 40 个城市全连通，每条航线每天 3 班，共约 4700 班/天
+        int cityCount = 40;
+        List<Flight> flights = new ArrayList<>();
+        Random random = new Random(7);
+        long id = 1L;
+        for (int from = 0; from < cityCount; from++) {
+            for (int to = 0; to < cityCount; to++) {
+                if (from == to) {
+                    continue;
+                }
+                for (int slot = 0; slot < 3; slot++) {
+                    LocalDateTime departure = DAY.atTime(6, 0).plusMinutes(random.nextInt(16 * 60));
+                    flights.add(flight(id, "FL" + id, "C" + from, "C" + to, departure,
+                            departure.plusMinutes(60 + random.nextInt(180)), String.valueOf(300 + random.nextInt(1500))));
+                    id++;
+                }
+            }
+        }
+        ConnectionSearchEngine engine = engine(flights);
+
+        int warmup = 20;
+        int runs = 100;
+        long[] nanos = new long[runs];
+        for (int i = 0; i < warmup + runs; i++) {
+            ConnectionQueryDTO query = query("C" + (i % cityCount), "C" + ((i * 7 + 1) % cityCount));
+            query.setSortBy(i % 2 == 0 ? "duration" : "price");
+            long begin = System.nanoTime();
+            List<Itinerary> result = engine.search(query);
+            long elapsed = System.nanoTime() - begin;
+            if (i >= warmup) {
+                nanos[i - warmup] = elapsed;
+            }
+            assertFalse(result.isEmpty());
+            assertTrue(result.size() <= 20);
+        }
+        // 取 p90，避免单次 GC 停顿导致误报
+        Arrays.sort(nanos);
+        long p90 = nanos[(int) (runs * 0.9)];
+        assertTrue(p90 < 50_000_000L, "p90=" + p90 / 1_000 + "us");
+    }
+
+    private static ConnectionSearchEngine engine(List<Flight> flights) {
+        FlightMapper flightMapper = mock(FlightMapper.class);
+        when(flightMapper.findAll()).thenReturn(flights);
+        FlightRouteIndex index = new FlightRouteIndex(flightMapper, true, 0L);
+        index.rebuild();
+        return new ConnectionSearchEngine(index);
+    }
+
+    private static ConnectionQueryDTO query(String from, String to) {
+        ConnectionQueryDTO query = new ConnectionQueryDTO();
+        query.setDepartureCity(from);
+        query.setArrivalCity(to);
+        query.setStartTime(DAY.atStartOfDay());
+        query.setEndTime(DAY.atTime(23, 59, 59));
+        return query;
+    }
+
+    private static List<String> flightNumbers(List<Itinerary> itineraries) {
+        List<String> result = new ArrayList<>();
+        for (Itinerary itinerary : itineraries) {
+            StringBuilder builder = new StringBuilder();
+            for (Flight leg : itinerary.getLegs()) {
+                builder.append(builder.length() > 0 ? "/" : "").append(leg.getFlightNumber());
+            }
+            result.add(builder.toString());
+        }
+        return result;
+    }
+
+    private static Flight flight(Long id, String flightNumber, String from, String to,
+                                 LocalDateTime departureTime, LocalDateTime arrivalTime, String price) {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFlightNumber(flightNumber);
+        flight.setAirline("测试航空");
+        flight.setDepartureCity(from);
+        flight.setArrivalCity(to);
+        flight.setDepartureTime(departureTime);
+        flight.setArrivalTime(arrivalTime);
+        flight.setBasePrice(new BigDecimal(price));
+        flight.setStatus(FlightStatus.SCHEDULED);
+        return flight;
+    }
+}
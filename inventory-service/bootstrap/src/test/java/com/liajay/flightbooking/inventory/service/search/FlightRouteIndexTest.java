@@ -0,0 +1,187 @@
+package com.liajay.flightbooking.inventory.service.search;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightStatus;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.cache.FlightChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * FlightRouteIndex单元测试
+ */
+class FlightRouteIndexTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    private FlightMapper flightMapper;
+
+    @BeforeEach
+    void setUp() {
+        flightMapper = mock(FlightMapper.class);
+        when(flightMapper.findAll()).thenReturn(List.of(
+                flight(1L, "CA1234", "中国国际航空", "北京", "上海", FIRST_DAY.atTime(8, 0), FlightStatus.SCHEDULED),
+                flight(2L, "MU5678", "中国东方航空", "北京", "上海", FIRST_DAY.atTime(10, 0), FlightStatus.SCHEDULED),
+                flight(3L, "CA1235", "中国国际航空", "北京", "上海", FIRST_DAY.atTime(8, 0), FlightStatus.CANCELLED),
+                flight(4L, "CA1236", "中国国际航空", "北京", "上海", FIRST_DAY.plusDays(1).atTime(8, 0), FlightStatus.SCHEDULED),
+                flight(5L, "CZ9012", "中国南方航空", "上海", "北京", FIRST_DAY.atTime(9, 0), FlightStatus.SCHEDULED)));
+    }
+
+    @Test
+    void testFindByRouteAndDepartureWindow() {
+        FlightRouteIndex index = new FlightRouteIndex(flightMapper, true, 0L);
+        assertFalse(index.isReady());
+        assertNull(index.find("北京", "上海", null, null, null, null, null, null, null, null, 0, 10));
+
+        index.rebuild();
+        assertTrue(index.isReady());
+
+        LocalDateTime start = FIRST_DAY.atStartOfDay();
+        LocalDateTime end = FIRST_DAY.atTime(23, 59, 59);
+        assertEquals(Arrays.asList(1L, 3L, 2L), ids(index.find("北京", "上海", start, end, null, null, null, null, null, null, 0, 10)));
+        assertEquals(Arrays.asList(1L, 2L), ids(index.find("北京", "上海", start, end, FlightStatus.SCHEDULED, null, null, null, null, null, 0, 10)));
+        assertEquals(Arrays.asList(1L, 3L, 4L), ids(index.find("北京", "上海", null, null, null, "中国国际航空", null, null, null, null, 0, 10)));
+        assertEquals(Arrays.asList(3L, 2L), ids(index.find("北京", "上海", start, end, null, null, null, null, null, null, 1, 10)));
+        assertEquals(3L, index.count("北京", "上海", start, end, null, null, null, null));
+        assertEquals(2L, index.count("北京", "上海", start, end, FlightStatus.SCHEDULED, null, null, null));
+
+        // 游标：从 (08:00, id=1) 之后继续
+        assertEquals(Arrays.asList(3L, 2L, 4L), ids(index.find("北京", "上海", null, null, null, null, null, null,
+                FIRST_DAY.atTime(8, 0), 1L, 0, 10)));
+
+        assertTrue(index.find("上海", "广州", null, null, null, null, null, null, null, null, 0, 10).isEmpty());
+        assertEquals(0L, index.count("成都", "北京", null, null, null, null, null, null));
+    }
+
+    @Test
+    void testFlightChangesAreAppliedIncrementally() {
+        FlightRouteIndex index = new FlightRouteIndex(flightMapper, true, 0L);
+        index.rebuild();
+
+        // MU5678 改为 07:00 起飞
+        when(flightMapper.findByFlightNumbers(List.of("MU5678"))).thenReturn(List.of(
+                flight(2L, "MU5678", "中国东方航空", "北京", "上海", FIRST_DAY.atTime(7, 0), FlightStatus.SCHEDULED)));
+        index.onFlightChanged(new FlightChangedEvent("MU5678"));
+        assertEquals(Arrays.asList(2L, 1L, 3L, 4L), ids(index.find("北京", "上海", null, null, null, null, null, null, null, null, 0, 10)));
+
+        // CA1236 改飞广州
+        when(flightMapper.findByFlightNumbers(List.of("CA1236"))).thenReturn(List.of(
+                flight(4L, "CA1236", "中国国际航空", "北京", "广州", FIRST_DAY.plusDays(1).atTime(8, 0), FlightStatus.SCHEDULED)));
+        index.onFlightChanged(new FlightChangedEvent("CA1236"));
+        assertEquals(Arrays.asList(2L, 1L, 3L), ids(index.find("北京", "上海", null, null, null, null, null, null, null, null, 0, 10)));
+        assertEquals(Arrays.asList(4L), ids(index.find("北京", "广州", null, null, null, null, null, null, null, null, 0, 10)));
+
+        // 一个事件中同时有新航班与删除的航班
+        when(flightMapper.findByFlightNumbers(List.of("3U3456", "CA1235", "HU7001"))).thenReturn(List.of(
+                flight(6L, "3U3456", "四川航空", "北京", "上海", FIRST_DAY.atTime(9, 0), FlightStatus.SCHEDULED),
+                flight(7L, "HU7001", "海南航空", "北京", "上海", FIRST_DAY.atTime(8, 0), FlightStatus.SCHEDULED)));
+        index.onFlightChanged(new FlightChangedEvent(List.of("3U3456", "CA1235", "HU7001")));
+        assertEquals(Arrays.asList(2L, 1L, 7L, 6L), ids(index.find("北京", "上海", null, null, null, null, null, null, null, null, 0, 10)));
+        assertEquals(6, index.getMetrics().get("flightCount"));
+    }
+
+    @Test
+    void testFindTopKeepsCheapestFlightsWithinPriceRange() {
+        List<Flight> flights = new ArrayList<>();
+        int[] prices = {900, 450, 1200, 450, 680, 300, 1500, 760};
+        for (int i = 0; i < prices.length; i++) {
+            Flight flight = flight((long) i + 1, "CA" + (1000 + i), "中国国际航空", "北京", "上海",
+                    FIRST_DAY.atTime(6 + i, 0), FlightStatus.SCHEDULED);
+            flight.setBasePrice(new BigDecimal(prices[i]));
+            flights.add(flight);
+        }
+        when(flightMapper.findAll()).thenReturn(flights);
+        FlightRouteIndex index = new FlightRouteIndex(flightMapper, true, 0L);
+        index.rebuild();
+
+        Comparator<Flight> cheapest = FlightSortKey.BASE_PRICE.comparator(false);
+        assertEquals(Arrays.asList(6L, 2L, 4L), ids(index.findTop("北京", "上海", null, null, null, null,
+                null, null, cheapest, null, 3)));
+        assertEquals(Arrays.asList(2L, 4L, 5L, 8L, 1L), ids(index.findTop("北京", "上海", null, null, null, null,
+                new BigDecimal("400"), new BigDecimal("1000"), cheapest, null, 10)));
+        assertEquals(4L, index.count("北京", "上海", null, null, null, null, new BigDecimal("400"), new BigDecimal("800")));
+
+        // 降序 + 游标：排在 (900, id=1) 之后
+        Comparator<Flight> dearest = FlightSortKey.BASE_PRICE.comparator(true);
+        assertEquals(Arrays.asList(8L, 5L), ids(index.findTop("北京", "上海", null, null, null, null, null, null,
+                dearest, FlightSortKey.BASE_PRICE.after(new BigDecimal("900"), 1L, true), 2)));
+    }
+
+    @Test
+    void testOneDaySearchOnLargeTimetableIsSubMillisecond() {
+        // 30 条航线 × 365 天 × 30 班 ≈ 33 万个航班
+        String[] cities = {"北京", "上海", "广州", "深圳", "成都", "杭州"};
+        List<Flight> flights = new ArrayList<>();
+        long id = 1L;
+        for (String from : cities) {
+            for (String to : cities) {
+                if (from.equals(to)) {
+                    continue;
+                }
+                for (int day = 0; day < 365; day++) {
+                    for (int slot = 0; slot < 30; slot++) {
+                        flights.add(flight(id, "FL" + id, "基准航空", from, to,
+                                FIRST_DAY.plusDays(day).atTime(6, 0).plusMinutes(slot * 30L), FlightStatus.SCHEDULED));
+                        id++;
+                    }
+                }
+            }
+        }
+        when(flightMapper.findAll()).thenReturn(flights);
+        FlightRouteIndex index = new FlightRouteIndex(flightMapper, true, 0L);
+        index.rebuild();
+
+        Random random = new Random(42);
+        int iterations = 20000;
+        long[] nanos = new long[iterations];
+        for (int i = -2000; i < iterations; i++) {
+            String from = cities[random.nextInt(cities.length)];
+            String to = cities[(Arrays.asList(cities).indexOf(from) + 1 + random.nextInt(cities.length - 1)) % cities.length];
+            LocalDateTime start = FIRST_DAY.plusDays(random.nextInt(365)).atStartOfDay();
+            long begin = System.nanoTime();
+            List<Flight> result = index.find(from, to, start, start.plusHours(23).plusMinutes(59).plusSeconds(59),
+                    FlightStatus.SCHEDULED, null, null, null, null, null, 0, 20);
+            long elapsed = System.nanoTime() - begin;
+            assertEquals(20, result.size());
+            if (i >= 0) {
+                nanos[i] = elapsed;
+            }
+        }
+        Arrays.sort(nanos);
+        long p99 = nanos[(int) (iterations * 0.99)];
+        assertTrue(p99 < 1_000_000L, "p99=" + p99 + "ns");
+    }
+
+    private static List<Long> ids(List<Flight> flights) {
+        List<Long> ids = new ArrayList<>();
+        flights.forEach(flight -> ids.add(flight.getId()));
+        return ids;
+    }
+
+    private static Flight flight(Long id, String flightNumber, String airline, String from, String to,
+                                 LocalDateTime departureTime, FlightStatus status) {
+        Flight flight = new Flight();
+        flight.setId(id);
+        flight.setFlightNumber(flightNumber);
+        flight.setAirline(airline);
+        flight.setDepartureCity(from);
+        flight.setArrivalCity(to);
+        flight.setDepartureTime(departureTime);
+        flight.setArrivalTime(departureTime.plusHours(2));
+        flight.setBasePrice(new BigDecimal("800.00"));
+        flight.setStatus(status);
+        return flight;
+    }
+}
@@ -0,0 +1,100 @@
+package com.liajay.flightbooking.inventory.service.seatmap;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.service.dto.SeatMapDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SeatMapSnapshot单元测试
+ */
+class SeatMapSnapshotTest {
+
+    @Test
+    void testLayoutAndAvailabilityBits() {
+        List<Seat> seats = new ArrayList<>();
+        // 商务舱 1-2 排 AC 列，经济舱 3-4 排 ABC 列，其中 4B 不存在
+        for (int row = 1; row <= 2; row++) {
+            for (String column : new String[]{"A", "C"}) {
+                seats.add(seat(row + column, SeatClass.BUSINESS, "1200.00", true));
+            }
+        }
+        for (int row = 3; row <= 4; row++) {
+            for (String column : new String[]{"A", "B", "C"}) {
+                if (!(row == 4 && column.equals("B"))) {
+                    seats.add(seat(row + column, SeatClass.ECONOMY, "800.00", true));
+                }
+            }
+        }
+        seats.get(1).setIsAvailable(false); // 1C
+        seats.get(4).setIsAvailable(false); // 3A
+
+        SeatMapDTO dto = SeatMapSnapshot.build("CA1234", 1L, seats).toDTO();
+
+        assertEquals(9, dto.getTotalSeats());
+        assertEquals(7, dto.getAvailableSeats());
+        assertEquals(2, dto.getCabins().size());
+        assertEquals("BUSINESS", dto.getCabins().get(0).getSeatClass());
+        assertEquals("AC", dto.getCabins().get(0).getColumns());
+        assertEquals("ABC", dto.getCabins().get(1).getColumns());
+        assertEquals(3, dto.getCabins().get(1).getFirstRow());
+
+        // 网格：商务舱 4 个位置（0-3），经济舱 6 个位置（4-9）
+        BitSet present = BitSet.valueOf(Base64.getDecoder().decode(dto.getPresent()));
+        BitSet available = BitSet.valueOf(Base64.getDecoder().decode(dto.getAvailable()));
+        assertFalse(present.get(8)); // 4B
+        assertEquals(9, present.cardinality());
+        assertFalse(available.get(1)); // 1C
+        assertFalse(available.get(4)); // 3A
+        assertTrue(available.get(9)); // 4C
+        assertEquals(7, available.cardinality());
+    }
+
+    @Test
+    void testBinaryEncodingAndEtag() throws IOException {
+        List<Seat> seats = new ArrayList<>();
+        for (int row = 1; row <= 30; row++) {
+            for (String column : new String[]{"A", "B", "C", "D", "E", "F"}) {
+                seats.add(seat(row + column, SeatClass.ECONOMY, "800.00", row % 2 == 0));
+            }
+        }
+        SeatMapSnapshot snapshot = SeatMapSnapshot.build("CA1234", 7L, seats);
+        assertNull(snapshot.toDTO().getPresent()); // 网格全满，不需要 present 位集
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot.toBinary()));
+        assertEquals(7L, in.readLong());
+        assertEquals(1, in.readByte());
+        assertEquals(SeatClass.ECONOMY.ordinal(), in.readByte());
+        assertEquals(1, in.readShort());
+        assertEquals(30, in.readShort());
+        byte[] columns = new byte[in.readByte()];
+        in.readFully(columns);
+        assertEquals("ABCDEF", new String(columns));
+        assertEquals(80000, in.readInt());
+        assertEquals(0, in.readByte());
+        assertEquals(23, in.readInt()); // 180 位
+        assertTrue(snapshot.toBinary().length < 64);
+
+        // 版本号不同但内容相同时 ETag 相同
+        assertEquals(snapshot.getEtag(), SeatMapSnapshot.build("CA1234", 8L, seats).getEtag());
+        seats.get(0).setIsAvailable(true);
+        assertNotEquals(snapshot.getEtag(), SeatMapSnapshot.build("CA1234", 9L, seats).getEtag());
+    }
+
+    private static Seat seat(String seatNumber, SeatClass seatClass, String price, boolean available) {
+        Seat seat = new Seat("CA1234", seatNumber, seatClass, new BigDecimal(price));
+        seat.setIsAvailable(available);
+        return seat;
+    }
+}
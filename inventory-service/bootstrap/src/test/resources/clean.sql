@@ -1,3 +1,4 @@
 USE flight_booking_test;
+DROP TABLE IF EXISTS flight_inventory;
 DROP TABLE IF EXISTS seats;
 DROP TABLE IF EXISTS flights;
\ No newline at end of file
@@ -66,4 +66,10 @@ SELECT 'CZ9012', seat_number, seat_class, TRUE, price FROM (
 
 UPDATE seats SET is_available = FALSE WHERE flight_number = 'CA1234' AND seat_number IN ('1A', '1C', '7A', '7B', '12F');
 UPDATE seats SET is_available = FALSE WHERE flight_number = 'MU5678' AND seat_number IN ('2A', '2C', '8A', '8B', '15D', '15E');
-UPDATE seats SET is_available = FALSE WHERE flight_number = 'CZ9012' AND seat_number IN ('5A', '5B', '10A', '15C');
\ No newline at end of file
+UPDATE seats SET is_available = FALSE WHERE flight_number = 'CZ9012' AND seat_number IN ('5A', '5B', '10A', '15C');
+
+-- 根据座位数据初始化航班库存汇总
+INSERT INTO flight_inventory (flight_number, seat_class, total_seats, available_seats)
+SELECT flight_number, seat_class, COUNT(*), SUM(CASE WHEN is_available = TRUE THEN 1 ELSE 0 END)
+FROM seats
+GROUP BY flight_number, seat_class;
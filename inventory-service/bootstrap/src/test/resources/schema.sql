@@ -17,7 +17,8 @@ CREATE TABLE IF NOT EXISTS flights (
     INDEX idx_arrival_city (arrival_city),
     INDEX idx_departure_time (departure_time),
     INDEX idx_status (status),
-    INDEX idx_route (departure_city, arrival_city),
+    INDEX idx_route_time (departure_city, arrival_city, departure_time),
+    INDEX idx_route_price (departure_city, arrival_city, base_price),
     INDEX idx_airline (airline)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='航班表';
 
@@ -29,6 +30,9 @@ CREATE TABLE IF NOT EXISTS seats (
      `seat_class` VARCHAR(20) NOT NULL COMMENT '舱位等级',
      `is_available` BOOLEAN NOT NULL DEFAULT TRUE COMMENT '是否可用',
      `price` DECIMAL(10,2) NOT NULL COMMENT '座位价格',
+     `hold_token` VARCHAR(64) NULL COMMENT '预留凭证，非空表示座位处于预留状态',
+     `hold_expire_time` DATETIME NULL COMMENT '预留过期时间',
+     `allocation_key` VARCHAR(64) NULL COMMENT '分配请求键，同一请求键重复分配时返回同一座位',
      `created_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
      `updated_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
      UNIQUE KEY uk_flight_seat (flight_number, seat_number),
@@ -36,6 +40,18 @@ CREATE TABLE IF NOT EXISTS seats (
      INDEX idx_seat_class (seat_class),
      INDEX idx_is_available (is_available),
      INDEX idx_flight_available (flight_number, is_available),
-     INDEX idx_flight_class (flight_number, seat_class)
+     INDEX idx_flight_class_seat (flight_number, seat_class, seat_number),
+     INDEX idx_flight_class_available_seat (flight_number, seat_class, is_available, seat_number),
+     INDEX idx_hold_token (hold_token),
+     UNIQUE KEY uk_allocation_key (allocation_key)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='座位表';
 
+-- 创建航班库存汇总表
+CREATE TABLE IF NOT EXISTS flight_inventory (
+     `flight_number` VARCHAR(20) NOT NULL COMMENT '航班号',
+     `seat_class` VARCHAR(20) NOT NULL COMMENT '舱位等级',
+     `total_seats` INT NOT NULL DEFAULT 0 COMMENT '座位总数',
+     `available_seats` INT NOT NULL DEFAULT 0 COMMENT '可用座位数',
+     `updated_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+     PRIMARY KEY (flight_number, seat_class)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='航班库存汇总表';
@@ -0,0 +1,29 @@
+package com.liajay.flightbooking.inventory.dal.dataobject;
+
+/**
+ * 航班导出行
+ * DAL层 - 航班信息 + flight_inventory 汇总的座位数，流式导出时一条查询返回全部字段
+ *
+ * @author liajay
+ */
+public class FlightExportRow extends Flight {
+
+    private long totalSeats;
+    private long availableSeats;
+
+    public long getTotalSeats() {
+        return totalSeats;
+    }
+
+    public void setTotalSeats(long totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+
+    public long getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(long availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+}
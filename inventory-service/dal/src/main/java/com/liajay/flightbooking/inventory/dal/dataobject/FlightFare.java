@@ -0,0 +1,84 @@
+package com.liajay.flightbooking.inventory.dal.dataobject;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 航班票价汇总
+ * DAL层 - 单个航班可用座位的最低价和剩余座位数
+ *
+ * @author liajay
+ */
+public class FlightFare {
+
+    private String flightNumber;
+    private String departureCity;
+    private String arrivalCity;
+    private LocalDateTime departureTime;
+
+    /**
+     * 可用座位的最低价，没有可用座位时为null
+     */
+    private BigDecimal minPrice;
+    private int availableSeats;
+
+    public FlightFare() {}
+
+    public FlightFare(String flightNumber, String departureCity, String arrivalCity, LocalDateTime departureTime,
+                      BigDecimal minPrice, int availableSeats) {
+        this.flightNumber = flightNumber;
+        this.departureCity = departureCity;
+        this.arrivalCity = arrivalCity;
+        this.departureTime = departureTime;
+        this.minPrice = minPrice;
+        this.availableSeats = availableSeats;
+    }
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+
+    public String getDepartureCity() {
+        return departureCity;
+    }
+
+    public void setDepartureCity(String departureCity) {
+        this.departureCity = departureCity;
+    }
+
+    public String getArrivalCity() {
+        return arrivalCity;
+    }
+
+    public void setArrivalCity(String arrivalCity) {
+        this.arrivalCity = arrivalCity;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(LocalDateTime departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public int getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(int availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+}
@@ -0,0 +1,36 @@
+package com.liajay.flightbooking.inventory.dal.dataobject;
+
+/**
+ * 名称计数
+ * DAL层 - 按城市或航空公司聚合的航班数
+ *
+ * @author liajay
+ */
+public class NameCount {
+
+    private String name;
+    private long flightCount;
+
+    public NameCount() {}
+
+    public NameCount(String name, long flightCount) {
+        this.name = name;
+        this.flightCount = flightCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getFlightCount() {
+        return flightCount;
+    }
+
+    public void setFlightCount(long flightCount) {
+        this.flightCount = flightCount;
+    }
+}
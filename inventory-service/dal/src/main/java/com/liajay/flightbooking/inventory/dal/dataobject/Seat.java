@@ -15,6 +15,7 @@ public class Seat {
     private SeatClass seatClass;
     private Boolean isAvailable;
     private BigDecimal price;
+    private String allocationKey;
 
     // 无参构造函数
     public Seat() {}
@@ -77,6 +78,14 @@ public class Seat {
         this.price = price;
     }
 
+    public String getAllocationKey() {
+        return allocationKey;
+    }
+
+    public void setAllocationKey(String allocationKey) {
+        this.allocationKey = allocationKey;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,69 @@
+package com.liajay.flightbooking.inventory.dal.dataobject;
+
+import java.math.BigDecimal;
+
+/**
+ * 舱位座位统计
+ * DAL层 - 按舱位聚合的座位数和票价
+ *
+ * @author liajay
+ */
+public class SeatClassStatistics {
+
+    private SeatClass seatClass;
+    private long totalSeats;
+    private long availableSeats;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal avgPrice;
+
+    public SeatClassStatistics() {}
+
+    public SeatClass getSeatClass() {
+        return seatClass;
+    }
+
+    public void setSeatClass(SeatClass seatClass) {
+        this.seatClass = seatClass;
+    }
+
+    public long getTotalSeats() {
+        return totalSeats;
+    }
+
+    public void setTotalSeats(long totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+
+    public long getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(long availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public BigDecimal getAvgPrice() {
+        return avgPrice;
+    }
+
+    public void setAvgPrice(BigDecimal avgPrice) {
+        this.avgPrice = avgPrice;
+    }
+}
@@ -0,0 +1,49 @@
+package com.liajay.flightbooking.inventory.dal.dataobject;
+
+/**
+ * 座位数量统计
+ * DAL层 - 按航班、舱位聚合的座位总数和可用数
+ *
+ * @author liajay
+ */
+public class SeatCount {
+
+    private String flightNumber;
+    private SeatClass seatClass;
+    private long totalSeats;
+    private long availableSeats;
+
+    public SeatCount() {}
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+
+    public SeatClass getSeatClass() {
+        return seatClass;
+    }
+
+    public void setSeatClass(SeatClass seatClass) {
+        this.seatClass = seatClass;
+    }
+
+    public long getTotalSeats() {
+        return totalSeats;
+    }
+
+    public void setTotalSeats(long totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+
+    public long getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(long availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+}
@@ -0,0 +1,20 @@
+package com.liajay.flightbooking.inventory.dal.dataobject;
+
+/**
+ * 座位导出行
+ * DAL层 - 座位信息 + 所属航班的航空公司，流式导出时一条查询返回全部字段
+ *
+ * @author liajay
+ */
+public class SeatExportRow extends Seat {
+
+    private String airline;
+
+    public String getAirline() {
+        return airline;
+    }
+
+    public void setAirline(String airline) {
+        this.airline = airline;
+    }
+}
@@ -0,0 +1,42 @@
+package com.liajay.flightbooking.inventory.dal.dataobject;
+
+import java.time.LocalDateTime;
+
+/**
+ * 座位预留记录
+ * DAL层 - 按 hold_token 聚合 seats 表中处于预留状态的座位
+ *
+ * @author liajay
+ */
+public class SeatHold {
+
+    private String holdToken;
+    private String flightNumber;
+    private LocalDateTime expireTime;
+
+    public SeatHold() {}
+
+    public String getHoldToken() {
+        return holdToken;
+    }
+
+    public void setHoldToken(String holdToken) {
+        this.holdToken = holdToken;
+    }
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+
+    public LocalDateTime getExpireTime() {
+        return expireTime;
+    }
+
+    public void setExpireTime(LocalDateTime expireTime) {
+        this.expireTime = expireTime;
+    }
+}
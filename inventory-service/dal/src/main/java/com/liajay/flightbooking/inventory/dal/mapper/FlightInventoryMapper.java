@@ -0,0 +1,54 @@
+package com.liajay.flightbooking.inventory.dal.mapper;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatCount;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 航班库存汇总Mapper
+ * flight_inventory 表按航班、舱位记录座位总数和可用数，随座位占用/释放在同一事务中维护
+ *
+ * @author liajay
+ */
+@Mapper
+public interface FlightInventoryMapper {
+
+    /**
+     * 查询航班库存汇总
+     * @param flightNumbers 航班号列表，不能为空
+     */
+    List<SeatCount> findByFlightNumbers(@Param("flightNumbers") List<String> flightNumbers);
+
+    /**
+     * 调整可用座位数
+     * @param delta 变化量，占用为负数，释放为正数
+     */
+    int adjustAvailableSeats(@Param("flightNumber") String flightNumber,
+                             @Param("seatClass") SeatClass seatClass,
+                             @Param("delta") int delta);
+
+    /**
+     * 根据 seats 表重建库存汇总，不删除已没有座位的汇总行
+     * 返回值受驱动 useAffectedRows 设置影响，不能用来判断数据是否一致
+     * @param flightNumbers 航班号列表，为空时重建全部航班
+     * @return 受影响行数
+     */
+    int rebuild(@Param("flightNumbers") List<String> flightNumbers);
+
+    /**
+     * 删除已没有座位的航班舱位的汇总行
+     * @param flightNumbers 航班号列表，为空时检查全部航班
+     * @return 删除的行数
+     */
+    int deleteStale(@Param("flightNumbers") List<String> flightNumbers);
+
+    /**
+     * 查询与 seats 表不一致的库存汇总
+     * @param flightNumbers 航班号列表，为空时检查全部航班
+     * @return 不一致的航班舱位及其按 seats 表统计的座位数，多余的汇总行计为0
+     */
+    List<SeatCount> findDrifted(@Param("flightNumbers") List<String> flightNumbers);
+}
@@ -1,12 +1,18 @@
 package com.liajay.flightbooking.inventory.dal.mapper;
 
 import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightExportRow;
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightFare;
 import com.liajay.flightbooking.inventory.dal.dataobject.FlightStatus;
+import com.liajay.flightbooking.inventory.dal.dataobject.NameCount;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 航班数据访问Mapper - MyBatis版本
@@ -20,8 +26,45 @@ public interface FlightMapper {
      */
     Flight findByFlightNumber(@Param("flightNumber") String flightNumber);
 
+    /**
+     * 批量根据航班号查询航班，不存在的航班号不返回
+     * @param flightNumbers 航班号列表，不能为空
+     */
+    List<Flight> findByFlightNumbers(@Param("flightNumbers") List<String> flightNumbers);
+
+    /**
+     * 查询全部航班，用于构建内存航线索引
+     */
+    List<Flight> findAll();
+
+    /**
+     * 按城市统计航班数，出发和到达各计一次
+     */
+    List<NameCount> countByCity();
+
+    /**
+     * 按航空公司统计航班数
+     */
+    List<NameCount> countByAirline();
+
+    /**
+     * 统计计划中（SCHEDULED）航班的可用座位最低价和剩余座位数
+     *
+     * @param flightNumbers 航班号列表，为空时不限
+     * @param startTime     起飞时间下限（含），为null表示不限
+     * @param endTime       起飞时间上限（含），为null表示不限
+     */
+    List<FlightFare> findFares(@Param("flightNumbers") List<String> flightNumbers,
+                               @Param("departureCity") String departureCity,
+                               @Param("arrivalCity") String arrivalCity,
+                               @Param("startTime") LocalDateTime startTime,
+                               @Param("endTime") LocalDateTime endTime);
+
     /**
      * 复杂条件查询航班
+     *
+     * @param sortColumn     排序列，只能传入白名单中的列名，为null时按 departure_time 排序
+     * @param sortDescending 是否降序
      */
     List<Flight> findByConditions(
             @Param("flightNumber") String flightNumber,
@@ -31,9 +74,38 @@ public interface FlightMapper {
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime,
             @Param("status") FlightStatus status,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("sortColumn") String sortColumn,
+            @Param("sortDescending") boolean sortDescending,
             @Param("offset") int offset,
             @Param("pageSize") int pageSize);
 
+    /**
+     * 游标分页查询航班，按 (sortColumn, id) 返回排在指定位置之后的航班
+     *
+     * @param sortColumn     排序列，只能传入白名单中的列名，为null时按 departure_time 排序
+     * @param sortDescending 是否降序
+     * @param afterSortValue 上一页最后一个航班的排序列取值，为null时从第一条开始
+     * @param afterId        上一页最后一个航班的ID
+     * @param limit          最多返回的条数
+     */
+    List<Flight> findByConditionsAfter(
+            @Param("flightNumber") String flightNumber,
+            @Param("airline") String airline,
+            @Param("departureCity") String departureCity,
+            @Param("arrivalCity") String arrivalCity,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("status") FlightStatus status,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("sortColumn") String sortColumn,
+            @Param("sortDescending") boolean sortDescending,
+            @Param("afterSortValue") Object afterSortValue,
+            @Param("afterId") Long afterId,
+            @Param("limit") int limit);
+
     /**
      * 根据条件统计航班总数
      */
@@ -44,5 +116,46 @@ public interface FlightMapper {
             @Param("arrivalCity") String arrivalCity,
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime,
-            @Param("status") FlightStatus status);
+            @Param("status") FlightStatus status,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice);
+
+    /**
+     * 根据条件获取执行计划，用于估算航班总数
+     */
+    List<Map<String, Object>> explainByConditions(
+            @Param("flightNumber") String flightNumber,
+            @Param("airline") String airline,
+            @Param("departureCity") String departureCity,
+            @Param("arrivalCity") String arrivalCity,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("status") FlightStatus status,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice);
+
+    /**
+     * 流式读取符合条件的航班（含座位汇总），按 id 升序；必须在事务中遍历并在使用后关闭
+     */
+    Cursor<FlightExportRow> streamByConditions(@Param("flightNumber") String flightNumber,
+                                               @Param("airline") String airline,
+                                               @Param("departureCity") String departureCity,
+                                               @Param("arrivalCity") String arrivalCity,
+                                               @Param("startTime") LocalDateTime startTime,
+                                               @Param("endTime") LocalDateTime endTime,
+                                               @Param("status") FlightStatus status,
+                                               @Param("minPrice") BigDecimal minPrice,
+                                               @Param("maxPrice") BigDecimal maxPrice);
+
+    /**
+     * 查询已存在的航班号
+     * @param flightNumbers 航班号列表，不能为空
+     */
+    List<String> findExistingFlightNumbers(@Param("flightNumbers") List<String> flightNumbers);
+
+    /**
+     * 批量插入航班（单条多行 INSERT），调用方控制每批的条数
+     * @return 插入的行数
+     */
+    int insertBatch(@Param("flights") List<Flight> flights);
 }
@@ -2,11 +2,18 @@ package com.liajay.flightbooking.inventory.dal.mapper;
 
 import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
 import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClassStatistics;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatCount;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatExportRow;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatHold;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 座位MyBatis Mapper接口
@@ -35,6 +42,37 @@ public interface SeatMapper {
                                 @Param("offset") int offset,
                                 @Param("pageSize") int pageSize);
 
+    /**
+     * 游标分页查询座位，按 (seat_class, seat_number, id) 升序返回排在指定位置之后的座位
+     *
+     * @param afterSeatClass  上一页最后一个座位的舱位，为null时从第一条开始
+     * @param afterSeatNumber 上一页最后一个座位的座位号
+     * @param afterId         上一页最后一个座位的ID，跨航班查询时区分同舱位同座位号的座位
+     * @param limit           最多返回的条数
+     */
+    List<Seat> findByConditionsAfter(@Param("flightNumber") String flightNumber,
+                                     @Param("seatClass") SeatClass seatClass,
+                                     @Param("isAvailable") Boolean isAvailable,
+                                     @Param("minPrice") BigDecimal minPrice,
+                                     @Param("maxPrice") BigDecimal maxPrice,
+                                     @Param("seatNumberStart") String seatNumberStart,
+                                     @Param("seatNumberEnd") String seatNumberEnd,
+                                     @Param("afterSeatClass") String afterSeatClass,
+                                     @Param("afterSeatNumber") String afterSeatNumber,
+                                     @Param("afterId") Long afterId,
+                                     @Param("limit") int limit);
+
+    /**
+     * 流式读取符合条件的座位（含航空公司），按 id 升序；必须在事务中遍历并在使用后关闭
+     */
+    Cursor<SeatExportRow> streamByConditions(@Param("flightNumber") String flightNumber,
+                                             @Param("seatClass") SeatClass seatClass,
+                                             @Param("isAvailable") Boolean isAvailable,
+                                             @Param("minPrice") BigDecimal minPrice,
+                                             @Param("maxPrice") BigDecimal maxPrice,
+                                             @Param("seatNumberStart") String seatNumberStart,
+                                             @Param("seatNumberEnd") String seatNumberEnd);
+
     /**
      * 根据条件统计座位总数
      */
@@ -46,6 +84,23 @@ public interface SeatMapper {
                           @Param("seatNumberStart") String seatNumberStart,
                           @Param("seatNumberEnd") String seatNumberEnd);
 
+    /**
+     * 根据条件获取执行计划，用于估算座位总数
+     */
+    List<Map<String, Object>> explainByConditions(@Param("flightNumber") String flightNumber,
+                                                  @Param("seatClass") SeatClass seatClass,
+                                                  @Param("isAvailable") Boolean isAvailable,
+                                                  @Param("minPrice") BigDecimal minPrice,
+                                                  @Param("maxPrice") BigDecimal maxPrice,
+                                                  @Param("seatNumberStart") String seatNumberStart,
+                                                  @Param("seatNumberEnd") String seatNumberEnd);
+
+    /**
+     * 批量插入座位（单条多行 INSERT），调用方控制每批的条数，避免超过 max_allowed_packet
+     * @return 插入的行数
+     */
+    int insertBatch(@Param("seats") List<Seat> seats);
+
     /**
      * 查找指定航班的第一个可用座位
      */
@@ -56,5 +111,111 @@ public interface SeatMapper {
      */
     int updateSeatAvailability(@Param("id") Long id, @Param("isAvailable") Boolean isAvailable);
 
+    /**
+     * 查询指定航班的全部座位（不分页），用于构建内存座位位图
+     */
+    List<Seat> findAllByFlightNumber(@Param("flightNumber") String flightNumber);
+
+    /**
+     * 批量占用座位
+     * 只更新仍处于可用状态的座位，返回值小于ids数量说明部分座位已被其他请求占用
+     */
+    int claimSeats(@Param("ids") List<Long> ids);
+
+    /**
+     * 批量占用座位并写入各座位的分配请求键（seat.allocationKey）
+     * 只更新仍处于可用状态的座位，请求键已被其他座位使用时违反唯一约束
+     */
+    int claimSeatsWithKeys(@Param("seats") List<Seat> seats);
+
+    /**
+     * 查询指定航班中已按这些请求键分配的座位，结果带 allocationKey
+     */
+    List<Seat> findByAllocationKeys(@Param("flightNumber") String flightNumber,
+                                    @Param("allocationKeys") List<String> allocationKeys);
+
+    /**
+     * 锁定按这些请求键分配的座位，结果带 allocationKey，必须在事务中调用
+     */
+    List<Seat> lockByAllocationKeys(@Param("allocationKeys") List<String> allocationKeys);
+
+    /**
+     * 归还已占用但未交付的座位（分配方已放弃），不影响预留中的座位
+     *
+     * @return 实际恢复可用的座位数
+     */
+    int releaseSeats(@Param("ids") List<Long> ids);
+
+    /**
+     * 锁定指定座位中仍可用的座位，返回其ID，必须在事务中调用
+     * 用于在批量占用前确定哪些座位已被其他途径占用
+     */
+    List<Long> lockAvailableSeatIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 锁定指定航班、舱位中座位号最小的可用座位
+     * 使用 FOR UPDATE SKIP LOCKED，已被其他事务锁定的座位直接跳过，必须在事务中调用
+     */
+    Seat lockFirstAvailableSeat(@Param("flightNumber") String flightNumber,
+                                @Param("seatClass") SeatClass seatClass);
+
+    /**
+     * 锁定指定航班、舱位中按座位号排序的前 limit 个可用座位
+     * 使用 FOR UPDATE SKIP LOCKED，已被其他事务锁定的座位直接跳过，必须在事务中调用
+     */
+    List<Seat> lockAvailableSeats(@Param("flightNumber") String flightNumber,
+                                  @Param("seatClass") SeatClass seatClass,
+                                  @Param("limit") int limit);
+
+    /**
+     * 占用单个座位（仅当座位仍可用时更新）
+     * @return 实际占用的行数，座位已被占用时返回0
+     */
+    int claimSeat(@Param("id") Long id);
+
+    /**
+     * 为已占用的座位记录预留信息
+     */
+    int markSeatsHeld(@Param("ids") List<Long> ids,
+                      @Param("holdToken") String holdToken,
+                      @Param("holdExpireTime") LocalDateTime holdExpireTime);
+
+    /**
+     * 确认预留，座位转为已售
+     * @return 确认的座位数，预留不存在或已过期时返回0
+     */
+    int confirmHold(@Param("holdToken") String holdToken, @Param("now") LocalDateTime now);
+
+    /**
+     * 批量释放预留，座位恢复可用
+     * @return 释放的座位数
+     */
+    int releaseHolds(@Param("holdTokens") List<String> holdTokens);
+
+    /**
+     * 查询预留中的座位
+     */
+    List<Seat> findByHoldToken(@Param("holdToken") String holdToken);
+
+    /**
+     * 查询全部未确认的预留，用于重启后恢复到期调度
+     */
+    List<SeatHold> findActiveHolds();
 
+    /**
+     * 按航班、舱位统计座位总数和可用数
+     * @param flightNumbers 航班号列表，不能为空
+     */
+    List<SeatCount> countByFlightNumbers(@Param("flightNumbers") List<String> flightNumbers);
+
+    /**
+     * 按舱位统计指定航班的座位总数、可用数和票价（最低 / 最高 / 平均），一次分组查询
+     */
+    List<SeatClassStatistics> statisticsByFlightNumber(@Param("flightNumber") String flightNumber);
+
+    /**
+     * 锁定预留中的座位并按航班、舱位统计数量，必须在事务中调用
+     * @param holdTokens 预留凭证列表，不能为空
+     */
+    List<SeatCount> lockHeldSeatCounts(@Param("holdTokens") List<String> holdTokens);
 }
@@ -0,0 +1,80 @@
+package com.liajay.flightbooking.inventory.model.vo;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 低价日历单日视图对象
+ */
+public class DayFareVO {
+
+    private LocalDate date;
+
+    /**
+     * 可用座位的最低价，当天没有航班或已售罄时为null
+     */
+    private BigDecimal minPrice;
+
+    /**
+     * 当天所有航班的剩余座位数
+     */
+    private Integer seatsLeft;
+
+    private Integer flightCount;
+
+    /**
+     * 最低价对应的航班号
+     */
+    private String cheapestFlightNumber;
+
+    public DayFareVO() {}
+
+    public DayFareVO(LocalDate date, BigDecimal minPrice, Integer seatsLeft, Integer flightCount,
+                     String cheapestFlightNumber) {
+        this.date = date;
+        this.minPrice = minPrice;
+        this.seatsLeft = seatsLeft;
+        this.flightCount = flightCount;
+        this.cheapestFlightNumber = cheapestFlightNumber;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Integer getSeatsLeft() {
+        return seatsLeft;
+    }
+
+    public void setSeatsLeft(Integer seatsLeft) {
+        this.seatsLeft = seatsLeft;
+    }
+
+    public Integer getFlightCount() {
+        return flightCount;
+    }
+
+    public void setFlightCount(Integer flightCount) {
+        this.flightCount = flightCount;
+    }
+
+    public String getCheapestFlightNumber() {
+        return cheapestFlightNumber;
+    }
+
+    public void setCheapestFlightNumber(String cheapestFlightNumber) {
+        this.cheapestFlightNumber = cheapestFlightNumber;
+    }
+}
@@ -0,0 +1,89 @@
+package com.liajay.flightbooking.inventory.model.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 行程视图对象，直飞或中转
+ */
+public class ItineraryVO {
+
+    /**
+     * 各段航班，按乘坐顺序
+     */
+    private List<FlightVO> legs;
+
+    /**
+     * 中转次数
+     */
+    private Integer stops;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime departureTime;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime arrivalTime;
+
+    /**
+     * 总耗时（分钟），含中转停留
+     */
+    private Long durationMinutes;
+
+    /**
+     * 各段基础票价之和
+     */
+    private BigDecimal totalPrice;
+
+    public ItineraryVO() {}
+
+    public List<FlightVO> getLegs() {
+        return legs;
+    }
+
+    public void setLegs(List<FlightVO> legs) {
+        this.legs = legs;
+    }
+
+    public Integer getStops() {
+        return stops;
+    }
+
+    public void setStops(Integer stops) {
+        this.stops = stops;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(LocalDateTime departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public void setArrivalTime(LocalDateTime arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+
+    public Long getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(Long durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+}
@@ -0,0 +1,77 @@
+package com.liajay.flightbooking.inventory.model.vo;
+
+import java.util.List;
+
+/**
+ * 自动补全候选项视图对象
+ */
+public class SuggestionVO {
+
+    /**
+     * CITY 或 AIRLINE
+     */
+    private String type;
+    private String name;
+
+    /**
+     * 全拼，如 beijing
+     */
+    private String pinyin;
+
+    /**
+     * IATA代码
+     */
+    private List<String> codes;
+
+    private Long flightCount;
+
+    public SuggestionVO() {}
+
+    public SuggestionVO(String type, String name, String pinyin, List<String> codes, Long flightCount) {
+        this.type = type;
+        this.name = name;
+        this.pinyin = pinyin;
+        this.codes = codes;
+        this.flightCount = flightCount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getPinyin() {
+        return pinyin;
+    }
+
+    public void setPinyin(String pinyin) {
+        this.pinyin = pinyin;
+    }
+
+    public List<String> getCodes() {
+        return codes;
+    }
+
+    public void setCodes(List<String> codes) {
+        this.codes = codes;
+    }
+
+    public Long getFlightCount() {
+        return flightCount;
+    }
+
+    public void setFlightCount(Long flightCount) {
+        this.flightCount = flightCount;
+    }
+}
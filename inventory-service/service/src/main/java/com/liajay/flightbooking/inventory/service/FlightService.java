@@ -1,8 +1,21 @@
 package com.liajay.flightbooking.inventory.service;
 
 import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.model.vo.DayFareVO;
+import com.liajay.flightbooking.inventory.model.vo.ItineraryVO;
+import com.liajay.flightbooking.inventory.model.vo.SuggestionVO;
+import com.liajay.flightbooking.inventory.service.dto.ConnectionQueryDTO;
+import com.liajay.flightbooking.inventory.service.dto.FlightCreateDTO;
 import com.liajay.flightbooking.inventory.service.dto.FlightQueryDTO;
+import com.liajay.flightbooking.inventory.service.dto.result.FlightCreateResultDTO;
 import com.liajay.flightbooking.inventory.service.dto.result.FlightQueryResultDTO;
+import com.liajay.flightbooking.inventory.service.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 航班服务接口
@@ -13,10 +26,20 @@ import com.liajay.flightbooking.inventory.service.dto.result.FlightQueryResultDT
 public interface FlightService {
 
     /**
-     * 根据航班号查询航班
+     * 根据航班号查询航班（优先读本地缓存）
      */
     Flight findByFlightNumber(String flightNumber);
 
+    /**
+     * 航班信息已被修改，通知各缓存丢弃该航班
+     */
+    void onFlightChanged(String flightNumber);
+
+    /**
+     * 航班缓存统计信息
+     */
+    Map<String, Object> getFlightCacheMetrics();
+
     /**
      * 通用航班查询方法
      * 支持多种查询条件组合：
@@ -29,4 +52,68 @@ public interface FlightService {
      * - 排序查询：设置排序参数
      */
     FlightQueryResultDTO queryFlights(FlightQueryDTO queryDTO);
+
+    /**
+     * 失效一条航线的搜索结果缓存，城市为空表示任意城市
+     */
+    void invalidateRouteCache(String departureCity, String arrivalCity);
+
+    /**
+     * 航班搜索缓存统计信息
+     */
+    Map<String, Object> getSearchCacheMetrics();
+
+    /**
+     * 查询直飞及最多两次中转的行程，按总耗时或总价排序
+     */
+    List<ItineraryVO> searchConnections(ConnectionQueryDTO queryDTO);
+
+    /**
+     * 城市 / 航空公司自动补全，支持中文名称、全拼、拼音首字母和IATA代码前缀
+     *
+     * @param type CITY、AIRLINE，为空时两类一起返回
+     */
+    List<SuggestionVO> suggest(String keyword, String type, int limit);
+
+    /**
+     * 自动补全索引统计信息
+     */
+    Map<String, Object> getAutocompleteMetrics();
+
+    /**
+     * 流式导出符合条件的航班，忽略分页和排序参数，按 id 顺序逐行写出
+     *
+     * @return 写出的航班数
+     */
+    long exportFlights(FlightQueryDTO queryDTO, ExportFormat format, OutputStream out) throws IOException;
+
+    /**
+     * 低价日历：航线在日期范围内每天的可用座位最低价和剩余座位数
+     *
+     * @param startDate 开始日期（含）
+     * @param endDate   结束日期（含）
+     */
+    List<DayFareVO> getFareCalendar(String departureCity, String arrivalCity, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 低价日历统计信息
+     */
+    Map<String, Object> getFareCalendarMetrics();
+
+    /**
+     * 航线索引统计信息
+     */
+    Map<String, Object> getRouteIndexMetrics();
+
+    /**
+     * 根据座位数据重建航班库存汇总
+     *
+     * @return 被修正的汇总行数，数据一致时为0
+     */
+    int reconcileInventory();
+
+    /**
+     * 按机型布局批量创建航班并生成座位
+     */
+    FlightCreateResultDTO createFlights(List<FlightCreateDTO> flights);
 }
@@ -1,8 +1,17 @@
 package com.liajay.flightbooking.inventory.service;
 
 import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.service.dto.SeatHoldDTO;
 import com.liajay.flightbooking.inventory.service.dto.SeatQueryDTO;
 import com.liajay.flightbooking.inventory.service.dto.result.SeatQueryResultDTO;
+import com.liajay.flightbooking.inventory.service.dto.result.SeatStatisticsDTO;
+import com.liajay.flightbooking.inventory.service.export.ExportFormat;
+import com.liajay.flightbooking.inventory.service.seatmap.SeatMapSnapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 座位服务接口 - MyBatis版本
@@ -29,6 +38,18 @@ public interface SeatService {
      */
     SeatQueryResultDTO querySeats(SeatQueryDTO queryDTO);
 
+    /**
+     * 流式导出符合条件的座位，忽略分页参数，按 id 顺序逐行写出
+     *
+     * @return 写出的座位数
+     */
+    long exportSeats(SeatQueryDTO queryDTO, ExportFormat format, OutputStream out) throws IOException;
+
+    /**
+     * 航班座位统计：按舱位的座位数、可售数、票价（最低 / 最高 / 平均）和客座率，在数据库中一次分组查询得出
+     */
+    SeatStatisticsDTO getFlightSeatStatistics(String flightNumber);
+
     /**
      * 为指定航班分配一个座位
      * 查找并分配一个可用座位，将其标记为不可用
@@ -37,4 +58,74 @@ public interface SeatService {
      * @return 分配的座位，如果没有可用座位则返回null
      */
     Seat allocateSeat(String flightNumber);
+
+    /**
+     * 为指定航班一次分配多个座位
+     * 在一个事务内占用全部座位，可用座位不足时不分配任何座位
+     *
+     * @param flightNumber 航班号
+     * @param count 座位数
+     * @return 分配的座位，如果可用座位不足则返回空列表
+     */
+    List<Seat> allocateSeats(String flightNumber, int count);
+
+    /**
+     * 按请求键为指定航班分配座位，每个请求键一个座位
+     * 同一请求键重复调用返回同一个座位，调用方超时或失败后可以安全重试；可用座位不足时只为靠前的请求键分配
+     *
+     * @param flightNumber 航班号
+     * @param requestKeys 请求键，如下单工单号
+     * @return 分配的座位，顺序与请求键一致，allocationKey 为对应的请求键
+     */
+    List<Seat> allocateSeats(String flightNumber, List<String> requestKeys);
+
+    /**
+     * 归还按请求键分配的座位，座位恢复可用；没有分配过座位或已归还的请求键直接跳过
+     *
+     * @param requestKeys 请求键
+     * @return 归还的座位数
+     */
+    int releaseSeats(List<String> requestKeys);
+
+    /**
+     * 为指定航班预留多个座位
+     * 预留期间座位对其他用户不可用，到期未确认时自动释放
+     *
+     * @param flightNumber 航班号
+     * @param count 座位数
+     * @param ttlSeconds 预留时长（秒），为空时使用默认值
+     * @return 预留结果，如果可用座位不足则返回null
+     */
+    SeatHoldDTO holdSeats(String flightNumber, int count, Long ttlSeconds);
+
+    /**
+     * 确认预留，座位转为已售
+     *
+     * @return 预留存在且未过期时返回true
+     */
+    boolean confirmHold(String holdToken);
+
+    /**
+     * 释放预留，座位恢复可用
+     *
+     * @return 预留存在并被释放时返回true
+     */
+    boolean releaseHold(String holdToken);
+
+    /**
+     * 查询预留中的座位
+     */
+    List<Seat> findHeldSeats(String holdToken);
+
+    /**
+     * 获取航班座位图（缓存的快照，座位状态变化时失效）
+     *
+     * @return 座位图快照，航班没有座位数据时返回null
+     */
+    SeatMapSnapshot getSeatMap(String flightNumber);
+
+    /**
+     * 座位分配器运行指标
+     */
+    Map<String, Object> getAllocationMetrics();
 }
@@ -0,0 +1,200 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 基于内存位图的座位分配器
+ *
+ * 每个航班首次分配时从 seats 表加载一次位图，之后的分配只在内存中做 CAS，
+ * 占用结果通过 SeatWriteBehindQueue 批量写回数据库，写入提交后才返回给调用方，多个并发分配共用一个事务。
+ *
+ * 注意：位图只适用于同一航班的分配请求都落在同一个实例上的部署方式。
+ * 回写时若发现座位已被其他途径占用，会丢弃该航班的位图并重新加载后再分配，最多 MAX_CONFLICT_RETRIES 次。
+ *
+ * @author liajay
+ */
+public class BitmapSeatAllocator implements SeatAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BitmapSeatAllocator.class);
+
+    /**
+     * 回写冲突后重新加载位图再分配的最大次数
+     */
+    private static final int MAX_CONFLICT_RETRIES = 2;
+
+    private final SeatMapper seatMapper;
+    private final SeatWriteBehindQueue writeBehindQueue;
+    private final long requestTimeoutMs;
+    private final ConcurrentHashMap<String, SeatBitmap> bitmaps = new ConcurrentHashMap<>();
+
+    public BitmapSeatAllocator(SeatMapper seatMapper, FlightInventoryCounter flightInventoryCounter,
+                               TransactionTemplate transactionTemplate,
+                               int writeBehindBatchSize, long writeBehindRetryIntervalMs,
+                               int writeBehindMaxAttempts, long requestTimeoutMs) {
+        this.seatMapper = seatMapper;
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.writeBehindQueue = new SeatWriteBehindQueue(seatMapper, flightInventoryCounter, transactionTemplate,
+                writeBehindBatchSize, writeBehindRetryIntervalMs, writeBehindMaxAttempts, this::invalidateAll);
+    }
+
+    @Override
+    public Seat allocate(String flightNumber) {
+        List<Seat> seats = allocate(flightNumber, 1);
+        return seats.isEmpty() ? null : seats.get(0);
+    }
+
+    @Override
+    public List<Seat> allocate(String flightNumber, int count) {
+        for (int attempt = 0; attempt <= MAX_CONFLICT_RETRIES; attempt++) {
+            SeatBitmap bitmap = bitmaps.computeIfAbsent(flightNumber, this::loadBitmap);
+            if (bitmap == null) {
+                return Collections.emptyList(); // 航班没有座位数据
+            }
+            int[] indexes = allocateInMemory(bitmap, count);
+            if (indexes == null) {
+                return Collections.emptyList(); // 可用座位不足
+            }
+
+            List<Seat> seats = new ArrayList<>(count);
+            for (int index : indexes) {
+                seats.add(bitmap.seatAt(index));
+            }
+            if (awaitClaim(writeBehindQueue.submit(seats), bitmap, indexes)) {
+                return seats;
+            }
+            // 座位已被其他途径占用，回写队列已丢弃该航班的位图，重新加载后再分配
+            logger.debug("座位回写冲突，重新分配: flightNumber={}, attempt={}", flightNumber, attempt + 1);
+        }
+        throw new RuntimeException("座位分配冲突，请重试");
+    }
+
+    @Override
+    public void onSeatsReleased(String flightNumber) {
+        // 数据库中有座位恢复可用，重新加载位图
+        invalidate(flightNumber);
+    }
+
+    @Override
+    public void onSeatsClaimed(String flightNumber) {
+        // 位图中这些座位仍是可用状态，重新加载位图
+        invalidate(flightNumber);
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("mode", "bitmap");
+        metrics.put("loadedFlights", bitmaps.size());
+        metrics.put("pendingWrites", writeBehindQueue.pendingCount());
+        metrics.put("writeConflicts", writeBehindQueue.conflictCount());
+        metrics.put("poisonedWrites", writeBehindQueue.poisonCount());
+        return metrics;
+    }
+
+    /**
+     * 丢弃指定航班的位图，下次分配时从数据库重新加载
+     */
+    public void invalidate(String flightNumber) {
+        bitmaps.remove(flightNumber);
+    }
+
+    /**
+     * 等待回写的分配数
+     */
+    public int pendingWriteCount() {
+        return writeBehindQueue.pendingCount();
+    }
+
+    /**
+     * 关闭回写线程，写完剩余的座位
+     */
+    public void shutdown() {
+        writeBehindQueue.shutdown();
+    }
+
+    /**
+     * 在位图中占用 count 个座位，不足时归还已占用的座位
+     *
+     * @return 座位下标，可用座位不足时返回null
+     */
+    private int[] allocateInMemory(SeatBitmap bitmap, int count) {
+        if (bitmap.availableCount() < count) {
+            return null;
+        }
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = bitmap.allocate();
+            if (indexes[i] < 0) {
+                // 并发分配导致座位不足，归还本次已占用的座位
+                for (int j = 0; j < i; j++) {
+                    bitmap.release(indexes[j]);
+                }
+                return null;
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * 等待座位写入数据库
+     *
+     * @return 写入成功返回true，座位冲突返回false
+     */
+    private boolean awaitClaim(SeatWriteBehindQueue.Claim claim, SeatBitmap bitmap, int[] indexes) {
+        try {
+            return claim.getResult().get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (writeBehindQueue.abandon(claim)) {
+                // 座位不会再写入数据库，归还位图
+                for (int index : indexes) {
+                    bitmap.release(index);
+                }
+                throw new RuntimeException("座位分配超时，请重试");
+            }
+            // 已在写入中，等待本批结束（重试次数有限）
+            return claim.getResult().join();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("座位分配失败: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (writeBehindQueue.abandon(claim)) {
+                for (int index : indexes) {
+                    bitmap.release(index);
+                }
+            }
+            throw new RuntimeException("座位分配被中断");
+        }
+    }
+
+    private SeatBitmap loadBitmap(String flightNumber) {
+        List<Seat> seats = writeBehindQueue.loadExcludingPending(
+                flightNumber, () -> seatMapper.findAllByFlightNumber(flightNumber));
+        if (seats.isEmpty()) {
+            return null;
+        }
+        SeatBitmap bitmap = new SeatBitmap(flightNumber, seats);
+        logger.info("加载航班座位位图: flightNumber={}, 座位总数={}, 可用={}",
+                flightNumber, bitmap.size(), bitmap.availableCount());
+        return bitmap;
+    }
+
+    private void invalidateAll(Set<String> flightNumbers) {
+        flightNumbers.forEach(this::invalidate);
+    }
+}
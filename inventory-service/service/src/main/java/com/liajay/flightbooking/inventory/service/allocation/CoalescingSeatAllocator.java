@@ -0,0 +1,318 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 合并提交的座位分配器
+ *
+ * 同一航班在 maxWaitMs 内到达（或攒满 maxBatchSize 个）的分配请求合并成一批，
+ * 在一个事务里用 SKIP LOCKED 一次锁定整批需要的座位、一条多行 UPDATE 占用，
+ * 再按到达顺序把座位分给各个调用方。座位状态仍以数据库为准，可以多实例部署。
+ *
+ * @author liajay
+ */
+public class CoalescingSeatAllocator implements SeatAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingSeatAllocator.class);
+
+    private final SeatMapper seatMapper;
+    private final FlightInventoryCounter flightInventoryCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final long maxWaitMs;
+    private final long requestTimeoutMs;
+
+    /**
+     * 航班号 -> 正在收集请求的批次
+     */
+    private final ConcurrentHashMap<String, Batch> openBatches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final ExecutorService flushExecutor;
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder failedRequestCount = new LongAdder();
+    private final LongAccumulator maxBatchRequests = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalLatencyMicros = new LongAdder();
+    private final LongAccumulator maxLatencyMicros = new LongAccumulator(Math::max, 0);
+
+    public CoalescingSeatAllocator(SeatMapper seatMapper, FlightInventoryCounter flightInventoryCounter,
+                                   TransactionTemplate transactionTemplate, int maxBatchSize, long maxWaitMs,
+                                   int flushThreads, long requestTimeoutMs) {
+        this.seatMapper = seatMapper;
+        this.flightInventoryCounter = flightInventoryCounter;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMs = maxWaitMs;
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("seat-coalescing-timer"));
+        this.flushExecutor = Executors.newFixedThreadPool(flushThreads, daemonThreads("seat-coalescing-flush"));
+    }
+
+    @Override
+    public Seat allocate(String flightNumber) {
+        List<Seat> seats = allocate(flightNumber, 1);
+        return seats.isEmpty() ? null : seats.get(0);
+    }
+
+    @Override
+    public List<Seat> allocate(String flightNumber, int count) {
+        Request request = new Request(count);
+        enqueue(flightNumber, request);
+        try {
+            return request.future.get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (request.future.cancel(false)) {
+                // 尚未提交的请求会被跳过，已写入数据库的座位在提交后归还
+                throw new RuntimeException("座位分配超时，请重试");
+            }
+            // 本批已给出结果，不能丢弃
+            try {
+                return request.future.join();
+            } catch (CompletionException ce) {
+                throw new RuntimeException("座位分配失败: " + ce.getCause().getMessage(), ce.getCause());
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("座位分配失败: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("座位分配被中断");
+        }
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        long batches = batchCount.sum();
+        long requests = requestCount.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("mode", "coalescing");
+        metrics.put("batchCount", batches);
+        metrics.put("requestCount", requests);
+        metrics.put("failedRequestCount", failedRequestCount.sum());
+        metrics.put("avgBatchSize", batches == 0 ? 0.0 : (double) requests / batches);
+        metrics.put("maxBatchSize", maxBatchRequests.get());
+        metrics.put("avgLatencyMs", requests == 0 ? 0.0 : totalLatencyMicros.sum() / 1000.0 / requests);
+        metrics.put("maxLatencyMs", maxLatencyMicros.get() / 1000.0);
+        metrics.put("openBatches", openBatches.size());
+        return metrics;
+    }
+
+    /**
+     * 关闭定时器和提交线程
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(String flightNumber, Request request) {
+        while (true) {
+            Batch batch = openBatches.computeIfAbsent(flightNumber, this::openBatch);
+            synchronized (batch) {
+                if (batch.closed) {
+                    continue; // 批次刚被关闭，放入下一批
+                }
+                batch.requests.add(request);
+                if (batch.requests.size() >= maxBatchSize) {
+                    close(batch);
+                }
+                return;
+            }
+        }
+    }
+
+    private Batch openBatch(String flightNumber) {
+        Batch batch = new Batch(flightNumber);
+        timer.schedule(() -> {
+            synchronized (batch) {
+                if (!batch.closed) {
+                    close(batch);
+                }
+            }
+        }, maxWaitMs, TimeUnit.MILLISECONDS);
+        return batch;
+    }
+
+    /**
+     * 关闭批次并提交，调用方需持有批次锁
+     */
+    private void close(Batch batch) {
+        batch.closed = true;
+        openBatches.remove(batch.flightNumber, batch);
+        flushExecutor.execute(() -> flush(batch));
+    }
+
+    private void flush(Batch batch) {
+        // 调用方已超时放弃的请求不再分配座位
+        List<Request> requests = new ArrayList<>(batch.requests.size());
+        int requestedSeats = 0;
+        for (Request request : batch.requests) {
+            if (!request.future.isCancelled()) {
+                requests.add(request);
+                requestedSeats += request.count;
+            }
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        try {
+            int seatsToLock = requestedSeats;
+            transactionTemplate.executeWithoutResult(status -> assignSeats(batch.flightNumber, requests, seatsToLock));
+        } catch (Exception e) {
+            logger.warn("合并分配座位失败: flightNumber={}, 请求数={}", batch.flightNumber, requests.size(), e);
+            failedRequestCount.add(requests.size());
+            recordBatch(requests);
+            for (Request request : requests) {
+                request.future.completeExceptionally(e);
+            }
+            return;
+        }
+
+        // 先记录指标再唤醒调用方，调用方返回后即可看到本批的统计
+        recordBatch(requests);
+        List<Seat> abandoned = new ArrayList<>();
+        for (Request request : requests) {
+            if (!request.future.complete(request.assigned != null ? request.assigned : Collections.emptyList())
+                    && request.assigned != null) {
+                // 调用方在提交期间超时放弃，座位没有交给任何人
+                abandoned.addAll(request.assigned);
+            }
+        }
+        releaseAbandoned(batch.flightNumber, abandoned);
+    }
+
+    /**
+     * 归还已写入数据库但调用方已放弃的座位
+     */
+    private void releaseAbandoned(String flightNumber, List<Seat> seats) {
+        if (seats.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            ids.add(seat.getId());
+        }
+        try {
+            int released = transactionTemplate.execute(status -> {
+                int updated = seatMapper.releaseSeats(ids);
+                if (updated == ids.size()) {
+                    flightInventoryCounter.onSeatsAbandoned(seats);
+                } else {
+                    // 部分座位已被其他途径改动，按座位数据重建汇总
+                    flightInventoryCounter.rebuild(Collections.singletonList(flightNumber));
+                }
+                return updated;
+            });
+            logger.info("归还超时未交付的座位: flightNumber={}, 期望{}个, 实际{}个", flightNumber, ids.size(), released);
+        } catch (Exception e) {
+            logger.error("归还超时未交付的座位失败: flightNumber={}, seatIds={}", flightNumber, ids, e);
+        }
+    }
+
+    /**
+     * 一次锁定整批座位，按到达顺序分配，每个请求要么拿到全部座位要么一个都没有
+     */
+    private void assignSeats(String flightNumber, List<Request> requests, int requestedSeats) {
+        List<Seat> locked = DatabaseSeatAllocator.lockAvailableSeats(seatMapper, flightNumber, requestedSeats);
+
+        List<Long> ids = new ArrayList<>(locked.size());
+        List<Seat> claimed = new ArrayList<>(locked.size());
+        int next = 0;
+        for (Request request : requests) {
+            if (locked.size() - next < request.count) {
+                continue; // 剩余座位不够本请求，后面更小的请求仍可能满足
+            }
+            List<Seat> seats = new ArrayList<>(locked.subList(next, next + request.count));
+            next += request.count;
+            for (Seat seat : seats) {
+                seat.setIsAvailable(false);
+                ids.add(seat.getId());
+            }
+            claimed.addAll(seats);
+            request.assigned = seats;
+        }
+
+        if (ids.isEmpty()) {
+            return;
+        }
+        // 座位已被本事务锁定，条件更新必须全部命中，否则回滚整批
+        int updated = seatMapper.claimSeats(ids);
+        if (updated != ids.size()) {
+            throw new IllegalStateException("批量占用座位失败: 期望" + ids.size() + "个, 实际" + updated + "个");
+        }
+        flightInventoryCounter.onSeatsClaimed(claimed);
+    }
+
+    private void recordBatch(List<Request> requests) {
+        long now = System.nanoTime();
+        batchCount.increment();
+        requestCount.add(requests.size());
+        maxBatchRequests.accumulate(requests.size());
+        for (Request request : requests) {
+            long latencyMicros = (now - request.createdNanos) / 1000;
+            totalLatencyMicros.add(latencyMicros);
+            maxLatencyMicros.accumulate(latencyMicros);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Batch {
+        private final String flightNumber;
+        private final List<Request> requests = new ArrayList<>();
+        private boolean closed;
+
+        private Batch(String flightNumber) {
+            this.flightNumber = flightNumber;
+        }
+    }
+
+    private static final class Request {
+        private final int count;
+        private final long createdNanos = System.nanoTime();
+        private final CompletableFuture<List<Seat>> future = new CompletableFuture<>();
+        private List<Seat> assigned;
+
+        private Request(int count) {
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于数据库的座位分配器（默认）
+ *
+ * 按舱位优先级（经济舱 → 商务舱 → 头等舱）用 FOR UPDATE SKIP LOCKED 锁定一个可用座位，
+ * 再用带 is_available = TRUE 条件的 UPDATE 占用它。并发分配同一航班时各事务拿到不同的行，
+ * 不会互相等待；行已被本事务锁定，条件更新必须命中，否则回滚。
+ * 占用成功后在同一事务中扣减 flight_inventory 的可用座位数。
+ *
+ * @author liajay
+ */
+@Component
+public class DatabaseSeatAllocator implements SeatAllocator {
+
+    /**
+     * 舱位分配优先级，与 SeatBitmap.ALLOCATION_ORDER 保持一致
+     */
+    private static final SeatClass[] CLASS_PRIORITY = {SeatClass.ECONOMY, SeatClass.BUSINESS, SeatClass.FIRST};
+
+    private final SeatMapper seatMapper;
+    private final FlightInventoryCounter flightInventoryCounter;
+
+    public DatabaseSeatAllocator(SeatMapper seatMapper, FlightInventoryCounter flightInventoryCounter) {
+        this.seatMapper = seatMapper;
+        this.flightInventoryCounter = flightInventoryCounter;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Seat allocate(String flightNumber) {
+        Seat candidate = lockFirstAvailableSeat(flightNumber);
+        if (candidate == null) {
+            return null; // 没有可用座位
+        }
+
+        // 座位已被本事务锁定，条件更新必须命中
+        if (seatMapper.claimSeat(candidate.getId()) == 0) {
+            throw new IllegalStateException("占用座位失败: flightNumber=" + flightNumber
+                    + ", seatNumber=" + candidate.getSeatNumber());
+        }
+
+        candidate.setIsAvailable(false);
+        flightInventoryCounter.onSeatsClaimed(Collections.singletonList(candidate));
+        return candidate;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<Seat> allocate(String flightNumber, int count) {
+        List<Seat> seats = lockAvailableSeats(seatMapper, flightNumber, count);
+        if (seats.size() < count) {
+            return Collections.emptyList(); // 可用座位不足，事务结束时释放已锁定的行
+        }
+
+        List<Long> ids = new ArrayList<>(count);
+        for (Seat seat : seats) {
+            ids.add(seat.getId());
+        }
+
+        // 座位已被本事务锁定，条件更新必须全部命中，否则回滚整批
+        int updated = seatMapper.claimSeats(ids);
+        if (updated != count) {
+            throw new RuntimeException("批量占用座位失败: 期望" + count + "个, 实际" + updated + "个");
+        }
+
+        seats.forEach(seat -> seat.setIsAvailable(false));
+        flightInventoryCounter.onSeatsClaimed(seats);
+        return seats;
+    }
+
+    /**
+     * 按请求键分配座位，每个请求键一个座位，同一请求键重复调用返回之前分配的座位
+     * 调用方超时后用同一批请求键重试不会重复占用座位；可用座位不足时按顺序为靠前的请求键分配，
+     * 其余请求键不分配。并发使用同一请求键时后提交的事务违反唯一约束并回滚。
+     *
+     * @param flightNumber 航班号
+     * @param requestKeys  请求键
+     * @return 分配的座位，顺序与请求键一致，allocationKey 为对应的请求键
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<Seat> allocate(String flightNumber, List<String> requestKeys) {
+        List<String> keys = new ArrayList<>(new LinkedHashSet<>(requestKeys));
+        Map<String, Seat> seatsByKey = new HashMap<>();
+        for (Seat seat : seatMapper.findByAllocationKeys(flightNumber, keys)) {
+            seatsByKey.put(seat.getAllocationKey(), seat);
+        }
+
+        List<String> missing = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            if (!seatsByKey.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Seat> seats = lockAvailableSeats(seatMapper, flightNumber, missing.size());
+            if (!seats.isEmpty()) {
+                for (int i = 0; i < seats.size(); i++) {
+                    seats.get(i).setAllocationKey(missing.get(i));
+                }
+                // 座位已被本事务锁定，条件更新必须全部命中，否则回滚整批
+                int updated = seatMapper.claimSeatsWithKeys(seats);
+                if (updated != seats.size()) {
+                    throw new RuntimeException("批量占用座位失败: 期望" + seats.size() + "个, 实际" + updated + "个");
+                }
+                for (Seat seat : seats) {
+                    seat.setIsAvailable(false);
+                    seatsByKey.put(seat.getAllocationKey(), seat);
+                }
+                flightInventoryCounter.onSeatsClaimed(seats);
+            }
+        }
+
+        List<Seat> allocated = new ArrayList<>(seatsByKey.size());
+        for (String key : keys) {
+            Seat seat = seatsByKey.get(key);
+            if (seat != null) {
+                allocated.add(seat);
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * 归还按这些请求键分配的座位（如下单最终失败），座位恢复可用并清除请求键
+     * 请求键没有分配过座位或已归还时跳过，重复调用不会重复归还
+     *
+     * @param requestKeys 请求键
+     * @return 归还的座位
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<Seat> release(List<String> requestKeys) {
+        List<Seat> seats = seatMapper.lockByAllocationKeys(requestKeys);
+        if (seats.isEmpty()) {
+            return seats;
+        }
+        List<Long> ids = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            ids.add(seat.getId());
+        }
+        // 座位已被本事务锁定，条件更新必须全部命中，否则回滚整批
+        int released = seatMapper.releaseSeats(ids);
+        if (released != seats.size()) {
+            throw new RuntimeException("归还座位失败: 期望" + seats.size() + "个, 实际" + released + "个");
+        }
+        seats.forEach(seat -> seat.setIsAvailable(true));
+        flightInventoryCounter.onSeatsAbandoned(seats);
+        return seats;
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        return Collections.singletonMap("mode", "database");
+    }
+
+    /**
+     * 按舱位优先级锁定最多 limit 个可用座位，必须在事务中调用
+     */
+    static List<Seat> lockAvailableSeats(SeatMapper seatMapper, String flightNumber, int limit) {
+        List<Seat> seats = new ArrayList<>(limit);
+        for (SeatClass seatClass : CLASS_PRIORITY) {
+            seats.addAll(seatMapper.lockAvailableSeats(flightNumber, seatClass, limit - seats.size()));
+            if (seats.size() == limit) {
+                break;
+            }
+        }
+        return seats;
+    }
+
+    private Seat lockFirstAvailableSeat(String flightNumber) {
+        for (SeatClass seatClass : CLASS_PRIORITY) {
+            Seat seat = seatMapper.lockFirstAvailableSeat(flightNumber, seatClass);
+            if (seat != null) {
+                return seat;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,331 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 座位分配分片
+ *
+ * 单线程事件循环，独占分到本分片的航班的座位位图。每轮从队列取出一批分配请求，
+ * 先在内存中逐个分配，再在一个事务里用一条多行 UPDATE 把整批座位写入数据库，
+ * 提交成功后才通知调用方。同一航班的请求天然串行，JVM 内和数据库中都没有锁竞争。
+ *
+ * @author liajay
+ */
+public class SeatAllocationShard {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatAllocationShard.class);
+
+    private final SeatMapper seatMapper;
+    private final FlightInventoryCounter flightInventoryCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+
+    private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * 航班号 -> 座位位图，只由分片线程访问
+     */
+    private final Map<String, SeatBitmap> bitmaps = new HashMap<>();
+
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public SeatAllocationShard(int shardIndex, SeatMapper seatMapper, FlightInventoryCounter flightInventoryCounter,
+                               TransactionTemplate transactionTemplate, int maxBatchSize) {
+        this.seatMapper = seatMapper;
+        this.flightInventoryCounter = flightInventoryCounter;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.worker = new Thread(this::runLoop, "seat-allocation-shard-" + shardIndex);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 提交分配请求
+     *
+     * @return 分配结果，可用座位不足时为空列表
+     */
+    public CompletableFuture<List<Seat>> submit(String flightNumber, int count) {
+        AllocateCommand command = new AllocateCommand(flightNumber, count);
+        queue.add(command);
+        return command.future;
+    }
+
+    /**
+     * 丢弃指定航班的位图，在本分片已排队的请求处理完之后生效
+     */
+    public void invalidate(String flightNumber) {
+        queue.add(new InvalidateCommand(flightNumber));
+    }
+
+    /**
+     * 排队中的命令数
+     */
+    public int queueSize() {
+        return queue.size();
+    }
+
+    /**
+     * 停止分片线程，未处理的请求以异常结束
+     */
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Command command;
+        while ((command = queue.poll()) != null) {
+            if (command instanceof AllocateCommand) {
+                ((AllocateCommand) command).future.completeExceptionally(new IllegalStateException("座位分配分片已关闭"));
+            }
+        }
+    }
+
+    private void runLoop() {
+        List<Command> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                // 关闭信号
+            } catch (Exception e) {
+                logger.error("座位分配分片处理失败", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Command> batch) {
+        List<AllocateCommand> pending = new ArrayList<>();
+        for (Command command : batch) {
+            if (command instanceof InvalidateCommand) {
+                // 先提交已在内存中分配的座位，再丢弃位图，避免重新加载时读到未提交的状态
+                flush(pending, true);
+                pending.clear();
+                bitmaps.remove(((InvalidateCommand) command).flightNumber);
+            } else {
+                AllocateCommand allocate = (AllocateCommand) command;
+                if (!allocate.future.isCancelled() && allocateInMemory(allocate)) {
+                    pending.add(allocate);
+                }
+            }
+        }
+        flush(pending, true);
+    }
+
+    /**
+     * 在位图中为请求分配座位，座位不足时直接返回空结果
+     *
+     * @return 需要写入数据库时返回true
+     */
+    private boolean allocateInMemory(AllocateCommand command) {
+        SeatBitmap bitmap = bitmaps.get(command.flightNumber);
+        if (bitmap == null) {
+            List<Seat> seats;
+            try {
+                seats = seatMapper.findAllByFlightNumber(command.flightNumber);
+            } catch (Exception e) {
+                command.future.completeExceptionally(e);
+                return false;
+            }
+            if (seats.isEmpty()) {
+                command.future.complete(Collections.emptyList());
+                return false;
+            }
+            bitmap = new SeatBitmap(command.flightNumber, seats);
+            bitmaps.put(command.flightNumber, bitmap);
+        }
+
+        if (bitmap.availableCount() < command.count) {
+            command.future.complete(Collections.emptyList());
+            return false;
+        }
+        int[] indexes = new int[command.count];
+        for (int i = 0; i < command.count; i++) {
+            indexes[i] = bitmap.allocate();
+        }
+        command.bitmap = bitmap;
+        command.indexes = indexes;
+        return true;
+    }
+
+    /**
+     * 在一个事务中写入整批座位，成功后通知调用方
+     *
+     * @param retryOnConflict 座位已被其他途径占用时，是否重新加载位图后重试一次
+     */
+    private void flush(List<AllocateCommand> pending, boolean retryOnConflict) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>();
+        List<Seat> claimed = new ArrayList<>();
+        for (AllocateCommand command : pending) {
+            command.seats = new ArrayList<>(command.indexes.length);
+            for (int index : command.indexes) {
+                ids.add(command.bitmap.seatIdAt(index));
+                command.seats.add(command.bitmap.seatAt(index));
+            }
+            claimed.addAll(command.seats);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int updated = seatMapper.claimSeats(ids);
+                if (updated != ids.size()) {
+                    throw new ClaimConflictException(ids.size(), updated);
+                }
+                flightInventoryCounter.onSeatsClaimed(claimed);
+            });
+        } catch (ClaimConflictException e) {
+            logger.warn("座位分配冲突，重新加载航班位图: {}", e.getMessage());
+            Set<String> flights = dropBitmaps(pending);
+            if (retryOnConflict) {
+                List<AllocateCommand> retry = new ArrayList<>();
+                for (AllocateCommand command : pending) {
+                    if (allocateInMemory(command)) {
+                        retry.add(command);
+                    }
+                }
+                flush(retry, false);
+            } else {
+                failAll(pending, new IllegalStateException("座位分配冲突，请重试, 航班=" + flights));
+            }
+            return;
+        } catch (Exception e) {
+            dropBitmaps(pending);
+            failAll(pending, e);
+            return;
+        }
+
+        List<AllocateCommand> abandoned = new ArrayList<>();
+        for (AllocateCommand command : pending) {
+            if (!command.future.complete(command.seats)) {
+                // 调用方已超时放弃，座位没有交给任何人
+                abandoned.add(command);
+            }
+        }
+        releaseAbandoned(abandoned);
+    }
+
+    /**
+     * 归还已写入数据库但调用方已放弃的座位
+     */
+    private void releaseAbandoned(List<AllocateCommand> abandoned) {
+        if (abandoned.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>();
+        List<Seat> seats = new ArrayList<>();
+        for (AllocateCommand command : abandoned) {
+            for (int index : command.indexes) {
+                ids.add(command.bitmap.seatIdAt(index));
+            }
+            seats.addAll(command.seats);
+        }
+
+        Set<String> flights = new HashSet<>();
+        abandoned.forEach(command -> flights.add(command.flightNumber));
+        try {
+            int released = transactionTemplate.execute(status -> {
+                int updated = seatMapper.releaseSeats(ids);
+                if (updated == ids.size()) {
+                    flightInventoryCounter.onSeatsAbandoned(seats);
+                } else {
+                    // 部分座位已被其他途径改动，按座位数据重建汇总
+                    flightInventoryCounter.rebuild(flights);
+                }
+                return updated;
+            });
+            if (released == ids.size()) {
+                for (AllocateCommand command : abandoned) {
+                    for (int index : command.indexes) {
+                        command.bitmap.release(index);
+                    }
+                }
+            } else {
+                flights.forEach(bitmaps::remove);
+            }
+            logger.info("归还超时未交付的座位: 期望{}个, 实际{}个", ids.size(), released);
+        } catch (Exception e) {
+            // 座位仍为已占用，重新加载位图以数据库为准
+            flights.forEach(bitmaps::remove);
+            logger.error("归还超时未交付的座位失败: seatIds={}", ids, e);
+        }
+    }
+
+    /**
+     * 事务已回滚，内存状态不再可信，丢弃涉及航班的位图
+     */
+    private Set<String> dropBitmaps(List<AllocateCommand> commands) {
+        Set<String> flights = new HashSet<>();
+        for (AllocateCommand command : commands) {
+            flights.add(command.flightNumber);
+        }
+        flights.forEach(bitmaps::remove);
+        return flights;
+    }
+
+    private void failAll(List<AllocateCommand> commands, Throwable cause) {
+        for (AllocateCommand command : commands) {
+            command.future.completeExceptionally(cause);
+        }
+    }
+
+    private interface Command {
+    }
+
+    private static final class AllocateCommand implements Command {
+        private final String flightNumber;
+        private final int count;
+        private final CompletableFuture<List<Seat>> future = new CompletableFuture<>();
+        private SeatBitmap bitmap;
+        private int[] indexes;
+        private List<Seat> seats;
+
+        private AllocateCommand(String flightNumber, int count) {
+            this.flightNumber = flightNumber;
+            this.count = count;
+        }
+    }
+
+    private static final class InvalidateCommand implements Command {
+        private final String flightNumber;
+
+        private InvalidateCommand(String flightNumber) {
+            this.flightNumber = flightNumber;
+        }
+    }
+
+    private static final class ClaimConflictException extends RuntimeException {
+        private ClaimConflictException(int expected, int updated) {
+            super("期望占用" + expected + "个座位, 实际" + updated + "个");
+        }
+    }
+}
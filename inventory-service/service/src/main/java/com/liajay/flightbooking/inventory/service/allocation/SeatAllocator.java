@@ -0,0 +1,54 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 座位分配器
+ * SeatService.allocateSeat 的具体分配策略，通过 inventory.allocation.mode 配置选择
+ *
+ * @author liajay
+ */
+public interface SeatAllocator {
+
+    /**
+     * 为指定航班分配一个座位
+     *
+     * @param flightNumber 航班号
+     * @return 分配的座位，如果没有可用座位则返回null
+     */
+    Seat allocate(String flightNumber);
+
+    /**
+     * 为指定航班一次分配多个座位，要么全部分配成功，要么一个都不分配
+     *
+     * @param flightNumber 航班号
+     * @param count        座位数
+     * @return 分配的座位，可用座位不足时返回空列表
+     */
+    List<Seat> allocate(String flightNumber, int count);
+
+    /**
+     * 通知分配器指定航班有座位在数据库中被释放（如预留过期）
+     * 直接读写数据库的分配器无需处理
+     */
+    default void onSeatsReleased(String flightNumber) {
+    }
+
+    /**
+     * 通知分配器指定航班有座位在数据库中被其他途径占用（如预留）
+     * 直接读写数据库的分配器无需处理
+     */
+    default void onSeatsClaimed(String flightNumber) {
+    }
+
+    /**
+     * 分配器运行指标
+     */
+    default Map<String, Object> getMetrics() {
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,202 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 单个航班的座位可用位图
+ *
+ * 座位按分配优先级（经济舱 → 商务舱 → 头等舱，同舱位按座位号）排成固定下标，
+ * 每个下标对应位图中的一位，1 表示可用。分配时从提示位置开始找第一个非零字，
+ * 用 CAS 清掉最低位，无锁且均摊 O(1)。
+ *
+ * @author liajay
+ */
+public class SeatBitmap {
+
+    /**
+     * 分配优先级排序，与 SeatMapper.findFirstAvailableSeat 的 ORDER BY 保持一致
+     */
+    public static final Comparator<Seat> ALLOCATION_ORDER = Comparator
+            .comparingInt((Seat seat) -> classPriority(seat.getSeatClass()))
+            .thenComparing(Seat::getSeatNumber);
+
+    private final String flightNumber;
+    private final long[] seatIds;
+    private final String[] seatNumbers;
+    private final SeatClass[] seatClasses;
+    private final BigDecimal[] prices;
+    private final Map<Long, Integer> indexBySeatId;
+
+    private final AtomicLongArray words;
+    private final AtomicInteger availableCount = new AtomicInteger();
+
+    /**
+     * 第一个可能含有可用座位的字下标，只作为扫描起点的提示
+     */
+    private final AtomicInteger firstWordHint = new AtomicInteger();
+
+    public SeatBitmap(String flightNumber, Collection<Seat> seats) {
+        List<Seat> ordered = new ArrayList<>(seats);
+        ordered.sort(ALLOCATION_ORDER);
+
+        int size = ordered.size();
+        this.flightNumber = flightNumber;
+        this.seatIds = new long[size];
+        this.seatNumbers = new String[size];
+        this.seatClasses = new SeatClass[size];
+        this.prices = new BigDecimal[size];
+        this.indexBySeatId = new HashMap<>(size * 2);
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+
+        for (int i = 0; i < size; i++) {
+            Seat seat = ordered.get(i);
+            seatIds[i] = seat.getId();
+            seatNumbers[i] = seat.getSeatNumber();
+            seatClasses[i] = seat.getSeatClass();
+            prices[i] = seat.getPrice();
+            indexBySeatId.put(seat.getId(), i);
+            if (Boolean.TRUE.equals(seat.getIsAvailable())) {
+                words.set(i >>> 6, words.get(i >>> 6) | (1L << i));
+                availableCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 占用优先级最高的可用座位
+     *
+     * @return 座位下标，没有可用座位时返回-1
+     */
+    public int allocate() {
+        int wordCount = words.length();
+        for (int w = firstWordHint.get(); w < wordCount; w++) {
+            long word = words.get(w);
+            while (word != 0) {
+                long lowestBit = Long.lowestOneBit(word);
+                if (words.compareAndSet(w, word, word & ~lowestBit)) {
+                    availableCount.decrementAndGet();
+                    if (word == lowestBit) {
+                        advanceHint(w);
+                    }
+                    return (w << 6) + Long.numberOfTrailingZeros(lowestBit);
+                }
+                word = words.get(w);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 占用指定下标的座位
+     *
+     * @return 座位原本可用并被本次调用占用时返回true
+     */
+    public boolean claim(int index) {
+        int w = index >>> 6;
+        long mask = 1L << index;
+        long word;
+        do {
+            word = words.get(w);
+            if ((word & mask) == 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(w, word, word & ~mask));
+        availableCount.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * 释放指定下标的座位
+     *
+     * @return 座位原本已占用并被本次调用释放时返回true
+     */
+    public boolean release(int index) {
+        int w = index >>> 6;
+        long mask = 1L << index;
+        long word;
+        do {
+            word = words.get(w);
+            if ((word & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(w, word, word | mask));
+        availableCount.incrementAndGet();
+        firstWordHint.accumulateAndGet(w, Math::min);
+        return true;
+    }
+
+    public boolean isAvailable(int index) {
+        return (words.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * 根据座位ID查找下标
+     *
+     * @return 座位下标，不属于本航班时返回-1
+     */
+    public int indexOf(Long seatId) {
+        Integer index = indexBySeatId.get(seatId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 构造指定下标的座位快照
+     */
+    public Seat seatAt(int index) {
+        Seat seat = new Seat(flightNumber, seatNumbers[index], seatClasses[index], prices[index]);
+        seat.setId(seatIds[index]);
+        seat.setIsAvailable(isAvailable(index));
+        return seat;
+    }
+
+    public long seatIdAt(int index) {
+        return seatIds[index];
+    }
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public int size() {
+        return seatIds.length;
+    }
+
+    public int availableCount() {
+        return availableCount.get();
+    }
+
+    private void advanceHint(int exhaustedWord) {
+        firstWordHint.compareAndSet(exhaustedWord, exhaustedWord + 1);
+        // 与并发释放竞争时回退提示，避免跳过刚被释放的座位
+        if (words.get(exhaustedWord) != 0) {
+            firstWordHint.accumulateAndGet(exhaustedWord, Math::min);
+        }
+    }
+
+    private static int classPriority(SeatClass seatClass) {
+        if (seatClass == null) {
+            return 4;
+        }
+        switch (seatClass) {
+            case ECONOMY:
+                return 1;
+            case BUSINESS:
+                return 2;
+            case FIRST:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 座位占用的批量回写队列（组提交）
+ *
+ * 内存中已分配的座位以 Claim 为单位进入队列，由单个后台线程批量写回 seats 表，
+ * 调用方等待所在批次提交后才把座位交给用户。写库期间新到达的占用在队列中自然积攒，下一批一次性提交。
+ *
+ * 每批先锁定其中仍可用的座位，整个 Claim 都可用时才占用，否则该 Claim 以冲突结束、不写入任何座位，
+ * 其余 Claim 照常提交；座位与 flight_inventory 的扣减在同一事务中提交。
+ * 写库失败时整批最多尝试 maxAttempts 次，仍失败则逐个 Claim 单独提交，
+ * 只有自身写不进去的 Claim 以异常结束（移出队列），不会阻塞后续的回写。
+ *
+ * @author liajay
+ */
+public class SeatWriteBehindQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatWriteBehindQueue.class);
+
+    private final SeatMapper seatMapper;
+    private final FlightInventoryCounter flightInventoryCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final long retryIntervalMs;
+    private final int maxAttempts;
+    private final Consumer<Set<String>> conflictListener;
+
+    private final BlockingQueue<Claim> queue = new LinkedBlockingQueue<>();
+    private final Map<String, Set<Long>> pendingSeatIds = new ConcurrentHashMap<>();
+    private final LongAdder conflictCount = new LongAdder();
+    private final LongAdder poisonCount = new LongAdder();
+
+    /**
+     * 读锁：按航班重建位图；写锁：回写结束后移除待写记录。
+     * 保证重建时读到的数据库快照与待写集合不会同时漏掉同一个座位
+     */
+    private final ReadWriteLock pendingLock = new ReentrantReadWriteLock();
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    /**
+     * @param seatMapper             座位Mapper
+     * @param flightInventoryCounter 航班库存汇总维护
+     * @param transactionTemplate    回写事务模板
+     * @param maxBatchSize     单次回写的最大座位数
+     * @param retryIntervalMs  回写失败后的重试间隔
+     * @param maxAttempts      整批回写的最大尝试次数
+     * @param conflictListener 回写时发现座位已被其他途径占用或写入失败时的回调，参数为涉及的航班号
+     */
+    public SeatWriteBehindQueue(SeatMapper seatMapper, FlightInventoryCounter flightInventoryCounter,
+                                TransactionTemplate transactionTemplate, int maxBatchSize, long retryIntervalMs,
+                                int maxAttempts, Consumer<Set<String>> conflictListener) {
+        this.seatMapper = seatMapper;
+        this.flightInventoryCounter = flightInventoryCounter;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.retryIntervalMs = retryIntervalMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.conflictListener = conflictListener;
+        this.flusher = new Thread(this::runFlushLoop, "seat-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * 提交一组已在内存中占用的座位（同一航班），这些座位要么全部写入，要么都不写入
+     *
+     * @return 回写凭证，通过 getResult 等待结果
+     */
+    public Claim submit(List<Seat> seats) {
+        Claim claim = new Claim(seats);
+        Set<Long> pending = pendingSeatIds.computeIfAbsent(claim.flightNumber, key -> ConcurrentHashMap.newKeySet());
+        for (Seat seat : seats) {
+            pending.add(seat.getId());
+        }
+        queue.add(claim);
+        return claim;
+    }
+
+    /**
+     * 放弃尚未开始写入的回写，放弃成功后座位不会再写入数据库
+     *
+     * @return 放弃成功时返回true；已在写入中或已结束时返回false，调用方应继续等待结果
+     */
+    public boolean abandon(Claim claim) {
+        if (!claim.state.compareAndSet(Claim.QUEUED, Claim.ABANDONED)) {
+            return false;
+        }
+        removePending(Collections.singletonList(claim));
+        claim.result.complete(false);
+        return true;
+    }
+
+    /**
+     * 从数据库加载航班座位，并把尚未回写的座位视为已占用
+     */
+    public List<Seat> loadExcludingPending(String flightNumber, Supplier<List<Seat>> loader) {
+        pendingLock.readLock().lock();
+        try {
+            List<Seat> seats = loader.get();
+            Set<Long> pending = pendingSeatIds.getOrDefault(flightNumber, Collections.emptySet());
+            if (!pending.isEmpty()) {
+                for (Seat seat : seats) {
+                    if (pending.contains(seat.getId())) {
+                        seat.setIsAvailable(false);
+                    }
+                }
+            }
+            return seats;
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 当前等待回写的 Claim 数
+     */
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 因座位已被其他途径占用而未写入的 Claim 数
+     */
+    public long conflictCount() {
+        return conflictCount.sum();
+    }
+
+    /**
+     * 多次重试仍无法写入、被移出队列的 Claim 数
+     */
+    public long poisonCount() {
+        return poisonCount.sum();
+    }
+
+    /**
+     * 停止后台线程，退出前写完队列中剩余的座位
+     */
+    public void shutdown() {
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Claim claim;
+        while ((claim = queue.poll()) != null) {
+            if (claim.state.compareAndSet(Claim.QUEUED, Claim.DONE)) {
+                claim.result.completeExceptionally(new IllegalStateException("座位回写队列已关闭"));
+            }
+        }
+    }
+
+    private void runFlushLoop() {
+        List<Claim> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Claim first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    break;
+                }
+                int seats = first.seats.size();
+                batch.add(first);
+                Claim next;
+                while (seats < maxBatchSize && (next = queue.poll()) != null) {
+                    batch.add(next);
+                    seats += next.seats.size();
+                }
+                // 已被调用方放弃的不再写入
+                batch.removeIf(claim -> !claim.state.compareAndSet(Claim.QUEUED, Claim.FLUSHING));
+                flushWithRetry(batch);
+            } catch (InterruptedException e) {
+                // 关闭信号，继续循环把剩余数据写完
+            } catch (RuntimeException e) {
+                logger.error("座位回写线程异常", e);
+                fail(batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushWithRetry(List<Claim> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        RuntimeException lastError = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                flush(batch);
+                return;
+            } catch (RuntimeException e) {
+                lastError = e;
+                logger.warn("座位回写失败: 第{}次, 批次大小={}", attempt, batch.size(), e);
+                if (attempt < maxAttempts) {
+                    sleepQuietly(retryIntervalMs);
+                }
+            }
+        }
+
+        if (batch.size() == 1) {
+            fail(batch, lastError);
+            return;
+        }
+        // 整批多次失败，逐个单独提交，把写不进去的 Claim 隔离出来
+        for (Claim claim : batch) {
+            List<Claim> single = Collections.singletonList(claim);
+            try {
+                flush(single);
+            } catch (RuntimeException e) {
+                fail(single, e);
+            }
+        }
+    }
+
+    private void flush(List<Claim> batch) {
+        List<Long> ids = new ArrayList<>();
+        for (Claim claim : batch) {
+            for (Seat seat : claim.seats) {
+                ids.add(seat.getId());
+            }
+        }
+
+        List<Claim> conflicted = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            conflicted.clear();
+            Set<Long> available = new HashSet<>(seatMapper.lockAvailableSeatIds(ids));
+            List<Long> claimIds = new ArrayList<>(ids.size());
+            List<Seat> claimed = new ArrayList<>(ids.size());
+            for (Claim claim : batch) {
+                if (claim.seats.stream().allMatch(seat -> available.contains(seat.getId()))) {
+                    for (Seat seat : claim.seats) {
+                        claimIds.add(seat.getId());
+                        claimed.add(seat);
+                    }
+                } else {
+                    conflicted.add(claim);
+                }
+            }
+            if (claimIds.isEmpty()) {
+                return;
+            }
+            // 座位已被本事务锁定，条件更新必须全部命中
+            int updated = seatMapper.claimSeats(claimIds);
+            if (updated != claimIds.size()) {
+                throw new IllegalStateException("批量占用座位失败: 期望" + claimIds.size() + "个, 实际" + updated + "个");
+            }
+            flightInventoryCounter.onSeatsClaimed(claimed);
+        });
+
+        removePending(batch);
+        if (!conflicted.isEmpty()) {
+            conflictCount.add(conflicted.size());
+            Set<String> flights = flightsOf(conflicted);
+            logger.error("座位回写冲突，座位已被其他途径占用: Claim数={}, 涉及航班={}", conflicted.size(), flights);
+            conflictListener.accept(flights);
+        }
+        for (Claim claim : batch) {
+            claim.state.set(Claim.DONE);
+            claim.result.complete(!conflicted.contains(claim));
+        }
+    }
+
+    /**
+     * 写入失败的 Claim 以异常结束，座位未写入数据库，丢弃涉及航班的位图
+     */
+    private void fail(List<Claim> claims, Throwable cause) {
+        List<Claim> failed = new ArrayList<>();
+        for (Claim claim : claims) {
+            if (!claim.result.isDone()) {
+                failed.add(claim);
+            }
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+        poisonCount.add(failed.size());
+        removePending(failed);
+        // 先让位图失效再唤醒调用方，避免调用方重试时仍读到旧位图
+        conflictListener.accept(flightsOf(failed));
+        for (Claim claim : failed) {
+            logger.error("座位回写多次失败，已移出队列: 航班={}, 座位={}", claim.flightNumber, seatIdsOf(claim));
+            claim.state.set(Claim.DONE);
+            claim.result.completeExceptionally(cause);
+        }
+    }
+
+    private void removePending(List<Claim> claims) {
+        pendingLock.writeLock().lock();
+        try {
+            for (Claim claim : claims) {
+                Set<Long> pending = pendingSeatIds.get(claim.flightNumber);
+                if (pending != null) {
+                    claim.seats.forEach(seat -> pending.remove(seat.getId()));
+                }
+            }
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+    }
+
+    private static Set<String> flightsOf(List<Claim> claims) {
+        Set<String> flights = new HashSet<>();
+        for (Claim claim : claims) {
+            flights.add(claim.flightNumber);
+        }
+        return flights;
+    }
+
+    private static List<Long> seatIdsOf(Claim claim) {
+        List<Long> ids = new ArrayList<>(claim.seats.size());
+        for (Seat seat : claim.seats) {
+            ids.add(seat.getId());
+        }
+        return ids;
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // 关闭时不再等待，直接重试
+        }
+    }
+
+    /**
+     * 一次分配的回写凭证
+     */
+    public static final class Claim {
+        private static final int QUEUED = 0;
+        private static final int FLUSHING = 1;
+        private static final int ABANDONED = 2;
+        private static final int DONE = 3;
+
+        private final List<Seat> seats;
+        private final String flightNumber;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        /**
+         * true：已写入数据库；false：座位冲突或已放弃，未写入任何座位；异常：多次写入失败
+         */
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private Claim(List<Seat> seats) {
+            this.seats = seats;
+            this.flightNumber = seats.get(0).getFlightNumber();
+        }
+
+        public CompletableFuture<Boolean> getResult() {
+            return result;
+        }
+    }
+}
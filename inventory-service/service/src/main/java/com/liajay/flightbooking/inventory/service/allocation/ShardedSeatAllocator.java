@@ -0,0 +1,119 @@
+package com.liajay.flightbooking.inventory.service.allocation;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 按航班分片的座位分配器
+ *
+ * 航班号哈希到固定的分片，每个分片是一个单线程事件循环，独占所属航班的座位状态并批量写库。
+ * 吞吐随分片数扩展，而不受行锁持有时间限制。
+ *
+ * 与 BitmapSeatAllocator 一样要求同一航班的分配请求都落在同一个实例上。
+ *
+ * @author liajay
+ */
+public class ShardedSeatAllocator implements SeatAllocator {
+
+    private final SeatAllocationShard[] shards;
+    private final long requestTimeoutMs;
+
+    public ShardedSeatAllocator(SeatMapper seatMapper, FlightInventoryCounter flightInventoryCounter,
+                                TransactionTemplate transactionTemplate,
+                                int shardCount, int shardBatchSize, long requestTimeoutMs) {
+        this.shards = new SeatAllocationShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new SeatAllocationShard(i, seatMapper, flightInventoryCounter, transactionTemplate,
+                    shardBatchSize);
+        }
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    @Override
+    public Seat allocate(String flightNumber) {
+        List<Seat> seats = allocate(flightNumber, 1);
+        return seats.isEmpty() ? null : seats.get(0);
+    }
+
+    @Override
+    public List<Seat> allocate(String flightNumber, int count) {
+        CompletableFuture<List<Seat>> future = shardOf(flightNumber).submit(flightNumber, count);
+        try {
+            return future.get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (future.cancel(false)) {
+                // 尚未处理的请求会被分片跳过，已写入数据库的座位由分片归还
+                throw new RuntimeException("座位分配超时，请重试");
+            }
+            // 分片已给出结果，不能丢弃
+            return awaitCompleted(future);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("座位分配失败: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("座位分配被中断");
+        }
+    }
+
+    @Override
+    public void onSeatsReleased(String flightNumber) {
+        shardOf(flightNumber).invalidate(flightNumber);
+    }
+
+    @Override
+    public void onSeatsClaimed(String flightNumber) {
+        shardOf(flightNumber).invalidate(flightNumber);
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("mode", "sharded");
+        metrics.put("shardCount", shards.length);
+        metrics.put("queueSize", queueSize());
+        return metrics;
+    }
+
+    /**
+     * 全部分片排队中的命令数
+     */
+    public int queueSize() {
+        int size = 0;
+        for (SeatAllocationShard shard : shards) {
+            size += shard.queueSize();
+        }
+        return size;
+    }
+
+    /**
+     * 关闭全部分片线程
+     */
+    public void shutdown() {
+        for (SeatAllocationShard shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    private static List<Seat> awaitCompleted(CompletableFuture<List<Seat>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("座位分配失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private SeatAllocationShard shardOf(String flightNumber) {
+        return shards[Math.floorMod(flightNumber.hashCode(), shards.length)];
+    }
+}
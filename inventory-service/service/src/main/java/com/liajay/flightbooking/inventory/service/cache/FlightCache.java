@@ -0,0 +1,199 @@
+package com.liajay.flightbooking.inventory.service.cache;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 航班信息本地缓存
+ *
+ * 按航班号缓存 Flight，超过 maxSize 时淘汰最久未访问的条目，写入超过 ttl 后过期重新加载。
+ * 收到 FlightChangedEvent 时丢弃对应条目；加载期间发生过失效的结果不会写回缓存，避免缓存旧数据。
+ *
+ * 返回的 Flight 对象被多个调用方共享，调用方不能修改。
+ *
+ * @author liajay
+ */
+public class FlightCache {
+
+    /**
+     * 批量加载时每次查询的航班数
+     */
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final FlightMapper flightMapper;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    /**
+     * 访问顺序的 LinkedHashMap 实现 LRU，所有访问都在 this 上同步
+     */
+    private final LinkedHashMap<String, CachedFlight> entries = new LinkedHashMap<String, CachedFlight>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedFlight> eldest) {
+            if (size() > maxSize) {
+                sizeEvictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * 失效计数，加载前后不一致说明期间有航班被修改
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public FlightCache(FlightMapper flightMapper, int maxSize, long ttlSeconds) {
+        this.flightMapper = flightMapper;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * 获取航班信息，未命中时从数据库加载
+     *
+     * @return 航班信息，不存在时返回null
+     */
+    public Flight get(String flightNumber) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            CachedFlight cached = entries.get(flightNumber);
+            if (cached != null) {
+                if (now - cached.loadedNanos < ttlNanos) {
+                    hits.increment();
+                    return cached.flight;
+                }
+                entries.remove(flightNumber);
+                expirations.increment();
+            }
+        }
+
+        misses.increment();
+        long expectedVersion = invalidationVersion.get();
+        Flight flight = flightMapper.findByFlightNumber(flightNumber);
+        if (flight != null) {
+            synchronized (this) {
+                if (invalidationVersion.get() == expectedVersion) {
+                    entries.put(flightNumber, new CachedFlight(flight, now));
+                }
+            }
+        }
+        return flight;
+    }
+
+    /**
+     * 批量获取航班信息，未命中的航班按 LOAD_BATCH_SIZE 个一批从数据库加载
+     *
+     * @return 航班号 -> 航班信息，按参数中首次出现的顺序排列，不存在的航班不返回
+     */
+    public Map<String, Flight> getAll(Collection<String> flightNumbers) {
+        long now = System.nanoTime();
+        Map<String, Flight> flights = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (this) {
+            for (String flightNumber : new LinkedHashSet<>(flightNumbers)) {
+                CachedFlight cached = entries.get(flightNumber);
+                if (cached != null && now - cached.loadedNanos < ttlNanos) {
+                    hits.increment();
+                    flights.put(flightNumber, cached.flight);
+                    continue;
+                }
+                if (cached != null) {
+                    entries.remove(flightNumber);
+                    expirations.increment();
+                }
+                // 先占位，保持返回顺序
+                flights.put(flightNumber, null);
+                missing.add(flightNumber);
+            }
+        }
+        if (missing.isEmpty()) {
+            return flights;
+        }
+
+        misses.add(missing.size());
+        long expectedVersion = invalidationVersion.get();
+        List<Flight> loaded = new ArrayList<>(missing.size());
+        for (int from = 0; from < missing.size(); from += LOAD_BATCH_SIZE) {
+            loaded.addAll(flightMapper.findByFlightNumbers(
+                    missing.subList(from, Math.min(from + LOAD_BATCH_SIZE, missing.size()))));
+        }
+        synchronized (this) {
+            boolean unchanged = invalidationVersion.get() == expectedVersion;
+            for (Flight flight : loaded) {
+                flights.put(flight.getFlightNumber(), flight);
+                if (unchanged) {
+                    entries.put(flight.getFlightNumber(), new CachedFlight(flight, now));
+                }
+            }
+        }
+        flights.values().removeIf(Objects::isNull);
+        return flights;
+    }
+
+    /**
+     * 丢弃指定航班的缓存
+     */
+    public void invalidate(String flightNumber) {
+        invalidationVersion.incrementAndGet();
+        synchronized (this) {
+            entries.remove(flightNumber);
+        }
+        invalidations.increment();
+    }
+
+    @EventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        event.getFlightNumbers().forEach(this::invalidate);
+    }
+
+    /**
+     * 缓存命中率等统计信息
+     */
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (this) {
+            metrics.put("size", entries.size());
+        }
+        metrics.put("maxSize", maxSize);
+        metrics.put("hitCount", hitCount);
+        metrics.put("missCount", missCount);
+        metrics.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        metrics.put("evictionCount", sizeEvictions.sum());
+        metrics.put("expirationCount", expirations.sum());
+        metrics.put("invalidationCount", invalidations.sum());
+        return metrics;
+    }
+
+    private static final class CachedFlight {
+        private final Flight flight;
+        private final long loadedNanos;
+
+        private CachedFlight(Flight flight, long loadedNanos) {
+            this.flight = flight;
+            this.loadedNanos = loadedNanos;
+        }
+    }
+}
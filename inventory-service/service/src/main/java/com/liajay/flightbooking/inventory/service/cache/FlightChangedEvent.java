@@ -0,0 +1,31 @@
+package com.liajay.flightbooking.inventory.service.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 航班信息变更事件
+ *
+ * 修改 flights 表后发布该事件，航班缓存收到后丢弃对应条目。
+ * 批量创建等场景一次携带多个航班号，监听方应整体处理而不是逐个重建。
+ *
+ * @author liajay
+ */
+public class FlightChangedEvent {
+
+    private final Set<String> flightNumbers;
+
+    public FlightChangedEvent(String flightNumber) {
+        this(Collections.singletonList(flightNumber));
+    }
+
+    public FlightChangedEvent(Collection<String> flightNumbers) {
+        this.flightNumbers = Collections.unmodifiableSet(new LinkedHashSet<>(flightNumbers));
+    }
+
+    public Set<String> getFlightNumbers() {
+        return flightNumbers;
+    }
+}
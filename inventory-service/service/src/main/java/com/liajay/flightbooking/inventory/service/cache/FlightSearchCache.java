@@ -0,0 +1,389 @@
+package com.liajay.flightbooking.inventory.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.dto.FlightQueryDTO;
+import com.liajay.flightbooking.inventory.service.dto.result.FlightQueryResultDTO;
+import com.liajay.flightbooking.inventory.service.pagination.CountStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 航班搜索结果两级缓存
+ *
+ * 第一级是实例内的 LRU 近端缓存（短 TTL），第二级是多个实例共享的 SearchCacheStore（Redis）。
+ * 缓存键由规范化后的 FlightQueryDTO 生成，并按航线分桶：
+ * 出发/到达城市未指定的部分记为 *，每个桶有一个版本号，失效航线时递增相关桶的版本号，
+ * 旧版本的共享缓存条目不再被读取，随 TTL 自然过期。
+ *
+ * 防击穿：同一实例内相同查询只有一个线程回源；共享层用 SET NX 加锁，
+ * 未拿到锁的实例等待持锁方写入结果，超时后自行回源。
+ *
+ * 其他实例的近端缓存不会收到失效通知，最多在 nearTtlMs 内返回旧结果；
+ * 搜索结果中的可用座位数同样只保证在缓存 TTL 内近似准确。
+ *
+ * @author liajay
+ */
+public class FlightSearchCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightSearchCache.class);
+
+    private static final String KEY_PREFIX = "inventory:flight-search:";
+    private static final String VERSION_PREFIX = "inventory:flight-search-version:";
+    private static final String ANY = "*";
+
+    /**
+     * 等待其他实例回源时轮询共享缓存的间隔
+     */
+    private static final long LOCK_POLL_INTERVAL_MS = 20L;
+
+    private final SearchCacheStore store;
+    private final ObjectMapper objectMapper;
+    private final FlightMapper flightMapper;
+    private final int nearMaxSize;
+    private final long nearTtlMs;
+    private final long remoteTtlMs;
+    private final long lockTimeoutMs;
+
+    /**
+     * 近端缓存，访问顺序的 LinkedHashMap 实现 LRU，所有访问都在 this 上同步
+     */
+    private final LinkedHashMap<String, NearEntry> nearEntries = new LinkedHashMap<String, NearEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, NearEntry> eldest) {
+            return size() > nearMaxSize;
+        }
+    };
+
+    /**
+     * 正在回源的查询，同一实例内相同查询只回源一次
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<FlightQueryResultDTO>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 失效计数，回源前后不一致时结果不写入近端缓存
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    private final LongAdder nearHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder lockWaits = new LongAdder();
+    private final LongAdder remoteErrors = new LongAdder();
+
+    public FlightSearchCache(SearchCacheStore store, ObjectMapper objectMapper, FlightMapper flightMapper,
+                             int nearMaxSize, long nearTtlMs, long remoteTtlMs, long lockTimeoutMs) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.flightMapper = flightMapper;
+        this.nearMaxSize = nearMaxSize;
+        this.nearTtlMs = nearTtlMs;
+        this.remoteTtlMs = remoteTtlMs;
+        this.lockTimeoutMs = lockTimeoutMs;
+    }
+
+    /**
+     * 读取搜索结果，两级缓存都未命中时调用 loader 查询数据库
+     */
+    public FlightQueryResultDTO get(FlightQueryDTO query, Supplier<FlightQueryResultDTO> loader) {
+        SearchKey key = SearchKey.of(query);
+        FlightQueryResultDTO cached = getNear(key.value);
+        if (cached != null) {
+            nearHits.increment();
+            return cached;
+        }
+
+        CompletableFuture<FlightQueryResultDTO> future = new CompletableFuture<>();
+        CompletableFuture<FlightQueryResultDTO> existing = loading.putIfAbsent(key.value, future);
+        if (existing != null) {
+            return existing.join();
+        }
+
+        try {
+            long expectedVersion = invalidationVersion.get();
+            FlightQueryResultDTO result = getRemoteOrLoad(key, loader);
+            putNear(key, result, expectedVersion);
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key.value, future);
+        }
+    }
+
+    /**
+     * 失效一条航线的搜索结果，包括只指定了出发或到达城市、以及未指定航线的查询
+     */
+    public void invalidateRoute(String departureCity, String arrivalCity) {
+        Set<String> buckets = new LinkedHashSet<>();
+        String departure = SearchKey.normalize(departureCity);
+        String arrival = SearchKey.normalize(arrivalCity);
+        for (String from : new String[]{departure, null}) {
+            for (String to : new String[]{arrival, null}) {
+                buckets.add(SearchKey.bucketOf(from, to));
+            }
+        }
+
+        invalidationVersion.incrementAndGet();
+        synchronized (this) {
+            Iterator<NearEntry> iterator = nearEntries.values().iterator();
+            while (iterator.hasNext()) {
+                if (buckets.contains(iterator.next().bucket)) {
+                    iterator.remove();
+                }
+            }
+        }
+        for (String bucket : buckets) {
+            try {
+                store.increment(VERSION_PREFIX + bucket);
+            } catch (RuntimeException e) {
+                remoteErrors.increment();
+                logger.warn("失效航班搜索缓存失败: bucket={}", bucket, e);
+            }
+        }
+    }
+
+    /**
+     * 航班信息变更时失效相关航线，每条航线只失效一次
+     */
+    @EventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        List<Flight> flights = flightMapper.findByFlightNumbers(new ArrayList<>(event.getFlightNumbers()));
+        if (flights.size() < event.getFlightNumbers().size()) {
+            // 有航班已删除，无法确定原航线
+            invalidateRoute(null, null);
+            return;
+        }
+        Set<List<String>> routes = new LinkedHashSet<>();
+        for (Flight flight : flights) {
+            routes.add(Arrays.asList(flight.getDepartureCity(), flight.getArrivalCity()));
+        }
+        for (List<String> route : routes) {
+            invalidateRoute(route.get(0), route.get(1));
+        }
+    }
+
+    /**
+     * 缓存命中率等统计信息
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (this) {
+            metrics.put("nearSize", nearEntries.size());
+        }
+        metrics.put("nearHitCount", nearHits.sum());
+        metrics.put("remoteHitCount", remoteHits.sum());
+        metrics.put("loadCount", loads.sum());
+        metrics.put("lockWaitCount", lockWaits.sum());
+        metrics.put("remoteErrorCount", remoteErrors.sum());
+        return metrics;
+    }
+
+    public void shutdown() {
+        store.shutdown();
+    }
+
+    private FlightQueryResultDTO getRemoteOrLoad(SearchKey key, Supplier<FlightQueryResultDTO> loader) {
+        String remoteKey;
+        try {
+            String version = store.get(VERSION_PREFIX + key.bucket);
+            remoteKey = KEY_PREFIX + key.bucket + ":" + (version != null ? version : "0") + ":" + key.value;
+            FlightQueryResultDTO cached = readRemote(remoteKey);
+            if (cached != null) {
+                remoteHits.increment();
+                return cached;
+            }
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            logger.warn("读取航班搜索缓存失败，直接查询数据库", e);
+            return load(loader);
+        }
+
+        String lockKey = remoteKey + ":lock";
+        // 锁值随机，超时后锁被其他实例拿到时不会误删对方的锁
+        String lockToken = UUID.randomUUID().toString();
+        if (tryLock(lockKey, lockToken)) {
+            try {
+                FlightQueryResultDTO result = load(loader);
+                writeRemote(remoteKey, result);
+                return result;
+            } finally {
+                unlock(lockKey, lockToken);
+            }
+        }
+
+        // 其他实例正在回源，等待其写入结果
+        lockWaits.increment();
+        long deadline = System.currentTimeMillis() + lockTimeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_INTERVAL_MS);
+                FlightQueryResultDTO cached = readRemote(remoteKey);
+                if (cached != null) {
+                    remoteHits.increment();
+                    return cached;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                remoteErrors.increment();
+                break;
+            }
+        }
+        return load(loader);
+    }
+
+    private FlightQueryResultDTO load(Supplier<FlightQueryResultDTO> loader) {
+        loads.increment();
+        return loader.get();
+    }
+
+    private FlightQueryResultDTO readRemote(String remoteKey) {
+        String json = store.get(remoteKey);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, FlightQueryResultDTO.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("航班搜索缓存内容无法解析，丢弃: key={}", remoteKey, e);
+            store.delete(remoteKey);
+            return null;
+        }
+    }
+
+    private void writeRemote(String remoteKey, FlightQueryResultDTO result) {
+        try {
+            store.set(remoteKey, objectMapper.writeValueAsString(result), remoteTtlMs);
+        } catch (JsonProcessingException | RuntimeException e) {
+            remoteErrors.increment();
+            logger.warn("写入航班搜索缓存失败: key={}", remoteKey, e);
+        }
+    }
+
+    private boolean tryLock(String lockKey, String lockToken) {
+        try {
+            return store.setIfAbsent(lockKey, lockToken, lockTimeoutMs);
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            return true; // 共享层不可用时直接回源
+        }
+    }
+
+    private void unlock(String lockKey, String lockToken) {
+        try {
+            store.deleteIfEquals(lockKey, lockToken);
+        } catch (RuntimeException e) {
+            remoteErrors.increment(); // 锁会随过期时间自动释放
+        }
+    }
+
+    private synchronized FlightQueryResultDTO getNear(String key) {
+        NearEntry entry = nearEntries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expireAtMs) {
+            nearEntries.remove(key);
+            return null;
+        }
+        return entry.result;
+    }
+
+    private synchronized void putNear(SearchKey key, FlightQueryResultDTO result, long expectedVersion) {
+        if (invalidationVersion.get() == expectedVersion) {
+            nearEntries.put(key.value, new NearEntry(key.bucket, result, System.currentTimeMillis() + nearTtlMs));
+        }
+    }
+
+    /**
+     * 规范化后的查询键
+     */
+    static final class SearchKey {
+        private final String bucket;
+        private final String value;
+
+        private SearchKey(String bucket, String value) {
+            this.bucket = bucket;
+            this.value = value;
+        }
+
+        static SearchKey of(FlightQueryDTO query) {
+            String bucket = bucketOf(normalize(query.getDepartureCity()), normalize(query.getArrivalCity()));
+            String value = String.join("|",
+                    String.valueOf(upperCase(query.getFlightNumber())),
+                    String.valueOf(normalize(query.getAirline())),
+                    String.valueOf(query.getStartTime()),
+                    String.valueOf(query.getEndTime()),
+                    String.valueOf(upperCase(query.getStatus())),
+                    query.getMinPrice() != null ? query.getMinPrice().stripTrailingZeros().toPlainString() : "null",
+                    query.getMaxPrice() != null ? query.getMaxPrice().stripTrailingZeros().toPlainString() : "null",
+                    pageOf(query),
+                    query.getSortColumn(),
+                    String.valueOf(upperCase(query.getSortDirection())));
+            return new SearchKey(bucket, bucket + "|" + value);
+        }
+
+        private static String pageOf(FlightQueryDTO query) {
+            String count = CountStrategy.of(query.getCountStrategy()).name();
+            if (query.getCheapest() != null && query.getCheapest() > 0) {
+                return "cheapest:" + query.getCheapest();
+            }
+            if (query.isCursorPaging()) {
+                return "cursor:" + query.getCursor() + "/" + query.getSize()
+                        + (Boolean.TRUE.equals(query.getIncludeTotal()) ? "/total:" + count : "");
+            }
+            return query.isPaginationEnabled() ? query.getPage() + "/" + query.getSize() + "/" + count : "all";
+        }
+
+        static String bucketOf(String departureCity, String arrivalCity) {
+            return (departureCity != null ? departureCity : ANY) + "-" + (arrivalCity != null ? arrivalCity : ANY);
+        }
+
+        static String normalize(String value) {
+            if (value == null) {
+                return null;
+            }
+            String trimmed = value.trim();
+            return trimmed.isEmpty() ? null : trimmed;
+        }
+
+        private static String upperCase(String value) {
+            String normalized = normalize(value);
+            return normalized != null ? normalized.toUpperCase() : null;
+        }
+    }
+
+    private static final class NearEntry {
+        private final String bucket;
+        private final FlightQueryResultDTO result;
+        private final long expireAtMs;
+
+        private NearEntry(String bucket, FlightQueryResultDTO result, long expireAtMs) {
+            this.bucket = bucket;
+            this.result = result;
+            this.expireAtMs = expireAtMs;
+        }
+    }
+}
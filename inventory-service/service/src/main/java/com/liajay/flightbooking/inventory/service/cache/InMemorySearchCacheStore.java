@@ -0,0 +1,88 @@
+package com.liajay.flightbooking.inventory.service.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内的 SearchCacheStore 实现，模拟 Redis 的过期、NX、INCR 和比较后删除语义
+ *
+ * 用于本地运行和测试，不在实例之间共享。
+ *
+ * @author liajay
+ */
+public class InMemorySearchCacheStore implements SearchCacheStore {
+
+    private final ConcurrentHashMap<String, StoredValue> values = new ConcurrentHashMap<>();
+
+    @Override
+    public String get(String key) {
+        StoredValue stored = values.get(key);
+        if (stored == null) {
+            return null;
+        }
+        if (stored.isExpired(System.currentTimeMillis())) {
+            values.remove(key, stored);
+            return null;
+        }
+        return stored.value;
+    }
+
+    @Override
+    public void set(String key, String value, long ttlMs) {
+        values.put(key, new StoredValue(value, System.currentTimeMillis() + ttlMs));
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long ttlMs) {
+        long now = System.currentTimeMillis();
+        StoredValue created = new StoredValue(value, now + ttlMs);
+        StoredValue result = values.compute(key,
+                (k, current) -> current == null || current.isExpired(now) ? created : current);
+        return result == created;
+    }
+
+    @Override
+    public void delete(String key) {
+        values.remove(key);
+    }
+
+    @Override
+    public boolean deleteIfEquals(String key, String expected) {
+        long now = System.currentTimeMillis();
+        boolean[] deleted = new boolean[1];
+        values.computeIfPresent(key, (k, current) -> {
+            if (current.isExpired(now)) {
+                return null;
+            }
+            if (current.value.equals(expected)) {
+                deleted[0] = true;
+                return null;
+            }
+            return current;
+        });
+        return deleted[0];
+    }
+
+    @Override
+    public long increment(String key) {
+        long now = System.currentTimeMillis();
+        StoredValue result = values.compute(key, (k, current) -> {
+            long next = current == null || current.isExpired(now) ? 1L : Long.parseLong(current.value) + 1;
+            return new StoredValue(Long.toString(next), Long.MAX_VALUE);
+        });
+        return Long.parseLong(result.value);
+    }
+
+    private static final class StoredValue {
+        private final String value;
+        private final long expireAtMs;
+
+        private StoredValue(String value, long expireAtMs) {
+            this.value = value;
+            this.expireAtMs = expireAtMs;
+        }
+
+        private boolean isExpired(long nowMs) {
+            return nowMs >= expireAtMs;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.liajay.flightbooking.inventory.service.cache;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.time.Duration;
+
+/**
+ * 基于 Lettuce 的 SearchCacheStore 实现
+ *
+ * 首次使用时建立连接，Redis 不可用不会影响服务启动；连接断开后由 Lettuce 自动重连。
+ *
+ * @author liajay
+ */
+public class RedisSearchCacheStore implements SearchCacheStore {
+
+    /**
+     * 值相等时才删除，GET 与 DEL 在 Redis 中原子执行
+     */
+    private static final String DELETE_IF_EQUALS_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    private final RedisClient redisClient;
+    private volatile StatefulRedisConnection<String, String> connection;
+
+    public RedisSearchCacheStore(String redisUri, long commandTimeoutMs) {
+        this.redisClient = RedisClient.create(redisUri);
+        this.redisClient.setDefaultTimeout(Duration.ofMillis(commandTimeoutMs));
+    }
+
+    @Override
+    public String get(String key) {
+        return commands().get(key);
+    }
+
+    @Override
+    public void set(String key, String value, long ttlMs) {
+        commands().set(key, value, SetArgs.Builder.px(ttlMs));
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long ttlMs) {
+        return "OK".equals(commands().set(key, value, SetArgs.Builder.nx().px(ttlMs)));
+    }
+
+    @Override
+    public void delete(String key) {
+        commands().del(key);
+    }
+
+    @Override
+    public boolean deleteIfEquals(String key, String expected) {
+        Long deleted = commands().eval(DELETE_IF_EQUALS_SCRIPT, ScriptOutputType.INTEGER, new String[]{key}, expected);
+        return deleted != null && deleted > 0;
+    }
+
+    @Override
+    public long increment(String key) {
+        return commands().incr(key);
+    }
+
+    @Override
+    public void shutdown() {
+        if (connection != null) {
+            connection.close();
+        }
+        redisClient.shutdown();
+    }
+
+    private RedisCommands<String, String> commands() {
+        StatefulRedisConnection<String, String> current = connection;
+        if (current == null) {
+            synchronized (this) {
+                current = connection;
+                if (current == null) {
+                    current = redisClient.connect();
+                    connection = current;
+                }
+            }
+        }
+        return current.sync();
+    }
+}
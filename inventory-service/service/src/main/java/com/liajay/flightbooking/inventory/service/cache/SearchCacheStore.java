@@ -0,0 +1,49 @@
+package com.liajay.flightbooking.inventory.service.cache;
+
+/**
+ * 航班搜索缓存的共享存储层（Redis 语义）
+ *
+ * 生产环境使用 RedisSearchCacheStore，本地运行和测试使用 InMemorySearchCacheStore。
+ * 实现在存储不可用时直接抛出异常，由调用方降级为查数据库。
+ *
+ * @author liajay
+ */
+public interface SearchCacheStore {
+
+    /**
+     * 读取值，不存在或已过期时返回null
+     */
+    String get(String key);
+
+    /**
+     * 写入值并设置过期时间
+     */
+    void set(String key, String value, long ttlMs);
+
+    /**
+     * 键不存在时写入（SET NX PX）
+     *
+     * @return 写入成功时返回true
+     */
+    boolean setIfAbsent(String key, String value, long ttlMs);
+
+    void delete(String key);
+
+    /**
+     * 值等于 expected 时删除（GET + DEL 原子执行），用于只释放自己持有的锁
+     *
+     * @return 删除成功时返回true
+     */
+    boolean deleteIfEquals(String key, String expected);
+
+    /**
+     * 计数器加一（INCR），键不存在时从0开始
+     */
+    long increment(String key);
+
+    /**
+     * 释放连接等资源
+     */
+    default void shutdown() {
+    }
+}
@@ -0,0 +1,74 @@
+package com.liajay.flightbooking.inventory.service.config;
+
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.search.AutocompleteIndex;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 城市 / 航空公司自动补全配置类
+ *
+ * @author liajay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "inventory.autocomplete")
+public class AutocompleteConfig {
+
+    /**
+     * 是否启用自动补全索引
+     */
+    private boolean enabled = true;
+
+    /**
+     * 全量重建间隔（秒），不大于0时只在启动和航班变更时重建
+     */
+    private long refreshIntervalSeconds = 600L;
+
+    /**
+     * 航班变更后延迟重建的时间（毫秒），期间的多次变更合并成一次重建
+     */
+    private long rebuildDelayMs = 1000L;
+
+    /**
+     * 每个前缀最多返回的候选项数
+     */
+    private int maxSuggestions = 20;
+
+    @Bean(destroyMethod = "shutdown")
+    public AutocompleteIndex autocompleteIndex(FlightMapper flightMapper) {
+        return new AutocompleteIndex(flightMapper, enabled, refreshIntervalSeconds, rebuildDelayMs, maxSuggestions);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getRefreshIntervalSeconds() {
+        return refreshIntervalSeconds;
+    }
+
+    public void setRefreshIntervalSeconds(long refreshIntervalSeconds) {
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+    }
+
+    public long getRebuildDelayMs() {
+        return rebuildDelayMs;
+    }
+
+    public void setRebuildDelayMs(long rebuildDelayMs) {
+        this.rebuildDelayMs = rebuildDelayMs;
+    }
+
+    public int getMaxSuggestions() {
+        return maxSuggestions;
+    }
+
+    public void setMaxSuggestions(int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+    }
+}
@@ -0,0 +1,74 @@
+package com.liajay.flightbooking.inventory.service.config;
+
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.fare.FareCalendar;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 低价日历配置类
+ *
+ * @author liajay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "inventory.fare-calendar")
+public class FareCalendarConfig {
+
+    /**
+     * 是否启用内存低价日历，未启用时每次查询都统计数据库
+     */
+    private boolean enabled = true;
+
+    /**
+     * 全量重建间隔（秒），不大于0时只在启动时全量加载
+     */
+    private long refreshIntervalSeconds = 600L;
+
+    /**
+     * 座位或航班变更后延迟刷新的时间（毫秒），期间的多次变更合并成一次查询
+     */
+    private long flushDelayMs = 200L;
+
+    /**
+     * 单次查询的最大天数
+     */
+    private int maxDays = 62;
+
+    @Bean(destroyMethod = "shutdown")
+    public FareCalendar fareCalendar(FlightMapper flightMapper) {
+        return new FareCalendar(flightMapper, enabled, refreshIntervalSeconds, flushDelayMs, maxDays);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getRefreshIntervalSeconds() {
+        return refreshIntervalSeconds;
+    }
+
+    public void setRefreshIntervalSeconds(long refreshIntervalSeconds) {
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+    }
+
+    public long getFlushDelayMs() {
+        return flushDelayMs;
+    }
+
+    public void setFlushDelayMs(long flushDelayMs) {
+        this.flushDelayMs = flushDelayMs;
+    }
+
+    public int getMaxDays() {
+        return maxDays;
+    }
+
+    public void setMaxDays(int maxDays) {
+        this.maxDays = maxDays;
+    }
+}
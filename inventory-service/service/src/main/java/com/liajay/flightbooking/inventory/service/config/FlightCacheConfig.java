@@ -0,0 +1,48 @@
+package com.liajay.flightbooking.inventory.service.config;
+
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.cache.FlightCache;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 航班缓存配置类
+ *
+ * @author liajay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "inventory.flight-cache")
+public class FlightCacheConfig {
+
+    /**
+     * 最大缓存航班数
+     */
+    private int maxSize = 10000;
+
+    /**
+     * 缓存有效期（秒）
+     */
+    private long ttlSeconds = 300L;
+
+    @Bean
+    public FlightCache flightCache(FlightMapper flightMapper) {
+        return new FlightCache(flightMapper, maxSize, ttlSeconds);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
@@ -0,0 +1,85 @@
+package com.liajay.flightbooking.inventory.service.config;
+
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import com.liajay.flightbooking.inventory.service.provision.AircraftLayouts;
+import com.liajay.flightbooking.inventory.service.provision.FlightProvisioner;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 批量创建航班配置类
+ *
+ * @author liajay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "inventory.provision")
+public class FlightProvisionConfig {
+
+    /**
+     * 机型布局模板（classpath 资源）
+     */
+    private String layoutsResource = "aircraft/layouts.txt";
+
+    /**
+     * 每个事务写入的航班数
+     */
+    private int flightsPerTransaction = 200;
+
+    /**
+     * 每条多行 INSERT 写入的座位数，受 max_allowed_packet 限制
+     */
+    private int seatsPerStatement = 1000;
+
+    /**
+     * 单次请求最多创建的航班数
+     */
+    private int maxFlightsPerRequest = 20000;
+
+    @Bean
+    public FlightProvisioner flightProvisioner(FlightMapper flightMapper, SeatMapper seatMapper,
+                                               FlightInventoryCounter flightInventoryCounter,
+                                               PlatformTransactionManager transactionManager,
+                                               ApplicationEventPublisher eventPublisher) {
+        return new FlightProvisioner(flightMapper, seatMapper, flightInventoryCounter,
+                new TransactionTemplate(transactionManager), eventPublisher, AircraftLayouts.load(layoutsResource),
+                flightsPerTransaction, seatsPerStatement, maxFlightsPerRequest);
+    }
+
+    public String getLayoutsResource() {
+        return layoutsResource;
+    }
+
+    public void setLayoutsResource(String layoutsResource) {
+        this.layoutsResource = layoutsResource;
+    }
+
+    public int getFlightsPerTransaction() {
+        return flightsPerTransaction;
+    }
+
+    public void setFlightsPerTransaction(int flightsPerTransaction) {
+        this.flightsPerTransaction = flightsPerTransaction;
+    }
+
+    public int getSeatsPerStatement() {
+        return seatsPerStatement;
+    }
+
+    public void setSeatsPerStatement(int seatsPerStatement) {
+        this.seatsPerStatement = seatsPerStatement;
+    }
+
+    public int getMaxFlightsPerRequest() {
+        return maxFlightsPerRequest;
+    }
+
+    public void setMaxFlightsPerRequest(int maxFlightsPerRequest) {
+        this.maxFlightsPerRequest = maxFlightsPerRequest;
+    }
+}
@@ -0,0 +1,48 @@
+package com.liajay.flightbooking.inventory.service.config;
+
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.search.FlightRouteIndex;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 航线索引配置类
+ *
+ * @author liajay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "inventory.route-index")
+public class FlightRouteIndexConfig {
+
+    /**
+     * 是否启用内存航线索引
+     */
+    private boolean enabled = true;
+
+    /**
+     * 全量重建间隔（秒），不大于0时只在启动时加载一次
+     */
+    private long refreshIntervalSeconds = 300L;
+
+    @Bean(destroyMethod = "shutdown")
+    public FlightRouteIndex flightRouteIndex(FlightMapper flightMapper) {
+        return new FlightRouteIndex(flightMapper, enabled, refreshIntervalSeconds);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getRefreshIntervalSeconds() {
+        return refreshIntervalSeconds;
+    }
+
+    public void setRefreshIntervalSeconds(long refreshIntervalSeconds) {
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+    }
+}
@@ -0,0 +1,129 @@
+package com.liajay.flightbooking.inventory.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.cache.FlightSearchCache;
+import com.liajay.flightbooking.inventory.service.cache.InMemorySearchCacheStore;
+import com.liajay.flightbooking.inventory.service.cache.RedisSearchCacheStore;
+import com.liajay.flightbooking.inventory.service.cache.SearchCacheStore;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 航班搜索缓存配置类
+ *
+ * inventory.search-cache.store:
+ * - memory（默认）：进程内模拟的共享层，用于本地运行和测试
+ * - redis：多个实例共享的 Redis
+ *
+ * @author liajay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "inventory.search-cache")
+public class FlightSearchCacheConfig {
+
+    /**
+     * 共享层实现
+     */
+    private String store = "memory";
+
+    /**
+     * Redis 地址，store=redis 时生效
+     */
+    private String redisUri = "redis://localhost:6379";
+
+    /**
+     * Redis 命令超时时间（毫秒），超时后降级为查数据库
+     */
+    private long redisTimeoutMs = 200L;
+
+    /**
+     * 近端缓存最大条目数
+     */
+    private int nearMaxSize = 1000;
+
+    /**
+     * 近端缓存有效期（毫秒），也是其他实例失效后本实例返回旧结果的最长时间
+     */
+    private long nearTtlMs = 2000L;
+
+    /**
+     * 共享缓存有效期（毫秒）
+     */
+    private long remoteTtlMs = 30000L;
+
+    /**
+     * 回源锁的持有时间，也是等待其他实例回源的最长时间（毫秒）
+     */
+    private long lockTimeoutMs = 2000L;
+
+    @Bean(destroyMethod = "shutdown")
+    public FlightSearchCache flightSearchCache(ObjectMapper objectMapper, FlightMapper flightMapper) {
+        return new FlightSearchCache(createStore(), objectMapper, flightMapper,
+                nearMaxSize, nearTtlMs, remoteTtlMs, lockTimeoutMs);
+    }
+
+    private SearchCacheStore createStore() {
+        if ("redis".equalsIgnoreCase(store)) {
+            return new RedisSearchCacheStore(redisUri, redisTimeoutMs);
+        }
+        return new InMemorySearchCacheStore();
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public String getRedisUri() {
+        return redisUri;
+    }
+
+    public void setRedisUri(String redisUri) {
+        this.redisUri = redisUri;
+    }
+
+    public long getRedisTimeoutMs() {
+        return redisTimeoutMs;
+    }
+
+    public void setRedisTimeoutMs(long redisTimeoutMs) {
+        this.redisTimeoutMs = redisTimeoutMs;
+    }
+
+    public int getNearMaxSize() {
+        return nearMaxSize;
+    }
+
+    public void setNearMaxSize(int nearMaxSize) {
+        this.nearMaxSize = nearMaxSize;
+    }
+
+    public long getNearTtlMs() {
+        return nearTtlMs;
+    }
+
+    public void setNearTtlMs(long nearTtlMs) {
+        this.nearTtlMs = nearTtlMs;
+    }
+
+    public long getRemoteTtlMs() {
+        return remoteTtlMs;
+    }
+
+    public void setRemoteTtlMs(long remoteTtlMs) {
+        this.remoteTtlMs = remoteTtlMs;
+    }
+
+    public long getLockTimeoutMs() {
+        return lockTimeoutMs;
+    }
+
+    public void setLockTimeoutMs(long lockTimeoutMs) {
+        this.lockTimeoutMs = lockTimeoutMs;
+    }
+}
@@ -0,0 +1,47 @@
+package com.liajay.flightbooking.inventory.service.config;
+
+import com.liajay.flightbooking.inventory.service.pagination.PageCountCache;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 分页总数缓存配置类（countStrategy=cached 时使用）
+ *
+ * @author liajay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "inventory.page-count")
+public class PageCountConfig {
+
+    /**
+     * 最大缓存条目数
+     */
+    private int cacheMaxSize = 10000;
+
+    /**
+     * 缓存有效期（毫秒）
+     */
+    private long cacheTtlMs = 5000L;
+
+    @Bean
+    public PageCountCache pageCountCache() {
+        return new PageCountCache(cacheMaxSize, cacheTtlMs);
+    }
+
+    public int getCacheMaxSize() {
+        return cacheMaxSize;
+    }
+
+    public void setCacheMaxSize(int cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
+    }
+
+    public long getCacheTtlMs() {
+        return cacheTtlMs;
+    }
+
+    public void setCacheTtlMs(long cacheTtlMs) {
+        this.cacheTtlMs = cacheTtlMs;
+    }
+}
@@ -0,0 +1,190 @@
+package com.liajay.flightbooking.inventory.service.config;
+
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.allocation.BitmapSeatAllocator;
+import com.liajay.flightbooking.inventory.service.allocation.CoalescingSeatAllocator;
+import com.liajay.flightbooking.inventory.service.allocation.ShardedSeatAllocator;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 座位分配配置类
+ *
+ * inventory.allocation.mode:
+ * - database（默认）：DatabaseSeatAllocator，每次分配直接读写数据库
+ * - bitmap：BitmapSeatAllocator，内存位图分配 + 异步回写
+ * - sharded：ShardedSeatAllocator，按航班分片的单线程分配 + 批量同步写库
+ * - coalescing：CoalescingSeatAllocator，同一航班的并发请求合并成一个事务
+ *
+ * @author liajay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "inventory.allocation")
+public class SeatAllocationConfig {
+
+    /**
+     * 分配模式
+     */
+    private String mode = "database";
+
+    /**
+     * 异步回写单批最大座位数
+     */
+    private int writeBehindBatchSize = 500;
+
+    /**
+     * 异步回写失败后的重试间隔（毫秒）
+     */
+    private long writeBehindRetryIntervalMs = 200L;
+
+    /**
+     * 异步回写整批的最大尝试次数，仍失败的座位逐个提交，写不进去的移出队列
+     */
+    private int writeBehindMaxAttempts = 3;
+
+    /**
+     * 分片数，不大于0时取CPU核数
+     */
+    private int shardCount = 0;
+
+    /**
+     * 分片单批处理的最大请求数
+     */
+    private int shardBatchSize = 256;
+
+    /**
+     * 合并分配单批最大请求数
+     */
+    private int coalesceMaxBatchSize = 64;
+
+    /**
+     * 合并分配收集请求的最长等待时间（毫秒）
+     */
+    private long coalesceMaxWaitMs = 5L;
+
+    /**
+     * 合并分配的提交线程数
+     */
+    private int coalesceFlushThreads = 4;
+
+    /**
+     * bitmap / sharded / coalescing 模式下等待分配结果的超时时间（毫秒）
+     */
+    private long requestTimeoutMs = 5000L;
+
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    @ConditionalOnProperty(prefix = "inventory.allocation", name = "mode", havingValue = "bitmap")
+    public BitmapSeatAllocator bitmapSeatAllocator(SeatMapper seatMapper, FlightInventoryCounter flightInventoryCounter,
+                                                   PlatformTransactionManager transactionManager) {
+        return new BitmapSeatAllocator(seatMapper, flightInventoryCounter, new TransactionTemplate(transactionManager),
+                writeBehindBatchSize, writeBehindRetryIntervalMs, writeBehindMaxAttempts, requestTimeoutMs);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    @ConditionalOnProperty(prefix = "inventory.allocation", name = "mode", havingValue = "sharded")
+    public ShardedSeatAllocator shardedSeatAllocator(SeatMapper seatMapper,
+                                                     FlightInventoryCounter flightInventoryCounter,
+                                                     PlatformTransactionManager transactionManager) {
+        int shards = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        return new ShardedSeatAllocator(seatMapper, flightInventoryCounter, new TransactionTemplate(transactionManager),
+                shards, shardBatchSize, requestTimeoutMs);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    @ConditionalOnProperty(prefix = "inventory.allocation", name = "mode", havingValue = "coalescing")
+    public CoalescingSeatAllocator coalescingSeatAllocator(SeatMapper seatMapper,
+                                                           FlightInventoryCounter flightInventoryCounter,
+                                                           PlatformTransactionManager transactionManager) {
+        return new CoalescingSeatAllocator(seatMapper, flightInventoryCounter, new TransactionTemplate(transactionManager),
+                coalesceMaxBatchSize, coalesceMaxWaitMs, coalesceFlushThreads, requestTimeoutMs);
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public int getWriteBehindBatchSize() {
+        return writeBehindBatchSize;
+    }
+
+    public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+        this.writeBehindBatchSize = writeBehindBatchSize;
+    }
+
+    public long getWriteBehindRetryIntervalMs() {
+        return writeBehindRetryIntervalMs;
+    }
+
+    public void setWriteBehindRetryIntervalMs(long writeBehindRetryIntervalMs) {
+        this.writeBehindRetryIntervalMs = writeBehindRetryIntervalMs;
+    }
+
+    public int getWriteBehindMaxAttempts() {
+        return writeBehindMaxAttempts;
+    }
+
+    public void setWriteBehindMaxAttempts(int writeBehindMaxAttempts) {
+        this.writeBehindMaxAttempts = writeBehindMaxAttempts;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public int getShardBatchSize() {
+        return shardBatchSize;
+    }
+
+    public void setShardBatchSize(int shardBatchSize) {
+        this.shardBatchSize = shardBatchSize;
+    }
+
+    public int getCoalesceMaxBatchSize() {
+        return coalesceMaxBatchSize;
+    }
+
+    public void setCoalesceMaxBatchSize(int coalesceMaxBatchSize) {
+        this.coalesceMaxBatchSize = coalesceMaxBatchSize;
+    }
+
+    public long getCoalesceMaxWaitMs() {
+        return coalesceMaxWaitMs;
+    }
+
+    public void setCoalesceMaxWaitMs(long coalesceMaxWaitMs) {
+        this.coalesceMaxWaitMs = coalesceMaxWaitMs;
+    }
+
+    public int getCoalesceFlushThreads() {
+        return coalesceFlushThreads;
+    }
+
+    public void setCoalesceFlushThreads(int coalesceFlushThreads) {
+        this.coalesceFlushThreads = coalesceFlushThreads;
+    }
+
+    public long getRequestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    public void setRequestTimeoutMs(long requestTimeoutMs) {
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+}
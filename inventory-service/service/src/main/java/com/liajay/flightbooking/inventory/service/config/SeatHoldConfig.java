@@ -0,0 +1,97 @@
+package com.liajay.flightbooking.inventory.service.config;
+
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.allocation.DatabaseSeatAllocator;
+import com.liajay.flightbooking.inventory.service.allocation.SeatAllocator;
+import com.liajay.flightbooking.inventory.service.hold.SeatHoldManager;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 座位预留配置类
+ *
+ * @author liajay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "inventory.hold")
+public class SeatHoldConfig {
+
+    /**
+     * 默认预留时长（秒）
+     */
+    private long defaultTtlSeconds = 900L;
+
+    /**
+     * 最大预留时长（秒）
+     */
+    private long maxTtlSeconds = 3600L;
+
+    /**
+     * 时间轮最底层每格的跨度（毫秒），也是到期检查的间隔
+     */
+    private long tickMs = 100L;
+
+    /**
+     * 时间轮每层的格数
+     */
+    private int wheelSize = 512;
+
+    /**
+     * 单次批量释放的最大预留数
+     */
+    private int releaseBatchSize = 500;
+
+    @Bean(destroyMethod = "shutdown")
+    public SeatHoldManager seatHoldManager(SeatMapper seatMapper, SeatAllocator seatAllocator,
+                                           DatabaseSeatAllocator databaseSeatAllocator,
+                                           FlightInventoryCounter flightInventoryCounter,
+                                           PlatformTransactionManager transactionManager) {
+        return new SeatHoldManager(seatMapper, seatAllocator, databaseSeatAllocator, flightInventoryCounter,
+                new TransactionTemplate(transactionManager), defaultTtlSeconds, maxTtlSeconds,
+                tickMs, wheelSize, releaseBatchSize);
+    }
+
+    public long getDefaultTtlSeconds() {
+        return defaultTtlSeconds;
+    }
+
+    public void setDefaultTtlSeconds(long defaultTtlSeconds) {
+        this.defaultTtlSeconds = defaultTtlSeconds;
+    }
+
+    public long getMaxTtlSeconds() {
+        return maxTtlSeconds;
+    }
+
+    public void setMaxTtlSeconds(long maxTtlSeconds) {
+        this.maxTtlSeconds = maxTtlSeconds;
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    public void setTickMs(long tickMs) {
+        this.tickMs = tickMs;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    public int getReleaseBatchSize() {
+        return releaseBatchSize;
+    }
+
+    public void setReleaseBatchSize(int releaseBatchSize) {
+        this.releaseBatchSize = releaseBatchSize;
+    }
+}
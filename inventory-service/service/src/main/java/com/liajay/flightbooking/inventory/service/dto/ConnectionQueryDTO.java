@@ -0,0 +1,141 @@
+package com.liajay.flightbooking.inventory.service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 中转航班查询条件
+ *
+ * @author liajay
+ */
+public class ConnectionQueryDTO {
+
+    private String departureCity;
+    private String arrivalCity;
+
+    /**
+     * 第一段航班的起飞时间窗口（含）
+     */
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    private String status = "SCHEDULED";
+
+    /**
+     * 最多中转次数，0 表示只查直飞
+     */
+    private Integer maxStops = 2;
+
+    /**
+     * 中转最短 / 最长停留时间（分钟）
+     */
+    private Integer minLayoverMinutes = 60;
+    private Integer maxLayoverMinutes = 360;
+
+    /**
+     * 排序方式：duration（总耗时，默认）或 price（总价）
+     */
+    private String sortBy = "duration";
+
+    /**
+     * 最多返回的行程数，超过 ConnectionSearchEngine.MAX_RESULTS 时按上限处理
+     */
+    private Integer limit = 20;
+
+    public ConnectionQueryDTO() {}
+
+    public String getDepartureCity() {
+        return departureCity;
+    }
+
+    public void setDepartureCity(String departureCity) {
+        this.departureCity = departureCity;
+    }
+
+    public String getArrivalCity() {
+        return arrivalCity;
+    }
+
+    public void setArrivalCity(String arrivalCity) {
+        this.arrivalCity = arrivalCity;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getMaxStops() {
+        return maxStops;
+    }
+
+    public void setMaxStops(Integer maxStops) {
+        this.maxStops = maxStops;
+    }
+
+    public Integer getMinLayoverMinutes() {
+        return minLayoverMinutes;
+    }
+
+    public void setMinLayoverMinutes(Integer minLayoverMinutes) {
+        this.minLayoverMinutes = minLayoverMinutes;
+    }
+
+    public Integer getMaxLayoverMinutes() {
+        return maxLayoverMinutes;
+    }
+
+    public void setMaxLayoverMinutes(Integer maxLayoverMinutes) {
+        this.maxLayoverMinutes = maxLayoverMinutes;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public void setSortBy(String sortBy) {
+        this.sortBy = sortBy;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionQueryDTO{" +
+                "departureCity='" + departureCity + '\'' +
+                ", arrivalCity='" + arrivalCity + '\'' +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", status='" + status + '\'' +
+                ", maxStops=" + maxStops +
+                ", minLayoverMinutes=" + minLayoverMinutes +
+                ", maxLayoverMinutes=" + maxLayoverMinutes +
+                ", sortBy='" + sortBy + '\'' +
+                ", limit=" + limit +
+                '}';
+    }
+}
@@ -0,0 +1,107 @@
+package com.liajay.flightbooking.inventory.service.dto;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 新建航班参数，座位按机型布局生成
+ *
+ * @author liajay
+ */
+public class FlightCreateDTO {
+
+    private String flightNumber;
+    private String airline;
+    private String departureCity;
+    private String arrivalCity;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+    private BigDecimal basePrice;
+
+    /**
+     * 机型代码，对应机型布局模板，如 B737、A320
+     */
+    private String aircraftType;
+
+    /**
+     * 指定舱位票价，未指定的舱位按 基础价格 × 票价系数 计算
+     */
+    private Map<SeatClass, BigDecimal> classPrices;
+
+    public FlightCreateDTO() {}
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+
+    public String getAirline() {
+        return airline;
+    }
+
+    public void setAirline(String airline) {
+        this.airline = airline;
+    }
+
+    public String getDepartureCity() {
+        return departureCity;
+    }
+
+    public void setDepartureCity(String departureCity) {
+        this.departureCity = departureCity;
+    }
+
+    public String getArrivalCity() {
+        return arrivalCity;
+    }
+
+    public void setArrivalCity(String arrivalCity) {
+        this.arrivalCity = arrivalCity;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(LocalDateTime departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public void setArrivalTime(LocalDateTime arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+
+    public BigDecimal getBasePrice() {
+        return basePrice;
+    }
+
+    public void setBasePrice(BigDecimal basePrice) {
+        this.basePrice = basePrice;
+    }
+
+    public String getAircraftType() {
+        return aircraftType;
+    }
+
+    public void setAircraftType(String aircraftType) {
+        this.aircraftType = aircraftType;
+    }
+
+    public Map<SeatClass, BigDecimal> getClassPrices() {
+        return classPrices;
+    }
+
+    public void setClassPrices(Map<SeatClass, BigDecimal> classPrices) {
+        this.classPrices = classPrices;
+    }
+}
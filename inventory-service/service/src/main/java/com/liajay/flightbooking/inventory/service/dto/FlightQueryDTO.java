@@ -22,6 +22,23 @@ public class FlightQueryDTO {
 
     private Boolean enablePaging = true;
 
+    /**
+     * 分页模式：offset（默认，按页码）或 cursor（按续页令牌）
+     */
+    private String pagingMode = "offset";
+    private String cursor;
+    private Boolean includeTotal = false;
+
+    /**
+     * 总数统计方式：exact（默认）、cached 或 estimated，见 CountStrategy
+     */
+    private String countStrategy = "exact";
+
+    /**
+     * 只返回票价最低的前N个航班，设置后忽略分页和排序参数
+     */
+    private Integer cheapest;
+
     public FlightQueryDTO() {}
 
     public FlightQueryDTO(String departureCity, String arrivalCity, Boolean isRoute) {
@@ -146,6 +163,54 @@ public class FlightQueryDTO {
         this.enablePaging = enablePaging;
     }
 
+    public String getPagingMode() {
+        return pagingMode;
+    }
+
+    public void setPagingMode(String pagingMode) {
+        this.pagingMode = pagingMode;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Boolean getIncludeTotal() {
+        return includeTotal;
+    }
+
+    public void setIncludeTotal(Boolean includeTotal) {
+        this.includeTotal = includeTotal;
+    }
+
+    public String getCountStrategy() {
+        return countStrategy;
+    }
+
+    public void setCountStrategy(String countStrategy) {
+        this.countStrategy = countStrategy;
+    }
+
+    /**
+     * 判断是否使用游标分页，带了续页令牌时也视为游标分页
+     */
+    public boolean isCursorPaging() {
+        boolean cursorMode = "cursor".equalsIgnoreCase(pagingMode) || (cursor != null && !cursor.isEmpty());
+        return cursorMode && size != null && size > 0;
+    }
+
+    public Integer getCheapest() {
+        return cheapest;
+    }
+
+    public void setCheapest(Integer cheapest) {
+        this.cheapest = cheapest;
+    }
+
     /**
      * 判断是否需要分页
      */
@@ -201,6 +266,11 @@ public class FlightQueryDTO {
                 ", sortBy='" + sortBy + '\'' +
                 ", sortDirection='" + sortDirection + '\'' +
                 ", enablePaging=" + enablePaging +
+                ", pagingMode='" + pagingMode + '\'' +
+                ", cursor='" + cursor + '\'' +
+                ", includeTotal=" + includeTotal +
+                ", cheapest=" + cheapest +
+                ", countStrategy='" + countStrategy + '\'' +
                 '}';
     }
 }
@@ -17,6 +17,7 @@ public class PageResult<T> {
     private boolean hasPrevious;
     private boolean isFirst;
     private boolean isLast;
+    private boolean totalExact = true;
 
     public PageResult() {}
 
@@ -32,6 +33,33 @@ public class PageResult<T> {
         this.isLast = pageNum >= pages;
     }
 
+    /**
+     * 总数不一定精确时使用：是否有下一页由多取的一条数据判断，不依赖总数。
+     * 总数与当前页的实际数据矛盾时按实际数据修正，翻到最后一页时总数变为精确值
+     *
+     * @param hasNext 当前页之后是否还有数据
+     */
+    public PageResult(List<T> list, long total, boolean totalExact, int pageNum, int pageSize, boolean hasNext) {
+        long seen = (long) (pageNum - 1) * pageSize + list.size();
+        if (!hasNext && (!list.isEmpty() || pageNum == 1)) {
+            total = seen;
+            totalExact = true;
+        } else if (hasNext && total <= seen) {
+            total = seen + 1;
+        }
+
+        this.list = list;
+        this.total = total;
+        this.totalExact = totalExact;
+        this.pageNum = pageNum;
+        this.pageSize = pageSize;
+        this.pages = (int) Math.ceil((double) total / pageSize);
+        this.hasNext = hasNext;
+        this.hasPrevious = pageNum > 1;
+        this.isFirst = pageNum == 1;
+        this.isLast = !hasNext;
+    }
+
     // Getters and Setters
     public List<T> getList() {
         return list;
@@ -104,4 +132,15 @@ public class PageResult<T> {
     public void setIsLast(boolean isLast) {
         this.isLast = isLast;
     }
+
+    /**
+     * 总数是否为精确值，按缓存或估算方式统计时为false
+     */
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
+    public void setTotalExact(boolean totalExact) {
+        this.totalExact = totalExact;
+    }
 }
@@ -0,0 +1,61 @@
+package com.liajay.flightbooking.inventory.service.dto;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 座位预留结果
+ * 调用方凭 holdToken 在 expireTime 之前确认或释放预留
+ *
+ * @author liajay
+ */
+public class SeatHoldDTO {
+
+    private String holdToken;
+    private String flightNumber;
+    private LocalDateTime expireTime;
+    private List<Seat> seats;
+
+    public SeatHoldDTO() {}
+
+    public SeatHoldDTO(String holdToken, String flightNumber, LocalDateTime expireTime, List<Seat> seats) {
+        this.holdToken = holdToken;
+        this.flightNumber = flightNumber;
+        this.expireTime = expireTime;
+        this.seats = seats;
+    }
+
+    public String getHoldToken() {
+        return holdToken;
+    }
+
+    public void setHoldToken(String holdToken) {
+        this.holdToken = holdToken;
+    }
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+
+    public LocalDateTime getExpireTime() {
+        return expireTime;
+    }
+
+    public void setExpireTime(LocalDateTime expireTime) {
+        this.expireTime = expireTime;
+    }
+
+    public List<Seat> getSeats() {
+        return seats;
+    }
+
+    public void setSeats(List<Seat> seats) {
+        this.seats = seats;
+    }
+}
@@ -0,0 +1,157 @@
+package com.liajay.flightbooking.inventory.service.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 紧凑座位图
+ *
+ * 座位按舱位分区（cabins，按起始排号从前到后），每个舱位是 排 x 列 的网格。
+ * 所有舱位的网格按舱位顺序、行优先依次编号，第 i 个位置对应位集中第 i 位
+ * （第 i/8 个字节的 1 &lt;&lt; (i%8) 位）。
+ * - available：1 表示座位可售
+ * - present：1 表示该位置存在座位，网格全部有座位时为空
+ * 位集以 base64 编码。
+ *
+ * @author liajay
+ */
+public class SeatMapDTO {
+
+    private String flightNumber;
+    private long version;
+    private int totalSeats;
+    private int availableSeats;
+    private List<Cabin> cabins;
+    private String present;
+    private String available;
+
+    public SeatMapDTO() {}
+
+    public SeatMapDTO(String flightNumber, long version, int totalSeats, int availableSeats,
+                      List<Cabin> cabins, String present, String available) {
+        this.flightNumber = flightNumber;
+        this.version = version;
+        this.totalSeats = totalSeats;
+        this.availableSeats = availableSeats;
+        this.cabins = cabins;
+        this.present = present;
+        this.available = available;
+    }
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+
+    public void setTotalSeats(int totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+
+    public int getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(int availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+
+    public List<Cabin> getCabins() {
+        return cabins;
+    }
+
+    public void setCabins(List<Cabin> cabins) {
+        this.cabins = cabins;
+    }
+
+    public String getPresent() {
+        return present;
+    }
+
+    public void setPresent(String present) {
+        this.present = present;
+    }
+
+    public String getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(String available) {
+        this.available = available;
+    }
+
+    /**
+     * 舱位分区：起止排号、列字母和该舱位的价格
+     */
+    public static class Cabin {
+        private String seatClass;
+        private int firstRow;
+        private int lastRow;
+        private String columns;
+        private BigDecimal price;
+
+        public Cabin() {}
+
+        public Cabin(String seatClass, int firstRow, int lastRow, String columns, BigDecimal price) {
+            this.seatClass = seatClass;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+            this.columns = columns;
+            this.price = price;
+        }
+
+        public String getSeatClass() {
+            return seatClass;
+        }
+
+        public void setSeatClass(String seatClass) {
+            this.seatClass = seatClass;
+        }
+
+        public int getFirstRow() {
+            return firstRow;
+        }
+
+        public void setFirstRow(int firstRow) {
+            this.firstRow = firstRow;
+        }
+
+        public int getLastRow() {
+            return lastRow;
+        }
+
+        public void setLastRow(int lastRow) {
+            this.lastRow = lastRow;
+        }
+
+        public String getColumns() {
+            return columns;
+        }
+
+        public void setColumns(String columns) {
+            this.columns = columns;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+}
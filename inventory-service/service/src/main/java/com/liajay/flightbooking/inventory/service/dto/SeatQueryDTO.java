@@ -24,6 +24,18 @@ public class SeatQueryDTO {
     // 是否启用分页
     private Boolean enablePaging = true;
 
+    /**
+     * 分页模式：offset（默认，按页码）或 cursor（按续页令牌）
+     */
+    private String pagingMode = "offset";
+    private String cursor;
+    private Boolean includeTotal = false;
+
+    /**
+     * 总数统计方式：exact（默认）、cached 或 estimated，见 CountStrategy
+     */
+    private String countStrategy = "exact";
+
     public SeatQueryDTO() {}
 
     public SeatQueryDTO(String flightNumber) {
@@ -138,6 +150,46 @@ public class SeatQueryDTO {
         this.enablePaging = enablePaging;
     }
 
+    public String getPagingMode() {
+        return pagingMode;
+    }
+
+    public void setPagingMode(String pagingMode) {
+        this.pagingMode = pagingMode;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Boolean getIncludeTotal() {
+        return includeTotal;
+    }
+
+    public void setIncludeTotal(Boolean includeTotal) {
+        this.includeTotal = includeTotal;
+    }
+
+    public String getCountStrategy() {
+        return countStrategy;
+    }
+
+    public void setCountStrategy(String countStrategy) {
+        this.countStrategy = countStrategy;
+    }
+
+    /**
+     * 判断是否使用游标分页，带了续页令牌时也视为游标分页
+     */
+    public boolean isCursorPaging() {
+        boolean cursorMode = "cursor".equalsIgnoreCase(pagingMode) || (cursor != null && !cursor.isEmpty());
+        return cursorMode && size != null && size > 0;
+    }
+
     /**
      * 判断是否需要分页
      */
@@ -185,6 +237,10 @@ public class SeatQueryDTO {
                 ", sortBy='" + sortBy + '\'' +
                 ", sortDirection='" + sortDirection + '\'' +
                 ", enablePaging=" + enablePaging +
+                ", pagingMode='" + pagingMode + '\'' +
+                ", cursor='" + cursor + '\'' +
+                ", includeTotal=" + includeTotal +
+                ", countStrategy='" + countStrategy + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,43 @@
+package com.liajay.flightbooking.inventory.service.dto.result;
+
+/**
+ * 批量创建航班结果
+ */
+public class FlightCreateResultDTO {
+
+    private int flightCount;
+    private long seatCount;
+    private long elapsedMillis;
+
+    public FlightCreateResultDTO() {}
+
+    public FlightCreateResultDTO(int flightCount, long seatCount, long elapsedMillis) {
+        this.flightCount = flightCount;
+        this.seatCount = seatCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getFlightCount() {
+        return flightCount;
+    }
+
+    public void setFlightCount(int flightCount) {
+        this.flightCount = flightCount;
+    }
+
+    public long getSeatCount() {
+        return seatCount;
+    }
+
+    public void setSeatCount(long seatCount) {
+        this.seatCount = seatCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
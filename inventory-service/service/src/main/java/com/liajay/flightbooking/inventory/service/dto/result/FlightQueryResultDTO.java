@@ -19,6 +19,16 @@ public class FlightQueryResultDTO {
     private Boolean isFirst;
     private Boolean isLast;
 
+    /**
+     * 游标分页时下一页的续页令牌，没有下一页时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 总数是否为精确值，按缓存或估算方式统计时为false
+     */
+    private Boolean totalExact;
+
     public FlightQueryResultDTO() {}
 
     /**
@@ -34,6 +44,7 @@ public class FlightQueryResultDTO {
         this.hasPrevious = pageResult.isHasPreviousPage();
         this.isFirst = pageResult.isIsFirstPage();
         this.isLast = pageResult.isIsLastPage();
+        this.totalExact = pageResult.isTotalExact();
     }
 
     /**
@@ -49,6 +60,7 @@ public class FlightQueryResultDTO {
         this.hasPrevious = false;
         this.isFirst = true;
         this.isLast = true;
+        this.totalExact = true;
     }
 
     /**
@@ -72,6 +84,26 @@ public class FlightQueryResultDTO {
         result.setHasPrevious(false);
         result.setIsFirst(true);
         result.setIsLast(true);
+        result.setTotalExact(true);
+        return result;
+    }
+
+    /**
+     * 创建游标分页结果，未要求统计总数时 totalElements、totalPages 和 totalExact 为null
+     */
+    public static FlightQueryResultDTO fromCursorPage(List<FlightVO> flights, int pageSize, boolean first,
+                                                      String nextCursor, Long total, Boolean totalExact) {
+        FlightQueryResultDTO result = new FlightQueryResultDTO();
+        result.setFlightList(flights);
+        result.setTotalElements(total);
+        result.setTotalPages(total != null ? (int) Math.ceil((double) total / pageSize) : null);
+        result.setPageSize(pageSize);
+        result.setHasNext(nextCursor != null);
+        result.setHasPrevious(!first);
+        result.setIsFirst(first);
+        result.setIsLast(nextCursor == null);
+        result.setNextCursor(nextCursor);
+        result.setTotalExact(total != null ? totalExact : null);
         return result;
     }
 
@@ -147,4 +179,20 @@ public class FlightQueryResultDTO {
     public void setIsLast(Boolean last) {
         isLast = last;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Boolean getTotalExact() {
+        return totalExact;
+    }
+
+    public void setTotalExact(Boolean totalExact) {
+        this.totalExact = totalExact;
+    }
 }
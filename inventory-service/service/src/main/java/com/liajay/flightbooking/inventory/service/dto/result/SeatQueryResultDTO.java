@@ -1,9 +1,11 @@
 package com.liajay.flightbooking.inventory.service.dto.result;
 
+import com.liajay.flightbooking.inventory.model.vo.FlightVO;
 import com.liajay.flightbooking.inventory.model.vo.SeatVO;
 import com.liajay.flightbooking.inventory.service.dto.PageResult;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 座位查询结果DTO - MyBatis版本
@@ -11,6 +13,11 @@ import java.util.List;
 public class SeatQueryResultDTO {
     // 座位列表
     private List<SeatVO> seatList;
+
+    /**
+     * 结果中座位所属的航班，航班号 -> 航班基本信息（不含座位数），每个航班只出现一次
+     */
+    private Map<String, FlightVO> flights;
     
     // 分页信息
     private Long totalElements;
@@ -22,10 +29,15 @@ public class SeatQueryResultDTO {
     private Boolean isFirst;
     private Boolean isLast;
 
-    // 座位统计信息
-    private Long totalSeats;
-    private Long availableSeats;
-    private Long occupiedSeats;
+    /**
+     * 游标分页时下一页的续页令牌，没有下一页时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 总数是否为精确值，按缓存或估算方式统计时为false
+     */
+    private Boolean totalExact;
 
     public SeatQueryResultDTO() {}
 
@@ -42,6 +54,7 @@ public class SeatQueryResultDTO {
         this.hasPrevious = pageResult.isHasPreviousPage();
         this.isFirst = pageResult.isIsFirstPage();
         this.isLast = pageResult.isIsLastPage();
+        this.totalExact = pageResult.isTotalExact();
     }
 
     /**
@@ -57,6 +70,7 @@ public class SeatQueryResultDTO {
         this.hasPrevious = false;
         this.isFirst = true;
         this.isLast = true;
+        this.totalExact = true;
     }
 
     /**
@@ -73,6 +87,25 @@ public class SeatQueryResultDTO {
         return new SeatQueryResultDTO(seatList);
     }
 
+    /**
+     * 创建游标分页结果，未要求统计总数时 totalElements、totalPages 和 totalExact 为null
+     */
+    public static SeatQueryResultDTO fromCursorPage(List<SeatVO> seatList, int pageSize, boolean first,
+                                                    String nextCursor, Long total, Boolean totalExact) {
+        SeatQueryResultDTO result = new SeatQueryResultDTO();
+        result.setSeatList(seatList);
+        result.setTotalElements(total);
+        result.setTotalPages(total != null ? (int) Math.ceil((double) total / pageSize) : null);
+        result.setPageSize(pageSize);
+        result.setHasNext(nextCursor != null);
+        result.setHasPrevious(!first);
+        result.setIsFirst(first);
+        result.setIsLast(nextCursor == null);
+        result.setNextCursor(nextCursor);
+        result.setTotalExact(total != null ? totalExact : null);
+        return result;
+    }
+
     // Getter and Setter methods
     public List<SeatVO> getSeatList() {
         return seatList;
@@ -82,6 +115,14 @@ public class SeatQueryResultDTO {
         this.seatList = seatList;
     }
 
+    public Map<String, FlightVO> getFlights() {
+        return flights;
+    }
+
+    public void setFlights(Map<String, FlightVO> flights) {
+        this.flights = flights;
+    }
+
     public Long getTotalElements() {
         return totalElements;
     }
@@ -146,27 +187,19 @@ public class SeatQueryResultDTO {
         isLast = last;
     }
 
-    public Long getTotalSeats() {
-        return totalSeats;
-    }
-
-    public void setTotalSeats(Long totalSeats) {
-        this.totalSeats = totalSeats;
-    }
-
-    public Long getAvailableSeats() {
-        return availableSeats;
+    public String getNextCursor() {
+        return nextCursor;
     }
 
-    public void setAvailableSeats(Long availableSeats) {
-        this.availableSeats = availableSeats;
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
     }
 
-    public Long getOccupiedSeats() {
-        return occupiedSeats;
+    public Boolean getTotalExact() {
+        return totalExact;
     }
 
-    public void setOccupiedSeats(Long occupiedSeats) {
-        this.occupiedSeats = occupiedSeats;
+    public void setTotalExact(Boolean totalExact) {
+        this.totalExact = totalExact;
     }
 }
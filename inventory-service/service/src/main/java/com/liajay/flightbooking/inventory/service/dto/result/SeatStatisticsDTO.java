@@ -0,0 +1,161 @@
+package com.liajay.flightbooking.inventory.service.dto.result;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 航班座位统计结果
+ * 座位数按舱位和可售状态汇总，客座率 = 已占用座位数 / 座位总数
+ */
+public class SeatStatisticsDTO {
+
+    private String flightNumber;
+    private long totalSeats;
+    private long availableSeats;
+    private long occupiedSeats;
+    private double loadFactor;
+
+    /**
+     * 各舱位的座位数和票价，按舱位等级排列
+     */
+    private List<ClassStatistics> classes;
+
+    public SeatStatisticsDTO() {}
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+
+    public long getTotalSeats() {
+        return totalSeats;
+    }
+
+    public void setTotalSeats(long totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+
+    public long getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(long availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+
+    public long getOccupiedSeats() {
+        return occupiedSeats;
+    }
+
+    public void setOccupiedSeats(long occupiedSeats) {
+        this.occupiedSeats = occupiedSeats;
+    }
+
+    public double getLoadFactor() {
+        return loadFactor;
+    }
+
+    public void setLoadFactor(double loadFactor) {
+        this.loadFactor = loadFactor;
+    }
+
+    public List<ClassStatistics> getClasses() {
+        return classes;
+    }
+
+    public void setClasses(List<ClassStatistics> classes) {
+        this.classes = classes;
+    }
+
+    /**
+     * 舱位统计
+     */
+    public static class ClassStatistics {
+        private String seatClass;
+        private String seatClassDescription;
+        private long totalSeats;
+        private long availableSeats;
+        private long occupiedSeats;
+        private double loadFactor;
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+        private BigDecimal avgPrice;
+
+        public ClassStatistics() {}
+
+        public String getSeatClass() {
+            return seatClass;
+        }
+
+        public void setSeatClass(String seatClass) {
+            this.seatClass = seatClass;
+        }
+
+        public String getSeatClassDescription() {
+            return seatClassDescription;
+        }
+
+        public void setSeatClassDescription(String seatClassDescription) {
+            this.seatClassDescription = seatClassDescription;
+        }
+
+        public long getTotalSeats() {
+            return totalSeats;
+        }
+
+        public void setTotalSeats(long totalSeats) {
+            this.totalSeats = totalSeats;
+        }
+
+        public long getAvailableSeats() {
+            return availableSeats;
+        }
+
+        public void setAvailableSeats(long availableSeats) {
+            this.availableSeats = availableSeats;
+        }
+
+        public long getOccupiedSeats() {
+            return occupiedSeats;
+        }
+
+        public void setOccupiedSeats(long occupiedSeats) {
+            this.occupiedSeats = occupiedSeats;
+        }
+
+        public double getLoadFactor() {
+            return loadFactor;
+        }
+
+        public void setLoadFactor(double loadFactor) {
+            this.loadFactor = loadFactor;
+        }
+
+        public BigDecimal getMinPrice() {
+            return minPrice;
+        }
+
+        public void setMinPrice(BigDecimal minPrice) {
+            this.minPrice = minPrice;
+        }
+
+        public BigDecimal getMaxPrice() {
+            return maxPrice;
+        }
+
+        public void setMaxPrice(BigDecimal maxPrice) {
+            this.maxPrice = maxPrice;
+        }
+
+        public BigDecimal getAvgPrice() {
+            return avgPrice;
+        }
+
+        public void setAvgPrice(BigDecimal avgPrice) {
+            this.avgPrice = avgPrice;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.liajay.flightbooking.inventory.service.export;
+
+/**
+ * 导出格式
+ *
+ * @author liajay
+ */
+public enum ExportFormat {
+
+    /**
+     * 每行一个 JSON 对象，字段与查询接口返回的 VO 一致
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * 首行为列名的 CSV，UTF-8 编码
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 按名称解析，不区分大小写，为空时使用 NDJSON
+     */
+    public static ExportFormat of(String format) {
+        if (format == null || format.trim().isEmpty()) {
+            return NDJSON;
+        }
+        for (ExportFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format.trim())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("不支持的导出格式: " + format + "，可选值: ndjson, csv");
+    }
+}
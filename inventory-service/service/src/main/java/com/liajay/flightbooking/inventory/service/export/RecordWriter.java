@@ -0,0 +1,111 @@
+package com.liajay.flightbooking.inventory.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 逐条写出导出记录，不保留已写出的记录，内存占用只与缓冲区大小有关
+ *
+ * NDJSON 用 ObjectMapper 序列化整条记录；CSV 按声明的列顺序写出，首行为列名。
+ *
+ * @author liajay
+ */
+public class RecordWriter<T> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportFormat format;
+    private final ObjectMapper objectMapper;
+    private final Writer writer;
+    private final List<Function<T, Object>> columns;
+    private long count;
+
+    private RecordWriter(ExportFormat format, ObjectMapper objectMapper, OutputStream out,
+                         Map<String, Function<T, Object>> columns) throws IOException {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.columns = new ArrayList<>(columns.values());
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(new ArrayList<>(columns.keySet()));
+        }
+    }
+
+    /**
+     * @param columns CSV 的列名 → 取值函数，按声明顺序输出；NDJSON 不使用
+     */
+    public static <T> RecordWriter<T> open(ExportFormat format, ObjectMapper objectMapper, OutputStream out,
+                                           Map<String, Function<T, Object>> columns) throws IOException {
+        return new RecordWriter<>(format, objectMapper, out, columns);
+    }
+
+    /**
+     * 列定义构造器，保持声明顺序
+     */
+    public static <T> Map<String, Function<T, Object>> columns() {
+        return new LinkedHashMap<>();
+    }
+
+    public void write(T record) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(record));
+            writer.write('\n');
+        } else {
+            List<Object> values = new ArrayList<>(columns.size());
+            for (Function<T, Object> column : columns) {
+                values.add(column.apply(record));
+            }
+            writeCsvLine(values);
+        }
+        count++;
+    }
+
+    /**
+     * 写出缓冲区中的剩余内容，不关闭底层输出流
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * 已写出的记录数
+     */
+    public long count() {
+        return count;
+    }
+
+    private void writeCsvLine(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + text.replace("\"", "\"\"") + '"' : text;
+    }
+}
@@ -0,0 +1,80 @@
+package com.liajay.flightbooking.inventory.service.fare;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightFare;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * 航线单日票价汇总：当天计划中航班的可用座位最低价和剩余座位总数，不可变
+ *
+ * @author liajay
+ */
+public class DayFare {
+
+    private final LocalDate date;
+    private final BigDecimal minPrice;
+    private final int seatsLeft;
+    private final int flightCount;
+    private final String cheapestFlightNumber;
+
+    public DayFare(LocalDate date, BigDecimal minPrice, int seatsLeft, int flightCount, String cheapestFlightNumber) {
+        this.date = date;
+        this.minPrice = minPrice;
+        this.seatsLeft = seatsLeft;
+        this.flightCount = flightCount;
+        this.cheapestFlightNumber = cheapestFlightNumber;
+    }
+
+    /**
+     * 没有航班的日期
+     */
+    public static DayFare empty(LocalDate date) {
+        return new DayFare(date, null, 0, 0, null);
+    }
+
+    /**
+     * 汇总同一天的航班，最低价相同时取航班号较小的航班
+     */
+    public static DayFare of(LocalDate date, Collection<FlightFare> fares) {
+        BigDecimal minPrice = null;
+        String cheapest = null;
+        int seatsLeft = 0;
+        for (FlightFare fare : fares) {
+            if (fare.getAvailableSeats() <= 0 || fare.getMinPrice() == null) {
+                continue;
+            }
+            seatsLeft += fare.getAvailableSeats();
+            int compared = minPrice == null ? -1 : fare.getMinPrice().compareTo(minPrice);
+            if (compared < 0 || compared == 0 && fare.getFlightNumber().compareTo(cheapest) < 0) {
+                minPrice = fare.getMinPrice();
+                cheapest = fare.getFlightNumber();
+            }
+        }
+        return new DayFare(date, minPrice, seatsLeft, fares.size(), cheapest);
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * 可用座位的最低价，当天没有航班或已售罄时为null
+     */
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public int getSeatsLeft() {
+        return seatsLeft;
+    }
+
+    public int getFlightCount() {
+        return flightCount;
+    }
+
+    public String getCheapestFlightNumber() {
+        return cheapestFlightNumber;
+    }
+}
@@ -0,0 +1,326 @@
+package com.liajay.flightbooking.inventory.service.fare;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightFare;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.cache.FlightChangedEvent;
+import com.liajay.flightbooking.inventory.service.inventory.SeatInventoryChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 低价日历：航线 × 日期 → 可用座位最低价、剩余座位数
+ *
+ * 启动完成后从今天起全量加载计划中的航班，之后按 refreshIntervalSeconds 定期全量重建。
+ * 座位占用、释放、重建（SeatInventoryChangedEvent，事务提交后）和航班变更（FlightChangedEvent）
+ * 只把航班号记为待刷新，延迟 flushDelayMs 后批量重新统计这些航班，再重算它们所在的航线日期，
+ * 短时间内同一航班的多次变更合并成一次查询。
+ *
+ * 查询按日期直接取汇总结果，与航班数和座位数无关；未加载完成前 isReady() 返回false，调用方应回退到数据库。
+ *
+ * @author liajay
+ */
+public class FareCalendar {
+
+    private static final Logger logger = LoggerFactory.getLogger(FareCalendar.class);
+
+    /**
+     * 单次刷新查询的最大航班数，避免 IN 列表过长
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final FlightMapper flightMapper;
+    private final boolean enabled;
+    private final long refreshIntervalSeconds;
+    private final long flushDelayMs;
+    private final int maxDays;
+    private final ScheduledExecutorService refresher;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder flushedFlights = new LongAdder();
+    private volatile long lastRebuildMillis;
+
+    public FareCalendar(FlightMapper flightMapper, boolean enabled, long refreshIntervalSeconds,
+                        long flushDelayMs, int maxDays) {
+        this.flightMapper = flightMapper;
+        this.enabled = enabled;
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+        this.flushDelayMs = flushDelayMs;
+        this.maxDays = maxDays;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fare-calendar");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 应用启动完成后开始加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("低价日历未启用，查询使用数据库");
+            return;
+        }
+        long interval = refreshIntervalSeconds > 0 ? refreshIntervalSeconds : Long.MAX_VALUE / 2;
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.warn("低价日历加载失败，查询继续使用数据库", e);
+            }
+        }, 0L, interval, TimeUnit.SECONDS);
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * 座位变更在事务提交后再刷新，避免统计到未提交的数据；不在事务中发布的事件立即处理
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatInventoryChanged(SeatInventoryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isAllFlights()) {
+            refresher.execute(this::rebuildQuietly);
+        } else {
+            markPending(event.getFlightNumbers());
+        }
+    }
+
+    @EventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        if (enabled) {
+            markPending(event.getFlightNumbers());
+        }
+    }
+
+    /**
+     * 从数据库全量重建，只加载今天及以后起飞的航班
+     */
+    public synchronized void rebuild() {
+        long startNanos = System.nanoTime();
+        // 重建查询开始前的待刷新航班已包含在查询结果中
+        pending.clear();
+        Snapshot rebuilt = new Snapshot();
+        for (FlightFare fare : flightMapper.findFares(null, null, null, LocalDate.now().atStartOfDay(), null)) {
+            rebuilt.put(fare);
+        }
+        snapshot = rebuilt;
+        lastRebuildMillis = System.currentTimeMillis();
+        logger.info("低价日历重建完成: 航班数={}, 航线数={}, 耗时={}ms", rebuilt.faresByFlight.size(),
+                rebuilt.days.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * 立即重新统计所有待刷新的航班
+     */
+    public synchronized void flush() {
+        Snapshot current = snapshot;
+        if (current == null || pending.isEmpty()) {
+            return;
+        }
+        List<String> flightNumbers = new ArrayList<>(pending);
+        pending.removeAll(flightNumbers);
+        for (int from = 0; from < flightNumbers.size(); from += FLUSH_BATCH_SIZE) {
+            List<String> batch = flightNumbers.subList(from, Math.min(from + FLUSH_BATCH_SIZE, flightNumbers.size()));
+            Map<String, FlightFare> reloaded = new HashMap<>();
+            for (FlightFare fare : flightMapper.findFares(batch, null, null, null, null)) {
+                reloaded.put(fare.getFlightNumber(), fare);
+            }
+            // 查不到的航班已删除或不再是计划中状态，从日历中移除
+            for (String flightNumber : batch) {
+                current.remove(flightNumber);
+                FlightFare fare = reloaded.get(flightNumber);
+                if (fare != null) {
+                    current.put(fare);
+                }
+            }
+        }
+        flushedFlights.add(flightNumbers.size());
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * 查询航线在日期范围内每天的最低价
+     *
+     * @param startDate 开始日期（含）
+     * @param endDate   结束日期（含），与开始日期相差不能超过 maxDays 天
+     * @return 按日期升序、每天一条的汇总，没有航班的日期 minPrice 为null；未加载完成时返回null
+     */
+    public List<DayFare> calendar(String departureCity, String arrivalCity, LocalDate startDate, LocalDate endDate) {
+        checkRange(startDate, endDate);
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        lookups.increment();
+        Map<LocalDate, DayFare> days = current.days.get(routeKey(departureCity, arrivalCity));
+        List<DayFare> result = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            DayFare day = days != null ? days.get(date) : null;
+            result.add(day != null ? day : DayFare.empty(date));
+        }
+        return result;
+    }
+
+    /**
+     * 把数据库统计结果按日期汇总，供未加载完成时回退使用
+     */
+    public List<DayFare> summarize(Collection<FlightFare> fares, LocalDate startDate, LocalDate endDate) {
+        checkRange(startDate, endDate);
+        Map<LocalDate, List<FlightFare>> byDate = new HashMap<>();
+        for (FlightFare fare : fares) {
+            byDate.computeIfAbsent(fare.getDepartureTime().toLocalDate(), date -> new ArrayList<>()).add(fare);
+        }
+        List<DayFare> result = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            List<FlightFare> dayFares = byDate.get(date);
+            result.add(dayFares != null ? DayFare.of(date, dayFares) : DayFare.empty(date));
+        }
+        return result;
+    }
+
+    /**
+     * 日历统计信息
+     */
+    public Map<String, Object> getMetrics() {
+        Snapshot current = snapshot;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("ready", current != null);
+        metrics.put("routes", current != null ? current.days.size() : 0);
+        metrics.put("flights", current != null ? current.faresByFlight.size() : 0);
+        metrics.put("pendingFlights", pending.size());
+        metrics.put("lookupCount", lookups.sum());
+        metrics.put("flushedFlightCount", flushedFlights.sum());
+        metrics.put("lastRebuildTime", lastRebuildMillis);
+        return metrics;
+    }
+
+    private void markPending(Collection<String> flightNumbers) {
+        pending.addAll(flightNumbers);
+        if (flushScheduled.compareAndSet(false, true)) {
+            refresher.schedule(() -> {
+                flushScheduled.set(false);
+                try {
+                    flush();
+                } catch (RuntimeException e) {
+                    logger.warn("低价日历刷新失败，等待下次全量重建", e);
+                }
+            }, flushDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("低价日历重建失败，继续使用旧数据", e);
+        }
+    }
+
+    private void checkRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("开始日期和结束日期不能为空");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("结束日期不能早于开始日期");
+        }
+        if (startDate.plusDays(maxDays).isBefore(endDate.plusDays(1))) {
+            throw new IllegalArgumentException("日期范围不能超过" + maxDays + "天");
+        }
+    }
+
+    private static String routeKey(String departureCity, String arrivalCity) {
+        return departureCity + "->" + arrivalCity;
+    }
+
+    /**
+     * 日历数据，只在持有 FareCalendar 锁时修改；days 中的 DayFare 不可变，查询无需加锁
+     */
+    private static final class Snapshot {
+
+        private final Map<String, FlightFare> faresByFlight = new HashMap<>();
+
+        /**
+         * 航线 → 日期 → 当天的航班，用于重算单日汇总
+         */
+        private final Map<String, Map<LocalDate, Map<String, FlightFare>>> flightsByDay = new HashMap<>();
+
+        private final ConcurrentHashMap<String, ConcurrentHashMap<LocalDate, DayFare>> days = new ConcurrentHashMap<>();
+
+        private void put(FlightFare fare) {
+            String route = routeKey(fare.getDepartureCity(), fare.getArrivalCity());
+            LocalDate date = fare.getDepartureTime().toLocalDate();
+            faresByFlight.put(fare.getFlightNumber(), fare);
+            flightsByDay.computeIfAbsent(route, key -> new HashMap<>())
+                    .computeIfAbsent(date, key -> new HashMap<>())
+                    .put(fare.getFlightNumber(), fare);
+            recompute(route, date);
+        }
+
+        private void remove(String flightNumber) {
+            FlightFare fare = faresByFlight.remove(flightNumber);
+            if (fare == null) {
+                return;
+            }
+            String route = routeKey(fare.getDepartureCity(), fare.getArrivalCity());
+            LocalDate date = fare.getDepartureTime().toLocalDate();
+            Map<LocalDate, Map<String, FlightFare>> routeDays = flightsByDay.get(route);
+            Map<String, FlightFare> dayFlights = routeDays.get(date);
+            dayFlights.remove(flightNumber);
+            if (dayFlights.isEmpty()) {
+                routeDays.remove(date);
+                if (routeDays.isEmpty()) {
+                    flightsByDay.remove(route);
+                }
+            }
+            recompute(route, date);
+        }
+
+        private void recompute(String route, LocalDate date) {
+            Map<LocalDate, Map<String, FlightFare>> routeDays = flightsByDay.get(route);
+            Map<String, FlightFare> dayFlights = routeDays != null ? routeDays.get(date) : null;
+            if (dayFlights == null) {
+                ConcurrentHashMap<LocalDate, DayFare> summaries = days.get(route);
+                if (summaries != null) {
+                    summaries.remove(date);
+                    if (summaries.isEmpty()) {
+                        days.remove(route);
+                    }
+                }
+                return;
+            }
+            days.computeIfAbsent(route, key -> new ConcurrentHashMap<>()).put(date, DayFare.of(date, dayFlights.values()));
+        }
+    }
+}
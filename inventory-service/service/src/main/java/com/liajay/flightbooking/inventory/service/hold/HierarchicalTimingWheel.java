@@ -0,0 +1,163 @@
+package com.liajay.flightbooking.inventory.service.hold;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 分层时间轮
+ *
+ * 第 i 层每格跨度为 tickMs * wheelSize^i，到期时间落在哪一层由它与当前时间的距离决定。
+ * 高层的格子转到当前位置时把其中的条目重新放入低层，最终在第 0 层到期。
+ * 添加和到期都是 O(1)，与待到期条目的总数无关。
+ *
+ * 线程模型：schedule 可以被任意线程调用，条目先进入无锁收件箱；
+ * advanceTo 只能由单个驱动线程调用，时间轮内部结构只由该线程访问。
+ * 条目不会提前到期，最多延迟一个 tick。
+ *
+ * @author liajay
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long[] levelTickMs;
+    private final List<ArrayDeque<Entry<T>>[]> levels;
+
+    private final Queue<Entry<T>> inbox = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 已处理到的时间（tick 对齐），早于该时间到期的条目均已交出
+     */
+    private long currentTime;
+    private int size;
+
+    /**
+     * @param tickMs    最底层每格的时间跨度（毫秒）
+     * @param wheelSize 每层的格数
+     * @param levelCount 层数，最高层覆盖 tickMs * wheelSize^levelCount 的时间范围，更远的条目暂存在最高层最远的格子
+     * @param startMs   起始时间
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levelCount, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 1 || levelCount <= 0) {
+            throw new IllegalArgumentException("时间轮参数不合法");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.levelTickMs = new long[levelCount];
+        this.levels = new ArrayList<>(levelCount);
+
+        long levelTick = tickMs;
+        for (int i = 0; i < levelCount; i++) {
+            levelTickMs[i] = levelTick;
+            ArrayDeque<Entry<T>>[] slots = new ArrayDeque[wheelSize];
+            for (int j = 0; j < wheelSize; j++) {
+                slots[j] = new ArrayDeque<>();
+            }
+            levels.add(slots);
+            levelTick = Math.multiplyExact(levelTick, wheelSize);
+        }
+        this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+    }
+
+    /**
+     * 添加一个在 expireAtMs 到期的条目，线程安全
+     */
+    public void schedule(T item, long expireAtMs) {
+        inbox.add(new Entry<>(item, expireAtMs));
+    }
+
+    /**
+     * 推进时间轮到 nowMs，返回期间到期的全部条目，只能由驱动线程调用
+     */
+    public List<T> advanceTo(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        drainInbox(expired);
+
+        ArrayDeque<Entry<T>>[] bottom = levels.get(0);
+        while (currentTime + tickMs <= nowMs) {
+            // 当前格中的条目到期时间都早于 currentTime + tickMs
+            ArrayDeque<Entry<T>> slot = bottom[slotIndex(0, currentTime)];
+            size -= slot.size();
+            for (Entry<T> entry : slot) {
+                expired.add(entry.item);
+            }
+            slot.clear();
+
+            currentTime += tickMs;
+            cascade();
+        }
+        return expired;
+    }
+
+    /**
+     * 时间轮中待到期的条目数（不含收件箱中尚未放入的条目），只能由驱动线程调用
+     */
+    public int size() {
+        return size;
+    }
+
+    private void drainInbox(List<T> expired) {
+        Entry<T> entry;
+        while ((entry = inbox.poll()) != null) {
+            if (entry.expireAtMs < currentTime) {
+                expired.add(entry.item);
+            } else {
+                place(entry);
+                size++;
+            }
+        }
+    }
+
+    /**
+     * 高层格子转到当前位置时，把其中的条目下放到低层
+     */
+    private void cascade() {
+        for (int level = 1; level < levelTickMs.length; level++) {
+            if (currentTime % levelTickMs[level] != 0) {
+                break;
+            }
+            ArrayDeque<Entry<T>> slot = levels.get(level)[slotIndex(level, currentTime)];
+            if (slot.isEmpty()) {
+                continue;
+            }
+            List<Entry<T>> entries = new ArrayList<>(slot);
+            slot.clear();
+            for (Entry<T> entry : entries) {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        for (int level = 0; level < levelTickMs.length; level++) {
+            long distance = Math.floorDiv(entry.expireAtMs, levelTickMs[level])
+                    - Math.floorDiv(currentTime, levelTickMs[level]);
+            if (distance < wheelSize) {
+                levels.get(level)[slotIndex(level, entry.expireAtMs)].add(entry);
+                return;
+            }
+        }
+        // 超出最高层范围，放在最远的格子，转到时再重新放置
+        int top = levelTickMs.length - 1;
+        long farthest = currentTime + levelTickMs[top] * (wheelSize - 1);
+        levels.get(top)[slotIndex(top, farthest)].add(entry);
+    }
+
+    private int slotIndex(int level, long timeMs) {
+        return (int) Math.floorMod(Math.floorDiv(timeMs, levelTickMs[level]), (long) wheelSize);
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long expireAtMs;
+
+        private Entry(T item, long expireAtMs) {
+            this.item = item;
+            this.expireAtMs = expireAtMs;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.liajay.flightbooking.inventory.service.hold;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatCount;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatHold;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.allocation.DatabaseSeatAllocator;
+import com.liajay.flightbooking.inventory.service.allocation.SeatAllocator;
+import com.liajay.flightbooking.inventory.service.dto.SeatHoldDTO;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 座位预留管理器
+ *
+ * 预留的座位在 seats 表中标记为不可用并记录 hold_token / hold_expire_time，
+ * 占用与标记在同一事务中完成（总是走 DatabaseSeatAllocator），提交后再通知内存分配器重新加载。
+ * 到期调度放在内存中的分层时间轮里。单个驱动线程每个 tick 推进一次时间轮，
+ * 把到期的预留按 hold_token 批量释放，不需要轮询数据库。
+ *
+ * 启动后驱动线程会从数据库恢复未确认的预留，重新放入时间轮。
+ * 释放预留时在同一事务中把座位加回 flight_inventory 的可用数。
+ *
+ * @author liajay
+ */
+public class SeatHoldManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldManager.class);
+
+    /**
+     * 时间轮层数，tick=100ms、每层512格时可覆盖约155天
+     */
+    private static final int WHEEL_LEVELS = 3;
+
+    /**
+     * 数据库操作失败后的重试间隔
+     */
+    private static final long RETRY_INTERVAL_MS = 1000L;
+
+    private final SeatMapper seatMapper;
+    private final SeatAllocator seatAllocator;
+    private final DatabaseSeatAllocator databaseSeatAllocator;
+    private final FlightInventoryCounter flightInventoryCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final long defaultTtlSeconds;
+    private final long maxTtlSeconds;
+    private final int releaseBatchSize;
+
+    private final HierarchicalTimingWheel<String> timingWheel;
+    private final ScheduledExecutorService expiryExecutor;
+
+    /**
+     * 未确认的预留：holdToken -> 航班号
+     */
+    private final Map<String, String> activeHolds = new ConcurrentHashMap<>();
+
+    /**
+     * 已到期但尚未写入数据库的预留，只由驱动线程访问
+     */
+    private final Map<String, String> pendingRelease = new LinkedHashMap<>();
+
+    private boolean recovered = false;
+    private long retryAfterMs = 0L;
+
+    public SeatHoldManager(SeatMapper seatMapper, SeatAllocator seatAllocator,
+                           DatabaseSeatAllocator databaseSeatAllocator,
+                           FlightInventoryCounter flightInventoryCounter, TransactionTemplate transactionTemplate,
+                           long defaultTtlSeconds, long maxTtlSeconds,
+                           long tickMs, int wheelSize, int releaseBatchSize) {
+        this.seatMapper = seatMapper;
+        this.seatAllocator = seatAllocator;
+        this.databaseSeatAllocator = databaseSeatAllocator;
+        this.flightInventoryCounter = flightInventoryCounter;
+        this.transactionTemplate = transactionTemplate;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+        this.releaseBatchSize = releaseBatchSize;
+        this.timingWheel = new HierarchicalTimingWheel<>(tickMs, wheelSize, WHEEL_LEVELS, System.currentTimeMillis());
+        this.expiryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seat-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.expiryExecutor.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 为指定航班预留多个座位
+     *
+     * @param flightNumber 航班号
+     * @param count        座位数
+     * @param ttlSeconds   预留时长（秒），为空时使用默认值
+     * @return 预留结果，可用座位不足时返回null
+     */
+    public SeatHoldDTO hold(String flightNumber, int count, Long ttlSeconds) {
+        long ttl = ttlSeconds != null ? ttlSeconds : defaultTtlSeconds;
+        if (ttl <= 0 || ttl > maxTtlSeconds) {
+            throw new IllegalArgumentException("预留时长必须在1到" + maxTtlSeconds + "秒之间");
+        }
+
+        String holdToken = UUID.randomUUID().toString().replace("-", "");
+        // DATETIME 只精确到秒，去掉纳秒避免写入时被进位
+        LocalDateTime expireTime = LocalDateTime.now().plusSeconds(ttl).withNano(0);
+        // 占用座位与写入预留标记在同一事务中，任一步失败都不会留下无主的已占用座位
+        List<Seat> seats = transactionTemplate.execute(status -> {
+            List<Seat> allocated = databaseSeatAllocator.allocate(flightNumber, count);
+            if (allocated.isEmpty()) {
+                return allocated;
+            }
+            List<Long> ids = new ArrayList<>(allocated.size());
+            for (Seat seat : allocated) {
+                ids.add(seat.getId());
+            }
+            seatMapper.markSeatsHeld(ids, holdToken, expireTime);
+            return allocated;
+        });
+        if (seats.isEmpty()) {
+            return null;
+        }
+
+        seatAllocator.onSeatsClaimed(flightNumber);
+        activeHolds.put(holdToken, flightNumber);
+        timingWheel.schedule(holdToken, toEpochMilli(expireTime));
+        return new SeatHoldDTO(holdToken, flightNumber, expireTime, seats);
+    }
+
+    /**
+     * 确认预留，座位转为已售
+     *
+     * @return 预留存在且未过期时返回true
+     */
+    public boolean confirm(String holdToken) {
+        boolean confirmed = seatMapper.confirmHold(holdToken, LocalDateTime.now()) > 0;
+        if (confirmed) {
+            // 时间轮中的条目保留，到期时发现已不在 activeHolds 中会直接跳过
+            activeHolds.remove(holdToken);
+        }
+        return confirmed;
+    }
+
+    /**
+     * 主动释放预留，座位恢复可用
+     *
+     * @return 预留存在并被释放时返回true
+     */
+    public boolean release(String holdToken) {
+        String flightNumber = activeHolds.remove(holdToken);
+        boolean released = releaseHolds(Collections.singletonList(holdToken)) > 0;
+        if (released && flightNumber != null) {
+            seatAllocator.onSeatsReleased(flightNumber);
+        }
+        return released;
+    }
+
+    /**
+     * 查询预留中的座位
+     */
+    public List<Seat> findHeldSeats(String holdToken) {
+        return seatMapper.findByHoldToken(holdToken);
+    }
+
+    /**
+     * 当前未确认的预留数
+     */
+    public int activeHoldCount() {
+        return activeHolds.size();
+    }
+
+    /**
+     * 停止驱动线程，未释放的过期预留会在下次启动时恢复
+     */
+    public void shutdown() {
+        expiryExecutor.shutdownNow();
+        try {
+            expiryExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        try {
+            if (!recovered && now >= retryAfterMs) {
+                recover();
+            }
+
+            for (String holdToken : timingWheel.advanceTo(now)) {
+                String flightNumber = activeHolds.remove(holdToken);
+                if (flightNumber != null) {
+                    pendingRelease.put(holdToken, flightNumber);
+                }
+            }
+
+            if (!pendingRelease.isEmpty() && now >= retryAfterMs) {
+                releasePending();
+            }
+        } catch (Exception e) {
+            retryAfterMs = now + RETRY_INTERVAL_MS;
+            logger.warn("处理座位预留到期失败，{}ms后重试, 待释放={}", RETRY_INTERVAL_MS, pendingRelease.size(), e);
+        }
+    }
+
+    private void recover() {
+        List<SeatHold> holds = seatMapper.findActiveHolds();
+        for (SeatHold hold : holds) {
+            activeHolds.putIfAbsent(hold.getHoldToken(), hold.getFlightNumber());
+            timingWheel.schedule(hold.getHoldToken(), toEpochMilli(hold.getExpireTime()));
+        }
+        recovered = true;
+        logger.info("恢复座位预留: {}个", holds.size());
+    }
+
+    private void releasePending() {
+        while (!pendingRelease.isEmpty()) {
+            List<String> holdTokens = new ArrayList<>(releaseBatchSize);
+            Set<String> flightNumbers = new HashSet<>();
+            Iterator<Map.Entry<String, String>> iterator = pendingRelease.entrySet().iterator();
+            while (iterator.hasNext() && holdTokens.size() < releaseBatchSize) {
+                Map.Entry<String, String> entry = iterator.next();
+                holdTokens.add(entry.getKey());
+                flightNumbers.add(entry.getValue());
+            }
+
+            int released = releaseHolds(holdTokens);
+            holdTokens.forEach(pendingRelease::remove);
+            flightNumbers.forEach(seatAllocator::onSeatsReleased);
+            logger.debug("释放过期座位预留: 预留{}个, 座位{}个", holdTokens.size(), released);
+        }
+    }
+
+    /**
+     * 在一个事务中释放预留并归还库存汇总
+     */
+    private int releaseHolds(List<String> holdTokens) {
+        return transactionTemplate.execute(status -> {
+            // 先锁定预留中的座位，避免与并发的确认操作交错导致汇总多加
+            List<SeatCount> held = seatMapper.lockHeldSeatCounts(holdTokens);
+            int released = seatMapper.releaseHolds(holdTokens);
+            flightInventoryCounter.onSeatsReleased(held);
+            return released;
+        });
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,18 +1,59 @@
 package com.liajay.flightbooking.inventory.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightExportRow;
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightFare;
 import com.liajay.flightbooking.inventory.dal.dataobject.FlightStatus;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatCount;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightInventoryMapper;
 import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
-import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.model.vo.DayFareVO;
 import com.liajay.flightbooking.inventory.model.vo.FlightVO;
+import com.liajay.flightbooking.inventory.model.vo.ItineraryVO;
+import com.liajay.flightbooking.inventory.model.vo.SuggestionVO;
 import com.liajay.flightbooking.inventory.service.FlightService;
+import com.liajay.flightbooking.inventory.service.cache.FlightCache;
+import com.liajay.flightbooking.inventory.service.cache.FlightChangedEvent;
+import com.liajay.flightbooking.inventory.service.cache.FlightSearchCache;
+import com.liajay.flightbooking.inventory.service.dto.ConnectionQueryDTO;
+import com.liajay.flightbooking.inventory.service.dto.FlightCreateDTO;
 import com.liajay.flightbooking.inventory.service.dto.FlightQueryDTO;
 import com.liajay.flightbooking.inventory.service.dto.PageResult;
+import com.liajay.flightbooking.inventory.service.dto.result.FlightCreateResultDTO;
 import com.liajay.flightbooking.inventory.service.dto.result.FlightQueryResultDTO;
+import com.liajay.flightbooking.inventory.service.export.ExportFormat;
+import com.liajay.flightbooking.inventory.service.export.RecordWriter;
+import com.liajay.flightbooking.inventory.service.fare.DayFare;
+import com.liajay.flightbooking.inventory.service.fare.FareCalendar;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import com.liajay.flightbooking.inventory.service.pagination.CountStrategy;
+import com.liajay.flightbooking.inventory.service.pagination.PageCountCache;
+import com.liajay.flightbooking.inventory.service.pagination.PlanEstimates;
+import com.liajay.flightbooking.inventory.service.pagination.SeekCursor;
+import com.liajay.flightbooking.inventory.service.provision.FlightProvisioner;
+import com.liajay.flightbooking.inventory.service.search.AutocompleteIndex;
+import com.liajay.flightbooking.inventory.service.search.ConnectionSearchEngine;
+import com.liajay.flightbooking.inventory.service.search.FlightRouteIndex;
+import com.liajay.flightbooking.inventory.service.search.FlightSortKey;
+import com.liajay.flightbooking.inventory.service.search.Itinerary;
+import com.liajay.flightbooking.inventory.service.search.Suggestion;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * 航班服务实现类 - MyBatis版本
@@ -21,73 +62,441 @@ import java.util.stream.Collectors;
 @Service
 public class FlightServiceImpl implements FlightService {
 
+    /**
+     * 单次库存汇总查询的最大航班数，避免 IN 列表过长
+     */
+    private static final int SEAT_COUNT_BATCH_SIZE = 500;
+
     private final FlightMapper flightMapper;
-    private final SeatMapper seatMapper;
+    private final FlightInventoryMapper flightInventoryMapper;
+    private final FlightInventoryCounter flightInventoryCounter;
+    private final FlightCache flightCache;
+    private final FlightSearchCache flightSearchCache;
+    private final PageCountCache pageCountCache;
+    private final FlightRouteIndex flightRouteIndex;
+    private final ConnectionSearchEngine connectionSearchEngine;
+    private final AutocompleteIndex autocompleteIndex;
+    private final FareCalendar fareCalendar;
+    private final FlightProvisioner flightProvisioner;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public FlightServiceImpl(FlightMapper flightMapper, SeatMapper seatMapper) {
+    public FlightServiceImpl(FlightMapper flightMapper, FlightInventoryMapper flightInventoryMapper,
+                             FlightInventoryCounter flightInventoryCounter, FlightCache flightCache,
+                             FlightSearchCache flightSearchCache, PageCountCache pageCountCache,
+                             FlightRouteIndex flightRouteIndex, ConnectionSearchEngine connectionSearchEngine,
+                             AutocompleteIndex autocompleteIndex, FareCalendar fareCalendar,
+                             FlightProvisioner flightProvisioner, ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher) {
         this.flightMapper = flightMapper;
-        this.seatMapper = seatMapper;
+        this.flightInventoryMapper = flightInventoryMapper;
+        this.flightInventoryCounter = flightInventoryCounter;
+        this.flightCache = flightCache;
+        this.flightSearchCache = flightSearchCache;
+        this.pageCountCache = pageCountCache;
+        this.flightRouteIndex = flightRouteIndex;
+        this.connectionSearchEngine = connectionSearchEngine;
+        this.autocompleteIndex = autocompleteIndex;
+        this.fareCalendar = fareCalendar;
+        this.flightProvisioner = flightProvisioner;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public Flight findByFlightNumber(String flightNumber) {
-        return flightMapper.findByFlightNumber(flightNumber);
+        return flightCache.get(flightNumber);
+    }
+
+    @Override
+    public void onFlightChanged(String flightNumber) {
+        eventPublisher.publishEvent(new FlightChangedEvent(flightNumber));
+    }
+
+    @Override
+    public Map<String, Object> getFlightCacheMetrics() {
+        return flightCache.getMetrics();
     }
 
     @Override
     public FlightQueryResultDTO queryFlights(FlightQueryDTO queryDTO) {
+        return flightSearchCache.get(queryDTO, () -> loadFlights(queryDTO));
+    }
+
+    @Override
+    public void invalidateRouteCache(String departureCity, String arrivalCity) {
+        flightSearchCache.invalidateRoute(departureCity, arrivalCity);
+    }
+
+    @Override
+    public Map<String, Object> getSearchCacheMetrics() {
+        return flightSearchCache.getMetrics();
+    }
+
+    @Override
+    public List<ItineraryVO> searchConnections(ConnectionQueryDTO queryDTO) {
+        List<Itinerary> itineraries = connectionSearchEngine.search(queryDTO);
+
+        // 所有行程的航班一起转换，座位数只查一次
+        List<Flight> legs = new ArrayList<>();
+        itineraries.forEach(itinerary -> legs.addAll(itinerary.getLegs()));
+        List<FlightVO> legVOs = convertToVOs(legs);
+
+        List<ItineraryVO> result = new ArrayList<>(itineraries.size());
+        int next = 0;
+        for (Itinerary itinerary : itineraries) {
+            ItineraryVO vo = new ItineraryVO();
+            vo.setLegs(new ArrayList<>(legVOs.subList(next, next + itinerary.getLegs().size())));
+            vo.setStops(itinerary.getStops());
+            vo.setDepartureTime(itinerary.getDepartureTime());
+            vo.setArrivalTime(itinerary.getArrivalTime());
+            vo.setDurationMinutes(itinerary.getDurationMinutes());
+            vo.setTotalPrice(itinerary.getTotalPrice());
+            result.add(vo);
+            next += itinerary.getLegs().size();
+        }
+        return result;
+    }
+
+    @Override
+    public List<SuggestionVO> suggest(String keyword, String type, int limit) {
+        List<Suggestion> suggestions = autocompleteIndex.suggest(keyword, type, limit);
+        List<SuggestionVO> result = new ArrayList<>(suggestions.size());
+        for (Suggestion suggestion : suggestions) {
+            result.add(new SuggestionVO(suggestion.getType(), suggestion.getName(), suggestion.getPinyin(),
+                    suggestion.getCodes(), suggestion.getFlightCount()));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getAutocompleteMetrics() {
+        return autocompleteIndex.getMetrics();
+    }
+
+    @Override
+    public List<DayFareVO> getFareCalendar(String departureCity, String arrivalCity,
+                                           LocalDate startDate, LocalDate endDate) {
+        if (normalize(departureCity) == null || normalize(arrivalCity) == null) {
+            throw new IllegalArgumentException("出发城市和到达城市不能为空");
+        }
+        List<DayFare> days = fareCalendar.calendar(departureCity.trim(), arrivalCity.trim(), startDate, endDate);
+        if (days == null) {
+            // 日历未加载完成，直接统计数据库
+            List<FlightFare> fares = flightMapper.findFares(null, departureCity.trim(), arrivalCity.trim(),
+                    startDate.atStartOfDay(), endDate.atTime(LocalTime.of(23, 59, 59)));
+            days = fareCalendar.summarize(fares, startDate, endDate);
+        }
+        List<DayFareVO> result = new ArrayList<>(days.size());
+        for (DayFare day : days) {
+            result.add(new DayFareVO(day.getDate(), day.getMinPrice(), day.getSeatsLeft(), day.getFlightCount(),
+                    day.getCheapestFlightNumber()));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getFareCalendarMetrics() {
+        return fareCalendar.getMetrics();
+    }
+
+    @Override
+    public Map<String, Object> getRouteIndexMetrics() {
+        return flightRouteIndex.getMetrics();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportFlights(FlightQueryDTO queryDTO, ExportFormat format, OutputStream out) throws IOException {
         FlightStatus statusEnum = parseFlightStatus(queryDTO.getStatus());
-        
-        if (queryDTO.isPaginationEnabled()) {
-            long total = flightMapper.countByConditions(
-                queryDTO.getFlightNumber(),
-                queryDTO.getAirline(),
-                queryDTO.getDepartureCity(),
-                queryDTO.getArrivalCity(),
-                null, // 暂时简化，不使用时间范围
-                null,
-                statusEnum
-            );
+        checkRanges(queryDTO);
 
-            int offset = queryDTO.getPage() * queryDTO.getSize();
+        Map<String, Function<FlightVO, Object>> columns = RecordWriter.columns();
+        columns.put("id", FlightVO::getId);
+        columns.put("flightNumber", FlightVO::getFlightNumber);
+        columns.put("airline", FlightVO::getAirline);
+        columns.put("departureCity", FlightVO::getDepartureCity);
+        columns.put("arrivalCity", FlightVO::getArrivalCity);
+        columns.put("departureTime", FlightVO::getDepartureTime);
+        columns.put("arrivalTime", FlightVO::getArrivalTime);
+        columns.put("basePrice", FlightVO::getBasePrice);
+        columns.put("status", FlightVO::getStatus);
+        columns.put("totalSeats", FlightVO::getTotalSeats);
+        columns.put("availableSeats", FlightVO::getAvailableSeats);
+        RecordWriter<FlightVO> writer = RecordWriter.open(format, objectMapper, out, columns);
 
-            List<Flight> flights = flightMapper.findByConditions(
+        // 逐行读取、转换、写出，不在内存中保留结果集
+        try (Cursor<FlightExportRow> rows = flightMapper.streamByConditions(
                 queryDTO.getFlightNumber(),
                 queryDTO.getAirline(),
                 queryDTO.getDepartureCity(),
                 queryDTO.getArrivalCity(),
-                null, // 暂时简化，不使用时间范围
-                null,
+                queryDTO.getStartTime(),
+                queryDTO.getEndTime(),
                 statusEnum,
-                offset,
-                queryDTO.getSize()
-            );
+                queryDTO.getMinPrice(),
+                queryDTO.getMaxPrice())) {
+            for (FlightExportRow row : rows) {
+                writer.write(convertToVO(row, new long[]{row.getTotalSeats(), row.getAvailableSeats()}));
+            }
+        }
+        writer.flush();
+        return writer.count();
+    }
+
+    /**
+     * 查询航线索引或数据库
+     */
+    private FlightQueryResultDTO loadFlights(FlightQueryDTO queryDTO) {
+        FlightStatus statusEnum = parseFlightStatus(queryDTO.getStatus());
+        checkRanges(queryDTO);
+
+        if (queryDTO.getCheapest() != null && queryDTO.getCheapest() > 0) {
+            // 只取票价最低的前N个，不分页也不统计总数
+            List<Flight> flights = findFlights(queryDTO, statusEnum, FlightSortKey.BASE_PRICE, false,
+                    0, queryDTO.getCheapest());
+            return FlightQueryResultDTO.fromList(convertToVOs(flights));
+        }
+
+        FlightSortKey sortKey = FlightSortKey.of(queryDTO.getSortBy());
+        boolean descending = isDescending(queryDTO.getSortDirection());
+
+        if (queryDTO.isCursorPaging()) {
+            return loadFlightsAfterCursor(queryDTO, statusEnum, sortKey, descending);
+        }
+        
+        if (queryDTO.isPaginationEnabled()) {
+            int offset = queryDTO.getPage() * queryDTO.getSize();
+
+            // 多取一条判断是否有下一页，总数不精确时也能正确翻页
+            List<Flight> flights = findFlights(queryDTO, statusEnum, sortKey, descending, offset, queryDTO.getSize() + 1);
+            boolean hasNext = flights.size() > queryDTO.getSize();
+            if (hasNext) {
+                flights = flights.subList(0, queryDTO.getSize());
+            }
+
+            // 最后一页的总数可以直接算出，不需要再统计
+            CountStrategy countStrategy = CountStrategy.of(queryDTO.getCountStrategy());
+            boolean lastPageKnown = !hasNext && (!flights.isEmpty() || queryDTO.getPage() == 0);
+            long total = lastPageKnown ? 0L : countFlights(queryDTO, statusEnum, countStrategy);
             
-            List<FlightVO> flightVOs = flights.stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList());
+            List<FlightVO> flightVOs = convertToVOs(flights);
             
-            PageResult<FlightVO> pageResult = new PageResult<>(flightVOs, total, queryDTO.getPage() + 1, queryDTO.getSize());
+            PageResult<FlightVO> pageResult = new PageResult<>(flightVOs, total, countStrategy == CountStrategy.EXACT,
+                    queryDTO.getPage() + 1, queryDTO.getSize(), hasNext);
             return FlightQueryResultDTO.fromPageResult(pageResult);
         } else {
             // 非分页查询
-            List<Flight> flights = flightMapper.findByConditions(
+            List<Flight> flights = findFlights(queryDTO, statusEnum, sortKey, descending, 0, -1);
+            
+            List<FlightVO> flightVOs = convertToVOs(flights);
+            return FlightQueryResultDTO.fromList(flightVOs);
+        }
+    }
+
+    /**
+     * 游标分页查询：按 (排序字段, id) 从上一页末尾继续读取，多取一条判断是否还有下一页，
+     * 只有调用方要求时才统计总数
+     */
+    private FlightQueryResultDTO loadFlightsAfterCursor(FlightQueryDTO queryDTO, FlightStatus statusEnum,
+                                                        FlightSortKey sortKey, boolean descending) {
+        Comparable<?> afterValue = null;
+        Long afterId = null;
+        boolean first = queryDTO.getCursor() == null || queryDTO.getCursor().isEmpty();
+        if (!first) {
+            String[] keys = SeekCursor.decode(queryDTO.getCursor(), 3);
+            if (!sortKey.getField().equals(keys[0])) {
+                throw new IllegalArgumentException("分页游标与排序字段不一致: " + queryDTO.getCursor());
+            }
+            try {
+                afterValue = sortKey.parse(keys[1]);
+                afterId = Long.valueOf(keys[2]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("无效的分页游标: " + queryDTO.getCursor(), e);
+            }
+        }
+
+        int size = queryDTO.getSize();
+        List<Flight> flights;
+        if (routeIndexCovers(queryDTO) && sortKey == FlightSortKey.DEPARTURE_TIME && !descending) {
+            flights = flightRouteIndex.find(queryDTO.getDepartureCity(), queryDTO.getArrivalCity(),
+                    queryDTO.getStartTime(), queryDTO.getEndTime(), statusEnum, normalize(queryDTO.getAirline()),
+                    queryDTO.getMinPrice(), queryDTO.getMaxPrice(), (LocalDateTime) afterValue, afterId, 0, size + 1);
+        } else if (routeIndexCovers(queryDTO)) {
+            flights = flightRouteIndex.findTop(queryDTO.getDepartureCity(), queryDTO.getArrivalCity(),
+                    queryDTO.getStartTime(), queryDTO.getEndTime(), statusEnum, normalize(queryDTO.getAirline()),
+                    queryDTO.getMinPrice(), queryDTO.getMaxPrice(), sortKey.comparator(descending),
+                    afterValue != null ? sortKey.after(afterValue, afterId, descending) : null, size + 1);
+        } else {
+            flights = flightMapper.findByConditionsAfter(
                 queryDTO.getFlightNumber(),
                 queryDTO.getAirline(),
                 queryDTO.getDepartureCity(),
                 queryDTO.getArrivalCity(),
-                null, // 暂时简化，不使用时间范围
-                null,
+                queryDTO.getStartTime(),
+                queryDTO.getEndTime(),
                 statusEnum,
-                0,
-                -1
+                queryDTO.getMinPrice(),
+                queryDTO.getMaxPrice(),
+                sortKey.getColumn(),
+                descending,
+                afterValue,
+                afterId,
+                size + 1
             );
-            
-            List<FlightVO> flightVOs = flights.stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList());
-            return FlightQueryResultDTO.fromList(flightVOs);
         }
+
+        String nextCursor = null;
+        if (flights.size() > size) {
+            flights = flights.subList(0, size);
+            Flight last = flights.get(size - 1);
+            nextCursor = SeekCursor.encode(sortKey.getField(), sortKey.format(last), last.getId());
+        }
+
+        Long total = null;
+        CountStrategy countStrategy = CountStrategy.of(queryDTO.getCountStrategy());
+        if (Boolean.TRUE.equals(queryDTO.getIncludeTotal())) {
+            total = countFlights(queryDTO, statusEnum, countStrategy);
+        }
+
+        return FlightQueryResultDTO.fromCursorPage(convertToVOs(flights), size, first, nextCursor, total,
+                countStrategy == CountStrategy.EXACT);
+    }
+
+    /**
+     * 按指定方式统计符合条件的航班总数
+     */
+    private long countFlights(FlightQueryDTO queryDTO, FlightStatus statusEnum, CountStrategy countStrategy) {
+        switch (countStrategy) {
+            case CACHED:
+                return pageCountCache.get(PageCountCache.FLIGHT_SCOPE, countFilterKey(queryDTO, statusEnum),
+                        () -> countFlightsExactly(queryDTO, statusEnum));
+            case ESTIMATED:
+                return PlanEstimates.estimateRows(flightMapper.explainByConditions(
+                    queryDTO.getFlightNumber(),
+                    queryDTO.getAirline(),
+                    queryDTO.getDepartureCity(),
+                    queryDTO.getArrivalCity(),
+                    queryDTO.getStartTime(),
+                    queryDTO.getEndTime(),
+                    statusEnum,
+                    queryDTO.getMinPrice(),
+                    queryDTO.getMaxPrice()
+                ));
+            default:
+                return countFlightsExactly(queryDTO, statusEnum);
+        }
+    }
+
+    private long countFlightsExactly(FlightQueryDTO queryDTO, FlightStatus statusEnum) {
+        if (routeIndexCovers(queryDTO)) {
+            return flightRouteIndex.count(queryDTO.getDepartureCity(), queryDTO.getArrivalCity(),
+                    queryDTO.getStartTime(), queryDTO.getEndTime(), statusEnum, normalize(queryDTO.getAirline()),
+                    queryDTO.getMinPrice(), queryDTO.getMaxPrice());
+        }
+        return flightMapper.countByConditions(
+            queryDTO.getFlightNumber(),
+            queryDTO.getAirline(),
+            queryDTO.getDepartureCity(),
+            queryDTO.getArrivalCity(),
+            queryDTO.getStartTime(),
+            queryDTO.getEndTime(),
+            statusEnum,
+            queryDTO.getMinPrice(),
+            queryDTO.getMaxPrice()
+        );
+    }
+
+    /**
+     * 按 (排序字段, id) 顺序查询航班，指定了出发和到达城市时走内存航线索引：
+     * 按起飞时间升序直接截取时刻表，其他排序用堆取前 offset + limit 个
+     *
+     * @param limit 最多返回的条数，小于0表示不限
+     */
+    private List<Flight> findFlights(FlightQueryDTO queryDTO, FlightStatus statusEnum, FlightSortKey sortKey,
+                                     boolean descending, int offset, int limit) {
+        if (routeIndexCovers(queryDTO)) {
+            int max = limit < 0 ? Integer.MAX_VALUE : limit;
+            if (sortKey == FlightSortKey.DEPARTURE_TIME && !descending) {
+                return flightRouteIndex.find(queryDTO.getDepartureCity(), queryDTO.getArrivalCity(),
+                        queryDTO.getStartTime(), queryDTO.getEndTime(), statusEnum, normalize(queryDTO.getAirline()),
+                        queryDTO.getMinPrice(), queryDTO.getMaxPrice(), null, null, offset, max);
+            }
+            List<Flight> top = flightRouteIndex.findTop(queryDTO.getDepartureCity(), queryDTO.getArrivalCity(),
+                    queryDTO.getStartTime(), queryDTO.getEndTime(), statusEnum, normalize(queryDTO.getAirline()),
+                    queryDTO.getMinPrice(), queryDTO.getMaxPrice(), sortKey.comparator(descending), null,
+                    (int) Math.min(Integer.MAX_VALUE, (long) offset + max));
+            return offset < top.size() ? top.subList(offset, top.size()) : new ArrayList<>();
+        }
+        return flightMapper.findByConditions(
+            queryDTO.getFlightNumber(),
+            queryDTO.getAirline(),
+            queryDTO.getDepartureCity(),
+            queryDTO.getArrivalCity(),
+            queryDTO.getStartTime(),
+            queryDTO.getEndTime(),
+            statusEnum,
+            queryDTO.getMinPrice(),
+            queryDTO.getMaxPrice(),
+            sortKey.getColumn(),
+            descending,
+            offset,
+            limit
+        );
+    }
+
+    /**
+     * 航线索引已加载且查询条件是 出发城市 + 到达城市（+ 时间窗口、状态、航空公司、票价区间）时可以不查数据库
+     */
+    private boolean routeIndexCovers(FlightQueryDTO queryDTO) {
+        return flightRouteIndex.isReady()
+                && normalize(queryDTO.getFlightNumber()) == null
+                && normalize(queryDTO.getDepartureCity()) != null
+                && normalize(queryDTO.getArrivalCity()) != null;
+    }
+
+    private static void checkRanges(FlightQueryDTO queryDTO) {
+        if (queryDTO.getStartTime() != null && queryDTO.getEndTime() != null
+                && queryDTO.getStartTime().isAfter(queryDTO.getEndTime())) {
+            throw new IllegalArgumentException("开始时间不能晚于结束时间");
+        }
+        if (queryDTO.getMinPrice() != null && queryDTO.getMaxPrice() != null
+                && queryDTO.getMinPrice().compareTo(queryDTO.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("最低票价不能高于最高票价");
+        }
+    }
+
+    private static boolean isDescending(String sortDirection) {
+        if (sortDirection == null || sortDirection.trim().isEmpty() || "ASC".equalsIgnoreCase(sortDirection.trim())) {
+            return false;
+        }
+        if ("DESC".equalsIgnoreCase(sortDirection.trim())) {
+            return true;
+        }
+        throw new IllegalArgumentException("排序方向必须是 ASC 或 DESC");
+    }
+
+    /**
+     * 总数缓存的查询条件键，只包含参与 COUNT 的条件
+     */
+    private String countFilterKey(FlightQueryDTO queryDTO, FlightStatus statusEnum) {
+        return String.join("|",
+                String.valueOf(normalize(queryDTO.getFlightNumber())),
+                String.valueOf(normalize(queryDTO.getAirline())),
+                String.valueOf(normalize(queryDTO.getDepartureCity())),
+                String.valueOf(normalize(queryDTO.getArrivalCity())),
+                String.valueOf(queryDTO.getStartTime()),
+                String.valueOf(queryDTO.getEndTime()),
+                String.valueOf(statusEnum),
+                queryDTO.getMinPrice() != null ? queryDTO.getMinPrice().stripTrailingZeros().toPlainString() : "null",
+                queryDTO.getMaxPrice() != null ? queryDTO.getMaxPrice().stripTrailingZeros().toPlainString() : "null");
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
     }
 
     /**
@@ -104,10 +513,53 @@ public class FlightServiceImpl implements FlightService {
         }
     }
 
+    @Override
+    public int reconcileInventory() {
+        return flightInventoryCounter.reconcile();
+    }
+
+    @Override
+    public FlightCreateResultDTO createFlights(List<FlightCreateDTO> flights) {
+        return flightProvisioner.createFlights(flights);
+    }
+
+    /**
+     * 批量转换为VO对象，整页航班的座位数从 flight_inventory 汇总表一次读取
+     */
+    private List<FlightVO> convertToVOs(List<Flight> flights) {
+        Map<String, long[]> seatCounts = countSeats(flights);
+        List<FlightVO> flightVOs = new ArrayList<>(flights.size());
+        for (Flight flight : flights) {
+            flightVOs.add(convertToVO(flight, seatCounts.get(flight.getFlightNumber())));
+        }
+        return flightVOs;
+    }
+
+    /**
+     * 统计航班座位数
+     *
+     * @return 航班号 -> [总座位数, 可用座位数]
+     */
+    private Map<String, long[]> countSeats(List<Flight> flights) {
+        Map<String, long[]> seatCounts = new HashMap<>();
+        for (int from = 0; from < flights.size(); from += SEAT_COUNT_BATCH_SIZE) {
+            List<String> flightNumbers = new ArrayList<>();
+            for (Flight flight : flights.subList(from, Math.min(from + SEAT_COUNT_BATCH_SIZE, flights.size()))) {
+                flightNumbers.add(flight.getFlightNumber());
+            }
+            for (SeatCount count : flightInventoryMapper.findByFlightNumbers(flightNumbers)) {
+                long[] counts = seatCounts.computeIfAbsent(count.getFlightNumber(), key -> new long[2]);
+                counts[0] += count.getTotalSeats();
+                counts[1] += count.getAvailableSeats();
+            }
+        }
+        return seatCounts;
+    }
+
     /**
      * 转换为VO对象
      */
-    private FlightVO convertToVO(Flight flight) {
+    private FlightVO convertToVO(Flight flight, long[] seatCounts) {
         // 创建基本的FlightVO对象
         FlightVO vo = new FlightVO(
             flight.getId(),
@@ -122,10 +574,8 @@ public class FlightServiceImpl implements FlightService {
             flight.getStatus().getDescription()
         );
 
-        long totalSeats = seatMapper.countByConditions(flight.getFlightNumber(), null, null, null, null, null, null);
-        long availableSeats = seatMapper.countByConditions(flight.getFlightNumber(), null, true, null, null, null, null);
-        vo.setTotalSeats(totalSeats);
-        vo.setAvailableSeats(availableSeats);
+        vo.setTotalSeats(seatCounts != null ? seatCounts[0] : 0L);
+        vo.setAvailableSeats(seatCounts != null ? seatCounts[1] : 0L);
 
         return vo;
     }
@@ -1,20 +1,51 @@
 package com.liajay.flightbooking.inventory.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
 import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
 import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClassStatistics;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatCount;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatExportRow;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightInventoryMapper;
 import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
-import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.model.vo.FlightVO;
 import com.liajay.flightbooking.inventory.model.vo.SeatVO;
+import com.liajay.flightbooking.inventory.service.FlightService;
 import com.liajay.flightbooking.inventory.service.SeatService;
+import com.liajay.flightbooking.inventory.service.allocation.DatabaseSeatAllocator;
+import com.liajay.flightbooking.inventory.service.allocation.SeatAllocator;
+import com.liajay.flightbooking.inventory.service.cache.FlightCache;
+import com.liajay.flightbooking.inventory.service.export.ExportFormat;
+import com.liajay.flightbooking.inventory.service.export.RecordWriter;
+import com.liajay.flightbooking.inventory.service.hold.SeatHoldManager;
+import com.liajay.flightbooking.inventory.service.pagination.CountStrategy;
+import com.liajay.flightbooking.inventory.service.pagination.PageCountCache;
+import com.liajay.flightbooking.inventory.service.pagination.PlanEstimates;
+import com.liajay.flightbooking.inventory.service.pagination.SeekCursor;
+import com.liajay.flightbooking.inventory.service.seatmap.SeatMapCache;
+import com.liajay.flightbooking.inventory.service.seatmap.SeatMapSnapshot;
 import com.liajay.flightbooking.inventory.service.dto.PageResult;
+import com.liajay.flightbooking.inventory.service.dto.SeatHoldDTO;
 import com.liajay.flightbooking.inventory.service.dto.SeatQueryDTO;
 import com.liajay.flightbooking.inventory.service.dto.result.SeatQueryResultDTO;
+import com.liajay.flightbooking.inventory.service.dto.result.SeatStatisticsDTO;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * 座位服务实现类 - MyBatis版本
@@ -24,11 +55,30 @@ import java.util.stream.Collectors;
 public class SeatServiceImpl implements SeatService {
 
     private final SeatMapper seatMapper;
-    private final FlightMapper flightMapper;
+    private final FlightService flightService;
+    private final FlightCache flightCache;
+    private final FlightInventoryMapper flightInventoryMapper;
+    private final SeatAllocator seatAllocator;
+    private final DatabaseSeatAllocator databaseSeatAllocator;
+    private final SeatHoldManager seatHoldManager;
+    private final SeatMapCache seatMapCache;
+    private final PageCountCache pageCountCache;
+    private final ObjectMapper objectMapper;
 
-    public SeatServiceImpl(SeatMapper seatMapper, FlightMapper flightMapper) {
+    public SeatServiceImpl(SeatMapper seatMapper, FlightService flightService, FlightCache flightCache,
+                           FlightInventoryMapper flightInventoryMapper, SeatAllocator seatAllocator,
+                           DatabaseSeatAllocator databaseSeatAllocator, SeatHoldManager seatHoldManager,
+                           SeatMapCache seatMapCache, PageCountCache pageCountCache, ObjectMapper objectMapper) {
         this.seatMapper = seatMapper;
-        this.flightMapper = flightMapper;
+        this.flightService = flightService;
+        this.flightCache = flightCache;
+        this.flightInventoryMapper = flightInventoryMapper;
+        this.seatAllocator = seatAllocator;
+        this.databaseSeatAllocator = databaseSeatAllocator;
+        this.seatHoldManager = seatHoldManager;
+        this.seatMapCache = seatMapCache;
+        this.pageCountCache = pageCountCache;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -39,23 +89,16 @@ public class SeatServiceImpl implements SeatService {
     @Override
     public SeatQueryResultDTO querySeats(SeatQueryDTO queryDTO) {
         SeatClass seatClassEnum = parseSeatClass(queryDTO.getSeatClass());
+
+        if (queryDTO.isCursorPaging()) {
+            return querySeatsAfterCursor(queryDTO, seatClassEnum);
+        }
         
         if (queryDTO.isPaginationEnabled()) {
-            // 先获取总数
-            long total = seatMapper.countByConditions(
-                queryDTO.getFlightNumber(),
-                seatClassEnum,
-                queryDTO.getIsAvailable(),
-                queryDTO.getMinPrice(),
-                queryDTO.getMaxPrice(),
-                queryDTO.getSeatNumberStart(),
-                queryDTO.getSeatNumberEnd()
-            );
-            
             // 计算分页参数
             int offset = queryDTO.getPage() * queryDTO.getSize();
             
-            // 分页查询
+            // 分页查询，多取一条判断是否有下一页
             List<Seat> seats = seatMapper.findByConditions(
                 queryDTO.getFlightNumber(),
                 seatClassEnum,
@@ -65,16 +108,25 @@ public class SeatServiceImpl implements SeatService {
                 queryDTO.getSeatNumberStart(),
                 queryDTO.getSeatNumberEnd(),
                 offset,
-                queryDTO.getSize()
+                queryDTO.getSize() + 1
             );
+            boolean hasNext = seats.size() > queryDTO.getSize();
+            if (hasNext) {
+                seats = seats.subList(0, queryDTO.getSize());
+            }
+
+            // 最后一页的总数可以直接算出，不需要再统计
+            CountStrategy countStrategy = CountStrategy.of(queryDTO.getCountStrategy());
+            boolean lastPageKnown = !hasNext && (!seats.isEmpty() || queryDTO.getPage() == 0);
+            long total = lastPageKnown ? 0L : countSeats(queryDTO, seatClassEnum, countStrategy);
             
             // 转换为VO并构建分页结果
-            List<SeatVO> seatVOs = seats.stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList());
-            
-            PageResult<SeatVO> pageResult = new PageResult<>(seatVOs, total, queryDTO.getPage() + 1, queryDTO.getSize());
-            return SeatQueryResultDTO.fromPageResult(pageResult);
+            Map<String, FlightVO> flights = findFlights(seats);
+            PageResult<SeatVO> pageResult = new PageResult<>(convertToVOs(seats, flights), total,
+                    countStrategy == CountStrategy.EXACT, queryDTO.getPage() + 1, queryDTO.getSize(), hasNext);
+            SeatQueryResultDTO result = SeatQueryResultDTO.fromPageResult(pageResult);
+            result.setFlights(flights);
+            return result;
         } else {
             // 非分页查询 - 设置offset=0, pageSize=-1表示查询所有
             List<Seat> seats = seatMapper.findByConditions(
@@ -89,16 +141,240 @@ public class SeatServiceImpl implements SeatService {
                 -1  // -1表示不限制数量
             );
             
-            List<SeatVO> seatVOs = seats.stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList());
-            return SeatQueryResultDTO.fromList(seatVOs);
+            Map<String, FlightVO> flights = findFlights(seats);
+            SeatQueryResultDTO result = SeatQueryResultDTO.fromList(convertToVOs(seats, flights));
+            result.setFlights(flights);
+            return result;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportSeats(SeatQueryDTO queryDTO, ExportFormat format, OutputStream out) throws IOException {
+        Map<String, Function<SeatVO, Object>> columns = RecordWriter.columns();
+        columns.put("id", SeatVO::getId);
+        columns.put("flightNumber", SeatVO::getFlightNumber);
+        columns.put("airline", SeatVO::getAirline);
+        columns.put("seatNumber", SeatVO::getSeatNumber);
+        columns.put("seatClass", SeatVO::getSeatClass);
+        columns.put("isAvailable", SeatVO::getIsAvailable);
+        columns.put("price", SeatVO::getPrice);
+        RecordWriter<SeatVO> writer = RecordWriter.open(format, objectMapper, out, columns);
+
+        // 航空公司随座位一起查出，逐行转换写出，不按座位查询航班
+        try (Cursor<SeatExportRow> rows = seatMapper.streamByConditions(
+                queryDTO.getFlightNumber(),
+                parseSeatClass(queryDTO.getSeatClass()),
+                queryDTO.getIsAvailable(),
+                queryDTO.getMinPrice(),
+                queryDTO.getMaxPrice(),
+                queryDTO.getSeatNumberStart(),
+                queryDTO.getSeatNumberEnd())) {
+            for (SeatExportRow row : rows) {
+                SeatVO vo = new SeatVO(
+                    row.getId(),
+                    row.getFlightNumber(),
+                    row.getSeatNumber(),
+                    row.getSeatClass().name(),
+                    row.getSeatClass().getDescription(),
+                    row.getIsAvailable(),
+                    row.getPrice()
+                );
+                vo.setFlightNumber(row.getFlightNumber());
+                vo.setAirline(row.getAirline());
+                writer.write(vo);
+            }
         }
+        writer.flush();
+        return writer.count();
+    }
+
+    @Override
+    public SeatStatisticsDTO getFlightSeatStatistics(String flightNumber) {
+        if (flightService.findByFlightNumber(flightNumber) == null) {
+            throw new IllegalArgumentException("航班不存在: " + flightNumber);
+        }
+        List<SeatClassStatistics> rows = new ArrayList<>(seatMapper.statisticsByFlightNumber(flightNumber));
+        rows.sort(Comparator.comparing(SeatClassStatistics::getSeatClass));
+
+        long total = 0L;
+        long available = 0L;
+        List<SeatStatisticsDTO.ClassStatistics> classes = new ArrayList<>(rows.size());
+        for (SeatClassStatistics row : rows) {
+            SeatStatisticsDTO.ClassStatistics stats = new SeatStatisticsDTO.ClassStatistics();
+            stats.setSeatClass(row.getSeatClass().name());
+            stats.setSeatClassDescription(row.getSeatClass().getDescription());
+            stats.setTotalSeats(row.getTotalSeats());
+            stats.setAvailableSeats(row.getAvailableSeats());
+            stats.setOccupiedSeats(row.getTotalSeats() - row.getAvailableSeats());
+            stats.setLoadFactor(loadFactor(row.getTotalSeats(), row.getAvailableSeats()));
+            stats.setMinPrice(row.getMinPrice());
+            stats.setMaxPrice(row.getMaxPrice());
+            stats.setAvgPrice(row.getAvgPrice() != null ? row.getAvgPrice().setScale(2, RoundingMode.HALF_UP) : null);
+            classes.add(stats);
+            total += row.getTotalSeats();
+            available += row.getAvailableSeats();
+        }
+
+        SeatStatisticsDTO result = new SeatStatisticsDTO();
+        result.setFlightNumber(flightNumber);
+        result.setTotalSeats(total);
+        result.setAvailableSeats(available);
+        result.setOccupiedSeats(total - available);
+        result.setLoadFactor(loadFactor(total, available));
+        result.setClasses(classes);
+        return result;
+    }
+
+    /**
+     * 客座率：已占用座位数 / 座位总数，保留4位小数
+     */
+    private static double loadFactor(long total, long available) {
+        if (total <= 0) {
+            return 0.0;
+        }
+        return Math.round((total - available) * 10000.0 / total) / 10000.0;
     }
 
     // 以下方法已简化，统一使用 querySeats 方法实现
     // 调用者可以通过设置 SeatQueryDTO 的相应字段来实现这些查询功能
 
+    /**
+     * 游标分页查询：按 (seat_class, seat_number, id) 从上一页末尾继续读取，多取一条判断是否还有下一页，
+     * 只有调用方要求时才统计总数
+     */
+    private SeatQueryResultDTO querySeatsAfterCursor(SeatQueryDTO queryDTO, SeatClass seatClassEnum) {
+        String afterSeatClass = null;
+        String afterSeatNumber = null;
+        Long afterId = null;
+        boolean first = queryDTO.getCursor() == null || queryDTO.getCursor().isEmpty();
+        if (!first) {
+            String[] keys = SeekCursor.decode(queryDTO.getCursor(), 3);
+            afterSeatClass = keys[0];
+            afterSeatNumber = keys[1];
+            try {
+                afterId = Long.valueOf(keys[2]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("无效的分页游标: " + queryDTO.getCursor(), e);
+            }
+        }
+
+        int size = queryDTO.getSize();
+        List<Seat> seats = seatMapper.findByConditionsAfter(
+            queryDTO.getFlightNumber(),
+            seatClassEnum,
+            queryDTO.getIsAvailable(),
+            queryDTO.getMinPrice(),
+            queryDTO.getMaxPrice(),
+            queryDTO.getSeatNumberStart(),
+            queryDTO.getSeatNumberEnd(),
+            afterSeatClass,
+            afterSeatNumber,
+            afterId,
+            size + 1
+        );
+
+        String nextCursor = null;
+        if (seats.size() > size) {
+            seats = seats.subList(0, size);
+            Seat last = seats.get(size - 1);
+            nextCursor = SeekCursor.encode(last.getSeatClass().name(), last.getSeatNumber(), last.getId());
+        }
+
+        Long total = null;
+        CountStrategy countStrategy = CountStrategy.of(queryDTO.getCountStrategy());
+        if (Boolean.TRUE.equals(queryDTO.getIncludeTotal())) {
+            total = countSeats(queryDTO, seatClassEnum, countStrategy);
+        }
+
+        Map<String, FlightVO> flights = findFlights(seats);
+        SeatQueryResultDTO result = SeatQueryResultDTO.fromCursorPage(convertToVOs(seats, flights), size, first,
+                nextCursor, total, countStrategy == CountStrategy.EXACT);
+        result.setFlights(flights);
+        return result;
+    }
+
+    /**
+     * 按指定方式统计符合条件的座位总数
+     */
+    private long countSeats(SeatQueryDTO queryDTO, SeatClass seatClassEnum, CountStrategy countStrategy) {
+        switch (countStrategy) {
+            case CACHED:
+                return pageCountCache.get(PageCountCache.seatScope(queryDTO.getFlightNumber()),
+                        countFilterKey(queryDTO, seatClassEnum),
+                        () -> countSeatsExactly(queryDTO, seatClassEnum));
+            case ESTIMATED:
+                return estimateSeats(queryDTO, seatClassEnum);
+            default:
+                return countSeatsExactly(queryDTO, seatClassEnum);
+        }
+    }
+
+    private long countSeatsExactly(SeatQueryDTO queryDTO, SeatClass seatClassEnum) {
+        return seatMapper.countByConditions(
+            queryDTO.getFlightNumber(),
+            seatClassEnum,
+            queryDTO.getIsAvailable(),
+            queryDTO.getMinPrice(),
+            queryDTO.getMaxPrice(),
+            queryDTO.getSeatNumberStart(),
+            queryDTO.getSeatNumberEnd()
+        );
+    }
+
+    /**
+     * 估算座位总数：只按航班、舱位、可用状态过滤时直接读 flight_inventory 汇总，
+     * 带价格或座位号范围条件时使用执行计划的预估行数
+     */
+    private long estimateSeats(SeatQueryDTO queryDTO, SeatClass seatClassEnum) {
+        String flightNumber = queryDTO.getFlightNumber();
+        boolean coveredByInventory = flightNumber != null && !flightNumber.trim().isEmpty()
+                && queryDTO.getMinPrice() == null && queryDTO.getMaxPrice() == null
+                && isBlank(queryDTO.getSeatNumberStart()) && isBlank(queryDTO.getSeatNumberEnd());
+        if (coveredByInventory) {
+            long total = 0L;
+            for (SeatCount count : flightInventoryMapper.findByFlightNumbers(Collections.singletonList(flightNumber))) {
+                if (seatClassEnum != null && seatClassEnum != count.getSeatClass()) {
+                    continue;
+                }
+                if (queryDTO.getIsAvailable() == null) {
+                    total += count.getTotalSeats();
+                } else if (queryDTO.getIsAvailable()) {
+                    total += count.getAvailableSeats();
+                } else {
+                    total += count.getTotalSeats() - count.getAvailableSeats();
+                }
+            }
+            return total;
+        }
+        return PlanEstimates.estimateRows(seatMapper.explainByConditions(
+            flightNumber,
+            seatClassEnum,
+            queryDTO.getIsAvailable(),
+            queryDTO.getMinPrice(),
+            queryDTO.getMaxPrice(),
+            queryDTO.getSeatNumberStart(),
+            queryDTO.getSeatNumberEnd()
+        ));
+    }
+
+    /**
+     * 总数缓存的查询条件键，只包含参与 COUNT 的条件
+     */
+    private String countFilterKey(SeatQueryDTO queryDTO, SeatClass seatClassEnum) {
+        return String.join("|",
+                String.valueOf(seatClassEnum),
+                String.valueOf(queryDTO.getIsAvailable()),
+                queryDTO.getMinPrice() != null ? queryDTO.getMinPrice().stripTrailingZeros().toPlainString() : "null",
+                queryDTO.getMaxPrice() != null ? queryDTO.getMaxPrice().stripTrailingZeros().toPlainString() : "null",
+                String.valueOf(isBlank(queryDTO.getSeatNumberStart()) ? null : queryDTO.getSeatNumberStart()),
+                String.valueOf(isBlank(queryDTO.getSeatNumberEnd()) ? null : queryDTO.getSeatNumberEnd()));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
     /**
      * 解析座位舱位等级
      */
@@ -113,10 +389,43 @@ public class SeatServiceImpl implements SeatService {
         }
     }
 
+    /**
+     * 查询座位所属的航班，按航班号去重后从航班缓存批量读取，查询次数与座位数无关
+     * 座位列表只需要航班基本信息，不统计座位数
+     */
+    private Map<String, FlightVO> findFlights(List<Seat> seats) {
+        Set<String> flightNumbers = new LinkedHashSet<>();
+        for (Seat seat : seats) {
+            flightNumbers.add(seat.getFlightNumber());
+        }
+        if (flightNumbers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, FlightVO> flights = new LinkedHashMap<>();
+        for (Flight flight : flightCache.getAll(flightNumbers).values()) {
+            flights.put(flight.getFlightNumber(), new FlightVO(flight.getId(), flight.getFlightNumber(),
+                    flight.getAirline(), flight.getDepartureCity(), flight.getArrivalCity(), flight.getDepartureTime(),
+                    flight.getArrivalTime(), flight.getBasePrice(), flight.getStatus().name(),
+                    flight.getStatus().getDescription()));
+        }
+        return flights;
+    }
+
+    /**
+     * 批量转换为VO对象，航班信息取自已查出的航班
+     */
+    private List<SeatVO> convertToVOs(List<Seat> seats, Map<String, FlightVO> flights) {
+        List<SeatVO> seatVOs = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            seatVOs.add(convertToVO(seat, flights.get(seat.getFlightNumber())));
+        }
+        return seatVOs;
+    }
+
     /**
      * 转换为VO对象
      */
-    private SeatVO convertToVO(Seat seat) {
+    private SeatVO convertToVO(Seat seat, FlightVO flight) {
         SeatVO vo = new SeatVO(
             seat.getId(),
             seat.getFlightNumber(),
@@ -128,7 +437,6 @@ public class SeatServiceImpl implements SeatService {
         );
 
         // 添加航班信息
-        Flight flight = flightMapper.findByFlightNumber(seat.getFlightNumber());
         if (flight != null) {
             vo.setFlightNumber(flight.getFlightNumber());
             vo.setAirline(flight.getAirline());
@@ -138,25 +446,63 @@ public class SeatServiceImpl implements SeatService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public Seat allocateSeat(String flightNumber) {
-        // 查找第一个可用座位
-        Seat availableSeat = seatMapper.findFirstAvailableSeat(flightNumber);
-        
-        if (availableSeat == null) {
-            return null; // 没有可用座位
+        return seatAllocator.allocate(flightNumber);
+    }
+
+    @Override
+    public List<Seat> allocateSeats(String flightNumber, int count) {
+        return seatAllocator.allocate(flightNumber, count);
+    }
+
+    @Override
+    public List<Seat> allocateSeats(String flightNumber, List<String> requestKeys) {
+        // 请求键记录在座位行上，只能在数据库事务中完成，提交后通知内存分配器重新加载
+        List<Seat> seats = databaseSeatAllocator.allocate(flightNumber, requestKeys);
+        if (!seats.isEmpty()) {
+            seatAllocator.onSeatsClaimed(flightNumber);
         }
-        
-        // 将座位标记为不可用
-        int updateResult = seatMapper.updateSeatAvailability(availableSeat.getId(), false);
-        
-        if (updateResult <= 0) {
-            throw new RuntimeException("更新座位状态失败");
+        return seats;
+    }
+
+    @Override
+    public int releaseSeats(List<String> requestKeys) {
+        List<Seat> seats = databaseSeatAllocator.release(requestKeys);
+        Set<String> flightNumbers = new LinkedHashSet<>();
+        for (Seat seat : seats) {
+            flightNumbers.add(seat.getFlightNumber());
         }
-        
-        // 更新返回对象的状态
-        availableSeat.setIsAvailable(false);
-        
-        return availableSeat;
+        flightNumbers.forEach(seatAllocator::onSeatsReleased);
+        return seats.size();
+    }
+
+    @Override
+    public SeatHoldDTO holdSeats(String flightNumber, int count, Long ttlSeconds) {
+        return seatHoldManager.hold(flightNumber, count, ttlSeconds);
+    }
+
+    @Override
+    public boolean confirmHold(String holdToken) {
+        return seatHoldManager.confirm(holdToken);
+    }
+
+    @Override
+    public boolean releaseHold(String holdToken) {
+        return seatHoldManager.release(holdToken);
+    }
+
+    @Override
+    public List<Seat> findHeldSeats(String holdToken) {
+        return seatHoldManager.findHeldSeats(holdToken);
+    }
+
+    @Override
+    public SeatMapSnapshot getSeatMap(String flightNumber) {
+        return seatMapCache.get(flightNumber);
+    }
+
+    @Override
+    public Map<String, Object> getAllocationMetrics() {
+        return seatAllocator.getMetrics();
     }
 }
@@ -0,0 +1,162 @@
+package com.liajay.flightbooking.inventory.service.inventory;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatCount;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightInventoryMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 航班库存汇总维护
+ *
+ * 座位占用、释放时在调用方的事务中同步调整 flight_inventory，查询可用座位数不再需要统计 seats 表。
+ * 同一航班舱位的汇总行是热点行，调用方应在事务的最后一步调用，尽量缩短行锁持有时间；
+ * 多行调整按航班号、舱位排序执行，避免并发事务互相死锁。
+ * 每次调整后发布 SeatInventoryChangedEvent，供依赖座位数据的缓存失效。
+ *
+ * @author liajay
+ */
+@Component
+public class FlightInventoryCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightInventoryCounter.class);
+
+    private static final Comparator<InventoryKey> KEY_ORDER = Comparator
+            .comparing((InventoryKey key) -> key.flightNumber)
+            .thenComparing(key -> key.seatClass);
+
+    private final FlightInventoryMapper flightInventoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FlightInventoryCounter(FlightInventoryMapper flightInventoryMapper, ApplicationEventPublisher eventPublisher) {
+        this.flightInventoryMapper = flightInventoryMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 座位已被占用，扣减可用座位数，必须与占用座位在同一事务中调用
+     */
+    public void onSeatsClaimed(Collection<Seat> seats) {
+        apply(seats, -1);
+    }
+
+    /**
+     * 已占用的座位被分配方放弃，增加可用座位数，必须与归还座位在同一事务中调用
+     */
+    public void onSeatsAbandoned(Collection<Seat> seats) {
+        apply(seats, 1);
+    }
+
+    /**
+     * 座位已恢复可用，增加可用座位数，必须与释放座位在同一事务中调用
+     *
+     * @param released 按航班、舱位统计的释放数量（取 totalSeats）
+     */
+    public void onSeatsReleased(Collection<SeatCount> released) {
+        Map<InventoryKey, Integer> deltas = new TreeMap<>(KEY_ORDER);
+        for (SeatCount count : released) {
+            deltas.merge(new InventoryKey(count.getFlightNumber(), count.getSeatClass()),
+                    (int) count.getTotalSeats(), Integer::sum);
+        }
+        apply(deltas);
+    }
+
+    /**
+     * 根据 seats 表重建指定航班的库存汇总，用于无法确定具体变化的场景（如回写冲突、批量生成座位）
+     */
+    public void rebuild(Collection<String> flightNumbers) {
+        if (!flightNumbers.isEmpty()) {
+            rebuildRows(new ArrayList<>(flightNumbers));
+            eventPublisher.publishEvent(new SeatInventoryChangedEvent(flightNumbers));
+        }
+    }
+
+    /**
+     * 找出与 seats 表不一致的库存汇总，只重建涉及的航班
+     *
+     * @return 不一致的汇总行数，数据一致时为0
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int reconcile() {
+        List<SeatCount> drifted = flightInventoryMapper.findDrifted(null);
+        if (drifted.isEmpty()) {
+            logger.info("航班库存汇总与座位数据一致");
+            return 0;
+        }
+        Set<String> flightNumbers = new LinkedHashSet<>();
+        for (SeatCount count : drifted) {
+            flightNumbers.add(count.getFlightNumber());
+        }
+        rebuildRows(new ArrayList<>(flightNumbers));
+        eventPublisher.publishEvent(new SeatInventoryChangedEvent(flightNumbers));
+        logger.warn("航班库存汇总与座位数据不一致，已按座位数据重建: 不一致行数={}, flightNumbers={}",
+                drifted.size(), flightNumbers);
+        return drifted.size();
+    }
+
+    private void apply(Collection<Seat> seats, int delta) {
+        Map<InventoryKey, Integer> deltas = new TreeMap<>(KEY_ORDER);
+        for (Seat seat : seats) {
+            deltas.merge(new InventoryKey(seat.getFlightNumber(), seat.getSeatClass()), delta, Integer::sum);
+        }
+        apply(deltas);
+    }
+
+    private void apply(Map<InventoryKey, Integer> deltas) {
+        List<InventoryKey> missing = new ArrayList<>();
+        Set<String> changed = new LinkedHashSet<>();
+        for (Map.Entry<InventoryKey, Integer> entry : deltas.entrySet()) {
+            InventoryKey key = entry.getKey();
+            changed.add(key.flightNumber);
+            if (entry.getValue() != 0
+                    && flightInventoryMapper.adjustAvailableSeats(key.flightNumber, key.seatClass, entry.getValue()) == 0) {
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            // 汇总行不存在（如座位数据是绕过本服务写入的），直接从 seats 表补齐
+            List<String> flightNumbers = new ArrayList<>();
+            for (InventoryKey key : missing) {
+                if (!flightNumbers.contains(key.flightNumber)) {
+                    flightNumbers.add(key.flightNumber);
+                }
+            }
+            logger.warn("航班库存汇总缺失，按座位数据重建: flightNumbers={}", flightNumbers);
+            rebuildRows(flightNumbers);
+        }
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new SeatInventoryChangedEvent(changed));
+        }
+    }
+
+    /**
+     * 按 seats 表改写指定航班的汇总行，并删除已没有座位的舱位
+     */
+    private void rebuildRows(List<String> flightNumbers) {
+        flightInventoryMapper.rebuild(flightNumbers);
+        flightInventoryMapper.deleteStale(flightNumbers);
+    }
+
+    private static final class InventoryKey {
+        private final String flightNumber;
+        private final SeatClass seatClass;
+
+        private InventoryKey(String flightNumber, SeatClass seatClass) {
+            this.flightNumber = flightNumber;
+            this.seatClass = seatClass;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.liajay.flightbooking.inventory.service.inventory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 座位库存变更事件
+ *
+ * 航班库存汇总调整（座位占用、释放、重建）时在同一事务中发布，监听方应在事务提交后处理。
+ *
+ * @author liajay
+ */
+public class SeatInventoryChangedEvent {
+
+    /**
+     * 发生变更的航班号，为null表示全部航班
+     */
+    private final Set<String> flightNumbers;
+
+    public SeatInventoryChangedEvent(Collection<String> flightNumbers) {
+        this.flightNumbers = flightNumbers != null
+                ? Collections.unmodifiableSet(new LinkedHashSet<>(flightNumbers)) : null;
+    }
+
+    public Set<String> getFlightNumbers() {
+        return flightNumbers;
+    }
+
+    /**
+     * 是否涉及全部航班
+     */
+    public boolean isAllFlights() {
+        return flightNumbers == null;
+    }
+}
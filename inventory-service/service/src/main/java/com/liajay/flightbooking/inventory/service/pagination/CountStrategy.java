@@ -0,0 +1,38 @@
+package com.liajay.flightbooking.inventory.service.pagination;
+
+/**
+ * 分页总数的统计方式
+ *
+ * @author liajay
+ */
+public enum CountStrategy {
+
+    /**
+     * 每次执行 COUNT(*)，结果精确
+     */
+    EXACT,
+
+    /**
+     * 按查询条件缓存 COUNT(*) 结果，数据变更后失效，有效期内可能略有偏差
+     */
+    CACHED,
+
+    /**
+     * 从库存汇总或索引统计信息估算，不访问数据行
+     */
+    ESTIMATED;
+
+    /**
+     * 解析统计方式，为空或无法识别时使用精确统计
+     */
+    public static CountStrategy of(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return EXACT;
+        }
+    }
+}
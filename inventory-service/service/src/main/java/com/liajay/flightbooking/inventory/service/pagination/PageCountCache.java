@@ -0,0 +1,157 @@
+package com.liajay.flightbooking.inventory.service.pagination;
+
+import com.liajay.flightbooking.inventory.service.cache.FlightChangedEvent;
+import com.liajay.flightbooking.inventory.service.inventory.SeatInventoryChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 分页总数缓存
+ *
+ * 按"范围 + 规范化查询条件"缓存 COUNT(*) 结果，超过 ttl 后重新统计。
+ * 每个范围维护一个版本号并拼进缓存键，数据变更时递增版本号，旧条目不再命中，随 LRU 或过期淘汰；
+ * 统计期间发生变更时，结果写在旧版本下，同样不会被读到。
+ *
+ * 范围划分：航班查询共用一个范围，座位查询按航班号划分，未指定航班的座位查询单独一个范围。
+ *
+ * @author liajay
+ */
+public class PageCountCache {
+
+    public static final String FLIGHT_SCOPE = "flights";
+    private static final String SEAT_SCOPE_PREFIX = "seats:";
+    private static final String ALL_SEATS_SCOPE = SEAT_SCOPE_PREFIX + "*";
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    /**
+     * 访问顺序的 LinkedHashMap 实现 LRU，所有访问都在 this 上同步
+     */
+    private final LinkedHashMap<String, CachedCount> entries = new LinkedHashMap<String, CachedCount>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 全局版本号，座位数据整体重建时递增，使所有座位范围失效
+     */
+    private final AtomicLong seatEpoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PageCountCache(int maxSize, long ttlMs) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    /**
+     * 座位查询的缓存范围
+     *
+     * @param flightNumber 航班号，为空表示未指定航班
+     */
+    public static String seatScope(String flightNumber) {
+        return flightNumber == null || flightNumber.trim().isEmpty()
+                ? ALL_SEATS_SCOPE : SEAT_SCOPE_PREFIX + flightNumber.trim();
+    }
+
+    /**
+     * 获取总数，未命中或已过期时调用 loader 统计
+     */
+    public long get(String scope, String filter, LongSupplier loader) {
+        String key = versionedKey(scope) + "|" + filter;
+        long now = System.nanoTime();
+        synchronized (this) {
+            CachedCount cached = entries.get(key);
+            if (cached != null && now - cached.loadedNanos < ttlNanos) {
+                hits.increment();
+                return cached.total;
+            }
+        }
+
+        misses.increment();
+        long total = loader.getAsLong();
+        synchronized (this) {
+            entries.put(key, new CachedCount(total, now));
+        }
+        return total;
+    }
+
+    /**
+     * 使一个范围内的缓存失效
+     */
+    public void invalidate(String scope) {
+        versionOf(scope).incrementAndGet();
+    }
+
+    @EventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        invalidate(FLIGHT_SCOPE);
+    }
+
+    /**
+     * 座位变更在事务提交后再失效，避免提交前重新统计到旧数据；不在事务中发布的事件立即处理
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatInventoryChanged(SeatInventoryChangedEvent event) {
+        if (event.isAllFlights()) {
+            seatEpoch.incrementAndGet();
+            return;
+        }
+        for (String flightNumber : event.getFlightNumbers()) {
+            invalidate(seatScope(flightNumber));
+        }
+        invalidate(ALL_SEATS_SCOPE);
+    }
+
+    /**
+     * 缓存命中率等统计信息
+     */
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (this) {
+            metrics.put("size", entries.size());
+        }
+        metrics.put("maxSize", maxSize);
+        metrics.put("hitCount", hitCount);
+        metrics.put("missCount", missCount);
+        metrics.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        return metrics;
+    }
+
+    private String versionedKey(String scope) {
+        String key = scope + ":" + versionOf(scope).get();
+        return scope.startsWith(SEAT_SCOPE_PREFIX) ? key + ":" + seatEpoch.get() : key;
+    }
+
+    private AtomicLong versionOf(String scope) {
+        return versions.computeIfAbsent(scope, key -> new AtomicLong());
+    }
+
+    private static final class CachedCount {
+        private final long total;
+        private final long loadedNanos;
+
+        private CachedCount(long total, long loadedNanos) {
+            this.total = total;
+            this.loadedNanos = loadedNanos;
+        }
+    }
+}
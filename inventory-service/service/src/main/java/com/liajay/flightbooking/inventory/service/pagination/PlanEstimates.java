@@ -0,0 +1,44 @@
+package com.liajay.flightbooking.inventory.service.pagination;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 从 EXPLAIN 结果估算行数
+ *
+ * MySQL 执行计划中的 rows 来自索引统计信息，filtered 是剩余条件的过滤比例，
+ * 二者相乘即优化器对结果行数的估计，误差取决于统计信息的新鲜程度。
+ *
+ * @author liajay
+ */
+public final class PlanEstimates {
+
+    private PlanEstimates() {
+    }
+
+    /**
+     * 估算单表查询的结果行数
+     */
+    public static long estimateRows(List<Map<String, Object>> plan) {
+        long estimate = 0L;
+        for (Map<String, Object> row : plan) {
+            Number rows = numberOf(row, "rows");
+            if (rows == null) {
+                continue;
+            }
+            Number filtered = numberOf(row, "filtered");
+            double ratio = filtered != null ? filtered.doubleValue() / 100.0 : 1.0;
+            estimate = Math.max(estimate, Math.round(rows.longValue() * ratio));
+        }
+        return estimate;
+    }
+
+    private static Number numberOf(Map<String, Object> row, String column) {
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if (column.equalsIgnoreCase(entry.getKey()) && entry.getValue() instanceof Number) {
+                return (Number) entry.getValue();
+            }
+        }
+        return null;
+    }
+}
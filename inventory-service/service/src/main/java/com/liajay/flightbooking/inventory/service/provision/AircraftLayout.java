@@ -0,0 +1,127 @@
+package com.liajay.flightbooking.inventory.service.provision;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 机型座位布局：由若干舱段组成，每个舱段是一段连续的排和一组座位字母
+ *
+ * @author liajay
+ */
+public final class AircraftLayout {
+
+    private final String code;
+    private final String name;
+    private final List<Cabin> cabins;
+    private final int seatCount;
+
+    public AircraftLayout(String code, String name, List<Cabin> cabins) {
+        this.code = code;
+        this.name = name;
+        this.cabins = Collections.unmodifiableList(new ArrayList<>(cabins));
+        int count = 0;
+        for (Cabin cabin : cabins) {
+            count += cabin.seatCount();
+        }
+        this.seatCount = count;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Cabin> getCabins() {
+        return cabins;
+    }
+
+    public int getSeatCount() {
+        return seatCount;
+    }
+
+    public Set<SeatClass> getSeatClasses() {
+        Set<SeatClass> seatClasses = EnumSet.noneOf(SeatClass.class);
+        for (Cabin cabin : cabins) {
+            seatClasses.add(cabin.seatClass);
+        }
+        return seatClasses;
+    }
+
+    /**
+     * 按布局生成航班的全部座位（均为可用状态）
+     *
+     * @param basePrice   航班基础价格，舱位票价 = 基础价格 × 票价系数
+     * @param classPrices 指定舱位票价，优先于票价系数，可以为null
+     */
+    public List<Seat> generateSeats(String flightNumber, BigDecimal basePrice, Map<SeatClass, BigDecimal> classPrices) {
+        List<Seat> seats = new ArrayList<>(seatCount);
+        for (Cabin cabin : cabins) {
+            BigDecimal price = classPrices != null ? classPrices.get(cabin.seatClass) : null;
+            if (price == null) {
+                price = basePrice.multiply(cabin.priceFactor).setScale(2, RoundingMode.HALF_UP);
+            }
+            for (int row = cabin.firstRow; row <= cabin.lastRow; row++) {
+                for (int i = 0; i < cabin.letters.length(); i++) {
+                    seats.add(new Seat(flightNumber, String.valueOf(row) + cabin.letters.charAt(i),
+                            cabin.seatClass, price));
+                }
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * 舱段：firstRow ~ lastRow 排（含），每排的座位字母为 letters
+     */
+    public static final class Cabin {
+        private final SeatClass seatClass;
+        private final int firstRow;
+        private final int lastRow;
+        private final String letters;
+        private final BigDecimal priceFactor;
+
+        public Cabin(SeatClass seatClass, int firstRow, int lastRow, String letters, BigDecimal priceFactor) {
+            this.seatClass = seatClass;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+            this.letters = letters;
+            this.priceFactor = priceFactor;
+        }
+
+        public SeatClass getSeatClass() {
+            return seatClass;
+        }
+
+        public int getFirstRow() {
+            return firstRow;
+        }
+
+        public int getLastRow() {
+            return lastRow;
+        }
+
+        public String getLetters() {
+            return letters;
+        }
+
+        public BigDecimal getPriceFactor() {
+            return priceFactor;
+        }
+
+        int seatCount() {
+            return (lastRow - firstRow + 1) * letters.length();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.liajay.flightbooking.inventory.service.provision;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 机型座位布局模板
+ *
+ * 模板文件每行一个机型：机型代码|机型名称|舱段;舱段;...，舱段格式为 舱位:起始排-结束排:座位字母:票价系数，# 开头为注释。
+ *
+ * @author liajay
+ */
+public final class AircraftLayouts {
+
+    private final Map<String, AircraftLayout> layouts;
+
+    private AircraftLayouts(Map<String, AircraftLayout> layouts) {
+        this.layouts = layouts;
+    }
+
+    public static AircraftLayouts load(String resource) {
+        Map<String, AircraftLayout> layouts = new LinkedHashMap<>();
+        InputStream in = AircraftLayouts.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("找不到机型布局模板: " + resource);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                AircraftLayout layout = parse(line);
+                if (layouts.put(layout.getCode(), layout) != null) {
+                    throw new IllegalStateException("机型布局模板重复: " + resource + ": " + layout.getCode());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取机型布局模板失败: " + resource, e);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("机型布局模板格式错误: " + resource + ": " + e.getMessage(), e);
+        }
+        return new AircraftLayouts(layouts);
+    }
+
+    /**
+     * 按机型代码查询布局，不存在时返回null
+     */
+    public AircraftLayout get(String code) {
+        return code != null ? layouts.get(code.trim().toUpperCase()) : null;
+    }
+
+    public Collection<AircraftLayout> all() {
+        return Collections.unmodifiableCollection(layouts.values());
+    }
+
+    static AircraftLayout parse(String line) {
+        String[] fields = line.split("\\|", -1);
+        if (fields.length != 3) {
+            throw new IllegalArgumentException(line);
+        }
+        List<AircraftLayout.Cabin> cabins = new ArrayList<>();
+        Set<String> seatNumbers = new HashSet<>();
+        for (String segment : fields[2].split(";")) {
+            String[] parts = segment.trim().split(":");
+            String[] rows = parts.length == 4 ? parts[1].split("-") : new String[0];
+            if (rows.length != 2 || parts[2].isEmpty()) {
+                throw new IllegalArgumentException(line);
+            }
+            AircraftLayout.Cabin cabin = new AircraftLayout.Cabin(SeatClass.valueOf(parts[0].trim()),
+                    Integer.parseInt(rows[0].trim()), Integer.parseInt(rows[1].trim()),
+                    parts[2].trim().toUpperCase(), new BigDecimal(parts[3].trim()));
+            if (cabin.getFirstRow() <= 0 || cabin.getLastRow() < cabin.getFirstRow()
+                    || cabin.getPriceFactor().signum() <= 0) {
+                throw new IllegalArgumentException(line);
+            }
+            // 座位号不能在舱段之间重复，否则插入时违反 (flight_number, seat_number) 唯一约束
+            for (int row = cabin.getFirstRow(); row <= cabin.getLastRow(); row++) {
+                for (int i = 0; i < cabin.getLetters().length(); i++) {
+                    if (!seatNumbers.add(String.valueOf(row) + cabin.getLetters().charAt(i))) {
+                        throw new IllegalArgumentException("座位号重复 " + row + cabin.getLetters().charAt(i) + ": " + line);
+                    }
+                }
+            }
+            cabins.add(cabin);
+        }
+        return new AircraftLayout(fields[0].trim().toUpperCase(), fields[1].trim(), cabins);
+    }
+}
@@ -0,0 +1,203 @@
+package com.liajay.flightbooking.inventory.service.provision;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.cache.FlightChangedEvent;
+import com.liajay.flightbooking.inventory.service.dto.FlightCreateDTO;
+import com.liajay.flightbooking.inventory.service.dto.result.FlightCreateResultDTO;
+import com.liajay.flightbooking.inventory.service.inventory.FlightInventoryCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按机型布局批量创建航班和座位
+ *
+ * 座位在内存中按布局生成，航班和座位都用多行 INSERT 写入，每条语句最多 seatsPerStatement 行；
+ * 每 flightsPerTransaction 个航班一个事务，事务内同时生成这些航班的库存汇总。
+ * 单个事务失败只回滚当前这批航班，之前已提交的批次保留，异常信息中给出已提交的航班数。
+ *
+ * @author liajay
+ */
+public class FlightProvisioner {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightProvisioner.class);
+
+    /**
+     * 检查航班号是否已存在时每次查询的航班数
+     */
+    private static final int EXISTENCE_CHECK_BATCH = 1000;
+
+    private final FlightMapper flightMapper;
+    private final SeatMapper seatMapper;
+    private final FlightInventoryCounter flightInventoryCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AircraftLayouts layouts;
+    private final int flightsPerTransaction;
+    private final int seatsPerStatement;
+    private final int maxFlightsPerRequest;
+
+    public FlightProvisioner(FlightMapper flightMapper, SeatMapper seatMapper,
+                             FlightInventoryCounter flightInventoryCounter, TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher, AircraftLayouts layouts,
+                             int flightsPerTransaction, int seatsPerStatement, int maxFlightsPerRequest) {
+        this.flightMapper = flightMapper;
+        this.seatMapper = seatMapper;
+        this.flightInventoryCounter = flightInventoryCounter;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.layouts = layouts;
+        this.flightsPerTransaction = Math.max(1, flightsPerTransaction);
+        this.seatsPerStatement = Math.max(1, seatsPerStatement);
+        this.maxFlightsPerRequest = maxFlightsPerRequest;
+    }
+
+    public AircraftLayouts getLayouts() {
+        return layouts;
+    }
+
+    /**
+     * 批量创建航班，所有参数校验通过、航班号都不存在时才开始写入
+     */
+    public FlightCreateResultDTO createFlights(List<FlightCreateDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("航班列表不能为空");
+        }
+        if (requests.size() > maxFlightsPerRequest) {
+            throw new IllegalArgumentException("单次最多创建" + maxFlightsPerRequest + "个航班");
+        }
+        long startNanos = System.nanoTime();
+        List<AircraftLayout> flightLayouts = new ArrayList<>(requests.size());
+        Set<String> flightNumbers = new HashSet<>();
+        for (FlightCreateDTO request : requests) {
+            flightLayouts.add(validate(request));
+            if (!flightNumbers.add(request.getFlightNumber())) {
+                throw new IllegalArgumentException("航班号重复: " + request.getFlightNumber());
+            }
+        }
+        checkNotExists(requests);
+
+        int created = 0;
+        long seatCount = 0;
+        for (int from = 0; from < requests.size(); from += flightsPerTransaction) {
+            int to = Math.min(from + flightsPerTransaction, requests.size());
+            List<FlightCreateDTO> batch = requests.subList(from, to);
+            List<AircraftLayout> batchLayouts = flightLayouts.subList(from, to);
+            try {
+                Long inserted = transactionTemplate.execute(status -> insertBatch(batch, batchLayouts));
+                seatCount += inserted != null ? inserted : 0L;
+            } catch (RuntimeException e) {
+                logger.error("批量创建航班失败: 已提交航班数={}, 失败批次={}~{}", created, from, to - 1, e);
+                throw new IllegalStateException("批量创建航班失败，已提交" + created + "个航班: " + e.getMessage(), e);
+            }
+            created += batch.size();
+            // 事务提交后再通知航线索引等缓存，避免读到未提交的航班；每批只发布一次
+            List<String> batchFlightNumbers = new ArrayList<>(batch.size());
+            for (FlightCreateDTO request : batch) {
+                batchFlightNumbers.add(request.getFlightNumber());
+            }
+            eventPublisher.publishEvent(new FlightChangedEvent(batchFlightNumbers));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        logger.info("批量创建航班完成: 航班数={}, 座位数={}, 耗时={}ms", created, seatCount, elapsedMillis);
+        return new FlightCreateResultDTO(created, seatCount, elapsedMillis);
+    }
+
+    private long insertBatch(List<FlightCreateDTO> batch, List<AircraftLayout> batchLayouts) {
+        List<Flight> flights = new ArrayList<>(batch.size());
+        List<String> flightNumbers = new ArrayList<>(batch.size());
+        for (FlightCreateDTO request : batch) {
+            flights.add(new Flight(request.getFlightNumber(), request.getAirline(), request.getDepartureCity(),
+                    request.getArrivalCity(), request.getDepartureTime(), request.getArrivalTime(),
+                    request.getBasePrice()));
+            flightNumbers.add(request.getFlightNumber());
+        }
+        flightMapper.insertBatch(flights);
+
+        long seatCount = 0;
+        List<Seat> pending = new ArrayList<>(seatsPerStatement);
+        for (int i = 0; i < batch.size(); i++) {
+            FlightCreateDTO request = batch.get(i);
+            for (Seat seat : batchLayouts.get(i).generateSeats(request.getFlightNumber(), request.getBasePrice(),
+                    request.getClassPrices())) {
+                pending.add(seat);
+                if (pending.size() == seatsPerStatement) {
+                    seatCount += seatMapper.insertBatch(pending);
+                    pending.clear();
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            seatCount += seatMapper.insertBatch(pending);
+        }
+        flightInventoryCounter.rebuild(flightNumbers);
+        return seatCount;
+    }
+
+    private AircraftLayout validate(FlightCreateDTO request) {
+        if (request == null || isBlank(request.getFlightNumber())) {
+            throw new IllegalArgumentException("航班号不能为空");
+        }
+        String flightNumber = request.getFlightNumber();
+        if (isBlank(request.getAirline()) || isBlank(request.getDepartureCity()) || isBlank(request.getArrivalCity())) {
+            throw new IllegalArgumentException("航空公司和出发、到达城市不能为空: " + flightNumber);
+        }
+        if (request.getDepartureCity().equals(request.getArrivalCity())) {
+            throw new IllegalArgumentException("出发城市和到达城市不能相同: " + flightNumber);
+        }
+        if (request.getDepartureTime() == null || request.getArrivalTime() == null
+                || !request.getArrivalTime().isAfter(request.getDepartureTime())) {
+            throw new IllegalArgumentException("到达时间必须晚于出发时间: " + flightNumber);
+        }
+        if (request.getBasePrice() == null || request.getBasePrice().signum() <= 0) {
+            throw new IllegalArgumentException("基础价格必须大于0: " + flightNumber);
+        }
+        AircraftLayout layout = layouts.get(request.getAircraftType());
+        if (layout == null) {
+            throw new IllegalArgumentException("未知机型: " + request.getAircraftType());
+        }
+        if (request.getClassPrices() != null) {
+            for (Map.Entry<SeatClass, BigDecimal> entry : request.getClassPrices().entrySet()) {
+                if (!layout.getSeatClasses().contains(entry.getKey())) {
+                    throw new IllegalArgumentException("机型" + layout.getCode() + "没有舱位" + entry.getKey() + ": " + flightNumber);
+                }
+                if (entry.getValue() == null || entry.getValue().signum() <= 0) {
+                    throw new IllegalArgumentException("舱位票价必须大于0: " + flightNumber);
+                }
+            }
+        }
+        return layout;
+    }
+
+    private void checkNotExists(List<FlightCreateDTO> requests) {
+        List<String> existing = new ArrayList<>();
+        for (int from = 0; from < requests.size(); from += EXISTENCE_CHECK_BATCH) {
+            List<String> flightNumbers = new ArrayList<>();
+            for (FlightCreateDTO request : requests.subList(from, Math.min(from + EXISTENCE_CHECK_BATCH, requests.size()))) {
+                flightNumbers.add(request.getFlightNumber());
+            }
+            existing.addAll(flightMapper.findExistingFlightNumbers(flightNumbers));
+        }
+        if (!existing.isEmpty()) {
+            throw new IllegalArgumentException("航班号已存在: "
+                    + (existing.size() > 10 ? existing.subList(0, 10) + " 等" + existing.size() + "个" : existing));
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,147 @@
+package com.liajay.flightbooking.inventory.service.search;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 自动补全词典：名称对应的拼音、IATA代码和别名
+ *
+ * 词典文件每行一条：名称|拼音（音节以空格分隔）|代码（逗号分隔）|别名（可选，逗号分隔），# 开头为注释。
+ *
+ * @author liajay
+ */
+final class AutocompleteDictionary {
+
+    private final Map<String, Entry> entries;
+
+    private AutocompleteDictionary(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    static AutocompleteDictionary load(String resource) {
+        Map<String, Entry> entries = new HashMap<>();
+        InputStream in = AutocompleteDictionary.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("找不到自动补全词典: " + resource);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\|", -1);
+                if (fields.length < 3) {
+                    throw new IllegalStateException("自动补全词典格式错误: " + resource + ": " + line);
+                }
+                List<String> codes = new ArrayList<>();
+                for (String code : fields[2].split(",")) {
+                    if (!code.trim().isEmpty()) {
+                        codes.add(code.trim().toUpperCase());
+                    }
+                }
+                List<String> aliases = new ArrayList<>();
+                if (fields.length > 3) {
+                    for (String alias : fields[3].split(",")) {
+                        if (!alias.trim().isEmpty()) {
+                            aliases.add(alias.trim());
+                        }
+                    }
+                }
+                Entry entry = new Entry(fields[0].trim(), fields[1].trim(), codes, aliases);
+                entries.put(entry.name, entry);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取自动补全词典失败: " + resource, e);
+        }
+        return new AutocompleteDictionary(entries);
+    }
+
+    Entry get(String name) {
+        return entries.get(name);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * 统一成查找用的形式：小写，去掉空白和撇号
+     */
+    static String normalize(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c) && c != '\'') {
+                builder.append(Character.toLowerCase(c));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 音节以空格分隔的拼音取首字母，如 "bei jing" -> "bj"
+     */
+    static String initialsOf(String syllables) {
+        StringBuilder builder = new StringBuilder();
+        for (String syllable : syllables.trim().split("\\s+")) {
+            if (!syllable.isEmpty()) {
+                builder.append(Character.toLowerCase(syllable.charAt(0)));
+            }
+        }
+        return builder.toString();
+    }
+
+    static final class Entry {
+        private final String name;
+        private final String syllables;
+        private final List<String> codes;
+        private final List<String> aliases;
+
+        Entry(String name, String syllables, List<String> codes, List<String> aliases) {
+            this.name = name;
+            this.syllables = syllables;
+            this.codes = Collections.unmodifiableList(codes);
+            this.aliases = aliases;
+        }
+
+        String pinyin() {
+            return normalize(syllables);
+        }
+
+        List<String> codes() {
+            return codes;
+        }
+
+        /**
+         * 名称之外的查找键：全拼、拼音首字母、IATA代码和别名
+         */
+        Set<String> keys() {
+            Set<String> keys = new LinkedHashSet<>();
+            keys.add(pinyin());
+            keys.add(initialsOf(syllables));
+            for (String code : codes) {
+                keys.add(normalize(code));
+            }
+            for (String alias : aliases) {
+                keys.add(normalize(alias));
+                if (alias.contains(" ")) {
+                    keys.add(initialsOf(alias));
+                }
+            }
+            return keys;
+        }
+    }
+}
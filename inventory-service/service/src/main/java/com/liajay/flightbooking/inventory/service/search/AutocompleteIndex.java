@@ -0,0 +1,216 @@
+package com.liajay.flightbooking.inventory.service.search;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.NameCount;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.cache.FlightChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 城市和航空公司的自动补全索引
+ *
+ * 候选项来自 flights 表中出现过的城市和航空公司，按相关航班数排序；词典（autocomplete/*.txt）
+ * 补充全拼、拼音首字母、IATA代码和别名作为查找键，词典中没有的名称只能按名称前缀匹配。
+ * 查询只读内存中的前缀树，不访问数据库。
+ *
+ * 启动完成后加载，之后按 refreshIntervalSeconds 定期重建；收到 FlightChangedEvent 后
+ * 延迟 rebuildDelayMs 重建一次，短时间内的多次变更合并成一次重建。
+ *
+ * @author liajay
+ */
+public class AutocompleteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteIndex.class);
+
+    private static final String CITY_DICTIONARY = "autocomplete/cities.txt";
+    private static final String AIRLINE_DICTIONARY = "autocomplete/airlines.txt";
+
+    private final FlightMapper flightMapper;
+    private final boolean enabled;
+    private final long refreshIntervalSeconds;
+    private final long rebuildDelayMs;
+    private final int maxSuggestions;
+    private final AutocompleteDictionary cityDictionary;
+    private final AutocompleteDictionary airlineDictionary;
+    private final ScheduledExecutorService refresher;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile AutocompleteTrie cities;
+    private volatile AutocompleteTrie airlines;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private volatile long lastRebuildMillis;
+
+    public AutocompleteIndex(FlightMapper flightMapper, boolean enabled, long refreshIntervalSeconds,
+                             long rebuildDelayMs, int maxSuggestions) {
+        this.flightMapper = flightMapper;
+        this.enabled = enabled;
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+        this.rebuildDelayMs = rebuildDelayMs;
+        this.maxSuggestions = maxSuggestions;
+        this.cityDictionary = AutocompleteDictionary.load(CITY_DICTIONARY);
+        this.airlineDictionary = AutocompleteDictionary.load(AIRLINE_DICTIONARY);
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autocomplete-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 应用启动完成后开始加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("自动补全索引未启用");
+            return;
+        }
+        long interval = refreshIntervalSeconds > 0 ? refreshIntervalSeconds : Long.MAX_VALUE / 2;
+        refresher.scheduleWithFixedDelay(this::rebuildQuietly, 0L, interval, TimeUnit.SECONDS);
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    @EventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        if (enabled && rebuildScheduled.compareAndSet(false, true)) {
+            refresher.schedule(() -> {
+                rebuildScheduled.set(false);
+                rebuildQuietly();
+            }, rebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 从 flights 表重建索引
+     */
+    public void rebuild() {
+        long startNanos = System.nanoTime();
+        AutocompleteTrie rebuiltCities = build(Suggestion.CITY, flightMapper.countByCity(), cityDictionary);
+        AutocompleteTrie rebuiltAirlines = build(Suggestion.AIRLINE, flightMapper.countByAirline(), airlineDictionary);
+        cities = rebuiltCities;
+        airlines = rebuiltAirlines;
+        rebuilds.increment();
+        lastRebuildMillis = System.currentTimeMillis();
+        logger.info("自动补全索引重建完成: 城市节点数={}, 航空公司节点数={}, 耗时={}us", rebuiltCities.nodeCount(),
+                rebuiltAirlines.nodeCount(), TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    public boolean isReady() {
+        return cities != null;
+    }
+
+    /**
+     * 按前缀查询候选项
+     *
+     * @param keyword 输入的前缀：中文名称、全拼、拼音首字母或IATA代码，不区分大小写
+     * @param type    CITY、AIRLINE，为null时两类一起返回
+     * @param limit   最多返回的条数，限定在 [1, maxSuggestions]
+     * @return 按相关航班数排序的候选项，索引未加载时返回空列表
+     */
+    public List<Suggestion> suggest(String keyword, String type, int limit) {
+        AutocompleteTrie cityTrie = cities;
+        AutocompleteTrie airlineTrie = airlines;
+        if (cityTrie == null || keyword == null) {
+            return Collections.emptyList();
+        }
+        lookups.increment();
+        String prefix = AutocompleteDictionary.normalize(keyword);
+        if (prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 非正数按1处理，否则 merge 等处按 limit 预分配容量会抛异常
+        int size = Math.max(1, Math.min(limit, maxSuggestions));
+        if (Suggestion.CITY.equalsIgnoreCase(type)) {
+            return cityTrie.lookup(prefix, size);
+        }
+        if (Suggestion.AIRLINE.equalsIgnoreCase(type)) {
+            return airlineTrie.lookup(prefix, size);
+        }
+        return merge(cityTrie.lookup(prefix, size), airlineTrie.lookup(prefix, size), size);
+    }
+
+    /**
+     * 索引统计信息
+     */
+    public Map<String, Object> getMetrics() {
+        AutocompleteTrie cityTrie = cities;
+        AutocompleteTrie airlineTrie = airlines;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("ready", cityTrie != null);
+        metrics.put("cityNodes", cityTrie != null ? cityTrie.nodeCount() : 0);
+        metrics.put("airlineNodes", airlineTrie != null ? airlineTrie.nodeCount() : 0);
+        metrics.put("cityDictionarySize", cityDictionary.size());
+        metrics.put("airlineDictionarySize", airlineDictionary.size());
+        metrics.put("lookupCount", lookups.sum());
+        metrics.put("rebuildCount", rebuilds.sum());
+        metrics.put("lastRebuildTime", lastRebuildMillis);
+        return metrics;
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("自动补全索引重建失败，继续使用旧索引", e);
+        }
+    }
+
+    private AutocompleteTrie build(String type, List<NameCount> counts, AutocompleteDictionary dictionary) {
+        Map<Suggestion, Collection<String>> keys = new LinkedHashMap<>();
+        for (NameCount count : counts) {
+            if (count.getName() == null || count.getName().trim().isEmpty()) {
+                continue;
+            }
+            String name = count.getName().trim();
+            AutocompleteDictionary.Entry entry = dictionary.get(name);
+            Set<String> nameKeys = new LinkedHashSet<>();
+            nameKeys.add(AutocompleteDictionary.normalize(name));
+            Suggestion suggestion;
+            if (entry != null) {
+                nameKeys.addAll(entry.keys());
+                suggestion = new Suggestion(type, name, entry.pinyin(), entry.codes(), count.getFlightCount());
+            } else {
+                suggestion = new Suggestion(type, name, null, Collections.emptyList(), count.getFlightCount());
+            }
+            keys.put(suggestion, nameKeys);
+        }
+        return AutocompleteTrie.build(keys, maxSuggestions);
+    }
+
+    private static List<Suggestion> merge(List<Suggestion> first, List<Suggestion> second, int limit) {
+        List<Suggestion> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j >= second.size()
+                    || (i < first.size() && AutocompleteTrie.RANKING.compare(first.get(i), second.get(j)) <= 0)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,114 @@
+package com.liajay.flightbooking.inventory.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 前缀树，构建后不可修改
+ *
+ * 每个节点按字符有序保存子节点，并预先算好该前缀下排名最高的若干候选项，
+ * 查询只需沿输入逐字符二分查找子节点，再截取预排好的候选数组，耗时与词典规模无关。
+ *
+ * @author liajay
+ */
+final class AutocompleteTrie {
+
+    /**
+     * 航班数多的排在前面，相同时按名称排序
+     */
+    static final Comparator<Suggestion> RANKING = Comparator
+            .comparingLong(Suggestion::getFlightCount).reversed()
+            .thenComparing(Suggestion::getName);
+
+    private final Node root;
+    private final int nodeCount;
+
+    private AutocompleteTrie(Node root, int nodeCount) {
+        this.root = root;
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * @param keysBySuggestion 候选项 -> 查找键（已规范化）
+     * @param maxSuggestions   每个节点保留的候选项数
+     */
+    static AutocompleteTrie build(Map<Suggestion, Collection<String>> keysBySuggestion, int maxSuggestions) {
+        Builder root = new Builder();
+        keysBySuggestion.forEach((suggestion, keys) -> {
+            for (String key : keys) {
+                Builder node = root;
+                node.suggestions.add(suggestion);
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new Builder());
+                    node.suggestions.add(suggestion);
+                }
+            }
+        });
+        int[] counter = new int[1];
+        return new AutocompleteTrie(root.freeze(maxSuggestions, counter), counter[0]);
+    }
+
+    /**
+     * 以 prefix 开头的候选项，按排名返回前 limit 个
+     */
+    List<Suggestion> lookup(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length)));
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    private static final class Node {
+        private final char[] labels;
+        private final Node[] children;
+        private final Suggestion[] top;
+
+        Node(char[] labels, Node[] children, Suggestion[] top) {
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    private static final class Builder {
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+        private final Set<Suggestion> suggestions = new LinkedHashSet<>();
+
+        Node freeze(int maxSuggestions, int[] counter) {
+            counter[0]++;
+            char[] labels = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+                labels[i] = entry.getKey();
+                nodes[i] = entry.getValue().freeze(maxSuggestions, counter);
+                i++;
+            }
+            List<Suggestion> ranked = new ArrayList<>(suggestions);
+            ranked.sort(RANKING);
+            Suggestion[] top = ranked.subList(0, Math.min(maxSuggestions, ranked.size())).toArray(new Suggestion[0]);
+            return new Node(labels, nodes, top);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.liajay.flightbooking.inventory.service.search;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightStatus;
+import com.liajay.flightbooking.inventory.service.dto.ConnectionQueryDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * 中转航班搜索
+ *
+ * 在 FlightRouteIndex 的内存时刻表上做带时间约束的深度优先搜索：从出发城市的每个航班开始，
+ * 在到达时间 + [最短停留, 最长停留] 的窗口内二分查找下一段航班，最多中转 MAX_STOPS 次。
+ * 最后一跳只考虑有航班直飞目的地的城市；结果用大小为 limit 的堆保存，当前路径的耗时或票价
+ * 已不优于堆中最差的行程时剪枝。整个搜索不访问数据库。
+ *
+ * @author liajay
+ */
+@Component
+public class ConnectionSearchEngine {
+
+    /**
+     * 最多中转次数
+     */
+    public static final int MAX_STOPS = 2;
+
+    /**
+     * 单次最多返回的行程数，堆按 limit 预分配，不能由请求任意指定
+     */
+    public static final int MAX_RESULTS = 100;
+
+    private static final Comparator<Itinerary> BY_DURATION = Comparator
+            .comparingLong(Itinerary::getDurationMinutes)
+            .thenComparing(Itinerary::getTotalPrice)
+            .thenComparing(Itinerary::getDepartureTime)
+            .thenComparing(ConnectionSearchEngine::flightNumbersOf);
+
+    private static final Comparator<Itinerary> BY_PRICE = Comparator
+            .comparing(Itinerary::getTotalPrice)
+            .thenComparingLong(Itinerary::getDurationMinutes)
+            .thenComparing(Itinerary::getDepartureTime)
+            .thenComparing(ConnectionSearchEngine::flightNumbersOf);
+
+    private final FlightRouteIndex flightRouteIndex;
+
+    public ConnectionSearchEngine(FlightRouteIndex flightRouteIndex) {
+        this.flightRouteIndex = flightRouteIndex;
+    }
+
+    /**
+     * 查询直飞和中转行程，按总耗时或总价升序返回
+     */
+    public List<Itinerary> search(ConnectionQueryDTO queryDTO) {
+        Search search = new Search(queryDTO);
+        if (!flightRouteIndex.isReady()) {
+            throw new IllegalStateException("航线索引尚未加载，暂时无法查询中转航班");
+        }
+
+        for (String next : flightRouteIndex.destinationsFrom(search.origin)) {
+            boolean arrives = next.equals(search.destination);
+            if (!arrives && search.maxStops == 0) {
+                continue;
+            }
+            for (Flight leg : flightRouteIndex.find(search.origin, next, queryDTO.getStartTime(),
+                    queryDTO.getEndTime(), search.status, null, null, null, null, null, 0, Integer.MAX_VALUE)) {
+                List<Flight> path = new ArrayList<>(MAX_STOPS + 1);
+                path.add(leg);
+                if (arrives) {
+                    search.offer(path);
+                } else {
+                    extend(search, path);
+                }
+            }
+        }
+        return search.results();
+    }
+
+    /**
+     * 从当前路径的最后一段出发继续查找下一段航班
+     */
+    private void extend(Search search, List<Flight> path) {
+        if (!search.canImprove(path)) {
+            return;
+        }
+        Flight last = path.get(path.size() - 1);
+        String at = last.getArrivalCity();
+        LocalDateTime earliest = last.getArrivalTime().plusMinutes(search.minLayover);
+        LocalDateTime latest = last.getArrivalTime().plusMinutes(search.maxLayover);
+        // path.size() 即已经中转的次数，达到上限后只能直飞目的地
+        boolean lastHop = path.size() >= search.maxStops;
+        Collection<String> candidates = lastHop
+                ? (flightRouteIndex.destinationsFrom(at).contains(search.destination)
+                    ? Collections.singleton(search.destination) : Collections.emptySet())
+                : flightRouteIndex.destinationsFrom(at);
+        Set<String> lastHopCities = flightRouteIndex.originsTo(search.destination);
+
+        for (String next : candidates) {
+            boolean arrives = next.equals(search.destination);
+            if (!arrives && (visited(path, next) || !canStillReach(search, path, next, lastHopCities))) {
+                continue;
+            }
+            for (Flight leg : flightRouteIndex.find(at, next, earliest, latest, search.status,
+                    null, null, null, null, null, 0, Integer.MAX_VALUE)) {
+                path.add(leg);
+                if (arrives) {
+                    search.offer(new ArrayList<>(path));
+                } else {
+                    extend(search, path);
+                }
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * 再加一段后只剩最后一跳时，下一站必须有航班直飞目的地
+     */
+    private static boolean canStillReach(Search search, List<Flight> path, String next, Set<String> lastHopCities) {
+        return path.size() + 1 < search.maxStops || lastHopCities.contains(next);
+    }
+
+    /**
+     * 行程不经过同一个城市两次
+     */
+    private static boolean visited(List<Flight> path, String city) {
+        if (path.get(0).getDepartureCity().equals(city)) {
+            return true;
+        }
+        for (Flight leg : path) {
+            if (leg.getArrivalCity().equals(city)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String flightNumbersOf(Itinerary itinerary) {
+        StringBuilder builder = new StringBuilder();
+        for (Flight leg : itinerary.getLegs()) {
+            builder.append(leg.getFlightNumber()).append('/');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 单次搜索的参数与结果堆
+     */
+    private static final class Search {
+        private final String origin;
+        private final String destination;
+        private final FlightStatus status;
+        private final int maxStops;
+        private final long minLayover;
+        private final long maxLayover;
+        private final int limit;
+        private final boolean byPrice;
+        private final Comparator<Itinerary> order;
+
+        /**
+         * 堆顶是当前保留的最差行程
+         */
+        private final PriorityQueue<Itinerary> best;
+
+        Search(ConnectionQueryDTO queryDTO) {
+            if (isBlank(queryDTO.getDepartureCity()) || isBlank(queryDTO.getArrivalCity())) {
+                throw new IllegalArgumentException("出发城市和到达城市不能为空");
+            }
+            if (queryDTO.getStartTime() == null || queryDTO.getEndTime() == null) {
+                throw new IllegalArgumentException("请指定出发日期或起飞时间范围");
+            }
+            if (queryDTO.getStartTime().isAfter(queryDTO.getEndTime())) {
+                throw new IllegalArgumentException("开始时间不能晚于结束时间");
+            }
+            this.origin = queryDTO.getDepartureCity().trim();
+            this.destination = queryDTO.getArrivalCity().trim();
+            if (origin.equals(destination)) {
+                throw new IllegalArgumentException("出发城市和到达城市不能相同");
+            }
+            this.status = isBlank(queryDTO.getStatus()) ? null : FlightStatus.valueOf(queryDTO.getStatus().trim().toUpperCase());
+            this.maxStops = Math.max(0, Math.min(MAX_STOPS, valueOr(queryDTO.getMaxStops(), MAX_STOPS)));
+            this.minLayover = Math.max(0, valueOr(queryDTO.getMinLayoverMinutes(), 60));
+            this.maxLayover = valueOr(queryDTO.getMaxLayoverMinutes(), 360);
+            if (minLayover > maxLayover) {
+                throw new IllegalArgumentException("最短中转时间不能大于最长中转时间");
+            }
+            this.limit = Math.max(1, Math.min(MAX_RESULTS, valueOr(queryDTO.getLimit(), 20)));
+            this.byPrice = "price".equalsIgnoreCase(queryDTO.getSortBy());
+            this.order = byPrice ? BY_PRICE : BY_DURATION;
+            this.best = new PriorityQueue<>(limit + 1, order.reversed());
+        }
+
+        /**
+         * 当前路径再加航班只会更慢、更贵，已经劣于堆中最差的行程时不再展开
+         */
+        boolean canImprove(List<Flight> path) {
+            if (best.size() < limit) {
+                return true;
+            }
+            Itinerary worst = best.peek();
+            if (byPrice) {
+                return Itinerary.priceOf(path).compareTo(worst.getTotalPrice()) <= 0;
+            }
+            LocalDateTime arrival = path.get(path.size() - 1).getArrivalTime();
+            return Duration.between(path.get(0).getDepartureTime(), arrival).toMinutes() <= worst.getDurationMinutes();
+        }
+
+        void offer(List<Flight> legs) {
+            Itinerary itinerary = new Itinerary(legs);
+            if (best.size() < limit) {
+                best.add(itinerary);
+            } else if (order.compare(itinerary, best.peek()) < 0) {
+                best.poll();
+                best.add(itinerary);
+            }
+        }
+
+        List<Itinerary> results() {
+            List<Itinerary> results = new ArrayList<>(best);
+            results.sort(order);
+            return results;
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.trim().isEmpty();
+        }
+
+        private static int valueOr(Integer value, int defaultValue) {
+            return value != null ? value : defaultValue;
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package com.liajay.flightbooking.inventory.service.search;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.dal.dataobject.FlightStatus;
+import com.liajay.flightbooking.inventory.dal.mapper.FlightMapper;
+import com.liajay.flightbooking.inventory.service.cache.FlightChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * 航线 + 起飞时间的内存索引
+ *
+ * 城市名编码成整数，(出发城市, 到达城市) 拼成 long 作为航线键，每条航线保存按 (起飞时间, id)
+ * 排序的两个基本类型数组。按航线和日期查询时二分定位时间窗口，再按下标截取航班ID，不访问数据库。
+ *
+ * 启动完成后在后台全量加载，之后按 refreshIntervalSeconds 定期全量重建，兜底其他实例或绕过本服务的修改；
+ * 本实例的航班变更通过 FlightChangedEvent 增量更新。未启用时不加载，isReady() 始终返回false。航线数组不可变，修改时复制出新数组整体替换，
+ * 查询无需加锁。全量加载完成前 isReady() 返回false，调用方应回退到数据库查询。
+ *
+ * @author liajay
+ */
+public class FlightRouteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRouteIndex.class);
+
+    private final FlightMapper flightMapper;
+    private final boolean enabled;
+    private final long refreshIntervalSeconds;
+    private final ScheduledExecutorService refresher;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 全量重建期间收到的变更，重建完成后重新应用，避免被旧数据覆盖
+     */
+    private Set<String> changedDuringRebuild;
+
+    private final LongAdder searches = new LongAdder();
+    private volatile long lastRebuildMillis;
+
+    public FlightRouteIndex(FlightMapper flightMapper, boolean enabled, long refreshIntervalSeconds) {
+        this.flightMapper = flightMapper;
+        this.enabled = enabled;
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flight-route-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 应用启动完成后开始加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("航线索引未启用，航班搜索使用数据库");
+            return;
+        }
+        long interval = refreshIntervalSeconds > 0 ? refreshIntervalSeconds : Long.MAX_VALUE / 2;
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.warn("航线索引加载失败，航班搜索继续使用数据库", e);
+            }
+        }, 0L, interval, TimeUnit.SECONDS);
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * 从数据库全量重建索引
+     */
+    public void rebuild() {
+        synchronized (this) {
+            changedDuringRebuild = new LinkedHashSet<>();
+        }
+        long startNanos = System.nanoTime();
+        Snapshot rebuilt = Snapshot.build(flightMapper.findAll());
+
+        Set<String> changed;
+        synchronized (this) {
+            snapshot = rebuilt;
+            changed = changedDuringRebuild;
+            changedDuringRebuild = null;
+        }
+        for (String flightNumber : changed) {
+            refresh(flightNumber);
+        }
+        lastRebuildMillis = System.currentTimeMillis();
+        logger.info("航线索引重建完成: 航班数={}, 航线数={}, 耗时={}ms", rebuilt.flightsById.size(),
+                rebuilt.routes.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    @EventListener
+    public void onFlightChanged(FlightChangedEvent event) {
+        synchronized (this) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.addAll(event.getFlightNumbers());
+            }
+        }
+        refresh(event.getFlightNumbers());
+    }
+
+    /**
+     * 重新加载单个航班，航班已删除时从索引中移除
+     */
+    public void refresh(String flightNumber) {
+        refresh(Collections.singletonList(flightNumber));
+    }
+
+    /**
+     * 用一次查询重新加载一批航班，同一航线的时刻表只重建一次
+     */
+    public void refresh(Collection<String> flightNumbers) {
+        if (snapshot == null || flightNumbers.isEmpty()) {
+            return;
+        }
+        List<Flight> flights = flightMapper.findByFlightNumbers(new ArrayList<>(flightNumbers));
+        synchronized (this) {
+            Snapshot current = snapshot;
+            for (String flightNumber : flightNumbers) {
+                Long id = current.idsByFlightNumber.get(flightNumber);
+                if (id != null) {
+                    current.remove(id);
+                }
+            }
+            current.addAll(flights);
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * 查询航线上起飞时间在窗口内的航班，按 (起飞时间, id) 升序
+     *
+     * @param startTime          起飞时间下限（含），为null表示不限
+     * @param endTime            起飞时间上限（含），为null表示不限
+     * @param status             航班状态，为null表示不限
+     * @param airline            航空公司，为null表示不限
+     * @param minPrice           最低票价（含），为null表示不限
+     * @param maxPrice           最高票价（含），为null表示不限
+     * @param afterDepartureTime 游标分页时上一页最后一个航班的起飞时间，为null表示从头开始
+     * @param afterId            游标分页时上一页最后一个航班的ID
+     * @param offset             跳过的条数
+     * @param limit              最多返回的条数
+     * @return 航班列表，索引未加载时返回null
+     */
+    public List<Flight> find(String departureCity, String arrivalCity, LocalDateTime startTime, LocalDateTime endTime,
+                             FlightStatus status, String airline, BigDecimal minPrice, BigDecimal maxPrice,
+                             LocalDateTime afterDepartureTime, Long afterId, int offset, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        searches.increment();
+        RouteSchedule schedule = current.routeOf(departureCity, arrivalCity);
+        if (schedule == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        int from = schedule.lowerBound(startTime != null ? toSeconds(startTime) : Long.MIN_VALUE, Long.MIN_VALUE);
+        if (afterDepartureTime != null) {
+            from = Math.max(from, schedule.lowerBound(toSeconds(afterDepartureTime),
+                    afterId != null ? afterId + 1 : Long.MIN_VALUE));
+        }
+        int to = endTime != null ? schedule.lowerBound(toSeconds(endTime) + 1, Long.MIN_VALUE) : schedule.size();
+
+        List<Flight> flights = new ArrayList<>(Math.min(limit, Math.max(to - from, 0)));
+        int skipped = 0;
+        for (int i = from; i < to && flights.size() < limit; i++) {
+            Flight flight = current.flightsById.get(schedule.flightIds[i]);
+            if (matches(flight, departureCity, arrivalCity, status, airline, minPrice, maxPrice)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    flights.add(flight);
+                }
+            }
+        }
+        return flights;
+    }
+
+    /**
+     * 按指定顺序返回航线上起飞时间在窗口内的前 k 个航班
+     *
+     * 用大小为 k 的堆筛选时间窗口内的航班，不对整个窗口排序，适合“最便宜的N个航班”这类查询。
+     *
+     * @param order 排序方式
+     * @param after 游标分页时只保留排在上一页末尾之后的航班，为null表示不限
+     * @param k     最多返回的条数
+     * @return 按 order 排好序的航班，索引未加载时返回null
+     */
+    public List<Flight> findTop(String departureCity, String arrivalCity, LocalDateTime startTime, LocalDateTime endTime,
+                                FlightStatus status, String airline, BigDecimal minPrice, BigDecimal maxPrice,
+                                Comparator<Flight> order, Predicate<Flight> after, int k) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        searches.increment();
+        RouteSchedule schedule = current.routeOf(departureCity, arrivalCity);
+        if (schedule == null || k <= 0) {
+            return Collections.emptyList();
+        }
+
+        int from = schedule.lowerBound(startTime != null ? toSeconds(startTime) : Long.MIN_VALUE, Long.MIN_VALUE);
+        int to = endTime != null ? schedule.lowerBound(toSeconds(endTime) + 1, Long.MIN_VALUE) : schedule.size();
+
+        // 堆顶是当前保留的最后一名
+        PriorityQueue<Flight> top = new PriorityQueue<>(Math.min(k, Math.max(to - from, 0)) + 1, order.reversed());
+        for (int i = from; i < to; i++) {
+            Flight flight = current.flightsById.get(schedule.flightIds[i]);
+            if (!matches(flight, departureCity, arrivalCity, status, airline, minPrice, maxPrice)
+                    || (after != null && !after.test(flight))) {
+                continue;
+            }
+            if (top.size() < k) {
+                top.add(flight);
+            } else if (order.compare(flight, top.peek()) < 0) {
+                top.poll();
+                top.add(flight);
+            }
+        }
+        List<Flight> flights = new ArrayList<>(top);
+        flights.sort(order);
+        return flights;
+    }
+
+    /**
+     * 从指定城市出发有航班的到达城市
+     */
+    public Set<String> destinationsFrom(String city) {
+        Snapshot current = snapshot;
+        Set<String> cities = current != null ? current.outbound.get(city.trim()) : null;
+        return cities != null ? cities : Collections.emptySet();
+    }
+
+    /**
+     * 有航班飞往指定城市的出发城市
+     */
+    public Set<String> originsTo(String city) {
+        Snapshot current = snapshot;
+        Set<String> cities = current != null ? current.inbound.get(city.trim()) : null;
+        return cities != null ? cities : Collections.emptySet();
+    }
+
+    /**
+     * 统计航线上起飞时间在窗口内的航班数
+     *
+     * @return 航班数，索引未加载时返回-1
+     */
+    public long count(String departureCity, String arrivalCity, LocalDateTime startTime, LocalDateTime endTime,
+                      FlightStatus status, String airline, BigDecimal minPrice, BigDecimal maxPrice) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return -1L;
+        }
+        RouteSchedule schedule = current.routeOf(departureCity, arrivalCity);
+        if (schedule == null) {
+            return 0L;
+        }
+        int from = schedule.lowerBound(startTime != null ? toSeconds(startTime) : Long.MIN_VALUE, Long.MIN_VALUE);
+        int to = endTime != null ? schedule.lowerBound(toSeconds(endTime) + 1, Long.MIN_VALUE) : schedule.size();
+        if (status == null && airline == null && minPrice == null && maxPrice == null) {
+            return Math.max(to - from, 0);
+        }
+        long count = 0L;
+        for (int i = from; i < to; i++) {
+            if (matches(current.flightsById.get(schedule.flightIds[i]), departureCity, arrivalCity, status, airline,
+                    minPrice, maxPrice)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 索引规模等统计信息
+     */
+    public Map<String, Object> getMetrics() {
+        Snapshot current = snapshot;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("ready", current != null);
+        metrics.put("flightCount", current != null ? current.flightsById.size() : 0);
+        metrics.put("routeCount", current != null ? current.routes.size() : 0);
+        metrics.put("cityCount", current != null ? current.cityIds.size() : 0);
+        metrics.put("searchCount", searches.sum());
+        metrics.put("lastRebuildTime", lastRebuildMillis);
+        return metrics;
+    }
+
+    /**
+     * 航班可能在读取航线数组之后被修改或删除，取出后再按条件校验一次
+     */
+    private static boolean matches(Flight flight, String departureCity, String arrivalCity,
+                                   FlightStatus status, String airline, BigDecimal minPrice, BigDecimal maxPrice) {
+        return flight != null
+                && departureCity.trim().equals(flight.getDepartureCity())
+                && arrivalCity.trim().equals(flight.getArrivalCity())
+                && (status == null || status == flight.getStatus())
+                && (airline == null || airline.trim().equalsIgnoreCase(flight.getAirline()))
+                && (minPrice == null || flight.getBasePrice().compareTo(minPrice) >= 0)
+                && (maxPrice == null || flight.getBasePrice().compareTo(maxPrice) <= 0);
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * 索引数据，增量修改在 FlightRouteIndex 上同步
+     */
+    private static final class Snapshot {
+        private final Map<String, Integer> cityIds = new ConcurrentHashMap<>();
+        private final Map<Long, RouteSchedule> routes = new ConcurrentHashMap<>();
+        private final Map<Long, Flight> flightsById = new ConcurrentHashMap<>();
+        private final Map<String, Long> idsByFlightNumber = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> outbound = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> inbound = new ConcurrentHashMap<>();
+
+        static Snapshot build(List<Flight> flights) {
+            Snapshot snapshot = new Snapshot();
+            Map<Long, List<Flight>> byRoute = new HashMap<>();
+            for (Flight flight : flights) {
+                snapshot.flightsById.put(flight.getId(), flight);
+                snapshot.idsByFlightNumber.put(flight.getFlightNumber(), flight.getId());
+                byRoute.computeIfAbsent(snapshot.routeKey(flight.getDepartureCity(), flight.getArrivalCity()),
+                        key -> new ArrayList<>()).add(flight);
+            }
+            byRoute.forEach((route, routeFlights) -> {
+                snapshot.routes.put(route, RouteSchedule.of(routeFlights));
+                snapshot.link(routeFlights.get(0));
+            });
+            return snapshot;
+        }
+
+        RouteSchedule routeOf(String departureCity, String arrivalCity) {
+            Integer from = cityIds.get(departureCity.trim());
+            Integer to = cityIds.get(arrivalCity.trim());
+            return from != null && to != null ? routes.get(((long) from << 32) | to) : null;
+        }
+
+        void addAll(List<Flight> flights) {
+            Map<Long, List<Flight>> byRoute = new HashMap<>();
+            for (Flight flight : flights) {
+                flightsById.put(flight.getId(), flight);
+                idsByFlightNumber.put(flight.getFlightNumber(), flight.getId());
+                byRoute.computeIfAbsent(routeKey(flight.getDepartureCity(), flight.getArrivalCity()),
+                        key -> new ArrayList<>()).add(flight);
+            }
+            byRoute.forEach((route, routeFlights) -> {
+                RouteSchedule schedule = routes.get(route);
+                routes.put(route, schedule != null ? schedule.with(routeFlights) : RouteSchedule.of(routeFlights));
+                link(routeFlights.get(0));
+            });
+        }
+
+        void remove(long id) {
+            Flight flight = flightsById.remove(id);
+            if (flight == null) {
+                return;
+            }
+            idsByFlightNumber.remove(flight.getFlightNumber(), id);
+            long route = routeKey(flight.getDepartureCity(), flight.getArrivalCity());
+            RouteSchedule schedule = routes.get(route);
+            if (schedule != null) {
+                RouteSchedule updated = schedule.without(toSeconds(flight.getDepartureTime()), id);
+                if (updated.size() == 0) {
+                    routes.remove(route);
+                    unlink(flight);
+                } else {
+                    routes.put(route, updated);
+                }
+            }
+        }
+
+        private void link(Flight flight) {
+            String from = flight.getDepartureCity().trim();
+            String to = flight.getArrivalCity().trim();
+            outbound.computeIfAbsent(from, key -> ConcurrentHashMap.newKeySet()).add(to);
+            inbound.computeIfAbsent(to, key -> ConcurrentHashMap.newKeySet()).add(from);
+        }
+
+        private void unlink(Flight flight) {
+            String from = flight.getDepartureCity().trim();
+            String to = flight.getArrivalCity().trim();
+            Set<String> destinations = outbound.get(from);
+            if (destinations != null) {
+                destinations.remove(to);
+            }
+            Set<String> origins = inbound.get(to);
+            if (origins != null) {
+                origins.remove(from);
+            }
+        }
+
+        private long routeKey(String departureCity, String arrivalCity) {
+            long from = cityIdOf(departureCity);
+            long to = cityIdOf(arrivalCity);
+            return (from << 32) | to;
+        }
+
+        private int cityIdOf(String city) {
+            return cityIds.computeIfAbsent(city.trim(), key -> cityIds.size());
+        }
+    }
+
+    /**
+     * 一条航线的时刻表，departureSeconds 与 flightIds 按 (起飞时间, id) 升序一一对应，创建后不再修改
+     */
+    private static final class RouteSchedule {
+        private final long[] departureSeconds;
+        private final long[] flightIds;
+
+        private RouteSchedule(long[] departureSeconds, long[] flightIds) {
+            this.departureSeconds = departureSeconds;
+            this.flightIds = flightIds;
+        }
+
+        static RouteSchedule of(List<Flight> flights) {
+            long[][] entries = new long[flights.size()][];
+            for (int i = 0; i < entries.length; i++) {
+                Flight flight = flights.get(i);
+                entries[i] = new long[]{toSeconds(flight.getDepartureTime()), flight.getId()};
+            }
+            Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+            long[] seconds = new long[entries.length];
+            long[] ids = new long[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                seconds[i] = entries[i][0];
+                ids[i] = entries[i][1];
+            }
+            return new RouteSchedule(seconds, ids);
+        }
+
+        int size() {
+            return flightIds.length;
+        }
+
+        /**
+         * 第一个不小于 (seconds, id) 的下标
+         */
+        int lowerBound(long seconds, long id) {
+            int low = 0;
+            int high = flightIds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (departureSeconds[mid] < seconds || (departureSeconds[mid] == seconds && flightIds[mid] < id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 插入一批航班，整条时刻表只复制一次
+         */
+        RouteSchedule with(List<Flight> flights) {
+            long[][] added = new long[flights.size()][];
+            for (int i = 0; i < added.length; i++) {
+                Flight flight = flights.get(i);
+                added[i] = new long[]{toSeconds(flight.getDepartureTime()), flight.getId()};
+            }
+            Arrays.sort(added, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+            // 两个有序序列归并
+            int size = size() + added.length;
+            long[] newSeconds = new long[size];
+            long[] newIds = new long[size];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < size; k++) {
+                boolean takeExisting = j >= added.length || (i < flightIds.length
+                        && (departureSeconds[i] < added[j][0]
+                        || (departureSeconds[i] == added[j][0] && flightIds[i] < added[j][1])));
+                if (takeExisting) {
+                    newSeconds[k] = departureSeconds[i];
+                    newIds[k] = flightIds[i++];
+                } else {
+                    newSeconds[k] = added[j][0];
+                    newIds[k] = added[j++][1];
+                }
+            }
+            return new RouteSchedule(newSeconds, newIds);
+        }
+
+        RouteSchedule without(long seconds, long id) {
+            int index = lowerBound(seconds, id);
+            if (index >= size() || flightIds[index] != id) {
+                return this;
+            }
+            int size = size();
+            long[] newSeconds = new long[size - 1];
+            long[] newIds = new long[size - 1];
+            System.arraycopy(departureSeconds, 0, newSeconds, 0, index);
+            System.arraycopy(flightIds, 0, newIds, 0, index);
+            System.arraycopy(departureSeconds, index + 1, newSeconds, index, size - index - 1);
+            System.arraycopy(flightIds, index + 1, newIds, index, size - index - 1);
+            return new RouteSchedule(newSeconds, newIds);
+        }
+    }
+}
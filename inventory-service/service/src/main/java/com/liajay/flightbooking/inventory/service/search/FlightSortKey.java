@@ -0,0 +1,112 @@
+package com.liajay.flightbooking.inventory.service.search;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 航班搜索允许的排序字段
+ *
+ * 排序字段相同的航班再按 id 排序，保证分页结果稳定；column 会直接拼进 ORDER BY，只能取这里列出的值。
+ *
+ * @author liajay
+ */
+public enum FlightSortKey {
+
+    DEPARTURE_TIME("departureTime", "departure_time", Flight::getDepartureTime, LocalDateTime::parse),
+    ARRIVAL_TIME("arrivalTime", "arrival_time", Flight::getArrivalTime, LocalDateTime::parse),
+    FLIGHT_NUMBER("flightNumber", "flight_number", Flight::getFlightNumber, value -> value),
+    AIRLINE("airline", "airline", Flight::getAirline, value -> value),
+    BASE_PRICE("basePrice", "base_price", Flight::getBasePrice, BigDecimal::new);
+
+    private final String field;
+    private final String column;
+    private final Function<Flight, Comparable<?>> getter;
+    private final Function<String, Comparable<?>> parser;
+
+    FlightSortKey(String field, String column, Function<Flight, Comparable<?>> getter,
+                  Function<String, Comparable<?>> parser) {
+        this.field = field;
+        this.column = column;
+        this.getter = getter;
+        this.parser = parser;
+    }
+
+    /**
+     * 按请求中的排序字段名查找，为空时按起飞时间排序
+     *
+     * @throws IllegalArgumentException 不支持的排序字段
+     */
+    public static FlightSortKey of(String sortBy) {
+        if (sortBy == null || sortBy.trim().isEmpty()) {
+            return DEPARTURE_TIME;
+        }
+        for (FlightSortKey key : values()) {
+            if (key.field.equals(sortBy.trim())) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("不支持的排序字段: " + sortBy);
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * 航班的排序字段值
+     */
+    public Comparable<?> valueOf(Flight flight) {
+        return getter.apply(flight);
+    }
+
+    /**
+     * 航班的排序字段值转成字符串，写入分页游标
+     */
+    public String format(Flight flight) {
+        Comparable<?> value = valueOf(flight);
+        return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : String.valueOf(value);
+    }
+
+    /**
+     * 解析游标中的排序字段值
+     */
+    public Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+
+    /**
+     * 与 ORDER BY column, id 一致的比较器
+     */
+    public Comparator<Flight> comparator(boolean descending) {
+        Comparator<Flight> order = (a, b) -> compare(valueOf(a), valueOf(b));
+        order = order.thenComparing(Flight::getId);
+        return descending ? order.reversed() : order;
+    }
+
+    /**
+     * 排在 (value, id) 之后的航班
+     */
+    public Predicate<Flight> after(Comparable<?> value, long id, boolean descending) {
+        return flight -> {
+            int cmp = compare(valueOf(flight), value);
+            if (cmp == 0) {
+                cmp = Long.compare(flight.getId(), id);
+            }
+            return descending ? cmp < 0 : cmp > 0;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Comparable<?> a, Comparable<?> b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+}
@@ -0,0 +1,67 @@
+package com.liajay.flightbooking.inventory.service.search;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 由一段或多段航班组成的行程
+ *
+ * @author liajay
+ */
+public class Itinerary {
+
+    private final List<Flight> legs;
+    private final long durationMinutes;
+    private final BigDecimal totalPrice;
+
+    public Itinerary(List<Flight> legs) {
+        this.legs = Collections.unmodifiableList(legs);
+        this.durationMinutes = Duration.between(getDepartureTime(), getArrivalTime()).toMinutes();
+        this.totalPrice = priceOf(legs);
+    }
+
+    public List<Flight> getLegs() {
+        return legs;
+    }
+
+    public int getStops() {
+        return legs.size() - 1;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return legs.get(0).getDepartureTime();
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return legs.get(legs.size() - 1).getArrivalTime();
+    }
+
+    /**
+     * 从第一段起飞到最后一段到达的总耗时，含中转停留
+     */
+    public long getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    /**
+     * 各段航班基础票价之和
+     */
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    static BigDecimal priceOf(List<Flight> legs) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Flight leg : legs) {
+            if (leg.getBasePrice() != null) {
+                total = total.add(leg.getBasePrice());
+            }
+        }
+        return total;
+    }
+}
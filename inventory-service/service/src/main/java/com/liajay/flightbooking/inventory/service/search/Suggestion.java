@@ -0,0 +1,57 @@
+package com.liajay.flightbooking.inventory.service.search;
+
+import java.util.List;
+
+/**
+ * 自动补全候选项：城市或航空公司
+ *
+ * @author liajay
+ */
+public class Suggestion {
+
+    public static final String CITY = "CITY";
+    public static final String AIRLINE = "AIRLINE";
+
+    private final String type;
+    private final String name;
+    private final String pinyin;
+    private final List<String> codes;
+    private final long flightCount;
+
+    public Suggestion(String type, String name, String pinyin, List<String> codes, long flightCount) {
+        this.type = type;
+        this.name = name;
+        this.pinyin = pinyin;
+        this.codes = codes;
+        this.flightCount = flightCount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 全拼，词典中没有该名称时为null
+     */
+    public String getPinyin() {
+        return pinyin;
+    }
+
+    /**
+     * IATA代码
+     */
+    public List<String> getCodes() {
+        return codes;
+    }
+
+    /**
+     * 相关航班数，用于排序
+     */
+    public long getFlightCount() {
+        return flightCount;
+    }
+}
@@ -0,0 +1,86 @@
+package com.liajay.flightbooking.inventory.service.seatmap;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.mapper.SeatMapper;
+import com.liajay.flightbooking.inventory.service.inventory.SeatInventoryChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按航班缓存的座位图快照
+ *
+ * 座位状态变化（分配、预留、释放）发布的 SeatInventoryChangedEvent 在事务提交后丢弃快照，下次读取时重建；
+ * 提交前失效会让并发读取把旧数据重新写回缓存。
+ * 每个航班维护一个版本号，重建期间如果发生了失效，重建结果不会写回缓存，避免缓存旧数据。
+ *
+ * @author liajay
+ */
+@Component
+public class SeatMapCache {
+
+    private final SeatMapper seatMapper;
+    private final ConcurrentHashMap<String, SeatMapSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public SeatMapCache(SeatMapper seatMapper) {
+        this.seatMapper = seatMapper;
+    }
+
+    /**
+     * 获取航班座位图
+     *
+     * @return 座位图快照，航班没有座位数据时返回null
+     */
+    public SeatMapSnapshot get(String flightNumber) {
+        SeatMapSnapshot snapshot = snapshots.get(flightNumber);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        AtomicLong version = versionOf(flightNumber);
+        long expectedVersion = version.get();
+        List<Seat> seats = seatMapper.findAllByFlightNumber(flightNumber);
+        if (seats.isEmpty()) {
+            return null;
+        }
+        SeatMapSnapshot built = SeatMapSnapshot.build(flightNumber, expectedVersion, seats);
+        snapshots.compute(flightNumber, (key, current) -> version.get() == expectedVersion ? built : current);
+        return built;
+    }
+
+    /**
+     * 丢弃航班座位图快照
+     */
+    public void invalidate(String flightNumber) {
+        versionOf(flightNumber).incrementAndGet();
+        snapshots.remove(flightNumber);
+    }
+
+    /**
+     * 丢弃全部航班的座位图快照
+     */
+    public void invalidateAll() {
+        versions.values().forEach(AtomicLong::incrementAndGet);
+        snapshots.clear();
+    }
+
+    /**
+     * 座位变更在事务提交后再失效；不在事务中发布的事件立即处理
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatInventoryChanged(SeatInventoryChangedEvent event) {
+        if (event.isAllFlights()) {
+            invalidateAll();
+            return;
+        }
+        event.getFlightNumbers().forEach(this::invalidate);
+    }
+
+    private AtomicLong versionOf(String flightNumber) {
+        return versions.computeIfAbsent(flightNumber, key -> new AtomicLong());
+    }
+}
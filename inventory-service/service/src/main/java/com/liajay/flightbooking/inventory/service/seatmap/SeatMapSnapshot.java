@@ -0,0 +1,235 @@
+package com.liajay.flightbooking.inventory.service.seatmap;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+import com.liajay.flightbooking.inventory.service.dto.SeatMapDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * 航班座位图快照（不可变）
+ *
+ * 构建时一次性算好 JSON 用的 SeatMapDTO 和二进制编码，之后每次请求直接复用，不再做序列化计算。
+ *
+ * 二进制格式（大端）：
+ * <pre>
+ * long    version
+ * byte    舱位数 n
+ * n 个舱位：byte 舱位(SeatClass 序号) | short 起始排 | short 结束排 | byte 列数 m | m 字节列字母(ASCII) | int 价格(分)
+ * byte    标志位，1 表示带 present 位集
+ * int     位集字节数 k
+ * [k 字节 present 位集]
+ * k 字节  available 位集
+ * </pre>
+ * 位集编号规则与 SeatMapDTO 相同。
+ *
+ * @author liajay
+ */
+public final class SeatMapSnapshot {
+
+    private final long version;
+    private final SeatMapDTO dto;
+    private final byte[] binary;
+    private final String etag;
+
+    private SeatMapSnapshot(long version, SeatMapDTO dto, byte[] binary) {
+        this.version = version;
+        this.dto = dto;
+        this.binary = binary;
+        // 只对版本号之后的内容做摘要，服务重启后内容不变时 ETag 也不变
+        CRC32 crc = new CRC32();
+        crc.update(binary, Long.BYTES, binary.length - Long.BYTES);
+        this.etag = "\"" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    /**
+     * 由航班的全部座位构建快照，座位号格式为 排号 + 列字母（如 12F）
+     */
+    public static SeatMapSnapshot build(String flightNumber, long version, List<Seat> seats) {
+        Map<SeatClass, CabinBuilder> builders = new EnumMap<>(SeatClass.class);
+        for (Seat seat : seats) {
+            builders.computeIfAbsent(seat.getSeatClass(), CabinBuilder::new).add(seat);
+        }
+        List<CabinBuilder> cabins = new ArrayList<>(builders.values());
+        cabins.sort(Comparator.comparingInt(cabin -> cabin.firstRow));
+
+        int gridSize = 0;
+        for (CabinBuilder cabin : cabins) {
+            cabin.offset = gridSize;
+            gridSize += cabin.gridSize();
+        }
+
+        BitSet present = new BitSet(gridSize);
+        BitSet available = new BitSet(gridSize);
+        int availableSeats = 0;
+        for (CabinBuilder cabin : cabins) {
+            for (Seat seat : cabin.seats) {
+                int bit = cabin.bitOf(seat.getSeatNumber());
+                present.set(bit);
+                if (Boolean.TRUE.equals(seat.getIsAvailable())) {
+                    available.set(bit);
+                    availableSeats++;
+                }
+            }
+        }
+        boolean fullGrid = present.cardinality() == gridSize;
+        int bitsetBytes = (gridSize + 7) / 8;
+
+        List<SeatMapDTO.Cabin> cabinDTOs = new ArrayList<>(cabins.size());
+        for (CabinBuilder cabin : cabins) {
+            cabinDTOs.add(new SeatMapDTO.Cabin(cabin.seatClass.name(), cabin.firstRow, cabin.lastRow,
+                    cabin.columnString(), cabin.price));
+        }
+        Base64.Encoder base64 = Base64.getEncoder();
+        SeatMapDTO dto = new SeatMapDTO(flightNumber, version, present.cardinality(), availableSeats, cabinDTOs,
+                fullGrid ? null : base64.encodeToString(toBytes(present, bitsetBytes)),
+                base64.encodeToString(toBytes(available, bitsetBytes)));
+
+        byte[] binary = encode(version, cabins, fullGrid ? null : present, available, bitsetBytes);
+        return new SeatMapSnapshot(version, dto, binary);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 基于座位图内容的 ETag
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    public SeatMapDTO toDTO() {
+        return dto;
+    }
+
+    /**
+     * 二进制编码，调用方不得修改返回的数组
+     */
+    public byte[] toBinary() {
+        return binary;
+    }
+
+    private static byte[] encode(long version, List<CabinBuilder> cabins, BitSet present, BitSet available,
+                                 int bitsetBytes) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 + bitsetBytes * 2);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeLong(version);
+            out.writeByte(cabins.size());
+            for (CabinBuilder cabin : cabins) {
+                byte[] columns = cabin.columnString().getBytes(StandardCharsets.US_ASCII);
+                out.writeByte(cabin.seatClass.ordinal());
+                out.writeShort(cabin.firstRow);
+                out.writeShort(cabin.lastRow);
+                out.writeByte(columns.length);
+                out.write(columns);
+                out.writeInt(cabin.price.movePointRight(2).intValue());
+            }
+            out.writeByte(present != null ? 1 : 0);
+            out.writeInt(bitsetBytes);
+            if (present != null) {
+                out.write(toBytes(present, bitsetBytes));
+            }
+            out.write(toBytes(available, bitsetBytes));
+            out.flush();
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * BitSet.toByteArray 会截掉末尾的 0 字节，这里补齐到固定长度
+     */
+    private static byte[] toBytes(BitSet bits, int length) {
+        byte[] bytes = new byte[length];
+        byte[] raw = bits.toByteArray();
+        System.arraycopy(raw, 0, bytes, 0, raw.length);
+        return bytes;
+    }
+
+    private static int parseRow(String seatNumber) {
+        int end = 0;
+        while (end < seatNumber.length() && Character.isDigit(seatNumber.charAt(end))) {
+            end++;
+        }
+        if (end == 0 || end == seatNumber.length()) {
+            throw new IllegalArgumentException("无法解析座位号: " + seatNumber);
+        }
+        return Integer.parseInt(seatNumber.substring(0, end));
+    }
+
+    private static String parseColumn(String seatNumber) {
+        int start = 0;
+        while (start < seatNumber.length() && Character.isDigit(seatNumber.charAt(start))) {
+            start++;
+        }
+        return seatNumber.substring(start);
+    }
+
+    /**
+     * 单个舱位的网格
+     */
+    private static final class CabinBuilder {
+        private final SeatClass seatClass;
+        private final List<Seat> seats = new ArrayList<>();
+        private final TreeSet<String> columns = new TreeSet<>();
+        private int firstRow = Integer.MAX_VALUE;
+        private int lastRow = Integer.MIN_VALUE;
+        private BigDecimal price;
+        private int offset;
+        private List<String> columnList;
+
+        private CabinBuilder(SeatClass seatClass) {
+            this.seatClass = seatClass;
+        }
+
+        private void add(Seat seat) {
+            int row = parseRow(seat.getSeatNumber());
+            String column = parseColumn(seat.getSeatNumber());
+            if (column.length() != 1) {
+                throw new IllegalArgumentException("无法解析座位号: " + seat.getSeatNumber());
+            }
+            seats.add(seat);
+            columns.add(column);
+            firstRow = Math.min(firstRow, row);
+            lastRow = Math.max(lastRow, row);
+            // 同一舱位价格不一致时展示舱位起价
+            if (price == null || seat.getPrice().compareTo(price) < 0) {
+                price = seat.getPrice();
+            }
+        }
+
+        private int gridSize() {
+            return (lastRow - firstRow + 1) * columns.size();
+        }
+
+        private String columnString() {
+            return String.join("", columns);
+        }
+
+        private int bitOf(String seatNumber) {
+            if (columnList == null) {
+                columnList = new ArrayList<>(columns);
+            }
+            int row = parseRow(seatNumber) - firstRow;
+            return offset + row * columnList.size() + columnList.indexOf(parseColumn(seatNumber));
+        }
+    }
+}
@@ -1,18 +1,37 @@
 package com.liajay.flightbooking.inventory.web.controller;
 
 import com.liajay.flightbooking.inventory.dal.dataobject.Flight;
+import com.liajay.flightbooking.inventory.model.vo.DayFareVO;
+import com.liajay.flightbooking.inventory.model.vo.ItineraryVO;
+import com.liajay.flightbooking.inventory.model.vo.SuggestionVO;
 import com.liajay.flightbooking.inventory.service.FlightService;
+import com.liajay.flightbooking.inventory.service.dto.ConnectionQueryDTO;
+import com.liajay.flightbooking.inventory.service.dto.FlightCreateDTO;
 import com.liajay.flightbooking.inventory.service.dto.FlightQueryDTO;
+import com.liajay.flightbooking.inventory.service.dto.result.FlightCreateResultDTO;
 import com.liajay.flightbooking.inventory.service.dto.result.FlightQueryResultDTO;
+import com.liajay.flightbooking.inventory.service.export.ExportFormat;
 import com.liajay.flightbooking.inventory.web.convertor.FlightConvertor;
+import com.liajay.flightbooking.inventory.web.request.ConnectionSearchRequest;
+import com.liajay.flightbooking.inventory.web.request.FlightBatchCreateRequest;
+import com.liajay.flightbooking.inventory.web.request.FlightCreateRequest;
 import com.liajay.flightbooking.inventory.web.request.FlightQueryRequest;
 import com.liajay.flightbooking.inventory.web.response.HttpResponse;
 import com.liajay.flightbooking.inventory.web.util.UrlUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 航班控制器
@@ -39,8 +58,11 @@ public class FlightController {
             decodeRequestParameters(request);
             
             // 添加调试日志
-            logger.info("收到航班查询请求: departureCity={}, arrivalCity={}, airline={}, status={}", 
-                       request.getDepartureCity(), request.getArrivalCity(), request.getAirline(), request.getStatus());
+            logger.info("收到航班查询请求: departureCity={}, arrivalCity={}, airline={}, status={}, departureDate={}, startTime={}, endTime={}, minPrice={}, maxPrice={}, sortBy={}, sortDirection={}, cheapest={}", 
+                       request.getDepartureCity(), request.getArrivalCity(), request.getAirline(), request.getStatus(),
+                       request.getDepartureDate(), request.getStartTime(), request.getEndTime(),
+                       request.getMinPrice(), request.getMaxPrice(), request.getSortBy(), request.getSortDirection(),
+                       request.getCheapest());
             
             FlightQueryDTO queryDTO = FlightConvertor.convertToDTO(request);
             FlightQueryResultDTO result = flightService.queryFlights(queryDTO);
@@ -51,6 +73,224 @@ public class FlightController {
         }
     }
 
+    /**
+     * 流式导出航班（NDJSON / CSV），查询条件同航班列表，忽略分页和排序参数
+     */
+    @GetMapping("/export")
+    public void exportFlights(@Valid FlightQueryRequest request,
+                              @RequestParam(value = "format", defaultValue = "ndjson") String format,
+                              HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.of(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        decodeRequestParameters(request);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"flights." + exportFormat.getExtension() + "\"");
+        try {
+            long count = flightService.exportFlights(FlightConvertor.convertToDTO(request), exportFormat,
+                    response.getOutputStream());
+            logger.info("导出航班完成: format={}, 行数={}", exportFormat, count);
+        } catch (Exception e) {
+            logger.error("导出航班失败", e);
+            if (response.isCommitted()) {
+                // 已开始写出时重新抛出，由容器中断连接，客户端不会把截断的内容当成完整文件
+                throw new IllegalStateException("导出航班中断", e);
+            }
+            response.reset();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "导出航班失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询直飞及中转行程
+     */
+    @GetMapping("/connections")
+    public HttpResponse<List<ItineraryVO>> searchConnections(@Valid ConnectionSearchRequest request) {
+        try {
+            request.setDepartureCity(UrlUtils.safeDecodeIfNeeded(request.getDepartureCity()));
+            request.setArrivalCity(UrlUtils.safeDecodeIfNeeded(request.getArrivalCity()));
+            logger.info("收到中转航班查询请求: departureCity={}, arrivalCity={}, departureDate={}, maxStops={}, sortBy={}",
+                       request.getDepartureCity(), request.getArrivalCity(), request.getDepartureDate(),
+                       request.getMaxStops(), request.getSortBy());
+
+            ConnectionQueryDTO queryDTO = FlightConvertor.convertToDTO(request);
+            return HttpResponse.success(flightService.searchConnections(queryDTO));
+        } catch (Exception e) {
+            logger.error("查询中转航班失败", e);
+            return HttpResponse.error("查询中转航班失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 城市 / 航空公司自动补全
+     */
+    @GetMapping("/suggestions")
+    public HttpResponse<List<SuggestionVO>> suggest(@RequestParam("q") String keyword,
+                                                    @RequestParam(value = "type", required = false) String type,
+                                                    @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        try {
+            return HttpResponse.success(flightService.suggest(UrlUtils.safeDecodeIfNeeded(keyword), type, limit));
+        } catch (Exception e) {
+            return HttpResponse.error("查询自动补全失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 自动补全索引统计信息
+     */
+    @GetMapping("/suggestions/metrics")
+    public HttpResponse<Map<String, Object>> getAutocompleteMetrics() {
+        try {
+            return HttpResponse.success(flightService.getAutocompleteMetrics());
+        } catch (Exception e) {
+            return HttpResponse.error("获取自动补全索引统计失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 低价日历：航线在日期范围内每天的最低价
+     */
+    @GetMapping("/fare-calendar")
+    public HttpResponse<List<DayFareVO>> getFareCalendar(
+            @RequestParam("departureCity") String departureCity,
+            @RequestParam("arrivalCity") String arrivalCity,
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            return HttpResponse.success(flightService.getFareCalendar(UrlUtils.safeDecodeIfNeeded(departureCity),
+                    UrlUtils.safeDecodeIfNeeded(arrivalCity), startDate, endDate));
+        } catch (Exception e) {
+            logger.error("查询低价日历失败", e);
+            return HttpResponse.error("查询低价日历失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 低价日历统计信息
+     */
+    @GetMapping("/fare-calendar/metrics")
+    public HttpResponse<Map<String, Object>> getFareCalendarMetrics() {
+        try {
+            return HttpResponse.success(flightService.getFareCalendarMetrics());
+        } catch (Exception e) {
+            return HttpResponse.error("获取低价日历统计失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 航班缓存统计信息
+     */
+    @GetMapping("/cache/metrics")
+    public HttpResponse<Map<String, Object>> getFlightCacheMetrics() {
+        try {
+            return HttpResponse.success(flightService.getFlightCacheMetrics());
+        } catch (Exception e) {
+            return HttpResponse.error("获取航班缓存统计失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 航班搜索缓存统计信息
+     */
+    @GetMapping("/search-cache/metrics")
+    public HttpResponse<Map<String, Object>> getSearchCacheMetrics() {
+        try {
+            return HttpResponse.success(flightService.getSearchCacheMetrics());
+        } catch (Exception e) {
+            return HttpResponse.error("获取航班搜索缓存统计失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 航线索引统计信息
+     */
+    @GetMapping("/route-index/metrics")
+    public HttpResponse<Map<String, Object>> getRouteIndexMetrics() {
+        try {
+            return HttpResponse.success(flightService.getRouteIndexMetrics());
+        } catch (Exception e) {
+            return HttpResponse.error("获取航线索引统计失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 失效一条航线的搜索结果缓存
+     */
+    @PostMapping("/search-cache/invalidate")
+    public HttpResponse<Void> invalidateRouteCache(@RequestParam(value = "departureCity", required = false) String departureCity,
+                                                   @RequestParam(value = "arrivalCity", required = false) String arrivalCity) {
+        try {
+            flightService.invalidateRouteCache(UrlUtils.safeDecodeIfNeeded(departureCity),
+                    UrlUtils.safeDecodeIfNeeded(arrivalCity));
+            return HttpResponse.success(null);
+        } catch (Exception e) {
+            return HttpResponse.error("失效航班搜索缓存失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 航班信息在服务外被修改后，通知缓存丢弃该航班
+     */
+    @PostMapping("/{flightNumber}/cache/evict")
+    public HttpResponse<Void> evictFlightCache(@PathVariable("flightNumber") String flightNumber) {
+        try {
+            flightService.onFlightChanged(flightNumber);
+            return HttpResponse.success(null);
+        } catch (Exception e) {
+            return HttpResponse.error("清除航班缓存失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 新建航班，座位按机型布局生成
+     */
+    @PostMapping
+    public HttpResponse<FlightCreateResultDTO> createFlight(@Valid @RequestBody FlightCreateRequest request) {
+        try {
+            return HttpResponse.success(flightService.createFlights(
+                    Collections.singletonList(FlightConvertor.convertToDTO(request))));
+        } catch (Exception e) {
+            logger.error("新建航班失败: flightNumber={}", request.getFlightNumber(), e);
+            return HttpResponse.error("新建航班失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 批量新建航班（如导入一季的时刻表），分批提交，失败时返回已提交的航班数
+     */
+    @PostMapping("/batch")
+    public HttpResponse<FlightCreateResultDTO> createFlights(@Valid @RequestBody FlightBatchCreateRequest request) {
+        try {
+            List<FlightCreateDTO> flights = new ArrayList<>(request.getFlights().size());
+            for (FlightCreateRequest flight : request.getFlights()) {
+                flights.add(FlightConvertor.convertToDTO(flight));
+            }
+            return HttpResponse.success(flightService.createFlights(flights));
+        } catch (Exception e) {
+            logger.error("批量新建航班失败: 航班数={}", request.getFlights().size(), e);
+            return HttpResponse.error("批量新建航班失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 根据座位数据重建航班库存汇总
+     */
+    @PostMapping("/inventory/reconcile")
+    public HttpResponse<Integer> reconcileInventory() {
+        try {
+            return HttpResponse.success(flightService.reconcileInventory());
+        } catch (Exception e) {
+            logger.error("重建航班库存汇总失败", e);
+            return HttpResponse.error("重建航班库存汇总失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 手动解码请求参数中的URL编码
      */
@@ -2,15 +2,30 @@ package com.liajay.flightbooking.inventory.web.controller;
 
 import com.liajay.flightbooking.inventory.dal.dataobject.Seat;
 import com.liajay.flightbooking.inventory.service.SeatService;
+import com.liajay.flightbooking.inventory.service.dto.SeatHoldDTO;
+import com.liajay.flightbooking.inventory.service.dto.SeatMapDTO;
 import com.liajay.flightbooking.inventory.service.dto.SeatQueryDTO;
 import com.liajay.flightbooking.inventory.service.dto.result.SeatQueryResultDTO;
+import com.liajay.flightbooking.inventory.service.dto.result.SeatStatisticsDTO;
+import com.liajay.flightbooking.inventory.service.export.ExportFormat;
+import com.liajay.flightbooking.inventory.service.seatmap.SeatMapSnapshot;
 import com.liajay.flightbooking.inventory.util.UserContextUtil;
 import com.liajay.flightbooking.inventory.web.convertor.SeatConvertor;
 import com.liajay.flightbooking.inventory.web.request.SeatQueryRequest;
 import com.liajay.flightbooking.inventory.web.response.HttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 座位控制器
@@ -20,6 +35,18 @@ import javax.validation.Valid;
 @RequestMapping("/api/seats")
 public class SeatController {
 
+    private static final Logger logger = LoggerFactory.getLogger(SeatController.class);
+
+    /**
+     * 单次批量分配的最大座位数
+     */
+    private static final int MAX_BATCH_ALLOCATE_COUNT = 50;
+
+    /**
+     * 分配请求键的最大长度，与 seats.allocation_key 一致
+     */
+    private static final int MAX_REQUEST_KEY_LENGTH = 64;
+
     private final SeatService seatService;
 
     public SeatController(SeatService seatService) {
@@ -100,21 +127,55 @@ public class SeatController {
     }
 
     /**
-     * 获取航班座位统计信息
+     * 获取航班座位统计信息（按舱位的座位数、票价和客座率，不返回座位列表）
      */
-    @GetMapping("/flight/{FlightNumber}/statistics")
-    public HttpResponse<SeatQueryResultDTO> getFlightSeatStatistics(@PathVariable String flightNumber) {
+    @GetMapping("/flight/{flightNumber}/statistics")
+    public HttpResponse<SeatStatisticsDTO> getFlightSeatStatistics(@PathVariable("flightNumber") String flightNumber) {
         try {
-            SeatQueryDTO queryDTO = new SeatQueryDTO();
-            queryDTO.setFlightNumber(flightNumber);
-            queryDTO.setEnablePaging(false); // 统计不需要分页
-            SeatQueryResultDTO result = seatService.querySeats(queryDTO);
+            SeatStatisticsDTO result = seatService.getFlightSeatStatistics(flightNumber);
             return HttpResponse.success(result);
         } catch (Exception e) {
             return HttpResponse.error("获取航班座位统计信息失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 获取航班紧凑座位图（舱位布局 + 价格表 + base64 可售位集）
+     */
+    @GetMapping("/seat-map/{flightNumber}")
+    public HttpResponse<SeatMapDTO> getSeatMap(@PathVariable("flightNumber") String flightNumber) {
+        try {
+            SeatMapSnapshot seatMap = seatService.getSeatMap(flightNumber);
+            if (seatMap == null) {
+                return HttpResponse.error("航班没有座位数据: " + flightNumber);
+            }
+            return HttpResponse.success(seatMap.toDTO());
+        } catch (Exception e) {
+            return HttpResponse.error("获取座位图失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取航班座位图的二进制编码，支持 If-None-Match
+     * 格式见 SeatMapSnapshot
+     */
+    @GetMapping("/seat-map/{flightNumber}/binary")
+    public ResponseEntity<byte[]> getSeatMapBinary(
+            @PathVariable("flightNumber") String flightNumber,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SeatMapSnapshot seatMap = seatService.getSeatMap(flightNumber);
+        if (seatMap == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (seatMap.getEtag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(seatMap.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(seatMap.getEtag())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(seatMap.toBinary());
+    }
+
     /**
      * 根据查询条件查询座位
      */
@@ -134,6 +195,37 @@ public class SeatController {
         }
     }
 
+    /**
+     * 流式导出座位（NDJSON / CSV），查询条件同座位列表，忽略分页参数
+     */
+    @GetMapping("/export")
+    public void exportSeats(@Valid SeatQueryRequest request,
+                            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.of(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"seats." + exportFormat.getExtension() + "\"");
+        try {
+            seatService.exportSeats(SeatConvertor.convertToDTO(request), exportFormat, response.getOutputStream());
+        } catch (Exception e) {
+            logger.error("导出座位失败", e);
+            if (response.isCommitted()) {
+                // 已开始写出时重新抛出，由容器中断连接，客户端不会把截断的内容当成完整文件
+                throw new IllegalStateException("导出座位中断", e);
+            }
+            response.reset();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "导出座位失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 为指定航班分配一个座位
      */
@@ -150,4 +242,140 @@ public class SeatController {
         }
     }
 
+    /**
+     * 为指定航班一次分配多个座位
+     */
+    @PostMapping("/allocate/{flightNumber}/batch")
+    public HttpResponse<List<Seat>> allocateSeats(@PathVariable("flightNumber") String flightNumber,
+                                                  @RequestParam("count") int count) {
+        try {
+            if (count <= 0 || count > MAX_BATCH_ALLOCATE_COUNT) {
+                return HttpResponse.error("座位数必须在1到" + MAX_BATCH_ALLOCATE_COUNT + "之间");
+            }
+            List<Seat> allocatedSeats = seatService.allocateSeats(flightNumber, count);
+            if (allocatedSeats.isEmpty()) {
+                return HttpResponse.error("该航班可用座位不足");
+            }
+            return HttpResponse.success(allocatedSeats);
+        } catch (Exception e) {
+            return HttpResponse.error("批量分配座位失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 按请求键为指定航班分配座位，同一请求键重复调用返回同一个座位
+     * 可用座位不足时只为靠前的请求键分配，没有可用座位时返回空列表
+     */
+    @PostMapping("/allocate/{flightNumber}/keyed")
+    public HttpResponse<List<Seat>> allocateSeatsByKeys(@PathVariable("flightNumber") String flightNumber,
+                                                        @RequestBody List<String> requestKeys) {
+        try {
+            if (requestKeys == null || requestKeys.isEmpty() || requestKeys.size() > MAX_BATCH_ALLOCATE_COUNT) {
+                return HttpResponse.error("请求键数量必须在1到" + MAX_BATCH_ALLOCATE_COUNT + "之间");
+            }
+            for (String requestKey : requestKeys) {
+                if (requestKey == null || requestKey.trim().isEmpty() || requestKey.length() > MAX_REQUEST_KEY_LENGTH) {
+                    return HttpResponse.error("请求键不能为空且不能超过" + MAX_REQUEST_KEY_LENGTH + "个字符");
+                }
+            }
+            return HttpResponse.success(seatService.allocateSeats(flightNumber, requestKeys));
+        } catch (Exception e) {
+            return HttpResponse.error("按请求键分配座位失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 归还按请求键分配的座位，重复调用不会重复归还
+     */
+    @PostMapping("/release/keyed")
+    public HttpResponse<Integer> releaseSeatsByKeys(@RequestBody List<String> requestKeys) {
+        try {
+            if (requestKeys == null || requestKeys.isEmpty() || requestKeys.size() > MAX_BATCH_ALLOCATE_COUNT) {
+                return HttpResponse.error("请求键数量必须在1到" + MAX_BATCH_ALLOCATE_COUNT + "之间");
+            }
+            return HttpResponse.success(seatService.releaseSeats(requestKeys));
+        } catch (Exception e) {
+            return HttpResponse.error("按请求键归还座位失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 座位分配器运行指标
+     */
+    @GetMapping("/allocation/metrics")
+    public HttpResponse<Map<String, Object>> getAllocationMetrics() {
+        try {
+            return HttpResponse.success(seatService.getAllocationMetrics());
+        } catch (Exception e) {
+            return HttpResponse.error("获取座位分配指标失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 为指定航班预留座位，到期未确认自动释放
+     */
+    @PostMapping("/hold/{flightNumber}")
+    public HttpResponse<SeatHoldDTO> holdSeats(@PathVariable("flightNumber") String flightNumber,
+                                               @RequestParam(value = "count", defaultValue = "1") int count,
+                                               @RequestParam(value = "ttlSeconds", required = false) Long ttlSeconds) {
+        try {
+            if (count <= 0 || count > MAX_BATCH_ALLOCATE_COUNT) {
+                return HttpResponse.error("座位数必须在1到" + MAX_BATCH_ALLOCATE_COUNT + "之间");
+            }
+            SeatHoldDTO hold = seatService.holdSeats(flightNumber, count, ttlSeconds);
+            if (hold == null) {
+                return HttpResponse.error("该航班可用座位不足");
+            }
+            return HttpResponse.success(hold);
+        } catch (Exception e) {
+            return HttpResponse.error("预留座位失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询预留中的座位
+     */
+    @GetMapping("/hold/{holdToken}")
+    public HttpResponse<List<Seat>> getHeldSeats(@PathVariable("holdToken") String holdToken) {
+        try {
+            List<Seat> seats = seatService.findHeldSeats(holdToken);
+            if (seats.isEmpty()) {
+                return HttpResponse.error("预留不存在或已失效");
+            }
+            return HttpResponse.success(seats);
+        } catch (Exception e) {
+            return HttpResponse.error("查询预留座位失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 确认预留，座位转为已售
+     */
+    @PostMapping("/hold/{holdToken}/confirm")
+    public HttpResponse<Void> confirmHold(@PathVariable("holdToken") String holdToken) {
+        try {
+            if (!seatService.confirmHold(holdToken)) {
+                return HttpResponse.error("预留不存在或已过期");
+            }
+            return HttpResponse.success(null);
+        } catch (Exception e) {
+            return HttpResponse.error("确认预留失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 释放预留，座位恢复可用
+     */
+    @PostMapping("/hold/{holdToken}/release")
+    public HttpResponse<Void> releaseHold(@PathVariable("holdToken") String holdToken) {
+        try {
+            if (!seatService.releaseHold(holdToken)) {
+                return HttpResponse.error("预留不存在或已失效");
+            }
+            return HttpResponse.success(null);
+        } catch (Exception e) {
+            return HttpResponse.error("释放预留失败: " + e.getMessage());
+        }
+    }
+
 }
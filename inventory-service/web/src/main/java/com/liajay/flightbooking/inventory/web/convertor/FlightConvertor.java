@@ -1,8 +1,14 @@
 package com.liajay.flightbooking.inventory.web.convertor;
 
+import com.liajay.flightbooking.inventory.service.dto.ConnectionQueryDTO;
+import com.liajay.flightbooking.inventory.service.dto.FlightCreateDTO;
 import com.liajay.flightbooking.inventory.service.dto.FlightQueryDTO;
+import com.liajay.flightbooking.inventory.web.request.ConnectionSearchRequest;
+import com.liajay.flightbooking.inventory.web.request.FlightCreateRequest;
 import com.liajay.flightbooking.inventory.web.request.FlightQueryRequest;
 
+import java.time.LocalTime;
+
 /**
  * 航班转换器
  */
@@ -14,13 +20,59 @@ public class FlightConvertor {
         dto.setAirline(request.getAirline());
         dto.setDepartureCity(request.getDepartureCity());
         dto.setArrivalCity(request.getArrivalCity());
-        dto.setStartTime(request.getStartTime());
-        dto.setEndTime(request.getEndTime());
+        if (request.getDepartureDate() != null) {
+            dto.setStartTime(request.getDepartureDate().atStartOfDay());
+            dto.setEndTime(request.getDepartureDate().atTime(LocalTime.of(23, 59, 59)));
+        } else {
+            dto.setStartTime(request.getStartTime());
+            dto.setEndTime(request.getEndTime());
+        }
         dto.setStatus(request.getStatus());
+        dto.setMinPrice(request.getMinPrice());
+        dto.setMaxPrice(request.getMaxPrice());
+        dto.setCheapest(request.getCheapest());
         dto.setPage(request.getPage());
         dto.setSize(request.getSize());
         dto.setSortBy(request.getSortBy());
         dto.setSortDirection(request.getSortDirection());
+        dto.setPagingMode(request.getPagingMode());
+        dto.setCursor(request.getCursor());
+        dto.setIncludeTotal(request.getIncludeTotal());
+        dto.setCountStrategy(request.getCountStrategy());
+        return dto;
+    }
+
+    public static ConnectionQueryDTO convertToDTO(ConnectionSearchRequest request) {
+        ConnectionQueryDTO dto = new ConnectionQueryDTO();
+        dto.setDepartureCity(request.getDepartureCity());
+        dto.setArrivalCity(request.getArrivalCity());
+        if (request.getDepartureDate() != null) {
+            dto.setStartTime(request.getDepartureDate().atStartOfDay());
+            dto.setEndTime(request.getDepartureDate().atTime(LocalTime.of(23, 59, 59)));
+        } else {
+            dto.setStartTime(request.getStartTime());
+            dto.setEndTime(request.getEndTime());
+        }
+        dto.setStatus(request.getStatus());
+        dto.setMaxStops(request.getMaxStops());
+        dto.setMinLayoverMinutes(request.getMinLayoverMinutes());
+        dto.setMaxLayoverMinutes(request.getMaxLayoverMinutes());
+        dto.setSortBy(request.getSortBy());
+        dto.setLimit(request.getLimit());
+        return dto;
+    }
+
+    public static FlightCreateDTO convertToDTO(FlightCreateRequest request) {
+        FlightCreateDTO dto = new FlightCreateDTO();
+        dto.setFlightNumber(request.getFlightNumber().trim());
+        dto.setAirline(request.getAirline().trim());
+        dto.setDepartureCity(request.getDepartureCity().trim());
+        dto.setArrivalCity(request.getArrivalCity().trim());
+        dto.setDepartureTime(request.getDepartureTime());
+        dto.setArrivalTime(request.getArrivalTime());
+        dto.setBasePrice(request.getBasePrice());
+        dto.setAircraftType(request.getAircraftType());
+        dto.setClassPrices(request.getClassPrices());
         return dto;
     }
 }
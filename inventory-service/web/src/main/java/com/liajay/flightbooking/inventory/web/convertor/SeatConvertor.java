@@ -17,6 +17,10 @@ public class SeatConvertor {
         dto.setSize(request.getSize());
         dto.setSortBy(request.getSortBy());
         dto.setSortDirection(request.getSortDirection());
+        dto.setPagingMode(request.getPagingMode());
+        dto.setCursor(request.getCursor());
+        dto.setIncludeTotal(request.getIncludeTotal());
+        dto.setCountStrategy(request.getCountStrategy());
         return dto;
     }
 }
@@ -0,0 +1,152 @@
+package com.liajay.flightbooking.inventory.web.request;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 中转航班查询请求
+ */
+public class ConnectionSearchRequest {
+
+    @NotBlank(message = "出发城市不能为空")
+    private String departureCity;
+
+    @NotBlank(message = "到达城市不能为空")
+    private String arrivalCity;
+
+    /**
+     * 出发日期，如 2025-08-21，指定后第一段航班按当天 00:00:00 ~ 23:59:59 查询，优先于 startTime/endTime
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate departureDate;
+
+    /**
+     * 第一段航班起飞时间下限（含），ISO格式
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime startTime;
+
+    /**
+     * 第一段航班起飞时间上限（含），ISO格式
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime endTime;
+
+    @Pattern(regexp = "SCHEDULED|DELAYED|CANCELLED|DEPARTED|ARRIVED",
+             message = "航班状态必须是 SCHEDULED, DELAYED, CANCELLED, DEPARTED, ARRIVED 之一")
+    private String status = "SCHEDULED";
+
+    @Min(value = 0, message = "中转次数不能小于0")
+    @Max(value = 2, message = "中转次数不能大于2")
+    private Integer maxStops = 2;
+
+    @Min(value = 0, message = "最短中转时间不能小于0")
+    private Integer minLayoverMinutes = 60;
+
+    @Min(value = 0, message = "最长中转时间不能小于0")
+    @Max(value = 1440, message = "最长中转时间不能超过1440分钟")
+    private Integer maxLayoverMinutes = 360;
+
+    @Pattern(regexp = "duration|price", message = "排序方式必须是 duration 或 price")
+    private String sortBy = "duration";
+
+    @Min(value = 1, message = "返回条数不能小于1")
+    @Max(value = 100, message = "返回条数不能大于100")
+    private Integer limit = 20;
+
+    public ConnectionSearchRequest() {}
+
+    public String getDepartureCity() {
+        return departureCity;
+    }
+
+    public void setDepartureCity(String departureCity) {
+        this.departureCity = departureCity;
+    }
+
+    public String getArrivalCity() {
+        return arrivalCity;
+    }
+
+    public void setArrivalCity(String arrivalCity) {
+        this.arrivalCity = arrivalCity;
+    }
+
+    public LocalDate getDepartureDate() {
+        return departureDate;
+    }
+
+    public void setDepartureDate(LocalDate departureDate) {
+        this.departureDate = departureDate;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getMaxStops() {
+        return maxStops;
+    }
+
+    public void setMaxStops(Integer maxStops) {
+        this.maxStops = maxStops;
+    }
+
+    public Integer getMinLayoverMinutes() {
+        return minLayoverMinutes;
+    }
+
+    public void setMinLayoverMinutes(Integer minLayoverMinutes) {
+        this.minLayoverMinutes = minLayoverMinutes;
+    }
+
+    public Integer getMaxLayoverMinutes() {
+        return maxLayoverMinutes;
+    }
+
+    public void setMaxLayoverMinutes(Integer maxLayoverMinutes) {
+        this.maxLayoverMinutes = maxLayoverMinutes;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public void setSortBy(String sortBy) {
+        this.sortBy = sortBy;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,22 @@
+package com.liajay.flightbooking.inventory.web.request;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * 批量新建航班请求
+ */
+public class FlightBatchCreateRequest {
+
+    @NotEmpty(message = "航班列表不能为空")
+    private List<@Valid FlightCreateRequest> flights;
+
+    public List<FlightCreateRequest> getFlights() {
+        return flights;
+    }
+
+    public void setFlights(List<FlightCreateRequest> flights) {
+        this.flights = flights;
+    }
+}
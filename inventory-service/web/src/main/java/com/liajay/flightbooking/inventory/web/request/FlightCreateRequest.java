@@ -0,0 +1,126 @@
+package com.liajay.flightbooking.inventory.web.request;
+
+import com.liajay.flightbooking.inventory.dal.dataobject.SeatClass;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 新建航班请求
+ */
+public class FlightCreateRequest {
+
+    @NotBlank(message = "航班号不能为空")
+    @Size(max = 20, message = "航班号长度不能超过20")
+    private String flightNumber;
+
+    @NotBlank(message = "航空公司不能为空")
+    private String airline;
+
+    @NotBlank(message = "出发城市不能为空")
+    private String departureCity;
+
+    @NotBlank(message = "到达城市不能为空")
+    private String arrivalCity;
+
+    /**
+     * 起飞时间，ISO格式，如 2025-08-21T08:00:00
+     */
+    @NotNull(message = "起飞时间不能为空")
+    private LocalDateTime departureTime;
+
+    @NotNull(message = "到达时间不能为空")
+    private LocalDateTime arrivalTime;
+
+    @NotNull(message = "基础价格不能为空")
+    @DecimalMin(value = "0.01", message = "基础价格必须大于0")
+    private BigDecimal basePrice;
+
+    /**
+     * 机型代码，如 B737、A320，座位按该机型的布局模板生成
+     */
+    @NotBlank(message = "机型不能为空")
+    private String aircraftType;
+
+    /**
+     * 指定舱位票价（可选），未指定的舱位按 基础价格 × 票价系数 计算
+     */
+    private Map<SeatClass, BigDecimal> classPrices;
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+
+    public String getAirline() {
+        return airline;
+    }
+
+    public void setAirline(String airline) {
+        this.airline = airline;
+    }
+
+    public String getDepartureCity() {
+        return departureCity;
+    }
+
+    public void setDepartureCity(String departureCity) {
+        this.departureCity = departureCity;
+    }
+
+    public String getArrivalCity() {
+        return arrivalCity;
+    }
+
+    public void setArrivalCity(String arrivalCity) {
+        this.arrivalCity = arrivalCity;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(LocalDateTime departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public void setArrivalTime(LocalDateTime arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+
+    public BigDecimal getBasePrice() {
+        return basePrice;
+    }
+
+    public void setBasePrice(BigDecimal basePrice) {
+        this.basePrice = basePrice;
+    }
+
+    public String getAircraftType() {
+        return aircraftType;
+    }
+
+    public void setAircraftType(String aircraftType) {
+        this.aircraftType = aircraftType;
+    }
+
+    public Map<SeatClass, BigDecimal> getClassPrices() {
+        return classPrices;
+    }
+
+    public void setClassPrices(Map<SeatClass, BigDecimal> classPrices) {
+        this.classPrices = classPrices;
+    }
+}
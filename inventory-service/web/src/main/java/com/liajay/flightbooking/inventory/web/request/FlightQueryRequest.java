@@ -1,8 +1,14 @@
 package com.liajay.flightbooking.inventory.web.request;
 
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -18,14 +24,44 @@ public class FlightQueryRequest {
     
     private String arrivalCity;
     
+    /**
+     * 起飞时间下限（含），ISO格式，如 2025-08-21T00:00:00
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     private LocalDateTime startTime;
     
+    /**
+     * 起飞时间上限（含），ISO格式
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     private LocalDateTime endTime;
+
+    /**
+     * 起飞日期，如 2025-08-21，指定后按当天 00:00:00 ~ 23:59:59 查询，优先于 startTime/endTime
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate departureDate;
     
     @Pattern(regexp = "SCHEDULED|DELAYED|CANCELLED|DEPARTED|ARRIVED", 
              message = "航班状态必须是 SCHEDULED, DELAYED, CANCELLED, DEPARTED, ARRIVED 之一")
     private String status = "SCHEDULED";
     
+    /**
+     * 票价区间（含）
+     */
+    @DecimalMin(value = "0", message = "最低票价不能小于0")
+    private BigDecimal minPrice;
+
+    @DecimalMin(value = "0", message = "最高票价不能小于0")
+    private BigDecimal maxPrice;
+
+    /**
+     * 只返回票价最低的前N个航班，设置后忽略分页和排序参数
+     */
+    @Min(value = 1, message = "最低价航班数不能小于1")
+    @Max(value = 100, message = "最低价航班数不能大于100")
+    private Integer cheapest;
+
     @Min(value = 0, message = "页码不能小于0")
     private Integer page = 0;
     
@@ -39,6 +75,22 @@ public class FlightQueryRequest {
     @Pattern(regexp = "ASC|DESC", message = "排序方向必须是 ASC 或 DESC")
     private String sortDirection = "ASC";
 
+    @Pattern(regexp = "offset|cursor", message = "分页模式必须是 offset 或 cursor")
+    private String pagingMode = "offset";
+
+    /**
+     * 游标分页的续页令牌，取自上一页结果的 nextCursor
+     */
+    private String cursor;
+
+    /**
+     * 游标分页时是否统计总数
+     */
+    private Boolean includeTotal = false;
+
+    @Pattern(regexp = "exact|cached|estimated", message = "总数统计方式必须是 exact, cached, estimated 之一")
+    private String countStrategy = "exact";
+
     public FlightQueryRequest() {}
 
     // Getter and Setter methods
@@ -90,6 +142,14 @@ public class FlightQueryRequest {
         this.endTime = endTime;
     }
 
+    public LocalDate getDepartureDate() {
+        return departureDate;
+    }
+
+    public void setDepartureDate(LocalDate departureDate) {
+        this.departureDate = departureDate;
+    }
+
     public String getStatus() {
         return status;
     }
@@ -98,6 +158,30 @@ public class FlightQueryRequest {
         this.status = status;
     }
 
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Integer getCheapest() {
+        return cheapest;
+    }
+
+    public void setCheapest(Integer cheapest) {
+        this.cheapest = cheapest;
+    }
+
     public Integer getPage() {
         return page;
     }
@@ -129,4 +213,36 @@ public class FlightQueryRequest {
     public void setSortDirection(String sortDirection) {
         this.sortDirection = sortDirection;
     }
+
+    public String getPagingMode() {
+        return pagingMode;
+    }
+
+    public void setPagingMode(String pagingMode) {
+        this.pagingMode = pagingMode;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Boolean getIncludeTotal() {
+        return includeTotal;
+    }
+
+    public void setIncludeTotal(Boolean includeTotal) {
+        this.includeTotal = includeTotal;
+    }
+
+    public String getCountStrategy() {
+        return countStrategy;
+    }
+
+    public void setCountStrategy(String countStrategy) {
+        this.countStrategy = countStrategy;
+    }
 }
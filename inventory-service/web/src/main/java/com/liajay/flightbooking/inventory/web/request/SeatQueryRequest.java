@@ -31,6 +31,22 @@ public class SeatQueryRequest {
     @Pattern(regexp = "ASC|DESC", message = "排序方向必须是 ASC 或 DESC")
     private String sortDirection = "ASC";
 
+    @Pattern(regexp = "offset|cursor", message = "分页模式必须是 offset 或 cursor")
+    private String pagingMode = "offset";
+
+    /**
+     * 游标分页的续页令牌，取自上一页结果的 nextCursor
+     */
+    private String cursor;
+
+    /**
+     * 游标分页时是否统计总数
+     */
+    private Boolean includeTotal = false;
+
+    @Pattern(regexp = "exact|cached|estimated", message = "总数统计方式必须是 exact, cached, estimated 之一")
+    private String countStrategy = "exact";
+
     public SeatQueryRequest() {}
 
     // Getter and Setter methods
@@ -97,4 +113,36 @@ public class SeatQueryRequest {
     public void setSortDirection(String sortDirection) {
         this.sortDirection = sortDirection;
     }
+
+    public String getPagingMode() {
+        return pagingMode;
+    }
+
+    public void setPagingMode(String pagingMode) {
+        this.pagingMode = pagingMode;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Boolean getIncludeTotal() {
+        return includeTotal;
+    }
+
+    public void setIncludeTotal(Boolean includeTotal) {
+        this.includeTotal = includeTotal;
+    }
+
+    public String getCountStrategy() {
+        return countStrategy;
+    }
+
+    public void setCountStrategy(String countStrategy) {
+        this.countStrategy = countStrategy;
+    }
 }
@@ -0,0 +1,103 @@
+package com.liajay.flightbooking.order.dal.mapper;
+
+import com.liajay.flightbooking.order.dal.dataobject.OrderTicket;
+import com.liajay.flightbooking.order.dal.dataobject.OrderTicketStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OrderTicketMapper领取令牌测试
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = "classpath:schema.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "classpath:clean.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class OrderTicketMapperTest {
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    @Autowired
+    private OrderTicketMapper orderTicketMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testOldTokenCannotWriteResult() {
+        OrderTicket ticket = insertTicket("t1");
+        List<Long> ids = List.of(ticket.getId());
+        assertEquals(1, orderTicketMapper.markProcessing(ids, "token1"));
+        orderTicketMapper.releaseClaims(ids, "token1", MAX_ATTEMPTS);
+        assertEquals(1, orderTicketMapper.markProcessing(ids, "token2"));
+
+        // 上一次领取的消费者不能回写结果
+        ticket.setOrderNumber("ORD202506010001");
+        assertEquals(0, orderTicketMapper.markSucceeded(List.of(ticket), "token1"));
+        assertEquals(0, orderTicketMapper.markFailed(ids, "token1", "该航班没有可用座位"));
+        assertEquals(0, orderTicketMapper.releaseClaims(ids, "token1", MAX_ATTEMPTS));
+
+        assertEquals(1, orderTicketMapper.markSucceeded(List.of(ticket), "token2"));
+        OrderTicket saved = orderTicketMapper.findByTicketId("t1");
+        assertEquals(OrderTicketStatus.SUCCESS, saved.getStatus());
+        assertEquals("ORD202506010001", saved.getOrderNumber());
+        assertNull(saved.getClaimToken());
+    }
+
+    @Test
+    void testStaleClaimClearsToken() {
+        OrderTicket ticket = insertTicket("t1");
+        List<Long> ids = List.of(ticket.getId());
+        orderTicketMapper.markProcessing(ids, "token1");
+        jdbcTemplate.update("UPDATE order_tickets SET gmt_modified = NOW() - INTERVAL 10 MINUTE WHERE id = ?", ticket.getId());
+
+        assertEquals(1, orderTicketMapper.releaseStaleClaims(300, MAX_ATTEMPTS));
+        OrderTicket saved = orderTicketMapper.findByTicketId("t1");
+        assertEquals(OrderTicketStatus.PENDING, saved.getStatus());
+        assertNull(saved.getClaimToken());
+
+        // 令牌已清除，超时的消费者回写结果不生效
+        assertEquals(0, orderTicketMapper.markFailed(ids, "token1", "该航班没有可用座位"));
+        assertEquals(OrderTicketStatus.PENDING, orderTicketMapper.findByTicketId("t1").getStatus());
+    }
+
+    @Test
+    void testExceededAttemptsFailsAndWaitsForSeatRelease() {
+        OrderTicket ticket = insertTicket("t1");
+        List<Long> ids = List.of(ticket.getId());
+        orderTicketMapper.markProcessing(ids, "token1");
+        assertEquals(1, orderTicketMapper.releaseClaims(ids, "token1", MAX_ATTEMPTS));
+        assertEquals(OrderTicketStatus.PENDING, orderTicketMapper.findByTicketId("t1").getStatus());
+        assertTrue(orderTicketMapper.findSeatReleasePending(10).isEmpty());
+
+        orderTicketMapper.markProcessing(ids, "token2");
+        assertEquals(1, orderTicketMapper.releaseClaims(ids, "token2", MAX_ATTEMPTS));
+        OrderTicket saved = orderTicketMapper.findByTicketId("t1");
+        assertEquals(OrderTicketStatus.FAILED, saved.getStatus());
+        assertEquals(2, saved.getAttempts());
+        assertTrue(saved.getSeatReleasePending());
+
+        List<OrderTicket> pending = orderTicketMapper.findSeatReleasePending(10);
+        assertEquals(1, pending.size());
+        assertEquals("t1", pending.get(0).getTicketId());
+        assertEquals(1, orderTicketMapper.clearSeatReleasePending(ids));
+        assertTrue(orderTicketMapper.findSeatReleasePending(10).isEmpty());
+
+        // 只有失败的工单会重新标记
+        OrderTicket other = insertTicket("t2");
+        assertEquals(1, orderTicketMapper.markSeatReleasePending(List.of(ticket.getId(), other.getId())));
+    }
+
+    private OrderTicket insertTicket(String ticketId) {
+        OrderTicket ticket = new OrderTicket(ticketId, 1L, "CA1234");
+        assertEquals(1, orderTicketMapper.insert(ticket));
+        return ticket;
+    }
+}
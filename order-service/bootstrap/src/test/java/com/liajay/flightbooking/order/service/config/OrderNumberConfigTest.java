@@ -0,0 +1,47 @@
+package com.liajay.flightbooking.order.service.config;
+
+import com.liajay.flightbooking.order.dal.mapper.IdSegmentMapper;
+import com.liajay.flightbooking.order.service.id.OrderNumberGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * OrderNumberConfig单元测试
+ */
+class OrderNumberConfigTest {
+
+    @Test
+    void testSnowflakeRequiresExplicitWorkerId() {
+        OrderNumberConfig config = snowflakeConfig();
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> createGenerator(config));
+        assertTrue(e.getMessage().contains("worker-id"));
+    }
+
+    @Test
+    void testSnowflakeRejectsWorkerIdOutOfRange() {
+        OrderNumberConfig config = snowflakeConfig();
+        config.setWorkerId(64L);
+        assertThrows(IllegalStateException.class, () -> createGenerator(config));
+        config.setWorkerId(-1L);
+        assertThrows(IllegalStateException.class, () -> createGenerator(config));
+
+        config.setWorkerId(63L);
+        OrderNumberGenerator generator = createGenerator(config);
+        assertTrue(generator.nextOrderNumber(1L).startsWith("ORD"));
+        generator.shutdown();
+    }
+
+    private static OrderNumberConfig snowflakeConfig() {
+        OrderNumberConfig config = new OrderNumberConfig();
+        config.setType("snowflake");
+        config.setWorkerBits(6);
+        return config;
+    }
+
+    private static OrderNumberGenerator createGenerator(OrderNumberConfig config) {
+        return config.orderNumberGenerator(mock(IdSegmentMapper.class), mock(PlatformTransactionManager.class));
+    }
+}
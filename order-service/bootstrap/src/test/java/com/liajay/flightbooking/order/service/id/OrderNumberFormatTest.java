@@ -0,0 +1,50 @@
+package com.liajay.flightbooking.order.service.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OrderNumberFormat单元测试
+ */
+class OrderNumberFormatTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
+    @Test
+    void testPadsValueToFixedDigits() {
+        OrderNumberFormat format = new OrderNumberFormat(ZONE, 6);
+        long noon = millis(LocalDateTime.of(2025, 6, 1, 12, 0));
+        assertEquals("ORD20250601000042", format.format(noon, 42));
+        assertEquals("ORD20250601000000", format.format(noon, 0));
+        // 超出位数时不截断
+        assertEquals("ORD202506011234567", format.format(noon, 1234567));
+    }
+
+    @Test
+    void testDatePrefixRollsOverAtMidnight() {
+        OrderNumberFormat format = new OrderNumberFormat(ZONE, 3);
+        long lastMillis = millis(LocalDateTime.of(2025, 6, 1, 23, 59, 59, 999_000_000));
+        long midnight = millis(LocalDateTime.of(2025, 6, 2, 0, 0));
+        assertEquals("ORD20250601001", format.format(lastMillis, 1));
+        assertEquals("ORD20250602002", format.format(midnight, 2));
+        // 时钟回到前一天时使用前一天的日期
+        assertEquals("ORD20250601003", format.format(lastMillis, 3));
+        assertEquals("ORD20251231004", format.format(millis(LocalDateTime.of(2025, 12, 31, 8, 0)), 4));
+    }
+
+    @Test
+    void testRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberFormat(ZONE, 0));
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberFormat(ZONE, 22));
+        OrderNumberFormat format = new OrderNumberFormat(ZONE, 6);
+        assertThrows(IllegalArgumentException.class, () -> format.format(System.currentTimeMillis(), -1));
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,146 @@
+package com.liajay.flightbooking.order.service.id;
+
+import com.liajay.flightbooking.order.dal.dataobject.IdSegment;
+import com.liajay.flightbooking.order.dal.mapper.IdSegmentMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * SegmentOrderNumberGenerator单元测试
+ */
+class SegmentOrderNumberGeneratorTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+    private static final int STEP = 100;
+
+    /**
+     * 模拟 id_segments 表中的 max_id
+     */
+    private final AtomicLong maxId = new AtomicLong();
+    private IdSegmentMapper idSegmentMapper;
+    private SegmentOrderNumberGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        idSegmentMapper = mock(IdSegmentMapper.class);
+        when(idSegmentMapper.incrementMaxId(anyString())).thenAnswer(invocation -> {
+            maxId.addAndGet(STEP);
+            return 1;
+        });
+        when(idSegmentMapper.findByBizTag(anyString())).thenAnswer(invocation -> segment(maxId.get()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (generator != null) {
+            generator.shutdown();
+        }
+    }
+
+    @Test
+    void testSwitchesToPreloadedSegmentWithoutGaps() {
+        generator = newGenerator(5000L);
+        for (long expected = 0; expected < 250; expected++) {
+            assertEquals(expected, idOf(generator.nextOrderNumber(1L)));
+        }
+        // [0,100)、[100,200) 和在150处预取的 [200,300)
+        verify(idSegmentMapper, times(3)).findByBizTag("order");
+    }
+
+    @Test
+    void testConcurrentIdsAreUnique() throws Exception {
+        generator = newGenerator(5000L);
+        int threads = 8;
+        int perThread = 1000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(idOf(generator.nextOrderNumber(1L)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void testLeaseTimeoutKeepsPendingLease() throws Exception {
+        CountDownLatch slowDatabase = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            slowDatabase.await(5, TimeUnit.SECONDS);
+            return segment(maxId.get());
+        }).when(idSegmentMapper).findByBizTag(anyString());
+        generator = newGenerator(100L);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> generator.nextOrderNumber(1L));
+        assertTrue(e.getMessage().contains("超时"));
+
+        // 超时的租用没有丢弃，数据库恢复后直接使用它
+        slowDatabase.countDown();
+        assertEquals(0L, idOf(generator.nextOrderNumber(1L)));
+        verify(idSegmentMapper, times(1)).incrementMaxId("order");
+    }
+
+    @Test
+    void testFailedLeaseIsRetried() {
+        doReturn(0)
+                .doAnswer(invocation -> {
+                    maxId.addAndGet(STEP);
+                    return 1;
+                })
+                .when(idSegmentMapper).incrementMaxId(anyString());
+        generator = newGenerator(5000L);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> generator.nextOrderNumber(1L));
+        assertTrue(e.getMessage().contains("号段不存在"));
+        assertEquals(0L, idOf(generator.nextOrderNumber(1L)));
+    }
+
+    private SegmentOrderNumberGenerator newGenerator(long leaseTimeoutMillis) {
+        return new SegmentOrderNumberGenerator(idSegmentMapper,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), "order", 0.5, leaseTimeoutMillis, ZONE);
+    }
+
+    private static IdSegment segment(long max) {
+        IdSegment segment = new IdSegment();
+        segment.setBizTag("order");
+        segment.setMaxId(max);
+        segment.setStep(STEP);
+        return segment;
+    }
+
+    /**
+     * 订单号去掉 ORD + 日期后的序号
+     */
+    private static long idOf(String orderNumber) {
+        return Long.parseLong(orderNumber.substring(OrderNumberFormat.PREFIX.length() + 8));
+    }
+}
@@ -0,0 +1,115 @@
+package com.liajay.flightbooking.order.service.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnowflakeOrderNumberGenerator单元测试
+ */
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+    private static final long EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0).atZone(ZONE).toInstant().toEpochMilli();
+    private static final long NOON = LocalDateTime.of(2025, 6, 1, 12, 0).atZone(ZONE).toInstant().toEpochMilli();
+
+    @Test
+    void testConcurrentOrderNumbersAreUnique() throws Exception {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(EPOCH, 4, 4, 3, 10L, ZONE);
+        int threads = 8;
+        int perThread = 20000;
+        Set<String> orderNumbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long shardKey = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        orderNumbers.add(generator.nextOrderNumber(shardKey));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(threads * perThread, orderNumbers.size());
+        assertTrue(orderNumbers.stream().allMatch(number -> number.matches("ORD\\d{8}\\d{19}")));
+    }
+
+    @Test
+    void testShardRoundTrip() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(EPOCH, 4, 4, 3, 10L, ZONE);
+        for (long userId = -20; userId <= 40; userId++) {
+            assertEquals(Math.floorMod(userId, 16L), generator.shardOfOrderNumber(generator.nextOrderNumber(userId)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> generator.shardOfOrderNumber("ORD20250601"));
+    }
+
+    @Test
+    void testSmallClockBackwardKeepsIncreasing() {
+        AtomicLong now = new AtomicLong(NOON);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(EPOCH, 4, 4, 3, 10L, ZONE, now::get);
+
+        String first = generator.nextOrderNumber(1L);
+        // 回拨不超过阈值时沿用上次的时间戳
+        now.set(NOON - 5);
+        String second = generator.nextOrderNumber(1L);
+        assertTrue(second.compareTo(first) > 0);
+        now.set(NOON + 1);
+        assertTrue(generator.nextOrderNumber(1L).compareTo(second) > 0);
+    }
+
+    @Test
+    void testLargeClockBackwardIsRejected() {
+        AtomicLong now = new AtomicLong(NOON);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(EPOCH, 4, 4, 3, 10L, ZONE, now::get);
+        String first = generator.nextOrderNumber(1L);
+
+        now.set(NOON - 50);
+        assertThrows(IllegalStateException.class, () -> generator.nextOrderNumber(1L));
+
+        // 时钟追上后恢复发号
+        now.set(NOON + 1);
+        assertTrue(generator.nextOrderNumber(1L).compareTo(first) > 0);
+    }
+
+    @Test
+    void testExhaustedSequenceWaitsForNextMillisecond() {
+        // 分片与实例号共占14位时序列号只有8位，每毫秒256个
+        AtomicLong calls = new AtomicLong();
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(EPOCH, 7, 7, 3, 10L, ZONE,
+                () -> calls.incrementAndGet() <= 300 ? NOON : NOON + 1);
+
+        String previous = "";
+        for (int i = 0; i < 300; i++) {
+            String orderNumber = generator.nextOrderNumber(1L);
+            assertTrue(orderNumber.compareTo(previous) > 0);
+            previous = orderNumber;
+        }
+        assertTrue(calls.get() > 300);
+    }
+
+    @Test
+    void testRejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(EPOCH, 8, 8, 0, 10L, ZONE));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNumberGenerator(EPOCH, 4, 4, 16, 10L, ZONE));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeOrderNumberGenerator(System.currentTimeMillis() + 60_000L, 4, 4, 0, 10L, ZONE));
+    }
+}
@@ -0,0 +1,172 @@
+package com.liajay.flightbooking.order.service.intake;
+
+import com.liajay.flightbooking.order.dal.dataobject.Order;
+import com.liajay.flightbooking.order.dal.dataobject.OrderTicket;
+import com.liajay.flightbooking.order.dal.mapper.OrderMapper;
+import com.liajay.flightbooking.order.dal.mapper.OrderTicketMapper;
+import com.liajay.flightbooking.order.service.id.OrderNumberGenerator;
+import com.liajay.flightbooking.order.util.InventoryServiceClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * OrderIntakePipeline单元测试
+ */
+class OrderIntakePipelineTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * 模拟库存服务按请求键记住的座位：工单号 -> 座位
+     */
+    private final Map<String, InventoryServiceClient.SeatInfo> keyedSeats = new HashMap<>();
+    private final List<String> claimTokens = new ArrayList<>();
+    private final AtomicInteger nextSeat = new AtomicInteger(1);
+    private OrderTicketMapper orderTicketMapper;
+    private OrderMapper orderMapper;
+    private InventoryServiceClient inventoryServiceClient;
+    private PlatformTransactionManager transactionManager;
+    private OrderIntakePipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        orderTicketMapper = mock(OrderTicketMapper.class);
+        when(orderTicketMapper.lockPending(anyInt())).thenAnswer(invocation -> List.of(ticket(1L, "t1")));
+        when(orderTicketMapper.markProcessing(anyList(), anyString())).thenAnswer(invocation -> {
+            claimTokens.add(invocation.getArgument(1));
+            return 1;
+        });
+        when(orderTicketMapper.markSucceeded(anyList(), anyString()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        when(orderTicketMapper.markFailed(anyList(), anyString(), anyString()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        when(orderTicketMapper.releaseClaims(anyList(), anyString(), anyInt()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        when(orderTicketMapper.findSeatReleasePending(anyInt())).thenReturn(new ArrayList<>());
+
+        orderMapper = mock(OrderMapper.class);
+        inventoryServiceClient = mock(InventoryServiceClient.class);
+        when(inventoryServiceClient.allocateSeats(anyString(), anyList())).thenAnswer(invocation -> {
+            List<String> requestKeys = invocation.getArgument(1);
+            Map<String, InventoryServiceClient.SeatInfo> seats = new HashMap<>();
+            for (String requestKey : requestKeys) {
+                seats.put(requestKey, keyedSeats.computeIfAbsent(requestKey, key -> seat(nextSeat.getAndIncrement() + "A")));
+            }
+            return seats;
+        });
+
+        OrderNumberGenerator orderNumberGenerator = mock(OrderNumberGenerator.class);
+        AtomicInteger sequence = new AtomicInteger();
+        when(orderNumberGenerator.nextOrderNumber(anyLong()))
+                .thenAnswer(invocation -> "ORD20250601" + sequence.incrementAndGet());
+        transactionManager = mock(PlatformTransactionManager.class);
+        // 不启动消费者线程，定时清理间隔足够长，由测试直接驱动
+        pipeline = new OrderIntakePipeline(orderTicketMapper, orderMapper, inventoryServiceClient, orderNumberGenerator,
+                new TransactionTemplate(transactionManager), 0, 10, 100L, MAX_ATTEMPTS, 3600L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void testTokenMismatchRollsBackOrderInsert() {
+        // 工单已被放回，按本次令牌回写不到任何工单
+        doReturn(0).when(orderTicketMapper).markSucceeded(anyList(), anyString());
+
+        assertEquals(1, pipeline.processBatch());
+        verify(orderMapper).insertBatch(anyList());
+        // 领取事务提交，写入订单的事务回滚
+        verify(transactionManager, times(1)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(orderTicketMapper).releaseClaims(List.of(1L), claimTokens.get(0), MAX_ATTEMPTS);
+    }
+
+    @Test
+    void testTicketWithoutSeatGetsNoSeatMessage() {
+        doAnswer(invocation -> new HashMap<>()).when(inventoryServiceClient).allocateSeats(anyString(), anyList());
+
+        assertEquals(1, pipeline.processBatch());
+        verify(orderTicketMapper).markFailed(List.of(1L), claimTokens.get(0), "该航班没有可用座位");
+        verify(orderMapper, never()).insertBatch(anyList());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void testRetriedTicketReusesKeyedSeat() {
+        doThrow(new IllegalStateException("数据库写入失败"))
+                .doReturn(1)
+                .when(orderMapper).insertBatch(anyList());
+
+        // 第一次订单写入失败，工单放回队列；重试时用同一个请求键拿回同一个座位
+        pipeline.processBatch();
+        pipeline.processBatch();
+
+        verify(inventoryServiceClient, times(2)).allocateSeats("CA1234", List.of("t1"));
+        verify(orderTicketMapper).releaseClaims(List.of(1L), claimTokens.get(0), MAX_ATTEMPTS);
+        verify(orderTicketMapper).markSucceeded(anyList(), eq(claimTokens.get(1)));
+        assertEquals(1, keyedSeats.size());
+        verify(orderMapper, times(2)).insertBatch(argThat((List<Order> orders) ->
+                orders.size() == 1 && "1A".equals(orders.get(0).getSeatNumber())));
+    }
+
+    @Test
+    void testLostClaimFlagsFailedTicketForSeatRelease() {
+        doThrow(new IllegalStateException("数据库写入失败")).when(orderMapper).insertBatch(anyList());
+        // 工单已被清理任务放回
+        doReturn(0).when(orderTicketMapper).releaseClaims(anyList(), anyString(), anyInt());
+
+        pipeline.processBatch();
+        verify(orderTicketMapper).markSeatReleasePending(List.of(1L));
+    }
+
+    @Test
+    void testFailedSeatsAreReleasedByTicketId() {
+        doReturn(List.of(ticket(1L, "t1"), ticket(2L, "t2")))
+                .doReturn(new ArrayList<>())
+                .when(orderTicketMapper).findSeatReleasePending(anyInt());
+        when(inventoryServiceClient.releaseSeats(anyList())).thenReturn(2);
+
+        pipeline.releaseFailedSeats();
+        verify(inventoryServiceClient).releaseSeats(List.of("t1", "t2"));
+        verify(orderTicketMapper).clearSeatReleasePending(List.of(1L, 2L));
+    }
+
+    @Test
+    void testFailedSeatReleaseKeepsFlag() {
+        doReturn(List.of(ticket(1L, "t1"))).when(orderTicketMapper).findSeatReleasePending(anyInt());
+        when(inventoryServiceClient.releaseSeats(anyList())).thenThrow(new IllegalStateException("库存服务不可用"));
+
+        pipeline.releaseFailedSeats();
+        verify(orderTicketMapper, never()).clearSeatReleasePending(anyList());
+    }
+
+    private static OrderTicket ticket(long id, String ticketId) {
+        OrderTicket ticket = new OrderTicket(ticketId, 1L, "CA1234");
+        ticket.setId(id);
+        return ticket;
+    }
+
+    private static InventoryServiceClient.SeatInfo seat(String seatNumber) {
+        InventoryServiceClient.SeatInfo seat = new InventoryServiceClient.SeatInfo();
+        seat.setFlightNumber("CA1234");
+        seat.setSeatNumber(seatNumber);
+        seat.setPrice(new BigDecimal("800.00"));
+        return seat;
+    }
+}
@@ -0,0 +1,4 @@
+USE flight_booking_test;
+DROP TABLE IF EXISTS order_tickets;
+DROP TABLE IF EXISTS id_segments;
+DROP TABLE IF EXISTS orders;
\ No newline at end of file
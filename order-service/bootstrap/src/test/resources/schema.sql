@@ -0,0 +1,49 @@
+USE flight_booking_test;
+
+
+-- 创建订单表
+CREATE TABLE IF NOT EXISTS orders (
+    `id` BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    `order_number` VARCHAR(32) NOT NULL UNIQUE COMMENT '订单编号',
+    `user_id` BIGINT NOT NULL COMMENT '用户ID',
+    `flight_number` VARCHAR(20) NOT NULL COMMENT '航班号',
+    `seat_number` VARCHAR(10) NOT NULL COMMENT '座位号',
+    `amount` DECIMAL(10,2) NOT NULL COMMENT '订单金额',
+    `gmt_create` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `gmt_modified` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_order_number (order_number),
+    INDEX idx_user_id (user_id),
+    INDEX idx_user_create (user_id, gmt_create, id),
+    INDEX idx_flight_number (flight_number)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='订单表';
+
+-- 创建号段表，订单服务按业务标识租用ID号段
+CREATE TABLE IF NOT EXISTS id_segments (
+    `biz_tag` VARCHAR(64) NOT NULL PRIMARY KEY COMMENT '业务标识',
+    `max_id` BIGINT NOT NULL DEFAULT 0 COMMENT '已分配的最大ID',
+    `step` INT NOT NULL COMMENT '每次租用的号段长度',
+    `description` VARCHAR(255) DEFAULT NULL COMMENT '描述',
+    `gmt_modified` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='ID号段表';
+
+INSERT INTO id_segments (biz_tag, max_id, step, description) VALUES
+('order', 0, 100000, '订单号');
+
+-- 创建下单工单表，异步下单的持久化队列
+CREATE TABLE IF NOT EXISTS order_tickets (
+    `id` BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    `ticket_id` VARCHAR(32) NOT NULL UNIQUE COMMENT '工单号',
+    `user_id` BIGINT NOT NULL COMMENT '用户ID',
+    `flight_number` VARCHAR(20) NOT NULL COMMENT '航班号',
+    `status` VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT '工单状态',
+    `attempts` INT NOT NULL DEFAULT 0 COMMENT '领取次数',
+    `claim_token` VARCHAR(32) DEFAULT NULL COMMENT '领取令牌，每次领取重新生成',
+    `order_number` VARCHAR(32) DEFAULT NULL COMMENT '订单编号',
+    `error_message` VARCHAR(255) DEFAULT NULL COMMENT '失败原因',
+    `seat_release_pending` BOOLEAN NOT NULL DEFAULT FALSE COMMENT '工单失败后待归还按工单号分配的座位',
+    `gmt_create` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `gmt_modified` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_status_id (status, id),
+    INDEX idx_status_modified (status, gmt_modified),
+    INDEX idx_seat_release_pending (seat_release_pending, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='下单工单表';
@@ -0,0 +1,53 @@
+package com.liajay.flightbooking.order.dal.dataobject;
+
+/**
+ * 号段数据对象
+ *
+ * 每个业务标识一行，max_id 是已分配出去的最大值，每次租用把 max_id 加上 step，
+ * 租到的号段为 [max_id - step, max_id)。
+ *
+ * @author liajay
+ */
+public class IdSegment {
+
+    /**
+     * 业务标识
+     */
+    private String bizTag;
+
+    /**
+     * 已分配的最大ID（不含）
+     */
+    private Long maxId;
+
+    /**
+     * 每次租用的号段长度
+     */
+    private Integer step;
+
+    public IdSegment() {}
+
+    public String getBizTag() {
+        return bizTag;
+    }
+
+    public void setBizTag(String bizTag) {
+        this.bizTag = bizTag;
+    }
+
+    public Long getMaxId() {
+        return maxId;
+    }
+
+    public void setMaxId(Long maxId) {
+        this.maxId = maxId;
+    }
+
+    public Integer getStep() {
+        return step;
+    }
+
+    public void setStep(Integer step) {
+        this.step = step;
+    }
+}
@@ -40,7 +40,10 @@ public class Order {
      */
     private BigDecimal amount;
 
-
+    /**
+     * 创建时间
+     */
+    private LocalDateTime gmtCreate;
 
     // 构造函数
     public Order() {
@@ -102,6 +105,14 @@ public class Order {
         this.amount = amount;
     }
 
+    public LocalDateTime getGmtCreate() {
+        return gmtCreate;
+    }
+
+    public void setGmtCreate(LocalDateTime gmtCreate) {
+        this.gmtCreate = gmtCreate;
+    }
+
 
     @Override
     public String toString() {
@@ -112,6 +123,7 @@ public class Order {
                 ", flightNumber='" + flightNumber + '\'' +
                 ", seatNumber='" + seatNumber + '\'' +
                 ", amount=" + amount +
+                ", gmtCreate=" + gmtCreate +
                 '}';
     }
 }
@@ -0,0 +1,179 @@
+package com.liajay.flightbooking.order.dal.dataobject;
+
+import java.time.LocalDateTime;
+
+/**
+ * 下单工单数据对象
+ *
+ * 异步下单时请求先写入 order_tickets 表排队，消费者处理后回写结果。
+ *
+ * @author liajay
+ */
+public class OrderTicket {
+
+    /**
+     * 主键ID，也是排队顺序
+     */
+    private Long id;
+
+    /**
+     * 工单号，返回给客户端查询结果
+     */
+    private String ticketId;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 航班号
+     */
+    private String flightNumber;
+
+    /**
+     * 工单状态
+     */
+    private OrderTicketStatus status;
+
+    /**
+     * 已被消费者领取的次数
+     */
+    private Integer attempts;
+
+    /**
+     * 领取令牌，每次领取重新生成，只有持有当前令牌的消费者能回写结果
+     */
+    private String claimToken;
+
+    /**
+     * 下单成功后的订单编号
+     */
+    private String orderNumber;
+
+    /**
+     * 下单失败原因
+     */
+    private String errorMessage;
+
+    /**
+     * 工单失败后是否还需要归还按工单号分配的座位
+     */
+    private Boolean seatReleasePending;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime gmtCreate;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime gmtModified;
+
+    public OrderTicket() {}
+
+    public OrderTicket(String ticketId, Long userId, String flightNumber) {
+        this.ticketId = ticketId;
+        this.userId = userId;
+        this.flightNumber = flightNumber;
+        this.status = OrderTicketStatus.PENDING;
+        this.attempts = 0;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(String ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+
+    public OrderTicketStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderTicketStatus status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Boolean getSeatReleasePending() {
+        return seatReleasePending;
+    }
+
+    public void setSeatReleasePending(Boolean seatReleasePending) {
+        this.seatReleasePending = seatReleasePending;
+    }
+
+    public LocalDateTime getGmtCreate() {
+        return gmtCreate;
+    }
+
+    public void setGmtCreate(LocalDateTime gmtCreate) {
+        this.gmtCreate = gmtCreate;
+    }
+
+    public LocalDateTime getGmtModified() {
+        return gmtModified;
+    }
+
+    public void setGmtModified(LocalDateTime gmtModified) {
+        this.gmtModified = gmtModified;
+    }
+}
@@ -0,0 +1,21 @@
+package com.liajay.flightbooking.order.dal.dataobject;
+
+/**
+ * 下单工单状态枚举
+ */
+public enum OrderTicketStatus {
+    PENDING("排队中"),
+    PROCESSING("处理中"),
+    SUCCESS("下单成功"),
+    FAILED("下单失败");
+
+    private final String description;
+
+    OrderTicketStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
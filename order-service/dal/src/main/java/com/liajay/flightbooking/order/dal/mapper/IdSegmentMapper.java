@@ -0,0 +1,30 @@
+package com.liajay.flightbooking.order.dal.mapper;
+
+import com.liajay.flightbooking.order.dal.dataobject.IdSegment;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 号段Mapper接口
+ *
+ * @author liajay
+ */
+@Mapper
+public interface IdSegmentMapper {
+
+    /**
+     * 把指定业务的 max_id 加上 step，需要和 findByBizTag 在同一个事务中执行
+     *
+     * @param bizTag 业务标识
+     * @return 影响行数，业务标识不存在时为0
+     */
+    int incrementMaxId(@Param("bizTag") String bizTag);
+
+    /**
+     * 根据业务标识查询号段
+     *
+     * @param bizTag 业务标识
+     * @return 号段信息
+     */
+    IdSegment findByBizTag(@Param("bizTag") String bizTag);
+}
@@ -4,6 +4,7 @@ import com.liajay.flightbooking.order.dal.dataobject.Order;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -22,6 +23,14 @@ public interface OrderMapper {
      */
     int insert(Order order);
     
+    /**
+     * 批量新增订单，一条多行 INSERT
+     * 
+     * @param orders 订单列表
+     * @return 影响行数
+     */
+    int insertBatch(@Param("orders") List<Order> orders);
+    
     /**
      * 根据ID查询订单
      * 
@@ -50,6 +59,20 @@ public interface OrderMapper {
                            @Param("offset") int offset, 
                            @Param("pageSize") int pageSize);
     
+    /**
+     * 根据用户ID游标分页查询订单，按 (gmt_create, id) 倒序返回排在指定位置之后的订单
+     * 
+     * @param userId 用户ID
+     * @param beforeCreateTime 上一页最后一个订单的创建时间，为null时从最新的订单开始
+     * @param beforeId 上一页最后一个订单的ID
+     * @param limit 最多返回的条数
+     * @return 订单列表
+     */
+    List<Order> findByUserIdBefore(@Param("userId") Long userId,
+                                   @Param("beforeCreateTime") LocalDateTime beforeCreateTime,
+                                   @Param("beforeId") Long beforeId,
+                                   @Param("limit") int limit);
+    
     /**
      * 根据用户ID统计订单总数
      * 
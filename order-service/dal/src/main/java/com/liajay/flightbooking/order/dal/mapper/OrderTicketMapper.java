@@ -0,0 +1,113 @@
+package com.liajay.flightbooking.order.dal.mapper;
+
+import com.liajay.flightbooking.order.dal.dataobject.OrderTicket;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 下单工单Mapper接口
+ *
+ * @author liajay
+ */
+@Mapper
+public interface OrderTicketMapper {
+
+    /**
+     * 新增工单
+     *
+     * @param ticket 工单信息
+     * @return 影响行数
+     */
+    int insert(OrderTicket ticket);
+
+    /**
+     * 根据工单号查询工单
+     *
+     * @param ticketId 工单号
+     * @return 工单信息
+     */
+    OrderTicket findByTicketId(@Param("ticketId") String ticketId);
+
+    /**
+     * 按排队顺序锁定待处理的工单，跳过其他消费者已锁定的行，需要在事务中执行
+     *
+     * @param limit 最多锁定的条数
+     * @return 工单列表
+     */
+    List<OrderTicket> lockPending(@Param("limit") int limit);
+
+    /**
+     * 把工单标记为处理中，领取次数加1
+     *
+     * @param ids 工单主键列表
+     * @param claimToken 本次领取的令牌
+     * @return 影响行数
+     */
+    int markProcessing(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken);
+
+    /**
+     * 把仍由该令牌持有的工单标记为成功，同时写入对应的订单编号
+     *
+     * @param tickets 工单列表，orderNumber 已填写
+     * @param claimToken 领取令牌
+     * @return 影响行数，少于工单数说明部分工单已被放回或重新领取
+     */
+    int markSucceeded(@Param("tickets") List<OrderTicket> tickets, @Param("claimToken") String claimToken);
+
+    /**
+     * 把仍由该令牌持有的工单标记为失败
+     *
+     * @param ids 工单主键列表
+     * @param claimToken 领取令牌
+     * @param errorMessage 失败原因
+     * @return 影响行数
+     */
+    int markFailed(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken,
+                   @Param("errorMessage") String errorMessage);
+
+    /**
+     * 放回仍由该令牌持有的工单，领取次数达到上限的标记为失败并等待归还座位
+     *
+     * @param ids 工单主键列表
+     * @param claimToken 领取令牌
+     * @param maxAttempts 最大领取次数
+     * @return 影响行数
+     */
+    int releaseClaims(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken,
+                      @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * 放回处理超时的工单（消费者所在实例宕机等），领取次数达到上限的标记为失败并等待归还座位
+     *
+     * @param timeoutSeconds 处理超时时间（秒）
+     * @param maxAttempts 最大领取次数
+     * @return 影响行数
+     */
+    int releaseStaleClaims(@Param("timeoutSeconds") long timeoutSeconds, @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * 按排队顺序查询待归还座位的失败工单
+     *
+     * @param limit 最多返回的条数
+     * @return 工单列表
+     */
+    List<OrderTicket> findSeatReleasePending(@Param("limit") int limit);
+
+    /**
+     * 重新标记已失败的工单待归还座位
+     *
+     * @param ids 工单主键列表
+     * @return 影响行数
+     */
+    int markSeatReleasePending(@Param("ids") List<Long> ids);
+
+    /**
+     * 清除待归还座位标记
+     *
+     * @param ids 工单主键列表
+     * @return 影响行数
+     */
+    int clearSeatReleasePending(@Param("ids") List<Long> ids);
+}
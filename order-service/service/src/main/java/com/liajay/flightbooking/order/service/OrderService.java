@@ -4,6 +4,7 @@ import com.liajay.flightbooking.order.model.vo.OrderVO;
 import com.liajay.flightbooking.order.service.dto.CreateOrderDTO;
 import com.liajay.flightbooking.order.service.dto.CreateOrderWithSeatAllocationDTO;
 import com.liajay.flightbooking.order.service.dto.OrderQueryResultDTO;
+import com.liajay.flightbooking.order.service.dto.OrderTicketDTO;
 
 /**
  * 订单服务接口
@@ -38,6 +39,17 @@ public interface OrderService {
      */
     OrderQueryResultDTO getOrdersByUserId(Long userId, int page, int size);
     
+    /**
+     * 根据用户ID游标分页查询订单，按创建时间倒序
+     * 
+     * @param userId 用户ID
+     * @param cursor 上一页返回的续页令牌，查询第一页时为null
+     * @param size 页大小
+     * @param includeTotal 是否统计订单总数
+     * @return 订单查询结果
+     */
+    OrderQueryResultDTO getOrdersByUserIdWithCursor(Long userId, String cursor, int size, boolean includeTotal);
+    
     /**
      * 创建订单并自动分配座位
      * 
@@ -45,4 +57,21 @@ public interface OrderService {
      * @return 订单VO
      */
     OrderVO createOrderWithSeatAllocation(CreateOrderWithSeatAllocationDTO createOrderDTO);
+    
+    /**
+     * 异步创建订单并自动分配座位，请求排队后立即返回工单，稍后通过工单号查询结果
+     * 
+     * @param createOrderDTO 创建订单DTO
+     * @return 排队中的工单
+     */
+    OrderTicketDTO submitOrderWithSeatAllocation(CreateOrderWithSeatAllocationDTO createOrderDTO);
+    
+    /**
+     * 查询异步下单工单
+     * 
+     * @param ticketId 工单号
+     * @param userId 用户ID，只能查询自己的工单
+     * @return 工单信息，不存在时返回null
+     */
+    OrderTicketDTO getOrderTicket(String ticketId, Long userId);
 }
@@ -0,0 +1,97 @@
+package com.liajay.flightbooking.order.service.config;
+
+import com.liajay.flightbooking.order.dal.mapper.OrderMapper;
+import com.liajay.flightbooking.order.dal.mapper.OrderTicketMapper;
+import com.liajay.flightbooking.order.service.id.OrderNumberGenerator;
+import com.liajay.flightbooking.order.service.intake.OrderIntakePipeline;
+import com.liajay.flightbooking.order.util.InventoryServiceClient;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 异步下单配置类
+ *
+ * @author liajay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "order.intake")
+public class OrderIntakeConfig {
+
+    /**
+     * 本实例的消费者线程数，为0时只接收请求不处理
+     */
+    private int consumers = 2;
+
+    /**
+     * 每个消费者一次领取的工单数
+     */
+    private int batchSize = 50;
+
+    /**
+     * 队列为空时的轮询间隔（毫秒）
+     */
+    private long pollIntervalMillis = 100L;
+
+    /**
+     * 单个工单最多被领取的次数
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * 工单处理超时时间（秒），超时后放回队列
+     */
+    private long processingTimeoutSeconds = 300L;
+
+    @Bean(destroyMethod = "shutdown")
+    public OrderIntakePipeline orderIntakePipeline(OrderTicketMapper orderTicketMapper, OrderMapper orderMapper,
+                                                   InventoryServiceClient inventoryServiceClient,
+                                                   OrderNumberGenerator orderNumberGenerator,
+                                                   PlatformTransactionManager transactionManager) {
+        return new OrderIntakePipeline(orderTicketMapper, orderMapper, inventoryServiceClient, orderNumberGenerator,
+                new TransactionTemplate(transactionManager), consumers, batchSize, pollIntervalMillis,
+                maxAttempts, processingTimeoutSeconds);
+    }
+
+    public int getConsumers() {
+        return consumers;
+    }
+
+    public void setConsumers(int consumers) {
+        this.consumers = consumers;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getProcessingTimeoutSeconds() {
+        return processingTimeoutSeconds;
+    }
+
+    public void setProcessingTimeoutSeconds(long processingTimeoutSeconds) {
+        this.processingTimeoutSeconds = processingTimeoutSeconds;
+    }
+}
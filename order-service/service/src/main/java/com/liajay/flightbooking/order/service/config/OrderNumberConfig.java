@@ -0,0 +1,179 @@
+package com.liajay.flightbooking.order.service.config;
+
+import com.liajay.flightbooking.order.dal.mapper.IdSegmentMapper;
+import com.liajay.flightbooking.order.service.id.OrderNumberGenerator;
+import com.liajay.flightbooking.order.service.id.SegmentOrderNumberGenerator;
+import com.liajay.flightbooking.order.service.id.SnowflakeOrderNumberGenerator;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * 订单号生成配置类
+ *
+ * @author liajay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "order.id")
+public class OrderNumberConfig {
+
+    /**
+     * 生成方式：segment（数据库号段）或 snowflake（雪花算法）
+     */
+    private String type = "segment";
+
+    /**
+     * 订单号中日期使用的时区
+     */
+    private String zone = "Asia/Shanghai";
+
+    /**
+     * 号段模式：id_segments 表中的业务标识
+     */
+    private String bizTag = "order";
+
+    /**
+     * 号段模式：当前号段消费到该比例时开始预取下一个号段
+     */
+    private double preloadRatio = 0.1;
+
+    /**
+     * 号段模式：等待租用号段的最长时间（毫秒）
+     */
+    private long leaseTimeoutMillis = 3000L;
+
+    /**
+     * 雪花模式：时间戳起点
+     */
+    private String epoch = "2025-01-01";
+
+    /**
+     * 雪花模式：分片位数，订单号中编码用户ID对 2^shardBits 取模的结果
+     */
+    private int shardBits = 4;
+
+    /**
+     * 雪花模式：实例号位数
+     */
+    private int workerBits = 6;
+
+    /**
+     * 雪花模式：本实例的实例号，各实例必须不同，没有默认值，必须显式配置
+     */
+    private Long workerId;
+
+    /**
+     * 雪花模式：可容忍的时钟回拨（毫秒）
+     */
+    private long maxBackwardMillis = 10L;
+
+    @Bean(destroyMethod = "shutdown")
+    public OrderNumberGenerator orderNumberGenerator(IdSegmentMapper idSegmentMapper,
+                                                     PlatformTransactionManager transactionManager) {
+        ZoneId zoneId = ZoneId.of(zone);
+        if ("snowflake".equalsIgnoreCase(type)) {
+            // 实例号相同的实例会生成重复的订单号，未配置时启动失败而不是默认为0
+            if (workerId == null) {
+                throw new IllegalStateException("雪花模式必须为每个实例配置不同的 order.id.worker-id");
+            }
+            if (workerBits < 0 || workerBits >= Long.SIZE - 1 || workerId < 0 || workerId >= 1L << workerBits) {
+                throw new IllegalStateException("order.id.worker-id 必须在0到2^worker-bits-1之间: worker-id="
+                        + workerId + ", worker-bits=" + workerBits);
+            }
+            long epochMillis = LocalDate.parse(epoch).atStartOfDay(zoneId).toInstant().toEpochMilli();
+            return new SnowflakeOrderNumberGenerator(epochMillis, shardBits, workerBits, workerId,
+                    maxBackwardMillis, zoneId);
+        }
+        if ("segment".equalsIgnoreCase(type)) {
+            return new SegmentOrderNumberGenerator(idSegmentMapper,
+                    new TransactionTemplate(transactionManager), bizTag, preloadRatio,
+                    leaseTimeoutMillis, zoneId);
+        }
+        throw new IllegalArgumentException("未知的订单号生成方式: " + type);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
+    public String getBizTag() {
+        return bizTag;
+    }
+
+    public void setBizTag(String bizTag) {
+        this.bizTag = bizTag;
+    }
+
+    public double getPreloadRatio() {
+        return preloadRatio;
+    }
+
+    public void setPreloadRatio(double preloadRatio) {
+        this.preloadRatio = preloadRatio;
+    }
+
+    public long getLeaseTimeoutMillis() {
+        return leaseTimeoutMillis;
+    }
+
+    public void setLeaseTimeoutMillis(long leaseTimeoutMillis) {
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(String epoch) {
+        this.epoch = epoch;
+    }
+
+    public int getShardBits() {
+        return shardBits;
+    }
+
+    public void setShardBits(int shardBits) {
+        this.shardBits = shardBits;
+    }
+
+    public int getWorkerBits() {
+        return workerBits;
+    }
+
+    public void setWorkerBits(int workerBits) {
+        this.workerBits = workerBits;
+    }
+
+    public Long getWorkerId() {
+        return workerId;
+    }
+
+    public void setWorkerId(Long workerId) {
+        this.workerId = workerId;
+    }
+
+    public long getMaxBackwardMillis() {
+        return maxBackwardMillis;
+    }
+
+    public void setMaxBackwardMillis(long maxBackwardMillis) {
+        this.maxBackwardMillis = maxBackwardMillis;
+    }
+}
@@ -17,9 +17,9 @@ public class OrderQueryResultDTO {
     private List<OrderVO> orders;
     
     /**
-     * 总数
+     * 总数，游标分页未要求统计时为null
      */
-    private long total;
+    private Long total;
     
     /**
      * 当前页
@@ -35,6 +35,11 @@ public class OrderQueryResultDTO {
      * 总页数
      */
     private int totalPages;
+    
+    /**
+     * 游标分页时下一页的续页令牌，没有下一页时为null
+     */
+    private String nextCursor;
 
     // 构造函数
     public OrderQueryResultDTO() {
@@ -52,13 +57,23 @@ public class OrderQueryResultDTO {
     public static OrderQueryResultDTO fromList(List<OrderVO> orders) {
         OrderQueryResultDTO result = new OrderQueryResultDTO();
         result.setOrders(orders);
-        result.setTotal(orders.size());
+        result.setTotal((long) orders.size());
         result.setCurrentPage(1);
         result.setPageSize(orders.size());
         result.setTotalPages(1);
         return result;
     }
 
+    public static OrderQueryResultDTO fromCursorPage(List<OrderVO> orders, int pageSize, String nextCursor, Long total) {
+        OrderQueryResultDTO result = new OrderQueryResultDTO();
+        result.setOrders(orders);
+        result.setTotal(total);
+        result.setPageSize(pageSize);
+        result.setTotalPages(total != null && pageSize > 0 ? (int) Math.ceil((double) total / pageSize) : 0);
+        result.setNextCursor(nextCursor);
+        return result;
+    }
+
     // Getter和Setter方法
     public List<OrderVO> getOrders() {
         return orders;
@@ -68,11 +83,11 @@ public class OrderQueryResultDTO {
         this.orders = orders;
     }
 
-    public long getTotal() {
+    public Long getTotal() {
         return total;
     }
 
-    public void setTotal(long total) {
+    public void setTotal(Long total) {
         this.total = total;
     }
 
@@ -99,4 +114,12 @@ public class OrderQueryResultDTO {
     public void setTotalPages(int totalPages) {
         this.totalPages = totalPages;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
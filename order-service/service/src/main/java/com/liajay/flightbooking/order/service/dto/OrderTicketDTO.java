@@ -0,0 +1,102 @@
+package com.liajay.flightbooking.order.service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 异步下单工单DTO
+ */
+public class OrderTicketDTO {
+
+    /**
+     * 工单号
+     */
+    private String ticketId;
+
+    /**
+     * 航班号
+     */
+    private String flightNumber;
+
+    /**
+     * 工单状态：PENDING、PROCESSING、SUCCESS、FAILED
+     */
+    private String status;
+
+    /**
+     * 状态描述
+     */
+    private String statusDescription;
+
+    /**
+     * 下单成功后的订单编号
+     */
+    private String orderNumber;
+
+    /**
+     * 下单失败原因
+     */
+    private String errorMessage;
+
+    /**
+     * 提交时间
+     */
+    private LocalDateTime submitTime;
+
+    public OrderTicketDTO() {}
+
+    public String getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(String ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public void setFlightNumber(String flightNumber) {
+        this.flightNumber = flightNumber;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getStatusDescription() {
+        return statusDescription;
+    }
+
+    public void setStatusDescription(String statusDescription) {
+        this.statusDescription = statusDescription;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public LocalDateTime getSubmitTime() {
+        return submitTime;
+    }
+
+    public void setSubmitTime(LocalDateTime submitTime) {
+        this.submitTime = submitTime;
+    }
+}
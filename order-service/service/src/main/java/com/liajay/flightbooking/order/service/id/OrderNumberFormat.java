@@ -0,0 +1,109 @@
+package com.liajay.flightbooking.order.service.id;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * 订单号格式化
+ *
+ * 日期前缀按天缓存，数字直接写入线程私有的字符数组，除最终的 String 外不产生临时对象，
+ * 也不经过 DateTimeFormatter 和 String.format。
+ *
+ * @author liajay
+ */
+final class OrderNumberFormat {
+
+    static final String PREFIX = "ORD";
+
+    /**
+     * 与 orders.order_number 列宽一致
+     */
+    private static final int MAX_LENGTH = 32;
+
+    private static final int PREFIX_LENGTH = PREFIX.length() + 8;
+
+    private final ZoneId zone;
+    private final int digits;
+    private final ThreadLocal<char[]> buffers = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+    private volatile DatePrefix datePrefix;
+
+    /**
+     * @param digits 序号至少占的位数，不足时左侧补0，保证同一天内订单号的字典序与数值序一致
+     */
+    OrderNumberFormat(ZoneId zone, int digits) {
+        if (digits < 1 || PREFIX_LENGTH + digits > MAX_LENGTH) {
+            throw new IllegalArgumentException("订单号序号位数必须在1到" + (MAX_LENGTH - PREFIX_LENGTH) + "之间");
+        }
+        this.zone = zone;
+        this.digits = digits;
+        this.datePrefix = DatePrefix.of(System.currentTimeMillis(), zone);
+    }
+
+    /**
+     * 按指定时间所在的日期格式化订单号
+     *
+     * @param epochMillis 生成时间
+     * @param value 非负序号
+     */
+    String format(long epochMillis, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("订单序号不能为负数: " + value);
+        }
+        DatePrefix prefix = datePrefix;
+        if (epochMillis < prefix.startMillis || epochMillis >= prefix.endMillis) {
+            prefix = DatePrefix.of(epochMillis, zone);
+            datePrefix = prefix;
+        }
+
+        char[] buffer = buffers.get();
+        System.arraycopy(prefix.chars, 0, buffer, 0, PREFIX_LENGTH);
+        int end = PREFIX_LENGTH + Math.max(digits, digitCount(value));
+        int pos = end;
+        do {
+            buffer[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (pos > PREFIX_LENGTH) {
+            buffer[--pos] = '0';
+        }
+        return new String(buffer, 0, end);
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 某一天的订单号前缀及其生效时间范围 [startMillis, endMillis)
+     */
+    private static final class DatePrefix {
+        private final long startMillis;
+        private final long endMillis;
+        private final char[] chars;
+
+        private DatePrefix(long startMillis, long endMillis, char[] chars) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.chars = chars;
+        }
+
+        private static DatePrefix of(long epochMillis, ZoneId zone) {
+            LocalDate day = Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+            int date = day.getYear() * 10000 + day.getMonthValue() * 100 + day.getDayOfMonth();
+            char[] chars = new char[PREFIX_LENGTH];
+            PREFIX.getChars(0, PREFIX.length(), chars, 0);
+            for (int i = PREFIX_LENGTH - 1; i >= PREFIX.length(); i--) {
+                chars[i] = (char) ('0' + date % 10);
+                date /= 10;
+            }
+            return new DatePrefix(day.atStartOfDay(zone).toInstant().toEpochMilli(),
+                    day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli(), chars);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.liajay.flightbooking.order.service.id;
+
+/**
+ * 订单号生成器
+ *
+ * 订单号格式为 ORD + 年月日 + 定长数字序号，多个订单服务实例同时生成也不会重复，大致按时间递增。
+ *
+ * @author liajay
+ */
+public interface OrderNumberGenerator {
+
+    /**
+     * 生成下一个订单号
+     *
+     * @param shardKey 分片键（用户ID），不按分片编码的实现忽略该参数
+     * @return 订单号
+     */
+    String nextOrderNumber(long shardKey);
+
+    /**
+     * 释放后台线程等资源
+     */
+    default void shutdown() {
+    }
+}
@@ -0,0 +1,156 @@
+package com.liajay.flightbooking.order.service.id;
+
+import com.liajay.flightbooking.order.dal.dataobject.IdSegment;
+import com.liajay.flightbooking.order.dal.mapper.IdSegmentMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZoneId;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 号段模式订单号生成器
+ *
+ * 每次从 id_segments 表租用 step 个连续ID，在内存中递增发放，租用靠数据库行锁保证各实例的号段不重叠。
+ * 当前号段消费到 preloadRatio 时在后台线程预取下一个号段（双缓冲），当前号段用完直接切换，
+ * 数据库短暂不可用时仍能用完缓冲中的号段。服务重启会丢弃未用完的号段，ID 不连续但不会重复。
+ *
+ * @author liajay
+ */
+public class SegmentOrderNumberGenerator implements OrderNumberGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentOrderNumberGenerator.class);
+
+    /**
+     * 序号位数，号段ID全局递增，不按天重置
+     */
+    private static final int DIGITS = 12;
+
+    private final IdSegmentMapper idSegmentMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final String bizTag;
+    private final double preloadRatio;
+    private final long leaseTimeoutMillis;
+    private final OrderNumberFormat format;
+    private final ExecutorService loader;
+
+    /**
+     * 初始为空号段，第一次取号时同步租用
+     */
+    private volatile Segment current = new Segment(0L, 0L, 0L);
+
+    /**
+     * 正在预取或已经预取好的下一个号段，只在 this 上同步修改
+     */
+    private CompletableFuture<Segment> next;
+
+    public SegmentOrderNumberGenerator(IdSegmentMapper idSegmentMapper, TransactionTemplate transactionTemplate,
+                                       String bizTag, double preloadRatio, long leaseTimeoutMillis, ZoneId zone) {
+        this.idSegmentMapper = idSegmentMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.bizTag = bizTag;
+        this.preloadRatio = Math.min(Math.max(preloadRatio, 0.0), 1.0);
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+        this.format = new OrderNumberFormat(zone, DIGITS);
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-id-segment-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String nextOrderNumber(long shardKey) {
+        return format.format(System.currentTimeMillis(), nextId());
+    }
+
+    /**
+     * 取下一个ID，正常路径只有一次 CAS
+     */
+    private long nextId() {
+        while (true) {
+            Segment segment = current;
+            long id = segment.cursor.getAndIncrement();
+            if (id < segment.end) {
+                if (id == segment.preloadAt) {
+                    preload();
+                }
+                return id;
+            }
+            switchSegment(segment);
+        }
+    }
+
+    private synchronized void preload() {
+        if (next == null) {
+            next = CompletableFuture.supplyAsync(this::lease, loader);
+        }
+    }
+
+    /**
+     * 当前号段用完时切换到预取的号段，预取未开始则立即租用并等待
+     */
+    private synchronized void switchSegment(Segment exhausted) {
+        if (current != exhausted) {
+            // 其他线程已经切换过
+            return;
+        }
+        if (next == null) {
+            next = CompletableFuture.supplyAsync(this::lease, loader);
+        }
+        try {
+            current = next.get(leaseTimeoutMillis, TimeUnit.MILLISECONDS);
+            next = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待订单号段被中断", e);
+        } catch (ExecutionException e) {
+            // 失败的结果不保留，下次取号重新租用
+            next = null;
+            throw new IllegalStateException("租用订单号段失败: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            // 保留进行中的租用，下次取号继续等待它
+            throw new IllegalStateException("租用订单号段超时: " + leaseTimeoutMillis + "ms", e);
+        }
+    }
+
+    private Segment lease() {
+        IdSegment leased = transactionTemplate.execute(status -> {
+            if (idSegmentMapper.incrementMaxId(bizTag) <= 0) {
+                throw new IllegalStateException("号段不存在: " + bizTag);
+            }
+            return idSegmentMapper.findByBizTag(bizTag);
+        });
+        long end = leased.getMaxId();
+        long start = end - leased.getStep();
+        logger.info("租用订单号段: bizTag={}, 范围=[{}, {})", bizTag, start, end);
+        return new Segment(start, end, start + (long) (leased.getStep() * preloadRatio));
+    }
+
+    @Override
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * 一个号段 [start, end)，cursor 是下一个待发放的ID
+     */
+    private static final class Segment {
+        private final long end;
+        private final long preloadAt;
+        private final AtomicLong cursor;
+
+        private Segment(long start, long end, long preloadAt) {
+            this.end = end;
+            this.preloadAt = preloadAt;
+            this.cursor = new AtomicLong(start);
+        }
+    }
+}
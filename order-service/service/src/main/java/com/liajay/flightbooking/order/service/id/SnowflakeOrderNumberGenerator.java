@@ -0,0 +1,132 @@
+package com.liajay.flightbooking.order.service.id;
+
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花算法订单号生成器
+ *
+ * 63 位ID自高到低为：41 位毫秒时间戳（相对 epochMillis）| shardBits 位分片 | workerBits 位实例号 | 序列号。
+ * 分片取自用户ID，拿到订单号即可算出订单所在的用户分片，不需要查映射表；
+ * 实例号由配置指定，各实例必须不同。不依赖数据库，ID 按毫秒递增。
+ *
+ * 时钟回拨不超过 maxBackwardMillis 时继续使用上次的时间戳发号，序列号用完后等待时钟追上；
+ * 超过则拒绝发号，避免重复。
+ *
+ * @author liajay
+ */
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    private static final int TIMESTAMP_BITS = 41;
+
+    /**
+     * 分片、实例号、序列号共用的位数
+     */
+    private static final int NODE_AND_SEQUENCE_BITS = 63 - TIMESTAMP_BITS;
+
+    private static final int MIN_SEQUENCE_BITS = 8;
+
+    /**
+     * 定长19位，同一天内订单号的字典序与ID大小一致
+     */
+    private static final int DIGITS = 19;
+
+    private final long epochMillis;
+    private final int shardBits;
+    private final long workerId;
+    private final int sequenceBits;
+    private final long sequenceMask;
+    private final long maxBackwardMillis;
+    private final OrderNumberFormat format;
+    private final LongSupplier clock;
+
+    /**
+     * 上次发号的状态：时间戳 << sequenceBits | 序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeOrderNumberGenerator(long epochMillis, int shardBits, int workerBits, long workerId,
+                                         long maxBackwardMillis, ZoneId zone) {
+        this(epochMillis, shardBits, workerBits, workerId, maxBackwardMillis, zone, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock 当前毫秒时间，测试时可替换以模拟时钟回拨
+     */
+    SnowflakeOrderNumberGenerator(long epochMillis, int shardBits, int workerBits, long workerId,
+                                  long maxBackwardMillis, ZoneId zone, LongSupplier clock) {
+        int sequenceBits = NODE_AND_SEQUENCE_BITS - shardBits - workerBits;
+        if (shardBits < 0 || workerBits < 0 || sequenceBits < MIN_SEQUENCE_BITS) {
+            throw new IllegalArgumentException("分片位数和实例号位数之和不能超过" + (NODE_AND_SEQUENCE_BITS - MIN_SEQUENCE_BITS));
+        }
+        if (workerId < 0 || workerId >= 1L << workerBits) {
+            throw new IllegalArgumentException("实例号必须在0到" + ((1L << workerBits) - 1) + "之间: " + workerId);
+        }
+        if (epochMillis > clock.getAsLong()) {
+            throw new IllegalArgumentException("起始时间不能晚于当前时间");
+        }
+        this.epochMillis = epochMillis;
+        this.shardBits = shardBits;
+        this.workerId = workerId;
+        this.sequenceBits = sequenceBits;
+        this.sequenceMask = (1L << sequenceBits) - 1;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.format = new OrderNumberFormat(zone, DIGITS);
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextOrderNumber(long shardKey) {
+        long id = nextId(shardKey);
+        return format.format(epochMillis + (id >>> NODE_AND_SEQUENCE_BITS), id);
+    }
+
+    private long nextId(long shardKey) {
+        while (true) {
+            long last = state.get();
+            long lastTimestamp = last >>> sequenceBits;
+            long now = clock.getAsLong() - epochMillis;
+            long next;
+            if (now > lastTimestamp) {
+                next = now << sequenceBits;
+            } else if (lastTimestamp - now > maxBackwardMillis) {
+                throw new IllegalStateException("时钟回拨" + (lastTimestamp - now) + "ms，拒绝生成订单号");
+            } else if ((last & sequenceMask) < sequenceMask) {
+                // 同一毫秒或小幅回拨，沿用上次的时间戳
+                next = last + 1;
+            } else {
+                // 本毫秒序列号用完，等下一毫秒
+                Thread.onSpinWait();
+                continue;
+            }
+            if (state.compareAndSet(last, next)) {
+                long timestamp = next >>> sequenceBits;
+                if (timestamp >>> TIMESTAMP_BITS != 0) {
+                    throw new IllegalStateException("时间戳超出" + TIMESTAMP_BITS + "位，请调整起始时间");
+                }
+                return timestamp << NODE_AND_SEQUENCE_BITS
+                        | shardOf(shardKey) << (NODE_AND_SEQUENCE_BITS - shardBits)
+                        | workerId << sequenceBits
+                        | (next & sequenceMask);
+            }
+        }
+    }
+
+    /**
+     * 从订单号中取出分片号
+     */
+    public long shardOfOrderNumber(String orderNumber) {
+        long id;
+        try {
+            id = Long.parseLong(orderNumber.substring(orderNumber.length() - DIGITS));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的订单号: " + orderNumber, e);
+        }
+        return (id >>> (NODE_AND_SEQUENCE_BITS - shardBits)) & ((1L << shardBits) - 1);
+    }
+
+    private long shardOf(long shardKey) {
+        return Math.floorMod(shardKey, 1L << shardBits);
+    }
+}
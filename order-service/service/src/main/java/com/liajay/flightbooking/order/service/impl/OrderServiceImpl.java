@@ -7,14 +7,17 @@ import com.liajay.flightbooking.order.service.OrderService;
 import com.liajay.flightbooking.order.service.dto.CreateOrderDTO;
 import com.liajay.flightbooking.order.service.dto.CreateOrderWithSeatAllocationDTO;
 import com.liajay.flightbooking.order.service.dto.OrderQueryResultDTO;
+import com.liajay.flightbooking.order.service.dto.OrderTicketDTO;
+import com.liajay.flightbooking.order.service.id.OrderNumberGenerator;
+import com.liajay.flightbooking.order.service.intake.OrderIntakePipeline;
 import com.liajay.flightbooking.order.util.InventoryServiceClient;
+import com.liajay.flightbooking.order.util.SeekCursor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -27,20 +30,22 @@ public class OrderServiceImpl implements OrderService {
     
     private final OrderMapper orderMapper;
     private final InventoryServiceClient inventoryServiceClient;
-    
-    // 简单的订单号生成器（实际项目中可能需要更复杂的分布式ID生成策略）
-    private static final AtomicLong ORDER_NUMBER_COUNTER = new AtomicLong(1);
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderIntakePipeline orderIntakePipeline;
 
-    public OrderServiceImpl(OrderMapper orderMapper, InventoryServiceClient inventoryServiceClient) {
+    public OrderServiceImpl(OrderMapper orderMapper, InventoryServiceClient inventoryServiceClient,
+                            OrderNumberGenerator orderNumberGenerator, OrderIntakePipeline orderIntakePipeline) {
         this.orderMapper = orderMapper;
         this.inventoryServiceClient = inventoryServiceClient;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.orderIntakePipeline = orderIntakePipeline;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public OrderVO createOrder(CreateOrderDTO createOrderDTO) {
         Order order = new Order();
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(orderNumberGenerator.nextOrderNumber(createOrderDTO.getUserId()));
         order.setUserId(createOrderDTO.getUserId());
         order.setFlightNumber(createOrderDTO.getFlightNumber());
         order.setSeatNumber(createOrderDTO.getSeatNumber());
@@ -84,14 +89,38 @@ public class OrderServiceImpl implements OrderService {
         return new OrderQueryResultDTO(orderVOs, total, page + 1, size);
     }
     
-    /**
-     * 生成订单编号
-     * 格式：ORD + 年月日 + 6位递增序号
-     */
-    private String generateOrderNumber() {
-        String dateStr = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long counter = ORDER_NUMBER_COUNTER.getAndIncrement();
-        return String.format("ORD%s%06d", dateStr, counter % 1000000);
+    @Override
+    public OrderQueryResultDTO getOrdersByUserIdWithCursor(Long userId, String cursor, int size, boolean includeTotal) {
+        if (size < 1) {
+            throw new IllegalArgumentException("每页大小不能小于1");
+        }
+        LocalDateTime beforeCreateTime = null;
+        Long beforeId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] keys = SeekCursor.decode(cursor, 2);
+            try {
+                beforeCreateTime = LocalDateTime.parse(keys[0]);
+                beforeId = Long.valueOf(keys[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("无效的分页游标: " + cursor, e);
+            }
+        }
+        
+        // 多取一条判断是否还有下一页，代价与第一页相同
+        List<Order> orders = orderMapper.findByUserIdBefore(userId, beforeCreateTime, beforeId, size + 1);
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = orders.subList(0, size);
+            Order last = orders.get(size - 1);
+            nextCursor = SeekCursor.encode(last.getGmtCreate(), last.getId());
+        }
+        
+        Long total = includeTotal ? orderMapper.countByUserId(userId) : null;
+        
+        List<OrderVO> orderVOs = orders.stream()
+                .map(this::convertToVO)
+                .collect(Collectors.toList());
+        return OrderQueryResultDTO.fromCursorPage(orderVOs, size, nextCursor, total);
     }
     
     /**
@@ -120,7 +149,7 @@ public class OrderServiceImpl implements OrderService {
         
         // 创建订单
         Order order = new Order();
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(orderNumberGenerator.nextOrderNumber(createOrderDTO.getUserId()));
         order.setUserId(createOrderDTO.getUserId());
         order.setFlightNumber(createOrderDTO.getFlightNumber());
         order.setSeatNumber(seatInfo.getSeatNumber());
@@ -134,4 +163,14 @@ public class OrderServiceImpl implements OrderService {
         return convertToVO(order);
     }
 
+    @Override
+    public OrderTicketDTO submitOrderWithSeatAllocation(CreateOrderWithSeatAllocationDTO createOrderDTO) {
+        return orderIntakePipeline.submit(createOrderDTO);
+    }
+
+    @Override
+    public OrderTicketDTO getOrderTicket(String ticketId, Long userId) {
+        return orderIntakePipeline.getTicket(ticketId, userId);
+    }
+
 }
@@ -0,0 +1,319 @@
+package com.liajay.flightbooking.order.service.intake;
+
+import com.liajay.flightbooking.order.dal.dataobject.Order;
+import com.liajay.flightbooking.order.dal.dataobject.OrderTicket;
+import com.liajay.flightbooking.order.dal.mapper.OrderMapper;
+import com.liajay.flightbooking.order.dal.mapper.OrderTicketMapper;
+import com.liajay.flightbooking.order.service.dto.CreateOrderWithSeatAllocationDTO;
+import com.liajay.flightbooking.order.service.dto.OrderTicketDTO;
+import com.liajay.flightbooking.order.service.id.OrderNumberGenerator;
+import com.liajay.flightbooking.order.util.InventoryServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步下单流水线
+ *
+ * 提交时只校验参数并把请求写入 order_tickets 表，立即返回工单号，不调用库存服务；
+ * 工单表就是持久化队列，服务重启不丢请求，流量高峰时请求在表中排队而不是占着 Tomcat 线程和连接等待。
+ *
+ * 每个消费者线程用 FOR UPDATE SKIP LOCKED 一次领取 batchSize 个工单，多个实例的消费者互不阻塞。
+ * 领取到的工单按航班分组，以工单号作为请求键调用库存服务批量分配座位，订单用一条多行 INSERT 写入，
+ * 并在同一事务中回写工单结果。处理出错的工单放回队列重试，超过 maxAttempts 次标记为失败；
+ * 实例宕机遗留的处理中工单超过 processingTimeoutSeconds 后由其他实例放回队列。
+ * 每次领取生成新的令牌，回写结果时要求令牌仍然匹配；批次处理超时、工单已被放回或重新领取时整批回滚，
+ * 不会为同一个工单重复创建订单。
+ *
+ * 座位分配在库存服务中独立提交。库存服务按请求键记住已分配的座位，调用超时、订单写入失败后重试
+ * 拿回的是同一个座位，不会重复占用。工单最终失败时在状态提交后标记待归还座位，
+ * 再按工单号调用库存服务归还，归还失败的由定时任务重试。
+ *
+ * @author liajay
+ */
+public class OrderIntakePipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakePipeline.class);
+
+    private static final String NO_SEAT_MESSAGE = "该航班没有可用座位";
+
+    /**
+     * 库存服务单次按请求键分配的最大座位数
+     */
+    private static final int MAX_SEATS_PER_ALLOCATION = 50;
+
+    private final OrderTicketMapper orderTicketMapper;
+    private final OrderMapper orderMapper;
+    private final InventoryServiceClient inventoryServiceClient;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long processingTimeoutSeconds;
+    private final ScheduledExecutorService executor;
+    private volatile boolean running = true;
+
+    public OrderIntakePipeline(OrderTicketMapper orderTicketMapper, OrderMapper orderMapper,
+                               InventoryServiceClient inventoryServiceClient, OrderNumberGenerator orderNumberGenerator,
+                               TransactionTemplate transactionTemplate, int consumers, int batchSize,
+                               long pollIntervalMillis, int maxAttempts, long processingTimeoutSeconds) {
+        this.orderTicketMapper = orderTicketMapper;
+        this.orderMapper = orderMapper;
+        this.inventoryServiceClient = inventoryServiceClient;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.processingTimeoutSeconds = processingTimeoutSeconds;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(consumers + 1, runnable -> {
+            Thread thread = new Thread(runnable, "order-intake-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // consumers 为0时本实例只接收请求，由其他实例消费
+        for (int i = 0; i < consumers; i++) {
+            executor.scheduleWithFixedDelay(this::drain, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        long sweepInterval = Math.max(1L, processingTimeoutSeconds / 2);
+        executor.scheduleWithFixedDelay(this::sweep, sweepInterval, sweepInterval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 提交下单请求
+     *
+     * @return 排队中的工单
+     */
+    public OrderTicketDTO submit(CreateOrderWithSeatAllocationDTO request) {
+        if (request.getUserId() == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+        if (request.getFlightNumber() == null || request.getFlightNumber().trim().isEmpty()) {
+            throw new IllegalArgumentException("航班号不能为空");
+        }
+        OrderTicket ticket = new OrderTicket(UUID.randomUUID().toString().replace("-", ""),
+                request.getUserId(), request.getFlightNumber().trim());
+        if (orderTicketMapper.insert(ticket) <= 0) {
+            throw new IllegalStateException("提交下单请求失败");
+        }
+        ticket.setGmtCreate(LocalDateTime.now());
+        return convertToDTO(ticket);
+    }
+
+    /**
+     * 查询工单，只能查询自己的工单
+     *
+     * @return 工单信息，不存在或不属于该用户时返回null
+     */
+    public OrderTicketDTO getTicket(String ticketId, Long userId) {
+        OrderTicket ticket = orderTicketMapper.findByTicketId(ticketId);
+        if (ticket == null || !ticket.getUserId().equals(userId)) {
+            return null;
+        }
+        return convertToDTO(ticket);
+    }
+
+    /**
+     * 停止领取新工单，等待正在处理的批次完成，中断会让库存服务调用失败
+     */
+    public void shutdown() {
+        running = false;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 连续领取并处理工单，直到队列中的工单不足一批
+     */
+    private void drain() {
+        try {
+            while (running && processBatch() == batchSize) {
+                // 队列还有积压，继续领取
+            }
+        } catch (RuntimeException e) {
+            // 异常不能抛出，否则定时任务会被取消
+            logger.error("处理下单工单失败", e);
+        }
+    }
+
+    /**
+     * 领取并处理一批工单，测试时直接调用
+     *
+     * @return 领取到的工单数
+     */
+    int processBatch() {
+        String claimToken = UUID.randomUUID().toString().replace("-", "");
+        List<OrderTicket> tickets = transactionTemplate.execute(status -> {
+            List<OrderTicket> locked = orderTicketMapper.lockPending(batchSize);
+            if (!locked.isEmpty()) {
+                orderTicketMapper.markProcessing(ids(locked), claimToken);
+            }
+            return locked;
+        });
+        if (tickets == null || tickets.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<OrderTicket>> byFlight = new LinkedHashMap<>();
+        for (OrderTicket ticket : tickets) {
+            byFlight.computeIfAbsent(ticket.getFlightNumber(), key -> new ArrayList<>()).add(ticket);
+        }
+        for (Map.Entry<String, List<OrderTicket>> entry : byFlight.entrySet()) {
+            try {
+                processFlight(entry.getKey(), entry.getValue(), claimToken);
+            } catch (RuntimeException e) {
+                logger.error("处理下单工单失败，放回队列: 航班={}, 工单数={}", entry.getKey(), entry.getValue().size(), e);
+                releaseClaims(entry.getValue(), claimToken);
+            }
+        }
+        return tickets.size();
+    }
+
+    private void processFlight(String flightNumber, List<OrderTicket> tickets, String claimToken) {
+        Map<String, InventoryServiceClient.SeatInfo> seats = allocateSeats(flightNumber, tickets);
+        List<Order> orders = new ArrayList<>(seats.size());
+        List<OrderTicket> succeeded = new ArrayList<>(seats.size());
+        List<OrderTicket> failed = new ArrayList<>();
+        for (OrderTicket ticket : tickets) {
+            InventoryServiceClient.SeatInfo seat = seats.get(ticket.getTicketId());
+            if (seat == null) {
+                failed.add(ticket);
+                continue;
+            }
+            Order order = new Order();
+            order.setOrderNumber(orderNumberGenerator.nextOrderNumber(ticket.getUserId()));
+            order.setUserId(ticket.getUserId());
+            order.setFlightNumber(flightNumber);
+            order.setSeatNumber(seat.getSeatNumber());
+            order.setAmount(seat.getPrice());
+            orders.add(order);
+            ticket.setOrderNumber(order.getOrderNumber());
+            succeeded.add(ticket);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            int marked = 0;
+            if (!orders.isEmpty()) {
+                orderMapper.insertBatch(orders);
+                marked += orderTicketMapper.markSucceeded(succeeded, claimToken);
+            }
+            if (!failed.isEmpty()) {
+                marked += orderTicketMapper.markFailed(ids(failed), claimToken, NO_SEAT_MESSAGE);
+            }
+            // 令牌不匹配说明批次处理超时，工单已被放回或由其他消费者领取，回滚订单写入
+            if (marked != tickets.size()) {
+                throw new IllegalStateException("工单已被放回队列或重新领取，放弃本次处理结果");
+            }
+        });
+        logger.debug("处理下单工单完成: 航班={}, 成功={}, 失败={}", flightNumber, succeeded.size(), failed.size());
+    }
+
+    /**
+     * 以工单号作为请求键为一批工单分配座位，重试时库存服务返回之前分配的座位
+     * 调用结果未知时抛出异常，整组工单放回队列，不会改为逐个分配
+     *
+     * @return 工单号 -> 座位，没有分到座位的工单不在结果中
+     */
+    private Map<String, InventoryServiceClient.SeatInfo> allocateSeats(String flightNumber, List<OrderTicket> tickets) {
+        Map<String, InventoryServiceClient.SeatInfo> seats = new HashMap<>();
+        for (int from = 0; from < tickets.size(); from += MAX_SEATS_PER_ALLOCATION) {
+            List<String> requestKeys = new ArrayList<>(MAX_SEATS_PER_ALLOCATION);
+            for (OrderTicket ticket : tickets.subList(from, Math.min(from + MAX_SEATS_PER_ALLOCATION, tickets.size()))) {
+                requestKeys.add(ticket.getTicketId());
+            }
+            seats.putAll(inventoryServiceClient.allocateSeats(flightNumber, requestKeys));
+        }
+        return seats;
+    }
+
+    /**
+     * 放回处理出错的工单，超过重试次数的工单失败并归还座位
+     */
+    private void releaseClaims(List<OrderTicket> tickets, String claimToken) {
+        List<Long> ids = ids(tickets);
+        if (orderTicketMapper.releaseClaims(ids, claimToken, maxAttempts) < ids.size()) {
+            // 工单已被放回，如果已经失败，本次处理分到的座位需要再归还一次
+            orderTicketMapper.markSeatReleasePending(ids);
+        }
+        releaseFailedSeats();
+    }
+
+    private void sweep() {
+        try {
+            int released = orderTicketMapper.releaseStaleClaims(processingTimeoutSeconds, maxAttempts);
+            if (released > 0) {
+                logger.warn("放回处理超时的下单工单: {}个", released);
+            }
+        } catch (RuntimeException e) {
+            logger.error("放回处理超时的下单工单失败", e);
+        }
+        releaseFailedSeats();
+    }
+
+    /**
+     * 按工单号归还失败工单分到的座位，归还成功后清除标记，测试时直接调用
+     */
+    void releaseFailedSeats() {
+        try {
+            List<OrderTicket> pending;
+            do {
+                pending = orderTicketMapper.findSeatReleasePending(MAX_SEATS_PER_ALLOCATION);
+                if (pending.isEmpty()) {
+                    return;
+                }
+                List<String> requestKeys = new ArrayList<>(pending.size());
+                for (OrderTicket ticket : pending) {
+                    requestKeys.add(ticket.getTicketId());
+                }
+                int released = inventoryServiceClient.releaseSeats(requestKeys);
+                orderTicketMapper.clearSeatReleasePending(ids(pending));
+                if (released > 0) {
+                    logger.info("归还失败工单的座位: {}个", released);
+                }
+            } while (pending.size() == MAX_SEATS_PER_ALLOCATION);
+        } catch (RuntimeException e) {
+            // 标记保留，下次定时任务重试
+            logger.error("归还失败工单的座位失败", e);
+        }
+    }
+
+    private static List<Long> ids(List<OrderTicket> tickets) {
+        List<Long> ids = new ArrayList<>(tickets.size());
+        for (OrderTicket ticket : tickets) {
+            ids.add(ticket.getId());
+        }
+        return ids;
+    }
+
+    private static OrderTicketDTO convertToDTO(OrderTicket ticket) {
+        OrderTicketDTO dto = new OrderTicketDTO();
+        dto.setTicketId(ticket.getTicketId());
+        dto.setFlightNumber(ticket.getFlightNumber());
+        dto.setStatus(ticket.getStatus().name());
+        dto.setStatusDescription(ticket.getStatus().getDescription());
+        dto.setOrderNumber(ticket.getOrderNumber());
+        dto.setErrorMessage(ticket.getErrorMessage());
+        dto.setSubmitTime(ticket.getGmtCreate());
+        return dto;
+    }
+}
@@ -9,6 +9,11 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -21,6 +26,21 @@ import java.util.regex.Pattern;
 @Component
 public class InventoryServiceClient {
     
+    /**
+     * 匹配响应中的单个座位对象（座位对象内没有嵌套对象）
+     */
+    private static final Pattern SEAT_OBJECT_PATTERN = Pattern.compile("\\{[^{}]*\"seatNumber\"[^{}]*\\}");
+
+    /**
+     * 匹配座位对象中的分配请求键
+     */
+    private static final Pattern ALLOCATION_KEY_PATTERN = Pattern.compile("\"allocationKey\":\"([^\"]+)\"");
+
+    /**
+     * 匹配归还座位响应中的座位数
+     */
+    private static final Pattern RELEASED_COUNT_PATTERN = Pattern.compile("\"data\":(\\d+)");
+    
     private final HttpClient httpClient;
     private final String inventoryServiceBaseUrl;
     
@@ -65,49 +85,200 @@ public class InventoryServiceClient {
     }
     
     /**
-     * 简单解析JSON响应
+     * 为指定航班一次分配多个座位
+     * 
+     * @param flightNumber 航班号
+     * @param count 座位数
+     * @return 分配的座位信息列表，如果失败或可用座位不足则返回空列表
      */
-    private SeatInfo parseJsonResponse(String jsonResponse) {
+    public List<SeatInfo> allocateSeats(String flightNumber, int count) {
         try {
-            // 检查是否成功
-            if (!jsonResponse.contains("\"success\":true")) {
-                return null;
+            String url = inventoryServiceBaseUrl + "/api/seats/allocate/" + flightNumber + "/batch?count=" + count;
+            
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(url))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            
+            HttpResponse<String> response = httpClient.send(request, 
+                    HttpResponse.BodyHandlers.ofString());
+            
+            if (response.statusCode() == 200) {
+                return parseJsonListResponse(response.body());
             }
             
-            // 提取座位信息
+            return Collections.emptyList();
+        } catch (IOException | InterruptedException e) {
+            System.err.println("调用库存服务批量分配座位失败: " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * 按请求键为指定航班分配座位，同一请求键重复调用返回同一个座位
+     * 调用结果未知（超时、网络错误、服务端出错）时抛出异常，调用方用同一批请求键重试即可
+     *
+     * @param flightNumber 航班号
+     * @param requestKeys 请求键，只能包含字母和数字
+     * @return 请求键 -> 分配的座位，没有分配到座位的请求键不在结果中
+     */
+    public Map<String, SeatInfo> allocateSeats(String flightNumber, List<String> requestKeys) {
+        HttpResponse<String> response;
+        try {
+            String url = inventoryServiceBaseUrl + "/api/seats/allocate/" + flightNumber + "/keyed";
+
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(url))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(toJsonArray(requestKeys)))
+                    .build();
+
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException("调用库存服务按请求键分配座位失败: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("调用库存服务按请求键分配座位被中断", e);
+        }
+
+        if (response.statusCode() != 200 || !response.body().contains("\"success\":true")) {
+            throw new IllegalStateException("库存服务按请求键分配座位失败: status=" + response.statusCode()
+                    + ", body=" + response.body());
+        }
+        Map<String, SeatInfo> seats = new LinkedHashMap<>();
+        Matcher seatMatcher = SEAT_OBJECT_PATTERN.matcher(response.body());
+        while (seatMatcher.find()) {
+            Matcher keyMatcher = ALLOCATION_KEY_PATTERN.matcher(seatMatcher.group());
+            SeatInfo seatInfo = parseSeatInfo(seatMatcher.group());
+            if (seatInfo == null || !keyMatcher.find()) {
+                throw new IllegalStateException("无法解析库存服务返回的座位: " + seatMatcher.group());
+            }
+            seats.put(keyMatcher.group(1), seatInfo);
+        }
+        return seats;
+    }
+
+    /**
+     * 归还按请求键分配的座位，重复调用不会重复归还
+     * 调用结果未知时抛出异常，调用方用同一批请求键重试即可
+     *
+     * @param requestKeys 请求键，只能包含字母和数字
+     * @return 归还的座位数
+     */
+    public int releaseSeats(List<String> requestKeys) {
+        HttpResponse<String> response;
+        try {
+            String url = inventoryServiceBaseUrl + "/api/seats/release/keyed";
+
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(url))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(toJsonArray(requestKeys)))
+                    .build();
+
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException("调用库存服务归还座位失败: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("调用库存服务归还座位被中断", e);
+        }
+
+        Matcher dataMatcher = RELEASED_COUNT_PATTERN.matcher(response.body());
+        if (response.statusCode() != 200 || !response.body().contains("\"success\":true") || !dataMatcher.find()) {
+            throw new IllegalStateException("库存服务归还座位失败: status=" + response.statusCode()
+                    + ", body=" + response.body());
+        }
+        return Integer.parseInt(dataMatcher.group(1));
+    }
+
+    /**
+     * 请求键列表转为JSON数组
+     */
+    private static String toJsonArray(List<String> requestKeys) {
+        StringBuilder body = new StringBuilder("[");
+        for (String requestKey : requestKeys) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append('"').append(requestKey).append('"');
+        }
+        return body.append(']').toString();
+    }
+
+    /**
+     * 简单解析JSON响应
+     */
+    private SeatInfo parseJsonResponse(String jsonResponse) {
+        // 检查是否成功
+        if (!jsonResponse.contains("\"success\":true")) {
+            return null;
+        }
+        return parseSeatInfo(jsonResponse);
+    }
+    
+    /**
+     * 简单解析座位列表JSON响应
+     */
+    private List<SeatInfo> parseJsonListResponse(String jsonResponse) {
+        if (!jsonResponse.contains("\"success\":true")) {
+            return Collections.emptyList();
+        }
+        
+        List<SeatInfo> seats = new ArrayList<>();
+        Matcher seatMatcher = SEAT_OBJECT_PATTERN.matcher(jsonResponse);
+        while (seatMatcher.find()) {
+            SeatInfo seatInfo = parseSeatInfo(seatMatcher.group());
+            if (seatInfo == null) {
+                return Collections.emptyList();
+            }
+            seats.add(seatInfo);
+        }
+        return seats;
+    }
+    
+    /**
+     * 从JSON片段中提取座位信息
+     */
+    private SeatInfo parseSeatInfo(String json) {
+        try {
             SeatInfo seatInfo = new SeatInfo();
             
             // 提取ID
             Pattern idPattern = Pattern.compile("\"id\":(\\d+)");
-            Matcher idMatcher = idPattern.matcher(jsonResponse);
+            Matcher idMatcher = idPattern.matcher(json);
             if (idMatcher.find()) {
                 seatInfo.setId(Long.parseLong(idMatcher.group(1)));
             }
             
             // 提取航班号
             Pattern flightPattern = Pattern.compile("\"flightNumber\":\"([^\"]+)\"");
-            Matcher flightMatcher = flightPattern.matcher(jsonResponse);
+            Matcher flightMatcher = flightPattern.matcher(json);
             if (flightMatcher.find()) {
                 seatInfo.setFlightNumber(flightMatcher.group(1));
             }
             
             // 提取座位号
             Pattern seatPattern = Pattern.compile("\"seatNumber\":\"([^\"]+)\"");
-            Matcher seatMatcher = seatPattern.matcher(jsonResponse);
+            Matcher seatMatcher = seatPattern.matcher(json);
             if (seatMatcher.find()) {
                 seatInfo.setSeatNumber(seatMatcher.group(1));
             }
             
             // 提取舱位等级
             Pattern classPattern = Pattern.compile("\"seatClass\":\"([^\"]+)\"");
-            Matcher classMatcher = classPattern.matcher(jsonResponse);
+            Matcher classMatcher = classPattern.matcher(json);
             if (classMatcher.find()) {
                 seatInfo.setSeatClass(classMatcher.group(1));
             }
             
             // 提取价格
             Pattern pricePattern = Pattern.compile("\"price\":([\\d.]+)");
-            Matcher priceMatcher = pricePattern.matcher(jsonResponse);
+            Matcher priceMatcher = pricePattern.matcher(json);
             if (priceMatcher.find()) {
                 seatInfo.setPrice(new BigDecimal(priceMatcher.group(1)));
             }
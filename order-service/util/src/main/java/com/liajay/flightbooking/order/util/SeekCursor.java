@@ -0,0 +1,57 @@
+package com.liajay.flightbooking.order.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.StringJoiner;
+
+/**
+ * 游标分页的续页令牌
+ *
+ * 令牌内容是上一页最后一行的排序键，经 Base64URL 编码后对调用方不透明。
+ * 下一页按 (排序键) &gt; (令牌中的值) 直接定位，代价与第一页相同。
+ *
+ * @author liajay
+ */
+public final class SeekCursor {
+
+    /**
+     * 字段分隔符，取不会出现在时间和ID中的控制字符
+     */
+    private static final String SEPARATOR = "\u001F";
+
+    private SeekCursor() {
+    }
+
+    /**
+     * 编码排序键
+     */
+    public static String encode(Object... keys) {
+        StringJoiner joiner = new StringJoiner(SEPARATOR);
+        for (Object key : keys) {
+            joiner.add(String.valueOf(key));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码排序键
+     *
+     * @param cursor        续页令牌
+     * @param expectedParts 排序键个数
+     * @throws IllegalArgumentException 令牌格式不正确
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标: " + cursor, e);
+        }
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException("无效的分页游标: " + cursor);
+        }
+        return parts;
+    }
+}
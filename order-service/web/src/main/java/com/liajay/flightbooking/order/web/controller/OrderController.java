@@ -5,6 +5,7 @@ import com.liajay.flightbooking.order.service.OrderService;
 import com.liajay.flightbooking.order.service.dto.CreateOrderDTO;
 import com.liajay.flightbooking.order.service.dto.CreateOrderWithSeatAllocationDTO;
 import com.liajay.flightbooking.order.service.dto.OrderQueryResultDTO;
+import com.liajay.flightbooking.order.service.dto.OrderTicketDTO;
 import com.liajay.flightbooking.order.util.UserContextUtil;
 import com.liajay.flightbooking.order.web.request.CreateOrderRequest;
 import com.liajay.flightbooking.order.web.request.CreateOrderWithSeatAllocationRequest;
@@ -75,15 +76,24 @@ public class OrderController {
      *
      * @param page 页码（从0开始，默认0）
      * @param size 页大小（默认10）
+     * @param pagingMode 分页模式：offset（默认）或 cursor
+     * @param cursor 游标分页的续页令牌，取自上一页结果的 nextCursor
+     * @param includeTotal 游标分页时是否统计订单总数
      * @return 订单列表
      */
     @GetMapping("/user")
     public HttpResponse<OrderQueryResultDTO> getOrdersByUserId(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "offset") String pagingMode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         try {
             Long userId = UserContextUtil.getCurrentUserId();
-            OrderQueryResultDTO result = orderService.getOrdersByUserId(userId, page, size);
+            boolean cursorMode = "cursor".equalsIgnoreCase(pagingMode) || (cursor != null && !cursor.isEmpty());
+            OrderQueryResultDTO result = cursorMode
+                    ? orderService.getOrdersByUserIdWithCursor(userId, cursor, size, includeTotal)
+                    : orderService.getOrdersByUserId(userId, page, size);
             return HttpResponse.success(result);
         } catch (Exception e) {
             return HttpResponse.error("查询订单列表失败：" + e.getMessage());
@@ -110,4 +120,44 @@ public class OrderController {
             return HttpResponse.error("创建订单失败：" + e.getMessage());
         }
     }
+
+    /**
+     * 异步创建订单并自动分配座位，请求排队后立即返回工单号
+     * 
+     * @param request 创建订单请求
+     * @return 排队中的工单，通过 /api/orders/tickets/{ticketId} 查询结果
+     */
+    @PostMapping("/with-seat-allocation/async")
+    public HttpResponse<OrderTicketDTO> submitOrderWithSeatAllocation(@Valid @RequestBody CreateOrderWithSeatAllocationRequest request) {
+        try {
+            CreateOrderWithSeatAllocationDTO createOrderDTO = new CreateOrderWithSeatAllocationDTO(
+                    UserContextUtil.getCurrentUserId(),
+                    request.getFlightNumber()
+            );
+            
+            OrderTicketDTO ticket = orderService.submitOrderWithSeatAllocation(createOrderDTO);
+            return HttpResponse.success(ticket);
+        } catch (Exception e) {
+            return HttpResponse.error("提交订单失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询异步下单结果
+     * 
+     * @param ticketId 工单号
+     * @return 工单状态，成功时包含订单编号
+     */
+    @GetMapping("/tickets/{ticketId}")
+    public HttpResponse<OrderTicketDTO> getOrderTicket(@PathVariable String ticketId) {
+        try {
+            OrderTicketDTO ticket = orderService.getOrderTicket(ticketId, UserContextUtil.getCurrentUserId());
+            if (ticket == null) {
+                return HttpResponse.error("工单不存在");
+            }
+            return HttpResponse.success(ticket);
+        } catch (Exception e) {
+            return HttpResponse.error("查询工单失败：" + e.getMessage());
+        }
+    }
 }